@@ -18,27 +18,39 @@
 
 package com.sun.xml.fastinfoset;
 
+import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
 import com.sun.xml.fastinfoset.alphabet.BuiltInRestrictedAlphabets;
 import com.sun.xml.fastinfoset.org.apache.xerces.util.XMLChar;
+import com.sun.xml.fastinfoset.sax.AttributesHolder;
 import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
 import com.sun.xml.fastinfoset.util.ContiguousCharArrayArray;
 import com.sun.xml.fastinfoset.util.DuplicateAttributeVerifier;
+import com.sun.xml.fastinfoset.util.PathFilter;
 import com.sun.xml.fastinfoset.util.PrefixArray;
 import com.sun.xml.fastinfoset.util.QualifiedNameArray;
 import com.sun.xml.fastinfoset.util.StringArray;
 import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
 
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
 
 import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
 import org.jvnet.fastinfoset.FastInfosetException;
 import org.jvnet.fastinfoset.FastInfosetParser;
 
@@ -138,6 +150,40 @@ public abstract class Decoder implements FastInfosetParser {
      */
     private boolean _vIsInternal;
     
+    /**
+     * True if the dynamic tables of the vocabulary persist across
+     * consecutive documents.
+     */
+    private boolean _persistentVocabulary;
+    
+    /**
+     * The number of documents decoded since the persistent vocabulary was
+     * reset, including the current document.
+     */
+    private int _persistentVocabularyDocuments;
+    
+    /**
+     * The preset dictionary of deflate compressed documents, or null.
+     */
+    private byte[] _deflateDictionary;
+    
+    /**
+     * The inflater, reused for each compressed document.
+     */
+    private Inflater _inflater;
+    
+    /**
+     * The maximum number of octets of character content that is decoded
+     * at once, or 0 if character content is always decoded at once.
+     */
+    private int _charactersChunkSize;
+    
+    /**
+     * True if literal attribute values that are not added to the attribute
+     * value table are decoded when first read.
+     */
+    private boolean _lazyAttributeValues;
+    
     /**
      * The list of Notation Information Items that are part of the
      * Document Information Item.
@@ -210,6 +256,14 @@ public abstract class Decoder implements FastInfosetParser {
      */
     protected int _integer;
     
+    /**
+     * The indexes of the entries of each table of the vocabulary, as
+     * indexed by {@link ParserVocabulary#tables}, that are referred to by
+     * the items that are skipped, and by the elements that are decoded by
+     * the StAX parser, or null if references are not recorded.
+     */
+    protected BitSet[] _references;
+    
     /**
      * The vocabulary table index of identifying string or the identifier of
      * an encoding algorithm or restricted alphabet.
@@ -257,6 +311,28 @@ public abstract class Decoder implements FastInfosetParser {
      */
     protected int _charBufferLength;
     
+    /**
+     * The number of octets of the current character content that remain
+     * to be decoded in chunks.
+     */
+    private int _charactersChunkRemaining;
+    
+    /**
+     * The number of octets of the current octet stream that remain to be
+     * read.
+     */
+    private int _octetsStreamRemaining;
+    
+    /**
+     * The matcher of the path filter, or null if all elements are reported.
+     */
+    protected PathFilter.Matcher _pathMatcher;
+    
+    /**
+     * True if the character content decoded in chunks is encoded in UTF-8.
+     */
+    private boolean _charactersChunkUtf8;
+    
     /**
      * Helper class that checks for duplicate attribute information items.
      */
@@ -352,11 +428,128 @@ public abstract class Decoder implements FastInfosetParser {
     
 // End FastInfosetParser interface
     
+    /**
+     * Set the persistent vocabulary mode.
+     * <p>
+     * In persistent vocabulary mode the dynamic tables of the vocabulary are
+     * not cleared for each document but are retained across consecutive
+     * documents. The tables are cleared when a document is decoded whose
+     * additional data contains an item identified by
+     * {@link EncodingConstants#PERSISTENT_VOCABULARY_RESET_URI}, as encoded
+     * by an {@link Encoder} in persistent vocabulary mode. A document whose
+     * additional data contains an item identified by
+     * {@link EncodingConstants#PERSISTENT_VOCABULARY_CHECKPOINT_URI} fails to
+     * be decoded if the number of documents decoded since the reset is not
+     * the number of documents encoded since the reset.
+     * <p>
+     * The documents may be decoded one after another from the same stream.
+     * Octets of the stream read beyond the end of a document, compressed or
+     * not, are retained when {@link #setInputStream} is next invoked with
+     * the same stream.
+     *
+     * @param persistentVocabulary true if the vocabulary is to persist across
+     *        documents.
+     */
+    public void setPersistentVocabulary(boolean persistentVocabulary) {
+        _persistentVocabulary = persistentVocabulary;
+    }
+    
+    /**
+     * Get the persistent vocabulary mode.
+     *
+     * @return true if the vocabulary persists across documents.
+     */
+    public boolean getPersistentVocabulary() {
+        return _persistentVocabulary;
+    }
+    
+    /**
+     * Set the preset dictionary of deflate compressed documents.
+     * <p>
+     * A document compressed with deflate in the zlib format, such as by an
+     * {@link Encoder} with deflate compression, is detected and
+     * decompressed as it is decoded. A document compressed with a preset
+     * dictionary is decompressed with this dictionary, see
+     * {@link Encoder#setDeflateCompression(boolean, byte[])}.
+     *
+     * @param dictionary the preset dictionary, or null.
+     */
+    public void setDeflateDictionary(byte[] dictionary) {
+        _deflateDictionary = (dictionary != null) ? dictionary.clone() : null;
+    }
+    
+    /**
+     * Set the size of chunks of character content.
+     * <p>
+     * Character content that is not added to the character content chunk
+     * table and is encoded in more octets than the chunk size is decoded
+     * and reported in chunks of at most this number of octets, so that the
+     * buffers of the decoder do not grow with the length of the content.
+     * A chunk is larger than the chunk size if it would otherwise end
+     * within a character or a surrogate pair. Character content that is
+     * added to the table is always decoded at once.
+     *
+     * @param size the chunk size in octets, or 0, the default, if character
+     *        content is always decoded at once.
+     */
+    public void setCharactersChunkSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException();
+        }
+        _charactersChunkSize = size;
+    }
+    
+    /**
+     * Get the size of chunks of character content.
+     *
+     * @return the chunk size in octets, or 0 if character content is
+     *         always decoded at once.
+     */
+    public int getCharactersChunkSize() {
+        return _charactersChunkSize;
+    }
+    
+    /**
+     * Set whether attribute values are decoded lazily.
+     * <p>
+     * If true, literal attribute values encoded in UTF-8 or UTF-16 that
+     * are not added to the attribute value table are copied as octets and
+     * decoded into a string when the value is first read, so values that
+     * are not read are never decoded. A value that is not correctly encoded
+     * is then read as null rather than failing the parse.
+     *
+     * @param lazyAttributeValues true if attribute values are decoded
+     *        lazily, false, the default, if attribute values are decoded
+     *        when the attributes are parsed.
+     */
+    public void setLazyAttributeValues(boolean lazyAttributeValues) {
+        _lazyAttributeValues = lazyAttributeValues;
+    }
+    
+    public final boolean getLazyAttributeValues() {
+        return _lazyAttributeValues;
+    }
+    
+    /**
+     * Clear the dynamic tables of the vocabulary.
+     * <p>
+     * The read only part of the vocabulary, if any, is retained.
+     */
+    public void resetPersistentVocabulary() {
+        _v.clear();
+        _persistentVocabularyDocuments = 0;
+    }
+    
     /**
      * Reset the decoder for reuse decoding another XML infoset.
      */
     public void reset() {
         _terminate = _doubleTerminate = false;
+        _charactersChunkRemaining = 0;
+        _octetsStreamRemaining = 0;
+        if (_pathMatcher != null) {
+            _pathMatcher.reset();
+        }
     }
     
     /**
@@ -380,10 +573,32 @@ public abstract class Decoder implements FastInfosetParser {
      * @param s the InputStream where the fast infoset document is decoded from.
      */
     public void setInputStream(InputStream s) {
+        if (_persistentVocabulary && _s instanceof DeflatedInputStream &&
+                s == ((DeflatedInputStream) _s).getCompressedInputStream()) {
+            // Retain the octets that follow the compressed document
+            try {
+                final byte[] remaining = ((DeflatedInputStream) _s).skipToEnd();
+                if (_octetBuffer.length < remaining.length) {
+                    _octetBuffer = new byte[remaining.length];
+                }
+                System.arraycopy(remaining, 0, _octetBuffer, 0, remaining.length);
+                _octetBufferEnd = remaining.length;
+            } catch (IOException e) {
+                // The stream is not at the start of the next document, which
+                // then fails to be decoded
+                _octetBufferEnd = 0;
+            }
+        } else if (_persistentVocabulary && s == _s) {
+            // Retain the octets of the next document that have been read,
+            // moving them to the start of the buffer
+            System.arraycopy(_octetBuffer, _octetBufferOffset, _octetBuffer, 0, _octetBufferEnd - _octetBufferOffset);
+            _octetBufferEnd -= _octetBufferOffset;
+        } else {
+            _octetBufferEnd = 0;
+        }
         _s = s;
         _octetBufferOffset = 0;
-        _octetBufferEnd = 0;
-        if (_vIsInternal) {
+        if (_vIsInternal && !_persistentVocabulary) {
             _v.clear();
         }
     }
@@ -402,12 +617,29 @@ public abstract class Decoder implements FastInfosetParser {
         final int noOfItems = decodeNumberOfItemsOfSequence();
         
         for (int i = 0; i < noOfItems; i++) {
-            /*String URI = */decodeNonEmptyOctetStringOnSecondBitAsUtf8String();
+            final String URI = decodeNonEmptyOctetStringOnSecondBitAsUtf8String();
+            if (_persistentVocabulary && 
+                    URI.equals(EncodingConstants.PERSISTENT_VOCABULARY_RESET_URI)) {
+                _v.clear();
+                _persistentVocabularyDocuments = 1;
+            }
 
             decodeNonEmptyOctetStringLengthOnSecondBit();
             ensureOctetBufferSize();
             _octetBufferStart = _octetBufferOffset;
             _octetBufferOffset += _octetBufferLength;
+            
+            if (_persistentVocabulary && _octetBufferLength == 4 &&
+                    URI.equals(EncodingConstants.PERSISTENT_VOCABULARY_CHECKPOINT_URI)) {
+                final int documents = ((_octetBuffer[_octetBufferStart] & 0xFF) << 24) |
+                        ((_octetBuffer[_octetBufferStart + 1] & 0xFF) << 16) |
+                        ((_octetBuffer[_octetBufferStart + 2] & 0xFF) << 8) |
+                        (_octetBuffer[_octetBufferStart + 3] & 0xFF);
+                if (documents != _persistentVocabularyDocuments) {
+                    throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.persistentVocabularyCheckpoint",
+                            new Object[]{documents, _persistentVocabularyDocuments}));
+                }
+            }
         }
     }
     
@@ -552,16 +784,20 @@ public abstract class Decoder implements FastInfosetParser {
             
             String prefix = "";
             int prefixIndex = -1;
+            // The index 0 of the prefix and namespace name tables is that
+            // of the XML namespace, as for identifying string indexes
             if ((b & EncodingConstants.NAME_SURROGATE_PREFIX_FLAG) > 0) {
                 prefixIndex = decodeIntegerIndexOnSecondBit();
-                prefix = _v.prefix.get(prefixIndex);
+                prefix = (prefixIndex == 0) ? EncodingConstants.XML_NAMESPACE_PREFIX :
+                    _v.prefix.get(prefixIndex - 1);
             }
             
             String namespaceName = "";
             int namespaceNameIndex = -1;
             if ((b & EncodingConstants.NAME_SURROGATE_NAME_FLAG) > 0) {
                 namespaceNameIndex = decodeIntegerIndexOnSecondBit();
-                namespaceName = _v.namespaceName.get(namespaceNameIndex);
+                namespaceName = (namespaceNameIndex == 0) ? EncodingConstants.XML_NAMESPACE_NAME :
+                    _v.namespaceName.get(namespaceNameIndex - 1);
             }
             
             if (namespaceName == "" && prefix != "") {
@@ -727,6 +963,534 @@ public abstract class Decoder implements FastInfosetParser {
         }
     }
     
+    /**
+     * Record a reference to an entry of a table of the vocabulary.
+     *
+     * @param table the index of the table in {@link ParserVocabulary#tables}.
+     * @param index the index of the entry, or a negative value if no entry
+     *        is referred to.
+     */
+    protected final void addReference(int table, int index) {
+        if (_references != null && index >= 0) {
+            _references[table].set(index);
+        }
+    }
+    
+    /**
+     * Record the references of a literal qualified name to the prefix,
+     * namespace name and local name tables.
+     *
+     * @param name the qualified name.
+     */
+    protected final void addReferences(QualifiedName name) {
+        if (_references != null) {
+            // The indexes of the prefix and namespace name are offset by
+            // the entries for no prefix and for the XML namespace
+            addReference(ParserVocabulary.PREFIX, name.prefixIndex - 2);
+            addReference(ParserVocabulary.NAMESPACE_NAME, name.namespaceNameIndex - 2);
+            addReference(ParserVocabulary.LOCAL_NAME, name.localNameIndex);
+        }
+    }
+    
+    /**
+     * Skip an information item that is a child of an element.
+     * <p>
+     * The item is advanced over without reporting it. Entries that the
+     * item adds to the vocabulary tables are still added so that
+     * subsequent items referring to those entries by index decode
+     * correctly. Strings that are not added to a table are not decoded.
+     * References to entries of the tables are recorded if
+     * {@link #_references} is set.
+     *
+     * @param b the identification octet of the item, which has been read.
+     * @return true if the item is an element that is terminated by a double
+     *         terminator that also terminates the children of the parent.
+     */
+    protected final boolean skipItem(int b) throws FastInfosetException, IOException {
+        switch(DecoderStateTables.EII(b)) {
+            case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+            case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+            case DecoderStateTables.EII_INDEX_MEDIUM:
+            case DecoderStateTables.EII_INDEX_LARGE:
+            case DecoderStateTables.EII_LITERAL:
+            case DecoderStateTables.EII_NAMESPACES:
+                // An element with no children is terminated with its AIIs
+                return !skipEIIStart(b) && skipElementContent();
+            case DecoderStateTables.TERMINATOR_SINGLE:
+            case DecoderStateTables.TERMINATOR_DOUBLE:
+                throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.IllegalStateDecodingEII"));
+            default:
+                skipNonElementItem(b);
+                return false;
+        }
+    }
+    
+    /**
+     * Skip the children of an element up to and including the terminator
+     * of the element.
+     * <p>
+     * The children are skipped as for {@link #skipItem(int)}. Elements
+     * are tracked by depth rather than by recursion.
+     *
+     * @return true if the element is terminated by a double terminator that
+     *         also terminates the children of the parent.
+     */
+    @SuppressWarnings("fallthrough")
+    protected final boolean skipElementContent() throws FastInfosetException, IOException {
+        int depth = 1;
+        while (true) {
+            final int b = read();
+            switch(DecoderStateTables.EII(b)) {
+                case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                case DecoderStateTables.EII_INDEX_MEDIUM:
+                case DecoderStateTables.EII_INDEX_LARGE:
+                case DecoderStateTables.EII_LITERAL:
+                case DecoderStateTables.EII_NAMESPACES:
+                    if (!skipEIIStart(b)) {
+                        depth++;
+                    }
+                    break;
+                case DecoderStateTables.TERMINATOR_DOUBLE:
+                    depth--;
+                case DecoderStateTables.TERMINATOR_SINGLE:
+                    if (--depth <= 0) {
+                        return depth < 0;
+                    }
+                    break;
+                default:
+                    skipNonElementItem(b);
+            }
+        }
+    }
+    
+    /**
+     * Decode a literal qualified name of an element or attribute that
+     * is skipped.
+     * <p>
+     * Parsers that represent qualified names differently to
+     * {@link #decodeLiteralQualifiedName(int, QualifiedName)} override this
+     * method so that the names added to the tables when skipping are the same
+     * as those added when parsing.
+     *
+     * @param state the state of the prefix and namespace name of the name.
+     * @param q the qualified name to set, or null.
+     * @return the qualified name.
+     */
+    protected QualifiedName decodeSkippedLiteralQualifiedName(int state, QualifiedName q)
+    throws FastInfosetException, IOException {
+        return decodeLiteralQualifiedName(state, q);
+    }
+    
+    /**
+     * Skip the namespace AIIs, qualified name and AIIs of an element.
+     *
+     * @return true if the element is terminated by the terminator of the AIIs.
+     */
+    private boolean skipEIIStart(int b) throws FastInfosetException, IOException {
+        final boolean hasAttributes = (b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0;
+        
+        if (DecoderStateTables.EII(b) == DecoderStateTables.EII_NAMESPACES) {
+            skipNamespaceAIIs();
+            b = read();
+            if (DecoderStateTables.EII(b) == DecoderStateTables.EII_AIIS_INDEX_SMALL ||
+                    DecoderStateTables.EII(b) == DecoderStateTables.EII_NAMESPACES) {
+                throw new IOException(CommonResourceBundle.getInstance().getString("message.IllegalStateDecodingEIIAfterAIIs"));
+            }
+        }
+        
+        switch(DecoderStateTables.EII(b)) {
+            case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+            case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                addReference(ParserVocabulary.ELEMENT_NAME, b & EncodingConstants.INTEGER_3RD_BIT_SMALL_MASK);
+                break;
+            case DecoderStateTables.EII_INDEX_MEDIUM:
+                addReference(ParserVocabulary.ELEMENT_NAME,
+                        (((b & EncodingConstants.INTEGER_3RD_BIT_MEDIUM_MASK) << 8) | read())
+                        + EncodingConstants.INTEGER_3RD_BIT_SMALL_LIMIT);
+                break;
+            case DecoderStateTables.EII_INDEX_LARGE:
+                if ((b & EncodingConstants.INTEGER_3RD_BIT_LARGE_LARGE_FLAG) == 0x20) {
+                    addReference(ParserVocabulary.ELEMENT_NAME,
+                            (((b & EncodingConstants.INTEGER_3RD_BIT_LARGE_MASK) << 16) | (read() << 8) | read())
+                            + EncodingConstants.INTEGER_3RD_BIT_MEDIUM_LIMIT);
+                } else {
+                    addReference(ParserVocabulary.ELEMENT_NAME,
+                            (((read() & EncodingConstants.INTEGER_3RD_BIT_LARGE_LARGE_MASK) << 16) | (read() << 8) | read())
+                            + EncodingConstants.INTEGER_3RD_BIT_LARGE_LIMIT);
+                }
+                break;
+            case DecoderStateTables.EII_LITERAL:
+            {
+                final QualifiedName name = decodeSkippedLiteralQualifiedName(
+                        b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK,
+                        _elementNameTable.getNext());
+                addReferences(name);
+                _elementNameTable.add(name);
+                break;
+            }
+            default:
+                throw new IOException(CommonResourceBundle.getInstance().getString("message.IllegalStateDecodingEIIAfterAIIs"));
+        }
+        
+        return hasAttributes && skipAIIs();
+    }
+    
+    private void skipNamespaceAIIs() throws FastInfosetException, IOException {
+        int b = read();
+        while ((b & EncodingConstants.NAMESPACE_ATTRIBUTE_MASK) == EncodingConstants.NAMESPACE_ATTRIBUTE) {
+            switch (b & EncodingConstants.NAMESPACE_ATTRIBUTE_PREFIX_NAME_MASK) {
+                case 0:
+                    break;
+                case 1:
+                    decodeIdentifyingNonEmptyStringOnFirstBitAsNamespaceName(false);
+                    addReference(ParserVocabulary.NAMESPACE_NAME, _namespaceNameIndex - 1);
+                    break;
+                case 2:
+                    decodeIdentifyingNonEmptyStringOnFirstBitAsPrefix(false);
+                    addReference(ParserVocabulary.PREFIX, _prefixIndex - 1);
+                    break;
+                case 3:
+                    decodeIdentifyingNonEmptyStringOnFirstBitAsPrefix(true);
+                    addReference(ParserVocabulary.PREFIX, _prefixIndex - 1);
+                    decodeIdentifyingNonEmptyStringOnFirstBitAsNamespaceName(true);
+                    addReference(ParserVocabulary.NAMESPACE_NAME, _namespaceNameIndex - 1);
+                    break;
+            }
+            b = read();
+        }
+        if (b != EncodingConstants.TERMINATOR) {
+            throw new IOException(CommonResourceBundle.getInstance().getString("message.EIInamespaceNameNotTerminatedCorrectly"));
+        }
+    }
+    
+    /**
+     * Skip the AIIs of an element.
+     *
+     * @return true if the AIIs are terminated by a double terminator.
+     */
+    private boolean skipAIIs() throws FastInfosetException, IOException {
+        while (true) {
+            int b = read();
+            switch (DecoderStateTables.AII(b)) {
+                case DecoderStateTables.AII_INDEX_SMALL:
+                    addReference(ParserVocabulary.ATTRIBUTE_NAME, b & EncodingConstants.INTEGER_2ND_BIT_SMALL_MASK);
+                    break;
+                case DecoderStateTables.AII_INDEX_MEDIUM:
+                    addReference(ParserVocabulary.ATTRIBUTE_NAME,
+                            (((b & EncodingConstants.INTEGER_2ND_BIT_MEDIUM_MASK) << 8) | read())
+                            + EncodingConstants.INTEGER_2ND_BIT_SMALL_LIMIT);
+                    break;
+                case DecoderStateTables.AII_INDEX_LARGE:
+                    addReference(ParserVocabulary.ATTRIBUTE_NAME,
+                            (((b & EncodingConstants.INTEGER_2ND_BIT_LARGE_MASK) << 16) | (read() << 8) | read())
+                            + EncodingConstants.INTEGER_2ND_BIT_MEDIUM_LIMIT);
+                    break;
+                case DecoderStateTables.AII_LITERAL:
+                {
+                    final QualifiedName name = decodeSkippedLiteralQualifiedName(
+                            b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK,
+                            _attributeNameTable.getNext());
+                    addReferences(name);
+                    name.createAttributeValues(DuplicateAttributeVerifier.MAP_SIZE);
+                    _attributeNameTable.add(name);
+                    break;
+                }
+                case DecoderStateTables.AII_TERMINATOR_DOUBLE:
+                    return true;
+                case DecoderStateTables.AII_TERMINATOR_SINGLE:
+                    return false;
+                default:
+                    throw new IOException(CommonResourceBundle.getInstance().getString("message.decodingAIIs"));
+            }
+            
+            // [normalized value] of AII
+            b = read();
+            final boolean addToTable = (b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0;
+            switch(DecoderStateTables.NISTRING(b)) {
+                case DecoderStateTables.NISTRING_UTF8_SMALL_LENGTH:
+                    _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1;
+                    skipUtf8AttributeValue(addToTable);
+                    break;
+                case DecoderStateTables.NISTRING_UTF8_MEDIUM_LENGTH:
+                    _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
+                    skipUtf8AttributeValue(addToTable);
+                    break;
+                case DecoderStateTables.NISTRING_UTF8_LARGE_LENGTH:
+                {
+                    final int length = (read() << 24) |
+                            (read() << 16) |
+                            (read() << 8) |
+                            read();
+                    _octetBufferLength = length + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
+                    skipUtf8AttributeValue(addToTable);
+                    break;
+                }
+                case DecoderStateTables.NISTRING_UTF16_SMALL_LENGTH:
+                    _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1;
+                    skipUtf16AttributeValue(addToTable);
+                    break;
+                case DecoderStateTables.NISTRING_UTF16_MEDIUM_LENGTH:
+                    _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
+                    skipUtf16AttributeValue(addToTable);
+                    break;
+                case DecoderStateTables.NISTRING_UTF16_LARGE_LENGTH:
+                {
+                    final int length = (read() << 24) |
+                            (read() << 16) |
+                            (read() << 8) |
+                            read();
+                    _octetBufferLength = length + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
+                    skipUtf16AttributeValue(addToTable);
+                    break;
+                }
+                case DecoderStateTables.NISTRING_RA:
+                    _identifier = (b & 0x0F) << 4;
+                    b = read();
+                    _identifier |= (b & 0xF0) >> 4;
+                    if (addToTable) {
+                        decodeOctetsOnFifthBitOfNonIdentifyingStringOnFirstBit(b);
+                        _attributeValueTable.add(decodeRestrictedAlphabetAsString());
+                    } else {
+                        skipOctets(decodeOctetsLengthOnFifthBit(b));
+                    }
+                    break;
+                case DecoderStateTables.NISTRING_EA:
+                    _identifier = (b & 0x0F) << 4;
+                    b = read();
+                    _identifier |= (b & 0xF0) >> 4;
+                    if (addToTable) {
+                        decodeOctetsOnFifthBitOfNonIdentifyingStringOnFirstBit(b);
+                        _attributeValueTable.add(decodeEncodingAlgorithmDataAsString(true));
+                    } else {
+                        skipOctets(decodeOctetsLengthOnFifthBit(b));
+                    }
+                    break;
+                case DecoderStateTables.NISTRING_INDEX_SMALL:
+                    addReference(ParserVocabulary.ATTRIBUTE_VALUE, b & EncodingConstants.INTEGER_2ND_BIT_SMALL_MASK);
+                    break;
+                case DecoderStateTables.NISTRING_INDEX_MEDIUM:
+                    addReference(ParserVocabulary.ATTRIBUTE_VALUE,
+                            (((b & EncodingConstants.INTEGER_2ND_BIT_MEDIUM_MASK) << 8) | read())
+                            + EncodingConstants.INTEGER_2ND_BIT_SMALL_LIMIT);
+                    break;
+                case DecoderStateTables.NISTRING_INDEX_LARGE:
+                    addReference(ParserVocabulary.ATTRIBUTE_VALUE,
+                            (((b & EncodingConstants.INTEGER_2ND_BIT_LARGE_MASK) << 16) | (read() << 8) | read())
+                            + EncodingConstants.INTEGER_2ND_BIT_MEDIUM_LIMIT);
+                    break;
+                case DecoderStateTables.NISTRING_EMPTY:
+                    break;
+                default:
+                    throw new IOException(CommonResourceBundle.getInstance().getString("message.decodingAIIValue"));
+            }
+        }
+    }
+    
+    private void skipUtf8AttributeValue(boolean addToTable) throws IOException {
+        if (addToTable) {
+            _attributeValueTable.add(decodeUtf8StringAsString());
+        } else {
+            skipOctets(_octetBufferLength);
+        }
+    }
+    
+    private void skipUtf16AttributeValue(boolean addToTable) throws IOException {
+        if (addToTable) {
+            _attributeValueTable.add(decodeUtf16StringAsString());
+        } else {
+            skipOctets(_octetBufferLength);
+        }
+    }
+    
+    /**
+     * Skip a character, comment, processing instruction or unexpanded
+     * entity reference information item.
+     */
+    private void skipNonElementItem(int b) throws FastInfosetException, IOException {
+        final boolean addToTable = (b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0;
+        switch(DecoderStateTables.EII(b)) {
+            case DecoderStateTables.CII_UTF8_SMALL_LENGTH:
+                _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_MASK) + 1;
+                skipUtf8CharacterContent(addToTable);
+                break;
+            case DecoderStateTables.CII_UTF8_MEDIUM_LENGTH:
+                _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT;
+                skipUtf8CharacterContent(addToTable);
+                break;
+            case DecoderStateTables.CII_UTF8_LARGE_LENGTH:
+                _octetBufferLength = ((read() << 24) |
+                        (read() << 16) |
+                        (read() << 8) |
+                        read()) + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
+                skipUtf8CharacterContent(addToTable);
+                break;
+            case DecoderStateTables.CII_UTF16_SMALL_LENGTH:
+                _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_MASK) + 1;
+                skipUtf16CharacterContent(addToTable);
+                break;
+            case DecoderStateTables.CII_UTF16_MEDIUM_LENGTH:
+                _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT;
+                skipUtf16CharacterContent(addToTable);
+                break;
+            case DecoderStateTables.CII_UTF16_LARGE_LENGTH:
+                _octetBufferLength = ((read() << 24) |
+                        (read() << 16) |
+                        (read() << 8) |
+                        read()) + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
+                skipUtf16CharacterContent(addToTable);
+                break;
+            case DecoderStateTables.CII_RA:
+                _identifier = (b & 0x02) << 6;
+                b = read();
+                _identifier |= (b & 0xFC) >> 2;
+                if (addToTable) {
+                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(b);
+                    decodeRestrictedAlphabetAsCharBuffer();
+                    _characterContentChunkTable.add(_charBuffer, _charBufferLength);
+                } else {
+                    skipOctets(decodeOctetsLengthOnSeventhBit(b));
+                }
+                break;
+            case DecoderStateTables.CII_EA:
+                _identifier = (b & 0x02) << 6;
+                b = read();
+                _identifier |= (b & 0xFC) >> 2;
+                if (addToTable) {
+                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(b);
+                    final String s = decodeEncodingAlgorithmDataAsString(false);
+                    _characterContentChunkTable.add(s.toCharArray(), s.length());
+                } else {
+                    skipOctets(decodeOctetsLengthOnSeventhBit(b));
+                }
+                break;
+            case DecoderStateTables.CII_INDEX_SMALL:
+                addReference(ParserVocabulary.CHARACTER_CONTENT_CHUNK, b & EncodingConstants.INTEGER_4TH_BIT_SMALL_MASK);
+                break;
+            case DecoderStateTables.CII_INDEX_MEDIUM:
+                addReference(ParserVocabulary.CHARACTER_CONTENT_CHUNK,
+                        (((b & EncodingConstants.INTEGER_4TH_BIT_MEDIUM_MASK) << 8) | read())
+                        + EncodingConstants.INTEGER_4TH_BIT_SMALL_LIMIT);
+                break;
+            case DecoderStateTables.CII_INDEX_LARGE:
+                addReference(ParserVocabulary.CHARACTER_CONTENT_CHUNK,
+                        (((b & EncodingConstants.INTEGER_4TH_BIT_LARGE_MASK) << 16) | (read() << 8) | read())
+                        + EncodingConstants.INTEGER_4TH_BIT_MEDIUM_LIMIT);
+                break;
+            case DecoderStateTables.CII_INDEX_LARGE_LARGE:
+                addReference(ParserVocabulary.CHARACTER_CONTENT_CHUNK,
+                        ((read() << 16) | (read() << 8) | read())
+                        + EncodingConstants.INTEGER_4TH_BIT_LARGE_LIMIT);
+                break;
+            case DecoderStateTables.COMMENT_II:
+                skipOtherString("message.commentIIAlgorithmNotSupported");
+                break;
+            case DecoderStateTables.PROCESSING_INSTRUCTION_II:
+                decodeIdentifyingNonEmptyStringOnFirstBit(_v.otherNCName);
+                addReference(ParserVocabulary.OTHER_NCNAME, _identifier);
+                skipOtherString("message.processingIIWithEncodingAlgorithm");
+                break;
+            case DecoderStateTables.UNEXPANDED_ENTITY_REFERENCE_II:
+                decodeIdentifyingNonEmptyStringOnFirstBit(_v.otherNCName);
+                addReference(ParserVocabulary.OTHER_NCNAME, _identifier);
+                if ((b & EncodingConstants.UNEXPANDED_ENTITY_SYSTEM_IDENTIFIER_FLAG) > 0) {
+                    decodeIdentifyingNonEmptyStringOnFirstBit(_v.otherURI);
+                    addReference(ParserVocabulary.OTHER_URI, _identifier);
+                }
+                if ((b & EncodingConstants.UNEXPANDED_ENTITY_PUBLIC_IDENTIFIER_FLAG) > 0) {
+                    decodeIdentifyingNonEmptyStringOnFirstBit(_v.otherURI);
+                    addReference(ParserVocabulary.OTHER_URI, _identifier);
+                }
+                break;
+            default:
+                throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.IllegalStateDecodingEII"));
+        }
+    }
+    
+    private void skipUtf8CharacterContent(boolean addToTable) throws IOException {
+        if (addToTable && !_characterContentChunkTable.isNextShared()) {
+            _characterContentChunkTable.ensureSize(_octetBufferLength);
+            decodeUtf8StringAsCharBuffer(_characterContentChunkTable._array, _characterContentChunkTable._arrayIndex);
+            _characterContentChunkTable.add(_charBufferLength);
+        } else {
+            if (addToTable) {
+                // The characters have already been decoded into the entry
+                _characterContentChunkTable.addShared();
+            }
+            skipOctets(_octetBufferLength);
+        }
+    }
+    
+    private void skipUtf16CharacterContent(boolean addToTable) throws IOException {
+        if (addToTable) {
+            decodeUtf16StringAsCharBuffer();
+            _characterContentChunkTable.add(_charBuffer, _charBufferLength);
+        } else {
+            skipOctets(_octetBufferLength);
+        }
+    }
+    
+    private void skipOtherString(String encodingAlgorithmMessage) throws FastInfosetException, IOException {
+        switch(decodeNonIdentifyingStringOnFirstBit()) {
+            case NISTRING_STRING:
+                if (_addToTable) {
+                    _v.otherString.add(new CharArray(_charBuffer, 0, _charBufferLength, true));
+                }
+                break;
+            case NISTRING_INDEX:
+                addReference(ParserVocabulary.OTHER_STRING, _integer);
+                break;
+            case NISTRING_ENCODING_ALGORITHM:
+                throw new FastInfosetException(CommonResourceBundle.getInstance().getString(encodingAlgorithmMessage));
+        }
+    }
+    
+    /**
+     * Skip octets without buffering them.
+     */
+    protected final void skipOctets(int length) throws IOException {
+        int octetsInBuffer = _octetBufferEnd - _octetBufferOffset;
+        while (length > octetsInBuffer) {
+            length -= octetsInBuffer;
+            
+            _octetBufferEnd = _s.read(_octetBuffer);
+            if (_octetBufferEnd < 0) {
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            _octetBufferOffset = 0;
+            octetsInBuffer = _octetBufferEnd;
+        }
+        _octetBufferOffset += length;
+    }
+    
+    /**
+     * Convert the encoding algorithm data, identified by _identifier and
+     * located by _octetBufferStart and _octetBufferLength, to characters.
+     */
+    private String decodeEncodingAlgorithmDataAsString(boolean isAttributeValue) throws FastInfosetException, IOException {
+        final StringBuffer buffer = new StringBuffer();
+        if (_identifier < EncodingConstants.ENCODING_ALGORITHM_BUILTIN_END) {
+            final EncodingAlgorithm ea = BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier);
+            ea.convertToCharacters(ea.decodeFromBytes(_octetBuffer, _octetBufferStart, _octetBufferLength), buffer);
+        } else if (_identifier == EncodingAlgorithmIndexes.CDATA) {
+            if (!isAttributeValue) {
+                // Set back buffer position to start of encoded string
+                _octetBufferOffset -= _octetBufferLength;
+                return decodeUtf8StringAsString();
+            }
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.CDATAAlgorithmNotSupported"));
+        } else if (_identifier >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
+            final String URI = _v.encodingAlgorithm.get(_identifier - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
+            final EncodingAlgorithm ea = _registeredEncodingAlgorithms.get(URI);
+            if (ea == null) {
+                throw new EncodingAlgorithmException(
+                        CommonResourceBundle.getInstance().getString("message.algorithmDataCannotBeReported"));
+            }
+            ea.convertToCharacters(ea.decodeFromBytes(_octetBuffer, _octetBufferStart, _octetBufferLength), buffer);
+        }
+        return buffer.toString();
+    }
+    
     protected static final int NISTRING_STRING              = 0;
     protected static final int NISTRING_INDEX               = 1;
     protected static final int NISTRING_ENCODING_ALGORITHM  = 2;
@@ -824,59 +1588,75 @@ public abstract class Decoder implements FastInfosetParser {
     }
     
     protected final void decodeOctetsOnFifthBitOfNonIdentifyingStringOnFirstBit(int b) throws FastInfosetException, IOException {
+        _octetBufferLength = decodeOctetsLengthOnFifthBit(b);
+        ensureOctetBufferSize();
+        _octetBufferStart = _octetBufferOffset;
+        _octetBufferOffset += _octetBufferLength;
+    }
+    
+    private int decodeOctetsLengthOnFifthBit(int b) throws FastInfosetException, IOException {
         // Remove top 4 bits of restricted alphabet or encoding algorithm integer
         b &= 0x0F;
         // Reuse UTF8 length states
         switch(DecoderStateTables.NISTRING(b)) {
             case DecoderStateTables.NISTRING_UTF8_SMALL_LENGTH:
-                _octetBufferLength = b + 1;
-                break;
+                return b + 1;
             case DecoderStateTables.NISTRING_UTF8_MEDIUM_LENGTH:
-                _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
-                break;
+                return read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
             case DecoderStateTables.NISTRING_UTF8_LARGE_LENGTH:
                 final int length = (read() << 24) |
                         (read() << 16) |
                         (read() << 8) |
                         read();
-                _octetBufferLength = length + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
-                break;
+                return length + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
             default:
                 throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.decodingOctets"));
         }
+    }
+    
+    protected final void decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(int b) throws FastInfosetException, IOException {
+        decodeOctets(decodeOctetsLengthOnSeventhBit(b));
+    }
+    
+    /**
+     * Decode an octet string of a given length into the octet buffer.
+     *
+     * @param length the length of the octet string.
+     */
+    protected final void decodeOctets(int length) throws IOException {
+        _octetBufferLength = length;
         ensureOctetBufferSize();
         _octetBufferStart = _octetBufferOffset;
         _octetBufferOffset += _octetBufferLength;
     }
     
-    protected final void decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(int b) throws FastInfosetException, IOException {
+    /**
+     * Decode the length of an octet string that starts on the seventh bit
+     * of an octet.
+     *
+     * @param b the octet containing the first two bits of the length.
+     * @return the length of the octet string.
+     */
+    protected final int decodeOctetsLengthOnSeventhBit(int b) throws IOException {
         // Remove top 6 bits of restricted alphabet or encoding algorithm integer
         switch (b & 0x03) {
             // Small length
             case 0:
-                _octetBufferLength = 1;
-                break;
+                return 1;
                 // Small length
             case 1:
-                _octetBufferLength = 2;
-                break;
+                return 2;
                 // Medium length
             case 2:
-                _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT;
-                break;
+                return read() + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT;
                 // Large length
-            case 3:
-                _octetBufferLength = (read() << 24) |
+            default:
+                final int length = (read() << 24) |
                         (read() << 16) |
                         (read() << 8) |
                         read();
-                _octetBufferLength += EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
-                break;
+                return length + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
         }
-        
-        ensureOctetBufferSize();
-        _octetBufferStart = _octetBufferOffset;
-        _octetBufferOffset += _octetBufferLength;
     }
     
     /*
@@ -1253,6 +2033,9 @@ public abstract class Decoder implements FastInfosetParser {
         if (!_isFastInfosetDocument()) {
             throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.notFIDocument"));
         }
+        if (_persistentVocabulary) {
+            _persistentVocabularyDocuments++;
+        }
     }
     
     protected final void decodeRestrictedAlphabetAsCharBuffer() throws FastInfosetException, IOException {
@@ -1384,6 +2167,211 @@ public abstract class Decoder implements FastInfosetParser {
         return new String(_charBuffer, 0, _charBufferLength);
     }
     
+    /**
+     * Add an attribute whose value is a literal string of
+     * _octetBufferLength octets.
+     * <p>
+     * If attribute values are decoded lazily, see
+     * {@link #setLazyAttributeValues(boolean)}, a value that is not added
+     * to the attribute value table is copied as octets and decoded when
+     * first read.
+     *
+     * @param attributes the attributes the attribute is added to.
+     * @param name the name of the attribute.
+     * @param b the identification octet of the value.
+     * @param utf8 true if the value is encoded in UTF-8, otherwise UTF-16.
+     */
+    protected final void processAIIStringValue(AttributesHolder attributes, QualifiedName name, int b, boolean utf8) throws IOException {
+        if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
+            final String value = utf8 ? decodeUtf8StringAsString() : decodeUtf16StringAsString();
+            _attributeValueTable.add(value);
+            attributes.addAttribute(name, value);
+        } else if (_lazyAttributeValues) {
+            decodeOctets(_octetBufferLength);
+            attributes.addAttributeWithOctets(name, _octetBuffer, _octetBufferStart, _octetBufferLength, utf8);
+        } else {
+            attributes.addAttribute(name, utf8 ? decodeUtf8StringAsString() : decodeUtf16StringAsString());
+        }
+    }
+    
+    /**
+     * Start decoding character content in chunks.
+     * <p>
+     * If the character content of _octetBufferLength octets, that is not
+     * added to a table, is larger than the chunk size then the first chunk
+     * is decoded into the buffer of characters.
+     *
+     * @param utf8 true if the content is encoded in UTF-8, otherwise UTF-16.
+     * @return true if the first chunk was decoded, false if the content
+     *         is to be decoded at once.
+     * @see #setCharactersChunkSize(int)
+     */
+    protected final boolean startCharactersChunks(boolean utf8) throws IOException {
+        if (_charactersChunkSize == 0 || _octetBufferLength <= _charactersChunkSize) {
+            return false;
+        }
+        
+        _charactersChunkRemaining = _octetBufferLength;
+        _charactersChunkUtf8 = utf8;
+        decodeNextCharactersChunk();
+        return true;
+    }
+    
+    /**
+     * @return true if there are chunks of the current character content that
+     *         remain to be decoded.
+     */
+    protected final boolean hasNextCharactersChunk() {
+        return _charactersChunkRemaining > 0;
+    }
+    
+    /**
+     * Decode the next chunk of the current character content into the
+     * buffer of characters.
+     * <p>
+     * A chunk never ends within a character, or between the characters of
+     * a surrogate pair.
+     */
+    protected final void decodeNextCharactersChunk() throws IOException {
+        int length = Math.min(_charactersChunkRemaining, _charactersChunkSize);
+        if (_charactersChunkUtf8) {
+            if (length < _charactersChunkRemaining) {
+                // Buffer the octet following the chunk, and all the octets
+                // of the first character if it is longer than the chunk
+                _octetBufferLength = Math.min(_charactersChunkRemaining, Math.max(length, 4) + 1);
+                ensureOctetBufferSize();
+                
+                // End the chunk at the start of a character
+                while (length > 0 && (_octetBuffer[_octetBufferOffset + length] & 0xC0) == 0x80) {
+                    length--;
+                }
+                if (length == 0) {
+                    do {
+                        length++;
+                    } while (length < 4 && length < _charactersChunkRemaining &&
+                            (_octetBuffer[_octetBufferOffset + length] & 0xC0) == 0x80);
+                }
+            }
+            
+            _octetBufferLength = length;
+            decodeUtf8StringAsCharBuffer();
+        } else {
+            // A chunk contains at least one character
+            length = Math.min(Math.max(length & ~1, 2), _charactersChunkRemaining);
+            if (length < _charactersChunkRemaining) {
+                _octetBufferLength = length;
+                ensureOctetBufferSize();
+                
+                // Keep a high surrogate with the following low surrogate
+                if ((_octetBuffer[_octetBufferOffset + length - 2] & 0xFC) == 0xD8) {
+                    length = Math.min(length + 2, _charactersChunkRemaining);
+                }
+            }
+            
+            _octetBufferLength = length;
+            decodeUtf16StringAsCharBuffer();
+        }
+        _charactersChunkRemaining -= length;
+    }
+    
+    /**
+     * Skip the chunks of the current character content that remain to be
+     * decoded.
+     */
+    protected final void skipCharactersChunks() throws IOException {
+        skipOctets(_charactersChunkRemaining);
+        _charactersChunkRemaining = 0;
+    }
+    
+    /**
+     * Start reading an octet string as a stream.
+     * <p>
+     * The octets are read directly from the buffer and the underlying
+     * input stream of the decoder, and are not buffered as a whole. The
+     * octets must be read, or skipped using {@link #skipOctetsStream()},
+     * before decoding continues.
+     *
+     * @param length the length of the octet string.
+     * @return the input stream of the octets.
+     */
+    protected final InputStream startOctetsStream(int length) {
+        _octetsStreamRemaining = length;
+        return new OctetsInputStream();
+    }
+    
+    /**
+     * @return the number of octets of the current octet stream that remain
+     *         to be read.
+     */
+    protected final int getOctetsStreamRemaining() {
+        return _octetsStreamRemaining;
+    }
+    
+    /**
+     * Skip the octets of the current octet stream that remain to be read.
+     */
+    protected final void skipOctetsStream() throws IOException {
+        skipOctets(_octetsStreamRemaining);
+        _octetsStreamRemaining = 0;
+    }
+    
+    private final class OctetsInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            if (_octetsStreamRemaining == 0) {
+                return -1;
+            }
+            
+            _octetsStreamRemaining--;
+            return Decoder.this.read();
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            } else if (_octetsStreamRemaining == 0) {
+                return -1;
+            }
+            
+            len = Math.min(len, _octetsStreamRemaining);
+            final int octetsInBuffer = _octetBufferEnd - _octetBufferOffset;
+            final int octetsRead;
+            if (octetsInBuffer > 0) {
+                octetsRead = Math.min(len, octetsInBuffer);
+                System.arraycopy(_octetBuffer, _octetBufferOffset, b, off, octetsRead);
+                _octetBufferOffset += octetsRead;
+            } else {
+                // Read directly from the underlying stream
+                octetsRead = _s.read(b, off, len);
+                if (octetsRead < 0) {
+                    throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+                }
+            }
+            _octetsStreamRemaining -= octetsRead;
+            return octetsRead;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            
+            final int length = (int) Math.min(n, _octetsStreamRemaining);
+            skipOctets(length);
+            _octetsStreamRemaining -= length;
+            return length;
+        }
+        
+        @Override
+        public int available() {
+            return Math.min(_octetsStreamRemaining, _octetBufferEnd - _octetBufferOffset);
+        }
+    }
+    
     private void ensureOctetBufferSize() throws IOException {
         if (_octetBufferEnd < (_octetBufferOffset + _octetBufferLength)) {
             final int octetsInBuffer = _octetBufferEnd - _octetBufferOffset;
@@ -1905,7 +2893,23 @@ public abstract class Decoder implements FastInfosetParser {
     
     protected final boolean _isFastInfosetDocument() throws IOException {
         // Fill up the octet buffer
-        peek();
+        if ((peek() & 0x0F) == DEFLATE_COMPRESSION_METHOD) {
+            _octetBufferLength = 2;
+            ensureOctetBufferSize();
+            if (isDeflateHeader(_octetBuffer[_octetBufferOffset], _octetBuffer[_octetBufferOffset + 1])) {
+                // Decode the decompressed octets, starting with the octets
+                // that have been read
+                if (_inflater == null) {
+                    _inflater = new Inflater();
+                } else {
+                    _inflater.reset();
+                }
+                final byte[] read = Arrays.copyOfRange(_octetBuffer, _octetBufferOffset, _octetBufferEnd);
+                _s = new DeflatedInputStream(_s, read, read.length, _inflater, _deflateDictionary);
+                _octetBufferOffset = _octetBufferEnd = 0;
+                peek();
+            }
+        }
         
         _octetBufferLength = EncodingConstants.BINARY_HEADER.length;
         ensureOctetBufferSize();
@@ -1942,6 +2946,34 @@ public abstract class Decoder implements FastInfosetParser {
         return true;
     }
     
+    /**
+     * Decompress a document compressed with deflate in the zlib format.
+     * <p>
+     * The positions of octets of a compressed document cannot be related to
+     * those of the decompressed octets, so decoders that locate items by
+     * position decompress a document before decoding it.
+     *
+     * @param b the array containing the document.
+     * @param offset the offset of the document.
+     * @param length the length of the document.
+     * @return the decompressed octets, or null if the document is not
+     *         compressed.
+     * @throws IOException if the document cannot be decompressed.
+     */
+    protected final byte[] inflateDocument(byte[] b, int offset, int length) throws IOException {
+        if (length < 2 || !isDeflateHeader(b[offset], b[offset + 1])) {
+            return null;
+        }
+        
+        if (_inflater == null) {
+            _inflater = new Inflater();
+        } else {
+            _inflater.reset();
+        }
+        return new DeflatedInputStream(new ByteArrayInputStream(b, offset, length), _inflater, _deflateDictionary).
+                readAllBytes();
+    }
+    
     private boolean arrayEquals(byte[] b1, int offset, byte[] b2, int length) {
         for (int i = 0; i < length; i++) {
             if (b1[offset + i] != b2[i]) {
@@ -1953,12 +2985,40 @@ public abstract class Decoder implements FastInfosetParser {
     }
     
     static public boolean isFastInfosetDocument(InputStream s) throws IOException {
+        return isFastInfosetDocument(s, null);
+    }
+    
+    /**
+     * Check if the stream starts with a fast infoset document, or with a
+     * fast infoset document compressed with deflate in the zlib format.
+     * <p>
+     * A document compressed with a preset dictionary is recognized only
+     * with the dictionary.
+     *
+     * @param s the stream.
+     * @param deflateDictionary the preset dictionary of compressed
+     *        documents, or null.
+     * @return true if the stream starts with a fast infoset document.
+     * @throws IOException if an error occurs reading the stream.
+     */
+    static public boolean isFastInfosetDocument(InputStream s, byte[] deflateDictionary) throws IOException {
         // TODO
         // Check for <?xml declaration with 'finf' encoding
         final int headerSize = 4;
         
         final byte[] header = new byte[headerSize];
-        final int readBytesCount = s.read(header);
+        int readBytesCount = s.read(header);
+        if (readBytesCount >= 2 && isDeflateHeader(header[0], header[1])) {
+            final Inflater inflater = new Inflater();
+            try {
+                readBytesCount = new DeflatedInputStream(s, header.clone(), readBytesCount, inflater, deflateDictionary).
+                        readNBytes(header, 0, headerSize);
+            } catch (ZipException e) {
+                return false;
+            } finally {
+                inflater.end();
+            }
+        }
         // TODO
         return !(readBytesCount < headerSize
                 || header[0] != EncodingConstants.BINARY_HEADER[0]
@@ -1966,4 +3026,111 @@ public abstract class Decoder implements FastInfosetParser {
                 || header[2] != EncodingConstants.BINARY_HEADER[2]
                 || header[3] != EncodingConstants.BINARY_HEADER[3]);
     }
+    
+    /**
+     * The compression method of the zlib format that is deflate.
+     */
+    private static final int DEFLATE_COMPRESSION_METHOD = 8;
+    
+    /**
+     * Check if two octets are the header of the zlib format with the deflate
+     * compression method. A fast infoset document does not start with such
+     * octets.
+     */
+    private static boolean isDeflateHeader(byte cmf, byte flg) {
+        return (cmf & 0x0F) == DEFLATE_COMPRESSION_METHOD && (cmf & 0xF0) <= 0x70
+                && (((cmf & 0xFF) << 8) | (flg & 0xFF)) % 31 == 0;
+    }
+    
+    /**
+     * A stream of the decompressed octets of a stream in the zlib format
+     * that sets the preset dictionary when required.
+     */
+    private static final class DeflatedInputStream extends InflaterInputStream {
+        private final byte[] _dictionary;
+        
+        /**
+         * The octets last given as input to the inflater.
+         */
+        private byte[] _input;
+        
+        /**
+         * The end of the octets last given as input to the inflater.
+         */
+        private int _inputEnd;
+        
+        DeflatedInputStream(InputStream in, Inflater inflater, byte[] dictionary) {
+            this(in, new byte[0], 0, inflater, dictionary);
+        }
+        
+        /**
+         * @param in the stream of the compressed octets that follow the
+         *        octets that have been read.
+         * @param read the compressed octets that have been read.
+         * @param length the number of compressed octets that have been read.
+         * @param inflater the inflater.
+         * @param dictionary the preset dictionary, or null.
+         */
+        DeflatedInputStream(InputStream in, byte[] read, int length, Inflater inflater, byte[] dictionary) {
+            super(in, inflater);
+            _dictionary = dictionary;
+            _input = read;
+            _inputEnd = length;
+            inf.setInput(read, 0, length);
+        }
+        
+        /**
+         * Get the stream of the compressed octets.
+         *
+         * @return the stream.
+         */
+        InputStream getCompressedInputStream() {
+            return in;
+        }
+        
+        /**
+         * Decompress the remaining octets of the compressed document and get
+         * the octets read from the stream that follow the document.
+         *
+         * @return the octets that follow the document.
+         * @throws IOException if the document cannot be decompressed.
+         */
+        byte[] skipToEnd() throws IOException {
+            skip(Long.MAX_VALUE);
+            return Arrays.copyOfRange(_input, _inputEnd - inf.getRemaining(), _inputEnd);
+        }
+        
+        @Override
+        protected void fill() throws IOException {
+            super.fill();
+            _input = buf;
+            _inputEnd = len;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            
+            try {
+                int n;
+                while ((n = inf.inflate(b, off, len)) == 0) {
+                    if (inf.finished()) {
+                        return -1;
+                    } else if (inf.needsDictionary()) {
+                        if (_dictionary == null) {
+                            throw new ZipException(CommonResourceBundle.getInstance().getString("message.deflateDictionaryRequired"));
+                        }
+                        inf.setDictionary(_dictionary);
+                    } else if (inf.needsInput()) {
+                        fill();
+                    }
+                }
+                return n;
+            } catch (DataFormatException | IllegalArgumentException e) {
+                throw new ZipException(e.getMessage());
+            }
+        }
+    }
 }
@@ -26,11 +26,15 @@ import com.sun.xml.fastinfoset.util.LocalNameQualifiedNamesMap;
 import com.sun.xml.fastinfoset.util.StringIntMap;
 import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -90,6 +94,11 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         }
     }
 
+    /**
+     * The size of the buffer of compressed octets of a document.
+     */
+    private static final int DEFLATE_BUFFER_SIZE = 8192;
+
     private static int[] NUMERIC_CHARACTERS_TABLE;
 
     private static int[] DATE_TIME_CHARACTERS_TABLE;
@@ -170,6 +179,17 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     private Map<String, EncodingAlgorithm> _registeredEncodingAlgorithms = new HashMap<>();
 
+    /**
+     * The URI of the encoding algorithm of large character content chunks,
+     * or null if they are encoded as strings.
+     */
+    private String _largeCharacterContentChunkAlgorithmURI;
+
+    /**
+     * The minimum length of a large character content chunk.
+     */
+    private int _largeCharacterContentChunkMinSize = Integer.MAX_VALUE;
+
     /**
      * The vocabulary that is used by the encoder
      */
@@ -185,6 +205,57 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     private boolean _vIsInternal;
 
+    /**
+     * True if the dynamic tables of the vocabulary persist across
+     * consecutive documents.
+     */
+    private boolean _persistentVocabulary;
+
+    /**
+     * True if the persistent vocabulary is to be reset, and the reset
+     * signalled, when the next document is encoded.
+     */
+    private boolean _persistentVocabularyResetRequired;
+
+    /**
+     * True if a checkpoint of the persistent vocabulary is to be signalled
+     * when the next document is encoded.
+     */
+    private boolean _persistentVocabularyCheckpointRequired;
+
+    /**
+     * The number of documents encoded since the persistent vocabulary was
+     * reset, including the current document.
+     */
+    private int _persistentVocabularyDocuments;
+
+    /**
+     * The maximum number of dynamic table entries a persistent vocabulary
+     * may hold before it is reset at the start of the next document.
+     */
+    private int _persistentVocabularyItemsLimit = Integer.MAX_VALUE;
+
+    /**
+     * True if documents are compressed with deflate.
+     */
+    private boolean _deflate;
+
+    /**
+     * The preset dictionary of deflate compression, or null.
+     */
+    private byte[] _deflateDictionary;
+
+    /**
+     * The deflater, reused for each compressed document.
+     */
+    private Deflater _deflater;
+
+    /**
+     * The output stream of the compressed document while a document is
+     * compressed, otherwise null.
+     */
+    private OutputStream _deflatedStream;
+
     /**
      * True if terminatation of an information item is required
      */
@@ -350,6 +421,38 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         return _registeredEncodingAlgorithms;
     }
 
+    /**
+     * Set the encoding algorithm of large character content chunks.
+     * <p>
+     * A character content chunk of at least the minimum length is
+     * converted to the data of the algorithm, see
+     * {@link EncodingAlgorithm#convertFromCharacters(char[], int, int)}, and
+     * encoded with the algorithm if the encoded data is shorter than the
+     * chunk. Otherwise, such as for characters that do not compress, the
+     * chunk is encoded as a string.
+     * <p>
+     * The encoding algorithm is registered, see
+     * {@link #setRegisteredEncodingAlgorithms(Map)}, and the URI is present
+     * in the encoding algorithm table of the vocabulary.
+     *
+     * @param URI the URI of the encoding algorithm, such as
+     *        {@link com.sun.xml.fastinfoset.algorithm.DeflateTextEncodingAlgorithm#URI},
+     *        or null to encode all character content chunks as strings.
+     * @param minSize the minimum length of a large character content chunk.
+     */
+    public void setLargeCharacterContentChunkAlgorithm(String URI, int minSize) {
+        _largeCharacterContentChunkAlgorithmURI = URI;
+        _largeCharacterContentChunkMinSize = (URI != null) ? Math.max(minSize, 1) : Integer.MAX_VALUE;
+    }
+
+    public String getLargeCharacterContentChunkAlgorithmURI() {
+        return _largeCharacterContentChunkAlgorithmURI;
+    }
+
+    public int getLargeCharacterContentChunkMinSize() {
+        return _largeCharacterContentChunkMinSize;
+    }
+
     @Override
     public int getMinCharacterContentChunkSize() {
         return minCharacterContentChunkSize;
@@ -493,6 +596,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
                 ev, false);
 
         _vIsInternal = true;
+        _persistentVocabularyResetRequired = true;
     }
 
     @Override
@@ -507,6 +611,121 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
 
     // End of FastInfosetSerializer interface
 
+    /**
+     * Set the persistent vocabulary mode.
+     * <p>
+     * In persistent vocabulary mode the dynamic tables of the vocabulary are
+     * not cleared at the start of each document but are retained across
+     * consecutive documents, so that names and values indexed in one document
+     * may be referenced by index in the following documents. A document that
+     * starts with cleared tables is marked by an additional data item
+     * identified by {@link EncodingConstants#PERSISTENT_VOCABULARY_RESET_URI},
+     * which enables a decoder, also in persistent vocabulary mode, to reset
+     * its tables at exactly the same point.
+     * <p>
+     * The first document encoded after this mode is enabled always starts with
+     * cleared tables.
+     *
+     * @param persistentVocabulary true if the vocabulary is to persist across
+     *        documents.
+     */
+    public void setPersistentVocabulary(boolean persistentVocabulary) {
+        _persistentVocabulary = persistentVocabulary;
+        _persistentVocabularyResetRequired = persistentVocabulary;
+    }
+
+    /**
+     * Get the persistent vocabulary mode.
+     *
+     * @return true if the vocabulary persists across documents.
+     */
+    public boolean getPersistentVocabulary() {
+        return _persistentVocabulary;
+    }
+
+    /**
+     * Reset the persistent vocabulary.
+     * <p>
+     * The dynamic tables will be cleared, and the reset signalled, when the
+     * next document is encoded.
+     */
+    public void resetPersistentVocabulary() {
+        _persistentVocabularyResetRequired = true;
+    }
+
+    /**
+     * Signal a checkpoint of the persistent vocabulary.
+     * <p>
+     * The next document is encoded with an additional data item identified
+     * by {@link EncodingConstants#PERSISTENT_VOCABULARY_CHECKPOINT_URI} that
+     * holds the number of documents encoded since the vocabulary was reset.
+     * A decoder in persistent vocabulary mode checks the number against the
+     * documents it decoded since the reset, and fails to decode the document
+     * if a document of the session was lost, so that its tables would not be
+     * those of the encoder.
+     */
+    public void checkpointPersistentVocabulary() {
+        _persistentVocabularyCheckpointRequired = true;
+    }
+
+    /**
+     * Set the maximum number of entries of the dynamic tables of a persistent
+     * vocabulary.
+     * <p>
+     * If the limit is reached then the persistent vocabulary is reset when the
+     * next document is encoded.
+     *
+     * @param limit the maximum number of entries.
+     */
+    public void setPersistentVocabularyItemsLimit(int limit) {
+        if (limit < 0) {
+            limit = 0;
+        }
+
+        _persistentVocabularyItemsLimit = limit;
+    }
+
+    /**
+     * Get the maximum number of entries of the dynamic tables of a persistent
+     * vocabulary.
+     *
+     * @return the maximum number of entries.
+     */
+    public int getPersistentVocabularyItemsLimit() {
+        return _persistentVocabularyItemsLimit;
+    }
+
+    /**
+     * Set deflate compression of documents.
+     * <p>
+     * Each document, from the header to the termination of the document,
+     * is compressed as one stream in the zlib format. Flushing the
+     * serializer within a document flushes the compressed octets encoded so
+     * far, and the compressed stream is finished and flushed when the
+     * document is terminated, so consecutive documents of a session may be
+     * written to the same output stream. A {@link Decoder} detects and
+     * decompresses such documents.
+     *
+     * @param deflate true if documents are compressed.
+     * @param dictionary the preset dictionary of the compression, such as
+     *        the octets that occur most often in encoded documents of the
+     *        vocabulary, or null. A decoder decompresses the documents with
+     *        the same dictionary, see {@link Decoder#setDeflateDictionary(byte[])}.
+     */
+    public void setDeflateCompression(boolean deflate, byte[] dictionary) {
+        _deflate = deflate;
+        _deflateDictionary = (dictionary != null) ? dictionary.clone() : null;
+    }
+
+    /**
+     * Get the deflate compression of documents.
+     *
+     * @return true if documents are compressed.
+     */
+    public boolean getDeflateCompression() {
+        return _deflate;
+    }
+
     /**
      * Reset the encoder for reuse encoding another XML infoset.
      */
@@ -526,6 +745,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         _octetBufferIndex = 0;
         _markIndex = -1;
         _s = s;
+        _deflatedStream = null;
     }
 
     /**
@@ -536,6 +756,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
     public void setVocabulary(SerializerVocabulary vocabulary) {
         _v = vocabulary;
         _vIsInternal = false;
+        _persistentVocabularyResetRequired = true;
     }
 
     /**
@@ -545,6 +766,20 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException  on error
      */
     protected final void encodeHeader(boolean encodeXmlDecl) throws IOException {
+        if (_deflate && _deflatedStream == null) {
+            if (_deflater == null) {
+                _deflater = new Deflater();
+            } else {
+                _deflater.reset();
+            }
+            if (_deflateDictionary != null) {
+                _deflater.setDictionary(_deflateDictionary);
+            }
+
+            _deflatedStream = _s;
+            _s = new DeflaterOutputStream(_deflatedStream, _deflater, DEFLATE_BUFFER_SIZE, true);
+        }
+
         if (encodeXmlDecl) {
             _s.write(EncodingConstants.XML_DECLARATION_VALUES[0]);
         }
@@ -557,7 +792,25 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeInitialVocabulary() throws IOException {
-        if (_v == null) {
+        // Additional data is only encoded to signal the reset or a
+        // checkpoint of a persistent vocabulary
+        boolean reset = false;
+        boolean checkpoint = false;
+        if (_persistentVocabulary) {
+            if (_v == null) {
+                _v = new SerializerVocabulary();
+                _vIsInternal = true;
+                reset = true;
+            } else if (_persistentVocabularyResetRequired || isPersistentVocabularyItemsLimitReached()) {
+                _v.clear();
+                if (_vData != null)
+                    _vData.clear();
+                reset = true;
+            }
+            _persistentVocabularyDocuments = reset ? 1 : _persistentVocabularyDocuments + 1;
+            checkpoint = _persistentVocabularyCheckpointRequired;
+            _persistentVocabularyResetRequired = _persistentVocabularyCheckpointRequired = false;
+        } else if (_v == null) {
             _v = new SerializerVocabulary();
             _vIsInternal = true;
         } else if (_vIsInternal) {
@@ -566,11 +819,18 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
                 _vData.clear();
         }
 
+        final int additionalData = (reset || checkpoint) ? EncodingConstants.DOCUMENT_ADDITIONAL_DATA_FLAG : 0;
         if (!_v.hasInitialVocabulary() && !_v.hasExternalVocabulary()) {
-            write(0);
+            write(additionalData);
+            if (additionalData > 0) {
+                encodePersistentVocabularyAdditionalData(reset, checkpoint);
+            }
         } else if (_v.hasInitialVocabulary()) {
-            _b = EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
+            _b = additionalData | EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
             write(_b);
+            if (additionalData > 0) {
+                encodePersistentVocabularyAdditionalData(reset, checkpoint);
+            }
 
             SerializerVocabulary initialVocabulary = _v.getReadOnlyVocabulary();
 
@@ -587,8 +847,11 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
 
             // TODO check for contents of vocabulary to encode values
         } else if (_v.hasExternalVocabulary()) {
-            _b = EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
+            _b = additionalData | EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
             write(_b);
+            if (additionalData > 0) {
+                encodePersistentVocabularyAdditionalData(reset, checkpoint);
+            }
 
             _b = EncodingConstants.INITIAL_VOCABULARY_EXTERNAL_VOCABULARY_FLAG;
             write(_b);
@@ -598,6 +861,41 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         }
     }
 
+    /**
+     * Encode the additional data of the Document Information Item that
+     * signals the reset or a checkpoint of a persistent vocabulary.
+     *
+     * @param reset true if the reset is signalled.
+     * @param checkpoint true if a checkpoint is signalled.
+     * @throws java.io.IOException on error
+     */
+    private void encodePersistentVocabularyAdditionalData(boolean reset, boolean checkpoint) throws IOException {
+        // The number of items in the sequence, less one
+        write((reset && checkpoint) ? 1 : 0);
+        if (reset) {
+            encodeNonEmptyOctetStringOnSecondBit(EncodingConstants.PERSISTENT_VOCABULARY_RESET_URI);
+            // One octet of data, no information is associated with the reset
+            encodeNonZeroOctetStringLengthOnSecondBit(1);
+            write(0);
+        }
+        if (checkpoint) {
+            encodeNonEmptyOctetStringOnSecondBit(EncodingConstants.PERSISTENT_VOCABULARY_CHECKPOINT_URI);
+            encodeNonZeroOctetStringLengthOnSecondBit(4);
+            write(_persistentVocabularyDocuments >>> 24);
+            write((_persistentVocabularyDocuments >> 16) & 0xFF);
+            write((_persistentVocabularyDocuments >> 8) & 0xFF);
+            write(_persistentVocabularyDocuments & 0xFF);
+        }
+    }
+
+    private boolean isPersistentVocabularyItemsLimitReached() {
+        int items = 0;
+        for (KeyIntMap table : _v.tables) {
+            items += table.size();
+        }
+        return items >= _persistentVocabularyItemsLimit;
+    }
+
     /**
      * Encode the termination of the Document Information Item.
      *
@@ -607,6 +905,11 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         encodeElementTermination();
         encodeTermination();
         _flush();
+        if (_deflatedStream != null) {
+            ((DeflaterOutputStream) _s).finish();
+            _s = _deflatedStream;
+            _deflatedStream = null;
+        }
         _s.flush();
     }
 
@@ -685,6 +988,10 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws ArrayIndexOutOfBoundsException on error
      */
     protected final void encodeCharacters(char[] ch, int offset, int length) throws IOException {
+        if (length >= _largeCharacterContentChunkMinSize && encodeLargeCharacterContentChunk(ch, offset, length)) {
+            return;
+        }
+
         final boolean addToTable = isCharacterContentChunkLengthMatchesLimit(length);
         encodeNonIdentifyingStringOnThirdBit(ch, offset, length, _v.characterContentChunk, addToTable, true);
     }
@@ -702,10 +1009,61 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws ArrayIndexOutOfBoundsException on error
      */
     protected final void encodeCharactersNoClone(char[] ch, int offset, int length) throws IOException {
+        if (length >= _largeCharacterContentChunkMinSize && encodeLargeCharacterContentChunk(ch, offset, length)) {
+            return;
+        }
+
         final boolean addToTable = isCharacterContentChunkLengthMatchesLimit(length);
         encodeNonIdentifyingStringOnThirdBit(ch, offset, length, _v.characterContentChunk, addToTable, false);
     }
 
+    /**
+     * Encode a large chunk of Character Information Items using the
+     * encoding algorithm of large character content chunks.
+     *
+     * @param ch the array of characters.
+     * @param offset the offset into the array of characters.
+     * @param length the length of characters.
+     * @return true if the characters are encoded, false if the encoded
+     *         data is not shorter than the characters.
+     * @throws java.io.IOException on error
+     */
+    private boolean encodeLargeCharacterContentChunk(char[] ch, int offset, int length) throws IOException {
+        final String URI = _largeCharacterContentChunkAlgorithmURI;
+        int id = _v.encodingAlgorithm.get(URI);
+        if (id == KeyIntMap.NOT_PRESENT) {
+            throw new IOException(CommonResourceBundle.getInstance().getString("message.EncodingAlgorithmURI", new Object[]{URI}));
+        }
+        id += EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START;
+
+        final EncodingAlgorithm ea = _registeredEncodingAlgorithms.get(URI);
+        if (ea == null) {
+            throw new IOException(CommonResourceBundle.getInstance().getString("message.algorithmNotRegistered", new Object[]{URI}));
+        }
+
+        _encodingBufferOutputStream.reset();
+        try {
+            ea.encodeToOutputStream(ea.convertFromCharacters(ch, offset, length), _encodingBufferOutputStream);
+        } catch (EncodingAlgorithmException e) {
+            throw new IOException(e);
+        }
+        // The UTF-8 encoding of the characters is at least one octet per character
+        if (_encodingBufferIndex >= length) {
+            return false;
+        }
+
+        // Encode identification and top two bits of encoding algorithm id
+        write (EncodingConstants.CHARACTER_CHUNK | EncodingConstants.CHARACTER_CHUNK_ENCODING_ALGORITHM_FLAG |
+                ((id & 0xC0) >> 6));
+
+        // Encode bottom 6 bits of enoding algorithm id
+        _b = (id & 0x3F) << 2;
+
+        encodeNonZeroOctetStringLengthOnSenventhBit(_encodingBufferIndex);
+        write(_encodingBuffer, _encodingBufferIndex);
+        return true;
+    }
+
     /**
      * Encode a chunk of Character Information Items using a numeric
      * alphabet that results in the encoding of a character in 4 bits
@@ -1480,6 +1838,35 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         _octetBufferIndex += octetLength;
     }
 
+    /**
+     * Encode the [normalized value] of an Attribute Information Item that
+     * is a single value of the built in int, long or double encoding
+     * algorithm.
+     *
+     * @param id the built in encoding algorithm identifier, one of
+     *        {@link EncodingAlgorithmIndexes#INT},
+     *        {@link EncodingAlgorithmIndexes#LONG} and
+     *        {@link EncodingAlgorithmIndexes#DOUBLE}.
+     * @param value the int or long value, or the bits of the double value
+     *        as returned by {@link Double#doubleToLongBits(double)}.
+     */
+    protected final void encodeAIIBuiltInAlgorithmPrimitiveValue(int id, long value) throws IOException {
+        // Encode identification and top four bits of encoding algorithm id
+        write (EncodingConstants.NISTRING_ENCODING_ALGORITHM_FLAG |
+                ((id & 0xF0) >> 4));
+
+        // Encode bottom 4 bits of enoding algorithm id
+        _b = (id & 0x0F) << 4;
+
+        final int octetLength = (id == EncodingAlgorithmIndexes.INT) ? 4 : 8;
+        encodeNonZeroOctetStringLengthOnFifthBit(octetLength);
+
+        ensureSize(octetLength);
+        for (int shift = (octetLength - 1) * 8; shift >= 0; shift -= 8) {
+            _octetBuffer[_octetBufferIndex++] = (byte) (value >>> shift);
+        }
+    }
+
     /**
      * Encode a non identifying string on the third bit of an octet.Implementation of clause C.15 of ITU-T Rec.
      * X.891 | ISO/IEC 24824-1.
@@ -1658,6 +2045,42 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         write(d, offset, length);
     }
 
+    /**
+     * Encode a chunk of Character Information Items using
+     * using an encoding algorithm.Implementation of clause C.15 of ITU-T Rec.
+     * X.891 | ISO/IEC 24824-1.
+     * <p>
+     * The data is copied from the stream to the output stream in blocks and
+     * is not buffered as a whole.
+     *
+     * @param id the encoding algorithm identifier.
+     * @param s the stream of the data to be encoded.
+     * @param length the length of bytes, greater than 0.
+     * @throws java.io.IOException on error, or if the stream ends before
+     *         length bytes are read
+     */
+    protected final void encodeCIIOctetAlgorithmData(int id, InputStream s, int length) throws IOException {
+        // Encode identification and top two bits of encoding algorithm id
+        write (EncodingConstants.CHARACTER_CHUNK | EncodingConstants.CHARACTER_CHUNK_ENCODING_ALGORITHM_FLAG |
+                ((id & 0xC0) >> 6));
+
+        // Encode bottom 6 bits of enoding algorithm id
+        _b = (id & 0x3F) << 2;
+
+        // Encode the length
+        encodeNonZeroOctetStringLengthOnSenventhBit(length);
+
+        final byte[] b = new byte[Math.min(length, _octetBuffer.length)];
+        while (length > 0) {
+            final int n = s.read(b, 0, Math.min(length, b.length));
+            if (n < 0) {
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            write(b, 0, n);
+            length -= n;
+        }
+    }
+
     /**
      * Encode a chunk of Character Information Items using
      * using an encoding algorithm.Implementation of clause C.15 of ITU-T Rec.X.891 | ISO/IEC 24824-1.
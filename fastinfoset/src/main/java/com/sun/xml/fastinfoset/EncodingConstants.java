@@ -41,6 +41,22 @@ public final class EncodingConstants {
             EncodingConstants.XMLNS_NAMESPACE_PREFIX,
             EncodingConstants.XMLNS_NAMESPACE_PREFIX);
     
+    /**
+     * The identifier of the additional data item that signals the reset
+     * of a persistent vocabulary shared across consecutive documents.
+     */
+    public static final String PERSISTENT_VOCABULARY_RESET_URI = 
+            "urn:com.sun.xml.fastinfoset:persistent-vocabulary:reset";
+    
+    /**
+     * The identifier of the additional data item that signals a checkpoint
+     * of a persistent vocabulary. The data is the number of documents
+     * encoded since the reset of the vocabulary, including the document,
+     * as a 32 bit big endian integer.
+     */
+    public static final String PERSISTENT_VOCABULARY_CHECKPOINT_URI = 
+            "urn:com.sun.xml.fastinfoset:persistent-vocabulary:checkpoint";
+    
     public static final int DOCUMENT_ADDITIONAL_DATA_FLAG = 0x40; // 01000000
     public static final int DOCUMENT_INITIAL_VOCABULARY_FLAG = 0x20; // 00100000
     public static final int DOCUMENT_NOTATIONS_FLAG = 0x10; // 00010000
@@ -15,12 +15,12 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.sun.xml.fastinfoset.algorithm;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 
@@ -34,75 +34,32 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
         '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/'
     };
 
-    /* package */ static final int[] decodeBase64 = {
-        /*'+'*/ 62,
-        -1, -1, -1,
-        /*'/'*/ 63,
-        /*'0'*/ 52,
-        /*'1'*/ 53,
-        /*'2'*/ 54,
-        /*'3'*/ 55,
-        /*'4'*/ 56,
-        /*'5'*/ 57,
-        /*'6'*/ 58,
-        /*'7'*/ 59,
-        /*'8'*/ 60,
-        /*'9'*/ 61,
-        -1, -1, -1, -1, -1, -1, -1,
-        /*'A'*/ 0,
-        /*'B'*/ 1,
-        /*'C'*/ 2,
-        /*'D'*/ 3,
-        /*'E'*/ 4,
-        /*'F'*/ 5,
-        /*'G'*/ 6,
-        /*'H'*/ 7,
-        /*'I'*/ 8,
-        /*'J'*/ 9,
-        /*'K'*/ 10,
-        /*'L'*/ 11,
-        /*'M'*/ 12,
-        /*'N'*/ 13,
-        /*'O'*/ 14,
-        /*'P'*/ 15,
-        /*'Q'*/ 16,
-        /*'R'*/ 17,
-        /*'S'*/ 18,
-        /*'T'*/ 19,
-        /*'U'*/ 20,
-        /*'V'*/ 21,
-        /*'W'*/ 22,
-        /*'X'*/ 23,
-        /*'Y'*/ 24,
-        /*'Z'*/ 25,
-        -1, -1, -1, -1, -1, -1,
-        /*'a'*/ 26,
-        /*'b'*/ 27,
-        /*'c'*/ 28,
-        /*'d'*/ 29,
-        /*'e'*/ 30,
-        /*'f'*/ 31,
-        /*'g'*/ 32,
-        /*'h'*/ 33,
-        /*'i'*/ 34,
-        /*'j'*/ 35,
-        /*'k'*/ 36,
-        /*'l'*/ 37,
-        /*'m'*/ 38,
-        /*'n'*/ 39,
-        /*'o'*/ 40,
-        /*'p'*/ 41,
-        /*'q'*/ 42,
-        /*'r'*/ 43,
-        /*'s'*/ 44,
-        /*'t'*/ 45,
-        /*'u'*/ 46,
-        /*'v'*/ 47,
-        /*'w'*/ 48,
-        /*'x'*/ 49,
-        /*'y'*/ 50,
-        /*'z'*/ 51
-    };
+    // The values of decodeBase64 that are not sextets
+    private static final byte INVALID = -1;
+    private static final byte WHITE_SPACE = -2;
+    private static final byte PADDING = -3;
+
+    /**
+     * The sextet of each ASCII character, or {@link #INVALID},
+     * {@link #WHITE_SPACE} or {@link #PADDING}.
+     */
+    /* package */ static final byte[] decodeBase64 = new byte[0x80];
+
+    static {
+        Arrays.fill(decodeBase64, INVALID);
+        for (int i = 0; i < encodeBase64.length; i++) {
+            decodeBase64[encodeBase64[i]] = (byte) i;
+        }
+        for (char c = 0; c < decodeBase64.length; c++) {
+            if (isWhiteSpace(c)) {
+                decodeBase64[c] = WHITE_SPACE;
+            }
+        }
+        decodeBase64['='] = PADDING;
+    }
+
+    // The number of octets converted to characters at a time, a multiple of 3
+    private static final int CHARACTERS_CHUNK_OCTETS = 3 * 1024;
 
     public BASE64EncodingAlgorithm() {
     }
@@ -116,7 +73,7 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
     @Override
     public final Object decodeFromInputStream(InputStream s) throws IOException {
-        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().getString("message.notImplemented"));
+        return s.readAllBytes();
     }
     
     
@@ -131,51 +88,23 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        if (length == 0) {
-            return new byte[0];
-        }
-        
-        StringBuilder encodedValue = removeWhitespace(ch, start, length);
-        int encodedLength = encodedValue.length();
-        if (encodedLength == 0) {
-            return new byte[0];
+        final byte[] value = new byte[getMaximumOctetLengthFromCharacterLength(length)];
+        final int valueLength = convertFromCharactersToByteArray(ch, start, length, value, 0);
+        return (valueLength == value.length) ? value : Arrays.copyOf(value, valueLength);
+    }
+    
+    @Override
+    public final void convertToCharacters(Object data, StringBuffer s) {
+        if (data == null) {
+            return;
         }
+        final byte[] value = (byte[]) data;
         
-        int blockCount = encodedLength / 4;
-        int partialBlockLength = 3;
-
-        if (encodedValue.charAt(encodedLength - 1) == '=') {
-            --partialBlockLength;
-            if (encodedValue.charAt(encodedLength - 2) == '=') {
-                --partialBlockLength;
-            }
-        }
-
-        int valueLength = (blockCount - 1) * 3 + partialBlockLength;
-        byte[] value = new byte[valueLength];
-
-        int idx = 0;
-        int encodedIdx = 0;
-        for (int i = 0; i < blockCount; ++i) {
-            int x1 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-            int x2 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-            int x3 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-            int x4 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-
-            value[idx++] = (byte) ((x1 << 2) | (x2 >> 4));
-            if (idx < valueLength) {
-                value[idx++] = (byte) (((x2 & 0x0f) << 4) | (x3 >> 2));
-            }
-            if (idx < valueLength) {
-                value[idx++] = (byte) (((x3 & 0x03) << 6) | x4);
-            }
-        }
-
-        return value;
+        convertToCharacters(value, 0, value.length, s);
     }
     
     @Override
-    public final void convertToCharacters(Object data, StringBuffer s) {
+    public final void convertToCharacters(Object data, StringBuilder s) {
         if (data == null) {
             return;
         }
@@ -199,48 +128,176 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
         System.arraycopy((byte[])array, astart, b, start, alength);
     }    
 
-    public final void convertToCharacters(byte[] data, int offset, int length, StringBuffer s) {
-        if (data == null) {
-            return;
-        }
-        final byte[] value = data;
-        if (length == 0) {
-            return;
-        }
-        
-        final int partialBlockLength = length % 3;
-        final int blockCount = (partialBlockLength != 0) ? 
-            length / 3 + 1 : 
-            length / 3;
+    /**
+     * @param length the number of characters.
+     * @return the maximum number of octets that the characters are
+     *         converted to.
+     */
+    public static int getMaximumOctetLengthFromCharacterLength(int length) {
+        return length / 4 * 3 + 2;
+    }
+
+    /**
+     * @param length the number of octets.
+     * @return the number of characters that the octets are converted to.
+     */
+    public static int getCharacterLengthFromOctetLength(int length) {
+        return (length + 2) / 3 * 4;
+    }
 
-        final int encodedLength = blockCount * 4;
-        final int originalBufferSize = s.length();
-        s.ensureCapacity(encodedLength + originalBufferSize);
+    /**
+     * Convert base64 characters to octets written to an array.
+     * <p>
+     * White space is skipped. Four characters without white space are
+     * decoded together as one word of 24 bits.
+     *
+     * @param ch the array of characters.
+     * @param start the index of the first character.
+     * @param length the number of characters.
+     * @param b the array of octets, with at least
+     *        {@link #getMaximumOctetLengthFromCharacterLength(int)} octets
+     *        from the index of the first octet.
+     * @param bstart the index of the first octet.
+     * @return the index after the last octet.
+     * @throws IllegalArgumentException if the characters are not base64.
+     */
+    public final int convertFromCharactersToByteArray(char[] ch, int start, int length, byte[] b, int bstart) {
+        final int end = start + length;
+        int i = start;
+        while (i < end) {
+            if (end - i >= 4) {
+                final char c1 = ch[i], c2 = ch[i + 1], c3 = ch[i + 2], c4 = ch[i + 3];
+                if ((c1 | c2 | c3 | c4) < 0x80) {
+                    final int s1 = decodeBase64[c1], s2 = decodeBase64[c2],
+                            s3 = decodeBase64[c3], s4 = decodeBase64[c4];
+                    if ((s1 | s2 | s3 | s4) >= 0) {
+                        final int word = (s1 << 18) | (s2 << 12) | (s3 << 6) | s4;
+                        b[bstart++] = (byte) (word >> 16);
+                        b[bstart++] = (byte) (word >> 8);
+                        b[bstart++] = (byte) word;
+                        i += 4;
+                        continue;
+                    }
+                }
+            }
 
-        int idx = offset;
-        int lastIdx = offset + length;
-        for (int i = 0; i < blockCount; ++i) {
-            int b1 = value[idx++] & 0xFF;
-            int b2 = (idx < lastIdx) ? value[idx++] & 0xFF : 0;
-            int b3 = (idx < lastIdx) ? value[idx++] & 0xFF : 0;
+            // Decode the sextets of the quantum one character at a time
+            int word = 0;
+            int sextets = 0;
+            boolean padding = false;
+            while (i < end && sextets < 4) {
+                final char c = ch[i++];
+                final int sextet = (c < 0x80) ? decodeBase64[c] : INVALID;
+                if (sextet >= 0) {
+                    word = (word << 6) | sextet;
+                    sextets++;
+                } else if (sextet == PADDING) {
+                    padding = true;
+                    break;
+                } else if (sextet == INVALID) {
+                    throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.invalidBase64Characters"));
+                }
+            }
 
-            s.append(encodeBase64[b1 >> 2]);
+            // Padding follows 2 or 3 sextets
+            if (sextets == 1 || (sextets == 0 && padding)) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.invalidBase64Characters"));
+            }
 
-            s.append(encodeBase64[((b1 & 0x03) << 4) | (b2 >> 4)]);
+            switch (sextets) {
+                case 2:
+                    b[bstart++] = (byte) (word >> 4);
+                    break;
+                case 3:
+                    b[bstart++] = (byte) (word >> 10);
+                    b[bstart++] = (byte) (word >> 2);
+                    break;
+                case 4:
+                    b[bstart++] = (byte) (word >> 16);
+                    b[bstart++] = (byte) (word >> 8);
+                    b[bstart++] = (byte) word;
+                    break;
+            }
 
-            s.append(encodeBase64[((b2 & 0x0f) << 2) | (b3 >> 6)]);
+            if (padding) {
+                // Only padding and white space may follow padding
+                while (i < end) {
+                    final char c = ch[i++];
+                    if (c >= 0x80 || (decodeBase64[c] != PADDING && decodeBase64[c] != WHITE_SPACE)) {
+                        throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.invalidBase64Characters"));
+                    }
+                }
+            }
+        }
+        return bstart;
+    }
 
-            s.append(encodeBase64[b3 & 0x3f]);
+    /**
+     * Convert octets to base64 characters written to an array.
+     *
+     * @param data the array of octets.
+     * @param offset the index of the first octet.
+     * @param length the number of octets.
+     * @param ch the array of characters, with at least
+     *        {@link #getCharacterLengthFromOctetLength(int)} characters
+     *        from the index of the first character.
+     * @param start the index of the first character.
+     * @return the index after the last character.
+     */
+    public final int convertToCharacters(byte[] data, int offset, int length, char[] ch, int start) {
+        final int partialBlockLength = length % 3;
+        final int end = offset + length - partialBlockLength;
+        for (; offset < end; offset += 3) {
+            final int word = ((data[offset] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset + 2] & 0xFF);
+            ch[start++] = encodeBase64[word >>> 18];
+            ch[start++] = encodeBase64[(word >>> 12) & 0x3F];
+            ch[start++] = encodeBase64[(word >>> 6) & 0x3F];
+            ch[start++] = encodeBase64[word & 0x3F];
         }
 
         switch (partialBlockLength) {
-            case 1 :
-                s.setCharAt(originalBufferSize + encodedLength - 1, '=');
-                s.setCharAt(originalBufferSize + encodedLength - 2, '=');
+            case 1 : {
+                final int word = (data[offset] & 0xFF) << 16;
+                ch[start++] = encodeBase64[word >>> 18];
+                ch[start++] = encodeBase64[(word >>> 12) & 0x3F];
+                ch[start++] = '=';
+                ch[start++] = '=';
                 break;
-            case 2 :
-                s.setCharAt(originalBufferSize + encodedLength - 1, '=');
+            }
+            case 2 : {
+                final int word = ((data[offset] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8);
+                ch[start++] = encodeBase64[word >>> 18];
+                ch[start++] = encodeBase64[(word >>> 12) & 0x3F];
+                ch[start++] = encodeBase64[(word >>> 6) & 0x3F];
+                ch[start++] = '=';
                 break;
+            }
+        }
+        return start;
+    }
+
+    public final void convertToCharacters(byte[] data, int offset, int length, StringBuffer s) {
+        if (data == null || length == 0) {
+            return;
+        }
+
+        // Converted in chunks so that the string buffer is locked once per chunk
+        final char[] ch = new char[getCharacterLengthFromOctetLength(Math.min(length, CHARACTERS_CHUNK_OCTETS))];
+        s.ensureCapacity(s.length() + getCharacterLengthFromOctetLength(length));
+        for (int i = 0; i < length; i += CHARACTERS_CHUNK_OCTETS) {
+            s.append(ch, 0, convertToCharacters(data, offset + i, Math.min(CHARACTERS_CHUNK_OCTETS, length - i), ch, 0));
+        }
+    }
+
+    public final void convertToCharacters(byte[] data, int offset, int length, StringBuilder s) {
+        if (data == null || length == 0) {
+            return;
+        }
+
+        final char[] ch = new char[getCharacterLengthFromOctetLength(Math.min(length, CHARACTERS_CHUNK_OCTETS))];
+        s.ensureCapacity(s.length() + getCharacterLengthFromOctetLength(length));
+        for (int i = 0; i < length; i += CHARACTERS_CHUNK_OCTETS) {
+            s.append(ch, 0, convertToCharacters(data, offset + i, Math.min(CHARACTERS_CHUNK_OCTETS, length - i), ch, 0));
         }
     }
 }
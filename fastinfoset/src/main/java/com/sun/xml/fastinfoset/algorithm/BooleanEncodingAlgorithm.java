@@ -15,7 +15,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.sun.xml.fastinfoset.algorithm;
 
 
@@ -23,9 +22,6 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
@@ -41,16 +37,31 @@ import com.sun.xml.fastinfoset.CommonResourceBundle;
  */
 public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
-    /** Table for setting a particular bit of a byte */
-    private static final int[] BIT_TABLE = {
-        1 << 7,
-        1 << 6,
-        1 << 5,
-        1 << 4,
-        1 << 3,
-        1 << 2,
-        1 << 1,
-        1};
+    /**
+     * The maximum number of characters of a boolean value.
+     */
+    public static final int BOOLEAN_MAX_CHARACTER_SIZE = 5;
+
+    private static final char[] TRUE_CHARACTERS = {'t', 'r', 'u', 'e'};
+
+    private static final char[] FALSE_CHARACTERS = {'f', 'a', 'l', 's', 'e'};
+
+    // The number of booleans converted to characters at a time
+    private static final int CHARACTERS_CHUNK_LENGTH = 256;
+
+    /**
+     * Table of the eight booleans of each octet, most significant bit
+     * first.
+     */
+    private static final boolean[] OCTET_TO_BOOLEANS_TABLE = new boolean[256 * 8];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            for (int bit = 0; bit < 8; bit++) {
+                OCTET_TO_BOOLEANS_TABLE[i * 8 + bit] = (i & (0x80 >>> bit)) != 0;
+            }
+        }
+    }
 
     public BooleanEncodingAlgorithm() {
     }
@@ -63,12 +74,8 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
 
     @Override
     public int getOctetLengthFromPrimitiveLength(int primitiveLength) {
-        if (primitiveLength < 5) {
-            return 1;
-        } else {
-            final int div = primitiveLength / 8;
-            return (div == 0) ? 2 : 1 + div;             
-        }         
+        // Four bits of the first octet are the number of unused bits
+        return (primitiveLength + 4 + 7) / 8;
     }
                 
     @Override
@@ -81,31 +88,16 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     }                
                 
     @Override
-    public final Object decodeFromInputStream(InputStream s) throws IOException {
-        final List<Boolean> booleanList = new ArrayList<>();
-
-        int value = s.read();
-        if (value == -1) {
-            throw new EOFException();            
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        final byte[] b = s.readAllBytes();
+        if (b.length == 0) {
+            throw new EOFException();
+        } else if (b.length == 1 && ((b[0] >> 4) & 0x0F) == 4) {
+            // An empty array, as encoded by encodeToOutputStream
+            return new boolean[0];
         }
-        final int unusedBits = (value >> 4) & 0xFF;
-                   
-        int bitPosition = 4;
-        int bitPositionEnd = 8;
-        do {
-            int valueNext = s.read();
-            if (valueNext == -1) {
-                bitPositionEnd -= unusedBits;
-            }
-            
-            while(bitPosition < bitPositionEnd) {
-                booleanList.add((value & BIT_TABLE[bitPosition++]) > 0);
-            }
-            
-            value = valueNext;
-        } while (value != -1);
-        
-        return generateArrayFromList(booleanList);
+
+        return decodeFromBytes(b, 0, b.length);
     }
                 
     @Override
@@ -114,49 +106,24 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
             throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotBoolean"));
         }
 
-        boolean[] array = (boolean[])data;
-        final int alength = array.length;
-        
-        final int mod = (alength + 4) % 8;
-        final int unusedBits = (mod == 0) ? 0 : 8 - mod;
-        
-        int bitPosition = 4;
-        int value = unusedBits << 4;
-        int astart = 0;
-        while (astart < alength) {
-            if (array[astart++]) {
-                value |= BIT_TABLE[bitPosition];
-            }
-            
-            if (++bitPosition == 8) {
-                s.write(value);
-                bitPosition = value = 0;
-            }
-        }
-        
-        if (bitPosition != 8) {
-            s.write(value);
-        }
+        final boolean[] array = (boolean[])data;
+        final byte[] b = new byte[getOctetLengthFromPrimitiveLength(array.length)];
+        encodeToBytesFromBooleanArray(array, 0, array.length, b, 0);
+        s.write(b);
     }
                                 
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        if (length == 0) {
-            return new boolean[0];
-        }
-
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Boolean> booleanList = new ArrayList<>();
+        final int end = start + length;
+        final boolean[] data = new boolean[countWords(ch, start, end)];
 
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            if (cb.charAt(start1) == 't') {
-                booleanList.add(Boolean.TRUE);
-            } else {
-                booleanList.add(Boolean.FALSE);
-            }
-        });
+        int i = skipWhiteSpace(ch, start, end);
+        for (int j = 0; j < data.length; j++) {
+            data[j] = ch[i] == 't';
+            i = skipWhiteSpace(ch, skipWord(ch, i, end), end);
+        }
 
-        return generateArrayFromList(booleanList);
+        return data;
     }
 
     @Override
@@ -170,22 +137,60 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
             return;
         }
 
-        // Insure conservately as all false
-        s.ensureCapacity(value.length * 5);
+        // Converted in chunks so that the string buffer is locked once per chunk
+        final char[] ch = new char[Math.min(value.length, CHARACTERS_CHUNK_LENGTH) * (BOOLEAN_MAX_CHARACTER_SIZE + 1)];
+        for (int i = 0; i < value.length; i += CHARACTERS_CHUNK_LENGTH) {
+            int length = 0;
+            if (i != 0) {
+                ch[length++] = ' ';
+            }
+            length = convertToCharactersFromBooleanArray(value, i, Math.min(CHARACTERS_CHUNK_LENGTH, value.length - i), ch, length);
+            s.append(ch, 0, length);
+        }
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (data == null) {
+            return;
+        }
 
+        final boolean[] value = (boolean[]) data;
         final int end = value.length - 1;
         for (int i = 0; i <= end; i++) {
-            if (value[i]) {
-                s.append("true");
-            } else {
-                s.append("false");
-            }
+            s.append(value[i] ? TRUE_CHARACTERS : FALSE_CHARACTERS);
             if (i != end) {
                 s.append(' ');
             }
         }
     }
 
+    /**
+     * Convert booleans to characters, delimited by a space, written to an
+     * array.
+     *
+     * @param bdata the array of booleans.
+     * @param bstart the index of the first boolean.
+     * @param blength the number of booleans.
+     * @param ch the array of characters, with at least
+     *        blength * ({@link #BOOLEAN_MAX_CHARACTER_SIZE} + 1) characters
+     *        from the index of the first character.
+     * @param start the index of the first character.
+     * @return the index after the last character.
+     */
+    public final int convertToCharactersFromBooleanArray(boolean[] bdata, int bstart, int blength, char[] ch, int start) {
+        final int bend = bstart + blength;
+        for (int i = bstart; i < bend; i++) {
+            if (i != bstart) {
+                ch[start++] = ' ';
+            }
+            final char[] value = bdata[i] ? TRUE_CHARACTERS : FALSE_CHARACTERS;
+            System.arraycopy(value, 0, ch, start, value.length);
+            start += value.length;
+        }
+        return start;
+    }
+
     public int getPrimtiveLengthFromOctetLength(int octetLength, int firstOctet) throws EncodingAlgorithmException {
         final int unusedBits = (firstOctet >> 4) & 0xFF;
         if (octetLength == 1) {
@@ -202,19 +207,53 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     }
     
     public final void decodeFromBytesToBooleanArray(boolean[] bdata, int bstart, int blength, byte[] b, int start, int length) {
-        int value = b[start++] & 0xFF;
-        int bitPosition = 4;
         final int bend = bstart + blength;
-        while (bstart < bend) {
-            if (bitPosition == 8) {
-                value = b[start++] & 0xFF;
-                bitPosition = 0;
-            }
-            
-            bdata[bstart++] = (value & BIT_TABLE[bitPosition++]) > 0;
+
+        // The last four bits of the first octet
+        final int first = b[start++] & 0xFF;
+        final int firstLength = Math.min(4, blength);
+        System.arraycopy(OCTET_TO_BOOLEANS_TABLE, first * 8 + 4, bdata, bstart, firstLength);
+        bstart += firstLength;
+
+        // Eight booleans from each following octet
+        while (bend - bstart >= 8) {
+            System.arraycopy(OCTET_TO_BOOLEANS_TABLE, (b[start++] & 0xFF) * 8, bdata, bstart, 8);
+            bstart += 8;
+        }
+        if (bstart < bend) {
+            System.arraycopy(OCTET_TO_BOOLEANS_TABLE, (b[start] & 0xFF) * 8, bdata, bstart, bend - bstart);
         }
     }
                 
+    /**
+     * Decode booleans from any position of the encoded booleans.
+     *
+     * @param bdata the array of booleans.
+     * @param bstart the index of the first boolean of the array.
+     * @param blength the number of booleans to decode.
+     * @param b the encoded booleans.
+     * @param start the index of the first octet of the encoded booleans.
+     * @param length the number of octets of the encoded booleans.
+     * @param index the index of the first boolean to decode, from the
+     *        first encoded boolean.
+     */
+    public final void decodeFromBytesToBooleanArray(boolean[] bdata, int bstart, int blength, byte[] b, int start, int length, int index) {
+        final int bend = bstart + blength;
+
+        // The booleans follow the four bits of the number of unused bits
+        int octet = start + (index + 4) / 8;
+        int bit = (index + 4) % 8;
+        if (octet + (bit + blength + 7) / 8 > start + length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        while (bstart < bend) {
+            final int n = Math.min(8 - bit, bend - bstart);
+            System.arraycopy(OCTET_TO_BOOLEANS_TABLE, (b[octet++] & 0xFF) * 8 + bit, bdata, bstart, n);
+            bstart += n;
+            bit = 0;
+        }
+    }
+
     @Override
     public void encodeToBytes(Object array, int astart, int alength, byte[] b, int start) {
         if (!(array instanceof boolean[])) {
@@ -227,42 +266,38 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     public void encodeToBytesFromBooleanArray(boolean[] array, int astart, int alength, byte[] b, int start) {
         final int mod = (alength + 4) % 8;
         final int unusedBits = (mod == 0) ? 0 : 8 - mod;
-        
-        int bitPosition = 4;
-        int value = unusedBits << 4;
         final int aend = astart + alength;
-        while (astart < aend) {
+
+        // The number of unused bits and up to four booleans in the first octet
+        int value = unusedBits << 4;
+        for (int bit = 3; bit >= 0 && astart < aend; bit--) {
             if (array[astart++]) {
-                value |= BIT_TABLE[bitPosition];
-            }
-            
-            if (++bitPosition == 8) {
-                b[start++] = (byte)value;
-                bitPosition = value = 0;
+                value |= 1 << bit;
             }
         }
-        
-        if (bitPosition > 0) {
-            b[start] = (byte)value;
-        }
-    }
+        b[start++] = (byte)value;
 
-
-    /**
-     *
-     * Generate a boolean array from a list of Booleans.
-     *
-     * @param array The array
-     *
-     */
-    private boolean[] generateArrayFromList(List<Boolean> array) {
-        boolean[] bdata = new boolean[array.size()];
-        for (int i = 0; i < bdata.length; i++) {
-            bdata[i] = array.get(i);
+        // Eight booleans in each following octet
+        while (aend - astart >= 8) {
+            b[start++] = (byte)((array[astart] ? 0x80 : 0) |
+                    (array[astart + 1] ? 0x40 : 0) |
+                    (array[astart + 2] ? 0x20 : 0) |
+                    (array[astart + 3] ? 0x10 : 0) |
+                    (array[astart + 4] ? 0x08 : 0) |
+                    (array[astart + 5] ? 0x04 : 0) |
+                    (array[astart + 6] ? 0x02 : 0) |
+                    (array[astart + 7] ? 0x01 : 0));
+            astart += 8;
         }
 
-        return bdata;
+        if (astart < aend) {
+            value = 0;
+            for (int bit = 7; astart < aend; bit--) {
+                if (array[astart++]) {
+                    value |= 1 << bit;
+                }
+            }
+            b[start] = (byte)value;
+        }
     }
-           
 }
-
@@ -19,7 +19,6 @@
 package com.sun.xml.fastinfoset.algorithm;
 
 import java.nio.CharBuffer;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -27,6 +26,12 @@ import org.jvnet.fastinfoset.EncodingAlgorithmException;
 public abstract class BuiltInEncodingAlgorithm implements EncodingAlgorithm {
     protected static final Pattern SPACE_PATTERN = Pattern.compile("\\s");
 
+    /**
+     * The number of values at and above which values are converted to and
+     * from octets with a view buffer rather than one at a time.
+     */
+    protected static final int BULK_CONVERSION_LENGTH = 32;
+
     public abstract int getPrimtiveLengthFromOctetLength(int octetLength) throws EncodingAlgorithmException;
 
     public abstract int getOctetLengthFromPrimitiveLength(int primitiveLength);
@@ -41,18 +46,83 @@ public abstract class BuiltInEncodingAlgorithm implements EncodingAlgorithm {
     }
 
     public void matchWhiteSpaceDelimnatedWords(CharBuffer cb, WordListener wl) {
-        Matcher m = SPACE_PATTERN.matcher(cb);
+        final int end = cb.length();
         int i = 0;
-        int s = 0;
-        while(m.find()) {
-            s = m.start();
-            if (s != i) {
-                wl.word(i, s);
+        while (i < end) {
+            if (isWhiteSpace(cb.charAt(i))) {
+                i++;
+            } else {
+                final int start = i;
+                while (++i < end && !isWhiteSpace(cb.charAt(i)));
+                wl.word(start, i);
             }
-            i = m.end();
         }
-        if (i != cb.length())
-            wl.word(i, cb.length());
+    }
+
+    /**
+     * Convert data to characters appended to a string builder.
+     * <p>
+     * The data is converted as by
+     * {@link #convertToCharacters(Object, StringBuffer)}.
+     *
+     * @param data the data.
+     * @param s the string builder.
+     * @throws EncodingAlgorithmException if the data cannot be converted.
+     */
+    public void convertToCharacters(Object data, StringBuilder s) throws EncodingAlgorithmException {
+        final StringBuffer b = new StringBuffer();
+        convertToCharacters(data, b);
+        s.append(b);
+    }
+
+    /**
+     * @param c the character.
+     * @return true if the character is white space that delimits words,
+     *         as matched by {@link #SPACE_PATTERN}.
+     */
+    protected static boolean isWhiteSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * @param ch the array of characters.
+     * @param start the index of the first character.
+     * @param end the index after the last character.
+     * @return the number of words delimited by white space.
+     */
+    protected static int countWords(char[] ch, int start, int end) {
+        int words = 0;
+        for (int i = skipWhiteSpace(ch, start, end); i < end; i = skipWhiteSpace(ch, skipWord(ch, i, end), end)) {
+            words++;
+        }
+        return words;
+    }
+
+    /**
+     * @param ch the array of characters.
+     * @param i the index of the first character.
+     * @param end the index after the last character.
+     * @return the index of the first character that is not white space,
+     *         or end.
+     */
+    protected static int skipWhiteSpace(char[] ch, int i, int end) {
+        while (i < end && isWhiteSpace(ch[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param ch the array of characters.
+     * @param i the index of the first character.
+     * @param end the index after the last character.
+     * @return the index of the first character that is white space, or end.
+     */
+    protected static int skipWord(char[] ch, int i, int end) {
+        while (i < end && !isWhiteSpace(ch[i])) {
+            i++;
+        }
+        return i;
     }
     
     public StringBuilder removeWhitespace(char[] ch, int start, int length) {
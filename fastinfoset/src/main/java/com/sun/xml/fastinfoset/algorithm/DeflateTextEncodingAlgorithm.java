@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * An encoding algorithm for large character content, such as embedded free
+ * text, that compresses the UTF-8 encoding of the characters with the zlib
+ * format of the deflate compression method.
+ * <p>
+ * The data of the algorithm is a {@link String}. Any {@link CharSequence}
+ * or char[] may be encoded.
+ * <p>
+ * A preset dictionary, a sequence of octets that is likely to occur in the
+ * characters, improves the compression of short character content. The
+ * serializer and the parser are to register instances of the algorithm
+ * with the same dictionary.
+ * <p>
+ * The algorithm is not a built-in encoding algorithm. It is used by
+ * registering it with {@link #URI} as an encoding algorithm of the
+ * serializer and of the parser, and by adding the URI to the encoding
+ * algorithm table of the vocabulary. The serializer may apply it to large
+ * character content chunks, see
+ * {@link com.sun.xml.fastinfoset.Encoder#setLargeCharacterContentChunkAlgorithm(String, int)}.
+ */
+public class DeflateTextEncodingAlgorithm implements EncodingAlgorithm {
+    /**
+     * The URI of the algorithm.
+     */
+    public static final String URI = "http://jvnet.org/fastinfoset/algorithm/deflate-text";
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final int _level;
+
+    private final byte[] _dictionary;
+
+    /**
+     * Create the algorithm with the default compression level and without
+     * a preset dictionary.
+     */
+    public DeflateTextEncodingAlgorithm() {
+        this(Deflater.DEFAULT_COMPRESSION, null);
+    }
+
+    /**
+     * Create the algorithm.
+     *
+     * @param level the compression level, see {@link Deflater#setLevel(int)}.
+     * @param dictionary the preset dictionary, or null.
+     */
+    public DeflateTextEncodingAlgorithm(int level, byte[] dictionary) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException();
+        }
+
+        _level = level;
+        _dictionary = (dictionary != null) ? dictionary.clone() : null;
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(b, start, length);
+            return inflate(inflater, null);
+        } catch (IOException e) {
+            throw new EncodingAlgorithmException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        final Inflater inflater = new Inflater();
+        try {
+            return inflate(inflater, s);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public final void encodeToOutputStream(Object data, OutputStream s) throws IOException {
+        final byte[] b;
+        if (data instanceof char[]) {
+            b = new String((char[]) data).getBytes(StandardCharsets.UTF_8);
+        } else if (data instanceof CharSequence) {
+            b = data.toString().getBytes(StandardCharsets.UTF_8);
+        } else {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotCharacters"));
+        }
+
+        final Deflater deflater = new Deflater(_level);
+        try {
+            if (_dictionary != null) {
+                deflater.setDictionary(_dictionary);
+            }
+            deflater.setInput(b);
+            deflater.finish();
+
+            final byte[] buffer = new byte[Math.min(BUFFER_SIZE, b.length + 64)];
+            while (!deflater.finished()) {
+                final int n = deflater.deflate(buffer);
+                s.write(buffer, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public final Object convertFromCharacters(char[] ch, int start, int length) {
+        return new String(ch, start, length);
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuffer s) {
+        if (!(data instanceof CharSequence)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotCharacters"));
+        }
+
+        s.append((CharSequence) data);
+    }
+
+    /*
+     * Inflate the octets set as the input of the inflater, or read from
+     * the stream if not null, as the UTF-8 encoding of a string.
+     */
+    private String inflate(Inflater inflater, InputStream s) throws EncodingAlgorithmException, IOException {
+        final byte[] input = (s != null) ? new byte[BUFFER_SIZE] : null;
+        byte[] b = new byte[BUFFER_SIZE];
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == b.length) {
+                    b = Arrays.copyOf(b, b.length * 2);
+                }
+
+                final int n = inflater.inflate(b, length, b.length - length);
+                length += n;
+                if (n > 0 || inflater.finished()) {
+                    continue;
+                }
+
+                if (inflater.needsDictionary()) {
+                    if (_dictionary == null) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateTextInvalid"));
+                    }
+                    inflater.setDictionary(_dictionary);
+                } else if (inflater.needsInput()) {
+                    final int m = (s != null) ? s.read(input) : -1;
+                    if (m < 0) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateTextInvalid"));
+                    }
+                    inflater.setInput(input, 0, m);
+                }
+            }
+        } catch (DataFormatException | IllegalArgumentException e) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateTextInvalid"), e);
+        }
+        return new String(b, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * An encoding algorithm for arrays of ints whose successive values differ
+ * by small amounts, such as timestamps and sequence numbers.
+ * <p>
+ * Each int is encoded as the difference from the previous int, or from 0
+ * for the first int. The difference is zig-zag encoded, so that
+ * differences of small magnitude are small positive integers, and the
+ * result is encoded in groups of 7 bits, least significant group first, one
+ * group per octet, where the most significant bit of an octet is set if
+ * another octet follows.
+ * <p>
+ * The algorithm is not a built-in encoding algorithm. It is used by
+ * registering it with {@link #URI} as an encoding algorithm of the
+ * serializer and of the parser, and by adding the URI to the encoding
+ * algorithm table of the vocabulary.
+ */
+public class DeltaIntEncodingAlgorithm implements EncodingAlgorithm {
+    /**
+     * The URI of the algorithm.
+     */
+    public static final String URI = "http://jvnet.org/fastinfoset/algorithm/delta-int";
+
+    /**
+     * The maximum number of octets of an encoded int.
+     */
+    public static final int MAX_OCTET_LENGTH = 5;
+
+    public DeltaIntEncodingAlgorithm() {
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final int[] data = new int[getPrimitiveLength(b, start, length)];
+        decodeFromBytesToIntArray(data, 0, b, start, length);
+        return data;
+    }
+
+    @Override
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        final byte[] b = s.readAllBytes();
+        return decodeFromBytes(b, 0, b.length);
+    }
+
+    @Override
+    public final void encodeToOutputStream(Object data, OutputStream s) throws IOException {
+        if (!(data instanceof int[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotIntArray"));
+        }
+
+        final int[] idata = (int[])data;
+        final byte[] b = new byte[getOctetLength(idata, 0, idata.length)];
+        encodeToBytesFromIntArray(idata, 0, idata.length, b, 0);
+        s.write(b);
+    }
+
+    @Override
+    public final Object convertFromCharacters(char[] ch, int start, int length) {
+        return BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.convertFromCharacters(ch, start, length);
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuffer s) {
+        BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.convertToCharacters(data, s);
+    }
+
+    /**
+     * @param b the array of octets.
+     * @param start the index of the first octet.
+     * @param length the number of octets.
+     * @return the number of ints encoded in the octets.
+     * @throws EncodingAlgorithmException if the last int is not complete.
+     */
+    public final int getPrimitiveLength(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final int end = start + length;
+        if (length > 0 && b[end - 1] < 0) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deltaIntegerInvalid"));
+        }
+
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            if (b[i] >= 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @param idata the array of ints.
+     * @param istart the index of the first int.
+     * @param ilength the number of ints.
+     * @return the number of octets of the encoded ints.
+     */
+    public final int getOctetLength(int[] idata, int istart, int ilength) {
+        final int iend = istart + ilength;
+        int length = 0;
+        int previous = 0;
+        for (int i = istart; i < iend; i++) {
+            final int delta = idata[i] - previous;
+            previous = idata[i];
+            final int v = (delta << 1) ^ (delta >> 31);
+            // The number of groups of 7 bits, at least one
+            length += (31 - Integer.numberOfLeadingZeros(v | 1)) / 7 + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Decode ints from octets.
+     *
+     * @param idata the array of ints, with enough ints from the index of the
+     *        first int, see {@link #getPrimitiveLength(byte[], int, int)}.
+     * @param istart the index of the first int.
+     * @param b the array of octets.
+     * @param start the index of the first octet.
+     * @param length the number of octets.
+     * @return the index after the last int.
+     * @throws EncodingAlgorithmException if the octets are not valid.
+     */
+    public final int decodeFromBytesToIntArray(int[] idata, int istart, byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final int end = start + length;
+        int previous = 0;
+        while (start < end) {
+            int v = 0;
+            int shift = 0;
+            int octet;
+            do {
+                if (start == end || shift == MAX_OCTET_LENGTH * 7) {
+                    throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deltaIntegerInvalid"));
+                }
+                octet = b[start++];
+                v |= (octet & 0x7F) << shift;
+                shift += 7;
+            } while (octet < 0);
+
+            previous += (v >>> 1) ^ -(v & 1);
+            idata[istart++] = previous;
+        }
+        return istart;
+    }
+
+    /**
+     * Encode ints to octets.
+     *
+     * @param idata the array of ints.
+     * @param istart the index of the first int.
+     * @param ilength the number of ints.
+     * @param b the array of octets, with enough octets from the index of the
+     *        first octet, see {@link #getOctetLength(int[], int, int)}.
+     * @param start the index of the first octet.
+     * @return the index after the last octet.
+     */
+    public final int encodeToBytesFromIntArray(int[] idata, int istart, int ilength, byte[] b, int start) {
+        final int iend = istart + ilength;
+        int previous = 0;
+        for (int i = istart; i < iend; i++) {
+            final int delta = idata[i] - previous;
+            previous = idata[i];
+            int v = (delta << 1) ^ (delta >> 31);
+            while ((v & ~0x7F) != 0) {
+                b[start++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            b[start++] = (byte) v;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * An encoding algorithm for arrays of longs whose successive values differ
+ * by small amounts, such as timestamps and sequence numbers.
+ * <p>
+ * Each long is encoded as the difference from the previous long, or from 0
+ * for the first long. The difference is zig-zag encoded, so that
+ * differences of small magnitude are small positive integers, and the
+ * result is encoded in groups of 7 bits, least significant group first, one
+ * group per octet, where the most significant bit of an octet is set if
+ * another octet follows.
+ * <p>
+ * The algorithm is not a built-in encoding algorithm. It is used by
+ * registering it with {@link #URI} as an encoding algorithm of the
+ * serializer and of the parser, and by adding the URI to the encoding
+ * algorithm table of the vocabulary.
+ */
+public class DeltaLongEncodingAlgorithm implements EncodingAlgorithm {
+    /**
+     * The URI of the algorithm.
+     */
+    public static final String URI = "http://jvnet.org/fastinfoset/algorithm/delta-long";
+
+    /**
+     * The maximum number of octets of an encoded long.
+     */
+    public static final int MAX_OCTET_LENGTH = 10;
+
+    public DeltaLongEncodingAlgorithm() {
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final long[] data = new long[getPrimitiveLength(b, start, length)];
+        decodeFromBytesToLongArray(data, 0, b, start, length);
+        return data;
+    }
+
+    @Override
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        final byte[] b = s.readAllBytes();
+        return decodeFromBytes(b, 0, b.length);
+    }
+
+    @Override
+    public final void encodeToOutputStream(Object data, OutputStream s) throws IOException {
+        if (!(data instanceof long[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotLongArray"));
+        }
+
+        final long[] ldata = (long[])data;
+        final byte[] b = new byte[getOctetLength(ldata, 0, ldata.length)];
+        encodeToBytesFromLongArray(ldata, 0, ldata.length, b, 0);
+        s.write(b);
+    }
+
+    @Override
+    public final Object convertFromCharacters(char[] ch, int start, int length) {
+        return BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.convertFromCharacters(ch, start, length);
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuffer s) {
+        BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.convertToCharacters(data, s);
+    }
+
+    /**
+     * @param b the array of octets.
+     * @param start the index of the first octet.
+     * @param length the number of octets.
+     * @return the number of longs encoded in the octets.
+     * @throws EncodingAlgorithmException if the last long is not complete.
+     */
+    public final int getPrimitiveLength(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final int end = start + length;
+        if (length > 0 && b[end - 1] < 0) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deltaIntegerInvalid"));
+        }
+
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            if (b[i] >= 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @param ldata the array of longs.
+     * @param lstart the index of the first long.
+     * @param llength the number of longs.
+     * @return the number of octets of the encoded longs.
+     */
+    public final int getOctetLength(long[] ldata, int lstart, int llength) {
+        final int lend = lstart + llength;
+        int length = 0;
+        long previous = 0;
+        for (int i = lstart; i < lend; i++) {
+            final long delta = ldata[i] - previous;
+            previous = ldata[i];
+            final long v = (delta << 1) ^ (delta >> 63);
+            // The number of groups of 7 bits, at least one
+            length += (63 - Long.numberOfLeadingZeros(v | 1)) / 7 + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Decode longs from octets.
+     *
+     * @param ldata the array of longs, with enough longs from the index of the
+     *        first long, see {@link #getPrimitiveLength(byte[], int, int)}.
+     * @param lstart the index of the first long.
+     * @param b the array of octets.
+     * @param start the index of the first octet.
+     * @param length the number of octets.
+     * @return the index after the last long.
+     * @throws EncodingAlgorithmException if the octets are not valid.
+     */
+    public final int decodeFromBytesToLongArray(long[] ldata, int lstart, byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final int end = start + length;
+        long previous = 0;
+        while (start < end) {
+            long v = 0;
+            int shift = 0;
+            int octet;
+            do {
+                if (start == end || shift == MAX_OCTET_LENGTH * 7) {
+                    throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deltaIntegerInvalid"));
+                }
+                octet = b[start++];
+                v |= (long) (octet & 0x7F) << shift;
+                shift += 7;
+            } while (octet < 0);
+
+            previous += (v >>> 1) ^ -(v & 1);
+            ldata[lstart++] = previous;
+        }
+        return lstart;
+    }
+
+    /**
+     * Encode longs to octets.
+     *
+     * @param ldata the array of longs.
+     * @param lstart the index of the first long.
+     * @param llength the number of longs.
+     * @param b the array of octets, with enough octets from the index of the
+     *        first octet, see {@link #getOctetLength(long[], int, int)}.
+     * @param start the index of the first octet.
+     * @return the index after the last octet.
+     */
+    public final int encodeToBytesFromLongArray(long[] ldata, int lstart, int llength, byte[] b, int start) {
+        final int lend = lstart + llength;
+        long previous = 0;
+        for (int i = lstart; i < lend; i++) {
+            final long delta = ldata[i] - previous;
+            previous = ldata[i];
+            long v = (delta << 1) ^ (delta >> 63);
+            while ((v & ~0x7FL) != 0) {
+                b[start++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            b[start++] = (byte) v;
+        }
+        return start;
+    }
+}
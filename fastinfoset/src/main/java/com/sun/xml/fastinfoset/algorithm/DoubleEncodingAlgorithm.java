@@ -22,7 +22,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -32,6 +35,9 @@ import com.sun.xml.fastinfoset.CommonResourceBundle;
 
 public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorithm {
 
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
     public DoubleEncodingAlgorithm() {
     }
 
@@ -77,15 +83,16 @@ public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorit
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Double> doubleList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String fStringValue = cb.subSequence(start1, end).toString();
-            doubleList.add(Double.valueOf(fStringValue));
-        });
+        final int end = start + length;
+        final double[] fdata = new double[countWords(ch, start, end)];
+        int index = 0;
+        for (int i = skipWhiteSpace(ch, start, end); i < end; ) {
+            final int wordEnd = skipWord(ch, i, end);
+            fdata[index++] = NumberCharacters.parseDouble(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
         
-        return generateArrayFromList(doubleList);
+        return fdata;
     }
     
     @Override
@@ -99,20 +106,27 @@ public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorit
         convertToCharactersFromDoubleArray(fdata, s);
     }
     
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (!(data instanceof double[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotDouble"));
+        }
+        
+        convertToCharactersFromDoubleArray((double[])data, s);
+    }
+    
     
     public final void decodeFromBytesToDoubleArray(double[] data, int fstart, byte[] b, int start, int length) {
         final int size = length / DOUBLE_SIZE;
+        if (size >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, size * DOUBLE_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asDoubleBuffer().get(data, fstart, size);
+            return;
+        }
+        
         for (int i = 0; i < size; i++) {
-            final long bits =
-                    ((long)(b[start++] & 0xFF) << 56) | 
-                    ((long)(b[start++] & 0xFF) << 48) | 
-                    ((long)(b[start++] & 0xFF) << 40) | 
-                    ((long)(b[start++] & 0xFF) << 32) | 
-                    ((long)(b[start++] & 0xFF) << 24) | 
-                    ((long)(b[start++] & 0xFF) << 16) | 
-                    ((long)(b[start++] & 0xFF) << 8) | 
-                    (long)(b[start++] & 0xFF);
-            data[fstart++] = Double.longBitsToDouble(bits);
+            data[fstart++] = Double.longBitsToDouble((long) LONG_VIEW.get(b, start));
+            start += DOUBLE_SIZE;
         }
     }
     
@@ -173,22 +187,24 @@ public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorit
     }
     
     public final void encodeToBytesFromDoubleArray(double[] fdata, int fstart, int flength, byte[] b, int start) {
-        final int fend = fstart + flength;
-        for (int i = fstart; i < fend; i++) {
-            final long bits = Double.doubleToLongBits(fdata[i]);
-            b[start++] = (byte)((bits >>> 56) & 0xFF);
-            b[start++] = (byte)((bits >>> 48) & 0xFF);
-            b[start++] = (byte)((bits >>> 40) & 0xFF);
-            b[start++] = (byte)((bits >>> 32) & 0xFF);
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+        // Not encoded with a DoubleBuffer view, which does not collapse NaN values
+        // to the canonical NaN value
+        final int end = fstart + flength;
+        for (int i = fstart; i < end; i++) {
+            LONG_VIEW.set(b, start, Double.doubleToLongBits(fdata[i]));
+            start += DOUBLE_SIZE;
         }
     }
     
     
     public final void convertToCharactersFromDoubleArray(double[] fdata, StringBuffer s) {
+        // Converted to a string builder so that the string buffer is locked once
+        final StringBuilder b = new StringBuilder(fdata.length * DOUBLE_MAX_CHARACTER_SIZE);
+        convertToCharactersFromDoubleArray(fdata, b);
+        s.append(b);
+    }
+    
+    public final void convertToCharactersFromDoubleArray(double[] fdata, StringBuilder s) {
         final int end = fdata.length - 1;
         for (int i = 0; i <= end; i++) {
             s.append(fdata[i]);
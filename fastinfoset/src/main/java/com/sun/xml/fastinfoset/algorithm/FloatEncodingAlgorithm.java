@@ -22,7 +22,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -32,6 +35,9 @@ import com.sun.xml.fastinfoset.CommonResourceBundle;
 
 public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorithm {
 
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
     public FloatEncodingAlgorithm() {
     }
 
@@ -77,15 +83,16 @@ public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorith
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Float> floatList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String fStringValue = cb.subSequence(start1, end).toString();
-            floatList.add(Float.valueOf(fStringValue));
-        });
+        final int end = start + length;
+        final float[] fdata = new float[countWords(ch, start, end)];
+        int index = 0;
+        for (int i = skipWhiteSpace(ch, start, end); i < end; ) {
+            final int wordEnd = skipWord(ch, i, end);
+            fdata[index++] = NumberCharacters.parseFloat(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
         
-        return generateArrayFromList(floatList);
+        return fdata;
     }
     
     @Override
@@ -99,15 +106,27 @@ public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorith
         convertToCharactersFromFloatArray(fdata, s);
     }
     
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (!(data instanceof float[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotFloat"));
+        }
+        
+        convertToCharactersFromFloatArray((float[])data, s);
+    }
+    
     
     public final void decodeFromBytesToFloatArray(float[] data, int fstart, byte[] b, int start, int length) {
         final int size = length / FLOAT_SIZE;
+        if (size >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, size * FLOAT_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asFloatBuffer().get(data, fstart, size);
+            return;
+        }
+        
         for (int i = 0; i < size; i++) {
-            final int bits = ((b[start++] & 0xFF) << 24) | 
-                    ((b[start++] & 0xFF) << 16) | 
-                    ((b[start++] & 0xFF) << 8) | 
-                    (b[start++] & 0xFF);
-            data[fstart++] = Float.intBitsToFloat(bits);
+            data[fstart++] = Float.intBitsToFloat((int) INT_VIEW.get(b, start));
+            start += FLOAT_SIZE;
         }
     }
     
@@ -158,18 +177,24 @@ public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorith
     }
     
     public final void encodeToBytesFromFloatArray(float[] fdata, int fstart, int flength, byte[] b, int start) {
-        final int fend = fstart + flength;
-        for (int i = fstart; i < fend; i++) {
-            final int bits = Float.floatToIntBits(fdata[i]);
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+        // Not encoded with a FloatBuffer view, which does not collapse NaN values
+        // to the canonical NaN value
+        final int end = fstart + flength;
+        for (int i = fstart; i < end; i++) {
+            INT_VIEW.set(b, start, Float.floatToIntBits(fdata[i]));
+            start += FLOAT_SIZE;
         }
     }
     
     
     public final void convertToCharactersFromFloatArray(float[] fdata, StringBuffer s) {
+        // Converted to a string builder so that the string buffer is locked once
+        final StringBuilder b = new StringBuilder(fdata.length * FLOAT_MAX_CHARACTER_SIZE);
+        convertToCharactersFromFloatArray(fdata, b);
+        s.append(b);
+    }
+    
+    public final void convertToCharactersFromFloatArray(float[] fdata, StringBuilder s) {
         final int end = fdata.length - 1;
         for (int i = 0; i <= end; i++) {
             s.append(fdata[i]);
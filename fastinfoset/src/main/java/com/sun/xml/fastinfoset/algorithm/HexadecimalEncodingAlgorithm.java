@@ -15,12 +15,12 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.sun.xml.fastinfoset.algorithm;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 
@@ -29,31 +29,41 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
         {   '0','1','2','3','4','5','6','7',
             '8','9','A','B','C','D','E','F' };
     
-    private static final int[] HEXADECIMAL_TO_NIBBLE_TABLE = {
-        /*'0'*/ 0,
-        /*'1'*/ 1,
-        /*'2'*/ 2,
-        /*'3'*/ 3,
-        /*'4'*/ 4,
-        /*'5'*/ 5,
-        /*'6'*/ 6,
-        /*'7'*/ 7,
-        /*'8'*/ 8,
-        /*'9'*/ 9, -1, -1, -1, -1, -1, -1, -1,
-        /*'A'*/ 10,
-        /*'B'*/ 11,
-        /*'C'*/ 12,
-        /*'D'*/ 13,
-        /*'E'*/ 14,
-        /*'F'*/ 15,
-        /*'G'-'Z'*/-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,
-        /*'[' - '`'*/ -1, -1, -1, -1, -1, -1,
-        /*'a'*/ 10,
-        /*'b'*/ 11,
-        /*'c'*/ 12,
-        /*'d'*/ 13,
-        /*'e'*/ 14,
-        /*'f'*/ 15 };
+    /**
+     * The two hexadecimal characters of each octet.
+     */
+    private static final char[] OCTET_TO_HEXADECIMAL_TABLE = new char[256 * 2];
+
+    // The values of HEXADECIMAL_TO_NIBBLE_TABLE that are not nibbles
+    private static final byte INVALID = -1;
+    private static final byte WHITE_SPACE = -2;
+
+    /**
+     * The nibble of each ASCII character, or {@link #INVALID} or
+     * {@link #WHITE_SPACE}.
+     */
+    private static final byte[] HEXADECIMAL_TO_NIBBLE_TABLE = new byte[0x80];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            OCTET_TO_HEXADECIMAL_TABLE[i * 2] = NIBBLE_TO_HEXADECIMAL_TABLE[i >>> 4];
+            OCTET_TO_HEXADECIMAL_TABLE[i * 2 + 1] = NIBBLE_TO_HEXADECIMAL_TABLE[i & 0xF];
+        }
+
+        Arrays.fill(HEXADECIMAL_TO_NIBBLE_TABLE, INVALID);
+        for (int i = 0; i < NIBBLE_TO_HEXADECIMAL_TABLE.length; i++) {
+            HEXADECIMAL_TO_NIBBLE_TABLE[NIBBLE_TO_HEXADECIMAL_TABLE[i]] = (byte) i;
+            HEXADECIMAL_TO_NIBBLE_TABLE[Character.toLowerCase(NIBBLE_TO_HEXADECIMAL_TABLE[i])] = (byte) i;
+        }
+        for (char c = 0; c < HEXADECIMAL_TO_NIBBLE_TABLE.length; c++) {
+            if (isWhiteSpace(c)) {
+                HEXADECIMAL_TO_NIBBLE_TABLE[c] = WHITE_SPACE;
+            }
+        }
+    }
+
+    // The number of octets converted to characters at a time
+    private static final int CHARACTERS_CHUNK_OCTETS = 2048;
 
     public HexadecimalEncodingAlgorithm() {
     }
@@ -67,7 +77,7 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
     @Override
     public final Object decodeFromInputStream(InputStream s) throws IOException {
-        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().getString("message.notImplemented"));
+        return s.readAllBytes();
     }
     
     
@@ -82,31 +92,31 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        if (length == 0) {
-            return new byte[0];
+        final byte[] value = new byte[length / 2];
+        final int valueLength = convertFromCharactersToByteArray(ch, start, length, value, 0);
+        return (valueLength == value.length) ? value : Arrays.copyOf(value, valueLength);
+    }
+    
+    @Override
+    public final void convertToCharacters(Object data, StringBuffer s) {
+        if (data == null) {
+            return;
         }
-        
-        StringBuilder encodedValue = removeWhitespace(ch, start, length);
-        int encodedLength = encodedValue.length();
-        if (encodedLength == 0) {
-            return new byte[0];
+        final byte[] value = (byte[]) data;
+        if (value.length == 0) {
+            return;
         }
-        
-        int valueLength = encodedValue.length() / 2;
-        byte[] value = new byte[valueLength];
 
-        int encodedIdx = 0;
-        for (int i = 0; i < valueLength; ++i) {
-            int nibble1 = HEXADECIMAL_TO_NIBBLE_TABLE[encodedValue.charAt(encodedIdx++) - '0'];
-            int nibble2 = HEXADECIMAL_TO_NIBBLE_TABLE[encodedValue.charAt(encodedIdx++) - '0'];
-            value[i] = (byte) ((nibble1 << 4) | nibble2);
+        // Converted in chunks so that the string buffer is locked once per chunk
+        final char[] ch = new char[Math.min(value.length, CHARACTERS_CHUNK_OCTETS) * 2];
+        s.ensureCapacity(s.length() + value.length * 2);
+        for (int i = 0; i < value.length; i += CHARACTERS_CHUNK_OCTETS) {
+            s.append(ch, 0, convertToCharacters(value, i, Math.min(CHARACTERS_CHUNK_OCTETS, value.length - i), ch, 0));
         }
-
-        return value;
     }
     
     @Override
-    public final void convertToCharacters(Object data, StringBuffer s) {
+    public final void convertToCharacters(Object data, StringBuilder s) {
         if (data == null) {
             return;
         }
@@ -115,14 +125,12 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
             return;
         }
 
-        s.ensureCapacity(value.length * 2);
-        for (int i = 0; i < value.length; ++i) {
-            s.append(NIBBLE_TO_HEXADECIMAL_TABLE[(value[i] >>> 4) & 0xf]);
-            s.append(NIBBLE_TO_HEXADECIMAL_TABLE[value[i] & 0xf]);
+        final char[] ch = new char[Math.min(value.length, CHARACTERS_CHUNK_OCTETS) * 2];
+        s.ensureCapacity(s.length() + value.length * 2);
+        for (int i = 0; i < value.length; i += CHARACTERS_CHUNK_OCTETS) {
+            s.append(ch, 0, convertToCharacters(value, i, Math.min(CHARACTERS_CHUNK_OCTETS, value.length - i), ch, 0));
         }
     }
-    
-    
         
     @Override
     public final int getPrimtiveLengthFromOctetLength(int octetLength) throws EncodingAlgorithmException {
@@ -138,4 +146,75 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     public final void encodeToBytes(Object array, int astart, int alength, byte[] b, int start) {
         System.arraycopy((byte[])array, astart, b, start, alength);
     }    
+
+    /**
+     * Convert hexadecimal characters to octets written to an array.
+     * <p>
+     * White space is skipped. A last character without a following
+     * character of its octet is ignored.
+     *
+     * @param ch the array of characters.
+     * @param start the index of the first character.
+     * @param length the number of characters.
+     * @param b the array of octets, with at least length / 2 octets from
+     *        the index of the first octet.
+     * @param bstart the index of the first octet.
+     * @return the index after the last octet.
+     * @throws IllegalArgumentException if the characters are not
+     *         hexadecimal.
+     */
+    public final int convertFromCharactersToByteArray(char[] ch, int start, int length, byte[] b, int bstart) {
+        final int end = start + length;
+        int i = start;
+        int high = -1;
+        while (i < end) {
+            if (high < 0 && end - i >= 2) {
+                final char c1 = ch[i], c2 = ch[i + 1];
+                if ((c1 | c2) < 0x80) {
+                    final int n1 = HEXADECIMAL_TO_NIBBLE_TABLE[c1], n2 = HEXADECIMAL_TO_NIBBLE_TABLE[c2];
+                    if ((n1 | n2) >= 0) {
+                        b[bstart++] = (byte) ((n1 << 4) | n2);
+                        i += 2;
+                        continue;
+                    }
+                }
+            }
+
+            // Decode one character at a time when there is white space
+            final char c = ch[i++];
+            final int nibble = (c < 0x80) ? HEXADECIMAL_TO_NIBBLE_TABLE[c] : INVALID;
+            if (nibble >= 0) {
+                if (high < 0) {
+                    high = nibble;
+                } else {
+                    b[bstart++] = (byte) ((high << 4) | nibble);
+                    high = -1;
+                }
+            } else if (nibble == INVALID) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.invalidHexadecimalCharacters"));
+            }
+        }
+        return bstart;
+    }
+
+    /**
+     * Convert octets to hexadecimal characters written to an array.
+     *
+     * @param data the array of octets.
+     * @param offset the index of the first octet.
+     * @param length the number of octets.
+     * @param ch the array of characters, with at least length * 2
+     *        characters from the index of the first character.
+     * @param start the index of the first character.
+     * @return the index after the last character.
+     */
+    public final int convertToCharacters(byte[] data, int offset, int length, char[] ch, int start) {
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            final int j = (data[i] & 0xFF) << 1;
+            ch[start++] = OCTET_TO_HEXADECIMAL_TABLE[j];
+            ch[start++] = OCTET_TO_HEXADECIMAL_TABLE[j + 1];
+        }
+        return start;
+    }
 }
@@ -22,7 +22,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -32,6 +35,9 @@ import com.sun.xml.fastinfoset.CommonResourceBundle;
 
 public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
 
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
     public IntEncodingAlgorithm() {
     }
 
@@ -78,15 +84,16 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Integer> integerList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String iStringValue = cb.subSequence(start1, end).toString();
-            integerList.add(Integer.valueOf(iStringValue));
-        });
+        final int end = start + length;
+        final int[] idata = new int[countWords(ch, start, end)];
+        int index = 0;
+        for (int i = skipWhiteSpace(ch, start, end); i < end; ) {
+            final int wordEnd = skipWord(ch, i, end);
+            idata[index++] = NumberCharacters.parseInt(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
         
-        return generateArrayFromList(integerList);
+        return idata;
     }
     
     @Override
@@ -100,15 +107,28 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
         convertToCharactersFromIntArray(idata, s);
     }
     
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (!(data instanceof int[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotIntArray"));
+        }
+        
+        convertToCharactersFromIntArray((int[])data, s);
+    }
+    
     
     public final void decodeFromBytesToIntArray(int[] idata, int istart, byte[] b, int start, int length) {
         final int size = length / INT_SIZE;
+        if (size >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, size * INT_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asIntBuffer().get(idata, istart, size);
+            return;
+        }
+        
         for (int i = 0; i < size; i++) {
-            idata[istart++] = ((b[start++] & 0xFF) << 24) | 
-                    ((b[start++] & 0xFF) << 16) | 
-                    ((b[start++] & 0xFF) << 8) | 
-                    (b[start++] & 0xFF);
-        }        
+            idata[istart++] = (int) INT_VIEW.get(b, start);
+            start += INT_SIZE;
+        }
     }
     
     public final int[] decodeFromInputStreamToIntArray(InputStream s) throws IOException {
@@ -158,18 +178,34 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
     }
     
     public final void encodeToBytesFromIntArray(int[] idata, int istart, int ilength, byte[] b, int start) {
-        final int iend = istart + ilength;
-        for (int i = istart; i < iend; i++) {
-            final int bits = idata[i];
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+        if (ilength >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, ilength * INT_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asIntBuffer().put(idata, istart, ilength);
+            return;
+        }
+        
+        final int end = istart + ilength;
+        for (int i = istart; i < end; i++) {
+            INT_VIEW.set(b, start, idata[i]);
+            start += INT_SIZE;
         }
     }
     
     
     public final void convertToCharactersFromIntArray(int[] idata, StringBuffer s) {
+        // Converted in chunks so that the string buffer is locked once per chunk
+        final char[] ch = new char[Math.min(idata.length, CHARACTERS_CHUNK_LENGTH) * (INT_MAX_CHARACTER_SIZE + 1)];
+        for (int i = 0; i < idata.length; i += CHARACTERS_CHUNK_LENGTH) {
+            int length = 0;
+            if (i != 0) {
+                ch[length++] = ' ';
+            }
+            length = convertToCharactersFromIntArray(idata, i, Math.min(CHARACTERS_CHUNK_LENGTH, idata.length - i), ch, length);
+            s.append(ch, 0, length);
+        }
+    }
+    
+    public final void convertToCharactersFromIntArray(int[] idata, StringBuilder s) {
         final int end = idata.length - 1;
         for (int i = 0; i <= end; i++) {
             s.append(idata[i]);
@@ -179,6 +215,29 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
         }
     }
     
+    /**
+     * Convert ints to characters, delimited by a space, written to an array.
+     *
+     * @param idata the array of ints.
+     * @param astart the index of the first int.
+     * @param alength the number of ints.
+     * @param ch the array of characters, with at least
+     *        alength * ({@link #INT_MAX_CHARACTER_SIZE} + 1) characters from
+     *        the index of the first character.
+     * @param start the index of the first character.
+     * @return the index after the last character.
+     */
+    public final int convertToCharactersFromIntArray(int[] idata, int astart, int alength, char[] ch, int start) {
+        final int aend = astart + alength;
+        for (int i = astart; i < aend; i++) {
+            if (i != astart) {
+                ch[start++] = ' ';
+            }
+            start = NumberCharacters.getChars(idata[i], ch, start);
+        }
+        return start;
+    }
+    
     
     public final int[] generateArrayFromList(List<Integer> array) {
         int[] idata = new int[array.size()];
@@ -27,6 +27,11 @@ public abstract class IntegerEncodingAlgorithm extends BuiltInEncodingAlgorithm
     public static final int INT_MAX_CHARACTER_SIZE      = 11;
     public static final int LONG_MAX_CHARACTER_SIZE     = 20;
 
+    /**
+     * The number of integers converted to characters at a time.
+     */
+    protected static final int CHARACTERS_CHUNK_LENGTH = 256;
+
     protected IntegerEncodingAlgorithm() {
     }
 }
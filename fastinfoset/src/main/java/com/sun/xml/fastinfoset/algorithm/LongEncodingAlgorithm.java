@@ -22,7 +22,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -31,6 +34,9 @@ import com.sun.xml.fastinfoset.CommonResourceBundle;
 
 public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
 
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
     public LongEncodingAlgorithm() {
     }
 
@@ -77,15 +83,16 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
     
     @Override
     public Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Long> longList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String lStringValue = cb.subSequence(start1, end).toString();
-            longList.add(Long.valueOf(lStringValue));
-        });
+        final int end = start + length;
+        final long[] ldata = new long[countWords(ch, start, end)];
+        int index = 0;
+        for (int i = skipWhiteSpace(ch, start, end); i < end; ) {
+            final int wordEnd = skipWord(ch, i, end);
+            ldata[index++] = NumberCharacters.parseLong(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
         
-        return generateArrayFromList(longList);
+        return ldata;
     }
     
     @Override
@@ -99,20 +106,28 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
         convertToCharactersFromLongArray(ldata, s);
     }
     
+    @Override
+    public void convertToCharacters(Object data, StringBuilder s) {
+        if (!(data instanceof long[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotLongArray"));
+        }
+        
+        convertToCharactersFromLongArray((long[])data, s);
+    }
+    
     
     public final void decodeFromBytesToLongArray(long[] ldata, int istart, byte[] b, int start, int length) {
         final int size = length / LONG_SIZE;
+        if (size >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, size * LONG_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asLongBuffer().get(ldata, istart, size);
+            return;
+        }
+        
         for (int i = 0; i < size; i++) {
-            ldata[istart++] = 
-                    ((long)(b[start++] & 0xFF) << 56) | 
-                    ((long)(b[start++] & 0xFF) << 48) | 
-                    ((long)(b[start++] & 0xFF) << 40) | 
-                    ((long)(b[start++] & 0xFF) << 32) | 
-                    ((long)(b[start++] & 0xFF) << 24) | 
-                    ((long)(b[start++] & 0xFF) << 16) | 
-                    ((long)(b[start++] & 0xFF) << 8) | 
-                    (long)(b[start++] & 0xFF);
-        }        
+            ldata[istart++] = (long) LONG_VIEW.get(b, start);
+            start += LONG_SIZE;
+        }
     }
     
     public final long[] decodeFromInputStreamToIntArray(InputStream s) throws IOException {
@@ -172,23 +187,35 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
     }
     
     public final void encodeToBytesFromLongArray(long[] ldata, int lstart, int llength, byte[] b, int start) {
-        final int lend = lstart + llength;
-        for (int i = lstart; i < lend; i++) {
-            final long bits = ldata[i];
-            b[start++] = (byte)((bits >>> 56) & 0xFF);
-            b[start++] = (byte)((bits >>> 48) & 0xFF);
-            b[start++] = (byte)((bits >>> 40) & 0xFF);
-            b[start++] = (byte)((bits >>> 32) & 0xFF);
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+        if (llength >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, llength * LONG_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asLongBuffer().put(ldata, lstart, llength);
+            return;
+        }
+        
+        final int end = lstart + llength;
+        for (int i = lstart; i < end; i++) {
+            LONG_VIEW.set(b, start, ldata[i]);
+            start += LONG_SIZE;
         }
     }
     
     
     public final void convertToCharactersFromLongArray(long[] ldata, StringBuffer s) {
-        final int end = ldata.length - 1;        
+        // Converted in chunks so that the string buffer is locked once per chunk
+        final char[] ch = new char[Math.min(ldata.length, CHARACTERS_CHUNK_LENGTH) * (LONG_MAX_CHARACTER_SIZE + 1)];
+        for (int i = 0; i < ldata.length; i += CHARACTERS_CHUNK_LENGTH) {
+            int length = 0;
+            if (i != 0) {
+                ch[length++] = ' ';
+            }
+            length = convertToCharactersFromLongArray(ldata, i, Math.min(CHARACTERS_CHUNK_LENGTH, ldata.length - i), ch, length);
+            s.append(ch, 0, length);
+        }
+    }
+    
+    public final void convertToCharactersFromLongArray(long[] ldata, StringBuilder s) {
+        final int end = ldata.length - 1;
         for (int i = 0; i <= end; i++) {
             s.append(ldata[i]);
             if (i != end) {
@@ -197,6 +224,29 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
         }
     }
     
+    /**
+     * Convert longs to characters, delimited by a space, written to an array.
+     *
+     * @param ldata the array of longs.
+     * @param astart the index of the first long.
+     * @param alength the number of longs.
+     * @param ch the array of characters, with at least
+     *        alength * ({@link #LONG_MAX_CHARACTER_SIZE} + 1) characters from
+     *        the index of the first character.
+     * @param start the index of the first character.
+     * @return the index after the last character.
+     */
+    public final int convertToCharactersFromLongArray(long[] ldata, int astart, int alength, char[] ch, int start) {
+        final int aend = astart + alength;
+        for (int i = astart; i < aend; i++) {
+            if (i != astart) {
+                ch[start++] = ' ';
+            }
+            start = NumberCharacters.getChars(ldata[i], ch, start);
+        }
+        return start;
+    }
+    
     
     public final long[] generateArrayFromList(List<Long> array) {
         long[] ldata = new long[array.size()];
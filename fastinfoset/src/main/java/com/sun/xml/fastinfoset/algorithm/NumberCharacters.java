@@ -0,0 +1,240 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+/**
+ * Scanners and formatters of the lexical forms of numbers that operate on
+ * character arrays.
+ * <p>
+ * The scanners decode the common forms, decimal digits with an optional
+ * sign, fraction and exponent, without allocating. Any other form, and any
+ * value that cannot be decoded exactly, is decoded by the corresponding
+ * method of the number class, such as {@link Integer#parseInt(String)}, so
+ * the results and the errors are the same as those of the number classes.
+ */
+final class NumberCharacters {
+    /*
+     * Returned by scanDecimal if the characters are not in the common
+     * form or the value is too large.
+     */
+    private static final long INVALID = Long.MIN_VALUE;
+
+    // The maximum number of digits whose value fits into a long
+    private static final int MAX_LONG_DIGITS = 18;
+
+    // The maximum number of digits whose value is exact as a double
+    private static final int MAX_DOUBLE_DIGITS = 15;
+
+    // The maximum number of digits whose value is exact as a float
+    private static final int MAX_FLOAT_DIGITS = 7;
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+        1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private static final char[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).toCharArray();
+
+    private NumberCharacters() {
+    }
+
+    static short parseShort(char[] ch, int start, int end) {
+        final long v = scanDecimal(ch, start, end);
+        if (v != INVALID && v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) {
+            return (short) v;
+        }
+        return Short.parseShort(new String(ch, start, end - start));
+    }
+
+    static int parseInt(char[] ch, int start, int end) {
+        final long v = scanDecimal(ch, start, end);
+        if (v != INVALID && v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE) {
+            return (int) v;
+        }
+        return Integer.parseInt(new String(ch, start, end - start));
+    }
+
+    static long parseLong(char[] ch, int start, int end) {
+        final long v = scanDecimal(ch, start, end);
+        if (v != INVALID) {
+            return v;
+        }
+        return Long.parseLong(new String(ch, start, end - start));
+    }
+
+    /*
+     * A decimal integer of at most MAX_LONG_DIGITS digits with an
+     * optional sign, or INVALID.
+     */
+    private static long scanDecimal(char[] ch, int i, int end) {
+        boolean negative = false;
+        if (i < end && (ch[i] == '-' || ch[i] == '+')) {
+            negative = ch[i++] == '-';
+        }
+        if (i == end || end - i > MAX_LONG_DIGITS) {
+            return INVALID;
+        }
+
+        long v = 0;
+        for (; i < end; i++) {
+            final int digit = ch[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            v = v * 10 + digit;
+        }
+        return negative ? -v : v;
+    }
+
+    static double parseDouble(char[] ch, int start, int end) {
+        final double v = scanFloatingPoint(ch, start, end, false);
+        if (!Double.isNaN(v)) {
+            return v;
+        }
+        return Double.parseDouble(new String(ch, start, end - start));
+    }
+
+    static float parseFloat(char[] ch, int start, int end) {
+        final double v = scanFloatingPoint(ch, start, end, true);
+        if (!Double.isNaN(v)) {
+            return (float) v;
+        }
+        return Float.parseFloat(new String(ch, start, end - start));
+    }
+
+    /*
+     * A decimal number with an optional sign, fraction and exponent, or
+     * NaN if the characters are not in the common form or the value
+     * cannot be decoded exactly.
+     *
+     * A number whose digits are exact as a double, or a float, and whose
+     * power of ten is exact as a double, or a float, is decoded with one
+     * multiplication or division, and so is correctly rounded.
+     */
+    private static double scanFloatingPoint(char[] ch, int i, int end, boolean single) {
+        final int maxDigits = single ? MAX_FLOAT_DIGITS : MAX_DOUBLE_DIGITS;
+        final int maxExponent = single ? FLOAT_POWERS_OF_TEN.length - 1 : DOUBLE_POWERS_OF_TEN.length - 1;
+
+        boolean negative = false;
+        if (i < end && (ch[i] == '-' || ch[i] == '+')) {
+            negative = ch[i++] == '-';
+        }
+
+        long digits = 0;
+        int digitCount = 0;
+        int significantDigitCount = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            final char c = ch[i];
+            if (c >= '0' && c <= '9') {
+                digitCount++;
+                if (digits != 0 || c != '0') {
+                    if (++significantDigitCount > maxDigits) {
+                        return Double.NaN;
+                    }
+                    digits = digits * 10 + (c - '0');
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digitCount == 0) {
+            return Double.NaN;
+        }
+
+        if (i < end) {
+            if ((ch[i] != 'e' && ch[i] != 'E') || ++i == end) {
+                return Double.NaN;
+            }
+            boolean negativeExponent = false;
+            if (ch[i] == '-' || ch[i] == '+') {
+                negativeExponent = ch[i++] == '-';
+            }
+            if (i == end || end - i > 3) {
+                return Double.NaN;
+            }
+            int e = 0;
+            for (; i < end; i++) {
+                final int digit = ch[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Double.NaN;
+                }
+                e = e * 10 + digit;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (exponent < -maxExponent || exponent > maxExponent) {
+            return Double.NaN;
+        }
+
+        if (single) {
+            float v = digits;
+            v = (exponent < 0) ? v / FLOAT_POWERS_OF_TEN[-exponent] : v * FLOAT_POWERS_OF_TEN[exponent];
+            return negative ? -v : v;
+        } else {
+            double v = digits;
+            v = (exponent < 0) ? v / DOUBLE_POWERS_OF_TEN[-exponent] : v * DOUBLE_POWERS_OF_TEN[exponent];
+            return negative ? -v : v;
+        }
+    }
+
+    /**
+     * Write the decimal form of a value.
+     *
+     * @param v the value.
+     * @param ch the array, with at least
+     *        {@link IntegerEncodingAlgorithm#LONG_MAX_CHARACTER_SIZE}
+     *        characters from the index.
+     * @param index the index of the first character.
+     * @return the index after the last character.
+     */
+    static int getChars(long v, char[] ch, int index) {
+        if (v == Long.MIN_VALUE) {
+            System.arraycopy(LONG_MIN_VALUE, 0, ch, index, LONG_MIN_VALUE.length);
+            return index + LONG_MIN_VALUE.length;
+        }
+        if (v < 0) {
+            ch[index++] = '-';
+            v = -v;
+        }
+
+        int length = 1;
+        for (long n = v; n >= 10; n /= 10) {
+            length++;
+        }
+        final int end = index + length;
+        for (int i = end - 1; i >= index; i--) {
+            ch[i] = (char) ('0' + (v % 10));
+            v /= 10;
+        }
+        return end;
+    }
+}
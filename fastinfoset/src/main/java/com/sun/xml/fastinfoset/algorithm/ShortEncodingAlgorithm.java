@@ -22,7 +22,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -37,6 +40,9 @@ import com.sun.xml.fastinfoset.CommonResourceBundle;
  */
 public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
 
+    private static final VarHandle SHORT_VIEW =
+            MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
     public ShortEncodingAlgorithm() {
     }
 
@@ -83,15 +89,16 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
 
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Short> shortList = new ArrayList<>();
-
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String iStringValue = cb.subSequence(start1, end).toString();
-            shortList.add(Short.valueOf(iStringValue));
-        });
-
-        return generateArrayFromList(shortList);
+        final int end = start + length;
+        final short[] sdata = new short[countWords(ch, start, end)];
+        int index = 0;
+        for (int i = skipWhiteSpace(ch, start, end); i < end; ) {
+            final int wordEnd = skipWord(ch, i, end);
+            sdata[index++] = NumberCharacters.parseShort(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
+        
+        return sdata;
     }
 
     @Override
@@ -104,13 +111,28 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
 
         convertToCharactersFromShortArray(idata, s);
     }
+    
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (!(data instanceof short[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotShortArray"));
+        }
+        
+        convertToCharactersFromShortArray((short[])data, s);
+    }
 
 
     public final void decodeFromBytesToShortArray(short[] sdata, int istart, byte[] b, int start, int length) {
         final int size = length / SHORT_SIZE;
+        if (size >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, size * SHORT_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asShortBuffer().get(sdata, istart, size);
+            return;
+        }
+        
         for (int i = 0; i < size; i++) {
-            sdata[istart++] = (short) (((b[start++] & 0xFF) << 8) |
-                    (b[start++] & 0xFF));
+            sdata[istart++] = (short) SHORT_VIEW.get(b, start);
+            start += SHORT_SIZE;
         }
     }
 
@@ -157,16 +179,34 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
     }
 
     public final void encodeToBytesFromShortArray(short[] sdata, int istart, int ilength, byte[] b, int start) {
-        final int iend = istart + ilength;
-        for (int i = istart; i < iend; i++) {
-            final short bits = sdata[i];
-            b[start++] = (byte)((bits >>> 8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+        if (ilength >= BULK_CONVERSION_LENGTH) {
+            ByteBuffer.wrap(b, start, ilength * SHORT_SIZE).order(ByteOrder.BIG_ENDIAN).
+                    asShortBuffer().put(sdata, istart, ilength);
+            return;
+        }
+        
+        final int end = istart + ilength;
+        for (int i = istart; i < end; i++) {
+            SHORT_VIEW.set(b, start, sdata[i]);
+            start += SHORT_SIZE;
         }
     }
 
 
     public final void convertToCharactersFromShortArray(short[] sdata, StringBuffer s) {
+        // Converted in chunks so that the string buffer is locked once per chunk
+        final char[] ch = new char[Math.min(sdata.length, CHARACTERS_CHUNK_LENGTH) * (SHORT_MAX_CHARACTER_SIZE + 1)];
+        for (int i = 0; i < sdata.length; i += CHARACTERS_CHUNK_LENGTH) {
+            int length = 0;
+            if (i != 0) {
+                ch[length++] = ' ';
+            }
+            length = convertToCharactersFromShortArray(sdata, i, Math.min(CHARACTERS_CHUNK_LENGTH, sdata.length - i), ch, length);
+            s.append(ch, 0, length);
+        }
+    }
+    
+    public final void convertToCharactersFromShortArray(short[] sdata, StringBuilder s) {
         final int end = sdata.length - 1;
         for (int i = 0; i <= end; i++) {
             s.append(sdata[i]);
@@ -175,6 +215,29 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
             }
         }
     }
+    
+    /**
+     * Convert shorts to characters, delimited by a space, written to an array.
+     *
+     * @param sdata the array of shorts.
+     * @param astart the index of the first short.
+     * @param alength the number of shorts.
+     * @param ch the array of characters, with at least
+     *        alength * ({@link #SHORT_MAX_CHARACTER_SIZE} + 1) characters from
+     *        the index of the first character.
+     * @param start the index of the first character.
+     * @return the index after the last character.
+     */
+    public final int convertToCharactersFromShortArray(short[] sdata, int astart, int alength, char[] ch, int start) {
+        final int aend = astart + alength;
+        for (int i = astart; i < aend; i++) {
+            if (i != astart) {
+                ch[start++] = ' ';
+            }
+            start = NumberCharacters.getChars(sdata[i], ch, start);
+        }
+        return start;
+    }
 
 
     public final short[] generateArrayFromList(List<Short> array) {
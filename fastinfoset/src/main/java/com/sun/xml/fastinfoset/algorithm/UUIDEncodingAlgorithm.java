@@ -60,6 +60,17 @@ public class UUIDEncodingAlgorithm extends LongEncodingAlgorithm {
             throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotLongArray"));
         }
         
+        final StringBuilder b = new StringBuilder();
+        convertToCharacters(data, b);
+        s.append(b);
+    }    
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (!(data instanceof long[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotLongArray"));
+        }
+        
         final long[] ldata = (long[])data;
 
         final int end = ldata.length - 2;
@@ -69,7 +80,7 @@ public class UUIDEncodingAlgorithm extends LongEncodingAlgorithm {
                 s.append(' ');
             }
         }
-    }    
+    }
 
     
     private long _msb;
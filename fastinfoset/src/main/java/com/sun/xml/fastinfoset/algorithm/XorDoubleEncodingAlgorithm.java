@@ -0,0 +1,292 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * An encoding algorithm for arrays of doubles whose successive values are
+ * equal or close, such as the values of a time series.
+ * <p>
+ * The octets are a sequence of bits, most significant bit first, padded
+ * with zero bits to a multiple of 8. The sequence starts with the number
+ * of doubles as 32 bits, followed by the 64 bits of the first double. Each
+ * following double is encoded as the exclusive or of its bits with the
+ * bits of the previous double:
+ * <ul>
+ * <li>'0' if the exclusive or is zero.</li>
+ * <li>'10' followed by the meaningful bits of the exclusive or, if they are
+ * within the leading and trailing zero bits of the previous '11'
+ * block.</li>
+ * <li>'11' followed by the number of leading zero bits as 5 bits, the
+ * number of meaningful bits minus one as 6 bits and the meaningful
+ * bits.</li>
+ * </ul>
+ * The bits of a double are those of {@link Double#doubleToRawLongBits(double)},
+ * so the doubles are decoded exactly, including NaN values.
+ * <p>
+ * The algorithm is not a built-in encoding algorithm. It is used by
+ * registering it with {@link #URI} as an encoding algorithm of the
+ * serializer and of the parser, and by adding the URI to the encoding
+ * algorithm table of the vocabulary.
+ */
+public class XorDoubleEncodingAlgorithm implements EncodingAlgorithm {
+    /**
+     * The URI of the algorithm.
+     */
+    public static final String URI = "http://jvnet.org/fastinfoset/algorithm/xor-double";
+
+    // The maximum number of leading zero bits of a '11' block
+    private static final int MAX_LEADING_ZEROS = 31;
+
+    // The initial size of the array of doubles decoded from a stream
+    private static final int INITIAL_STREAM_ARRAY_SIZE = 1024;
+
+    public XorDoubleEncodingAlgorithm() {
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        try {
+            return decodeFromInputStreamToDoubleArray(new ByteArrayInputStream(b, start, length));
+        } catch (EncodingAlgorithmException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new EncodingAlgorithmException(e);
+        }
+    }
+
+    @Override
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        return decodeFromInputStreamToDoubleArray(s);
+    }
+
+    @Override
+    public final void encodeToOutputStream(Object data, OutputStream s) throws IOException {
+        if (!(data instanceof double[])) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotDouble"));
+        }
+
+        final double[] ddata = (double[])data;
+        encodeToOutputStreamFromDoubleArray(ddata, 0, ddata.length, s);
+    }
+
+    @Override
+    public final Object convertFromCharacters(char[] ch, int start, int length) {
+        return BuiltInEncodingAlgorithmFactory.doubleEncodingAlgorithm.convertFromCharacters(ch, start, length);
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuffer s) {
+        BuiltInEncodingAlgorithmFactory.doubleEncodingAlgorithm.convertToCharacters(data, s);
+    }
+
+    /**
+     * Decode doubles from a stream of octets.
+     * <p>
+     * The octets are read as the doubles are decoded and are not buffered
+     * as a whole.
+     *
+     * @param s the stream of octets.
+     * @return the array of doubles.
+     * @throws EncodingAlgorithmException if the octets are not valid.
+     * @throws IOException if an error occurs reading the stream.
+     */
+    public final double[] decodeFromInputStreamToDoubleArray(InputStream s) throws EncodingAlgorithmException, IOException {
+        final BitInput in = new BitInput(s);
+        final long count = in.read(32);
+        if (count > Integer.MAX_VALUE) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.xorDoubleInvalid"));
+        } else if (count == 0) {
+            return new double[0];
+        }
+
+        double[] data = new double[(int) Math.min(count, INITIAL_STREAM_ARRAY_SIZE)];
+        long previous = in.read(64);
+        data[0] = Double.longBitsToDouble(previous);
+
+        int leading = -1;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.read(1) != 0) {
+                if (in.read(1) != 0) {
+                    leading = (int) in.read(5);
+                    final int significant = (int) in.read(6) + 1;
+                    if (leading + significant > 64) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.xorDoubleInvalid"));
+                    }
+                    trailing = 64 - leading - significant;
+                } else if (leading < 0) {
+                    throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.xorDoubleInvalid"));
+                }
+                previous ^= in.read(64 - leading - trailing) << trailing;
+            }
+
+            if (i == data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(count, data.length * 2L));
+            }
+            data[i] = Double.longBitsToDouble(previous);
+        }
+        return data;
+    }
+
+    /**
+     * Encode doubles to a stream of octets.
+     * <p>
+     * The octets are written as the doubles are encoded.
+     *
+     * @param ddata the array of doubles.
+     * @param dstart the index of the first double.
+     * @param dlength the number of doubles.
+     * @param s the stream of octets.
+     * @throws IOException if an error occurs writing the stream.
+     */
+    public final void encodeToOutputStreamFromDoubleArray(double[] ddata, int dstart, int dlength, OutputStream s) throws IOException {
+        final BitOutput out = new BitOutput(s);
+        out.write(dlength, 32);
+        if (dlength == 0) {
+            out.flush();
+            return;
+        }
+
+        long previous = Double.doubleToRawLongBits(ddata[dstart]);
+        out.write(previous, 64);
+
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        final int dend = dstart + dlength;
+        for (int i = dstart + 1; i < dend; i++) {
+            final long bits = Double.doubleToRawLongBits(ddata[i]);
+            final long xor = bits ^ previous;
+            previous = bits;
+
+            if (xor == 0) {
+                out.write(0, 1);
+                continue;
+            }
+
+            final int leading = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+            final int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                out.write(0b10, 2);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                final int significant = 64 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                out.write(significant - 1, 6);
+                out.write(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        out.flush();
+    }
+
+    /*
+     * A sequence of bits, most significant bit first, written to a stream
+     * in blocks of octets.
+     */
+    private static final class BitOutput {
+        private final OutputStream _s;
+        private final byte[] _octets = new byte[256];
+        private int _octetsLength;
+
+        // The bits not yet written as an octet, fewer than 8
+        private long _bits;
+        private int _bitsLength;
+
+        BitOutput(OutputStream s) {
+            _s = s;
+        }
+
+        void write(long v, int length) throws IOException {
+            if (length > 32) {
+                write(v >>> 32, length - 32);
+                length = 32;
+            }
+
+            _bits = (_bits << length) | (v & ((1L << length) - 1));
+            _bitsLength += length;
+            while (_bitsLength >= 8) {
+                _bitsLength -= 8;
+                writeOctet((int) (_bits >>> _bitsLength));
+            }
+            _bits &= (1L << _bitsLength) - 1;
+        }
+
+        void flush() throws IOException {
+            if (_bitsLength > 0) {
+                writeOctet((int) (_bits << (8 - _bitsLength)));
+                _bits = 0;
+                _bitsLength = 0;
+            }
+            _s.write(_octets, 0, _octetsLength);
+            _octetsLength = 0;
+        }
+
+        private void writeOctet(int o) throws IOException {
+            if (_octetsLength == _octets.length) {
+                _s.write(_octets, 0, _octetsLength);
+                _octetsLength = 0;
+            }
+            _octets[_octetsLength++] = (byte) o;
+        }
+    }
+
+    /*
+     * A sequence of bits, most significant bit first, read from a stream.
+     */
+    private static final class BitInput {
+        private final InputStream _s;
+
+        // The bits not yet read, in the least significant bits
+        private long _bits;
+        private int _bitsLength;
+
+        BitInput(InputStream s) {
+            _s = s;
+        }
+
+        long read(int length) throws EncodingAlgorithmException, IOException {
+            if (length > 32) {
+                final long high = read(length - 32);
+                return (high << 32) | read(32);
+            }
+
+            while (_bitsLength < length) {
+                final int o = _s.read();
+                if (o < 0) {
+                    throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.xorDoubleInvalid"));
+                }
+                _bits = (_bits << 8) | o;
+                _bitsLength += 8;
+            }
+            _bitsLength -= length;
+            return (_bits >>> _bitsLength) & ((1L << length) - 1);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.container;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the records of a framed container written by a
+ * {@link FastInfosetRecordWriter}.
+ * <p>
+ * The container is accessed through a {@link ByteBuffer}, or a memory
+ * mapped file of any size, see {@link #open(Path)}, and each record is
+ * presented as an {@link InputStream} from which one fast infoset document
+ * may be parsed.
+ * The reader is immutable and records may be obtained concurrently. The
+ * {@link #spliterator()} splits the records by index so that
+ * {@link #parallelStream()} can decode records on all cores, each thread
+ * using its own parser:
+ * <pre>
+ * reader.parallelStream().map(record -&gt; {
+ *     DOMDocumentParser p = new DOMDocumentParser();
+ *     ...
+ * })
+ * </pre>
+ * If the container has no index, because the writer was not closed, the
+ * records are located by scanning their lengths.
+ */
+public class FastInfosetRecordReader {
+    /**
+     * The windows of a mapped file start every 1 GB, see {@link #open(Path)}.
+     */
+    private static final int FILE_WINDOW_SHIFT = 30;
+
+    /**
+     * The buffers containing the container. Buffer i contains the octets
+     * from position i &lt;&lt; _windowShift and, when the container is long
+     * enough, the following 1 &lt;&lt; _windowShift octets, which are also
+     * at the start of buffer i + 1.
+     */
+    private final ByteBuffer[] _windows;
+
+    private final int _windowShift;
+
+    private final long _size;
+
+    private final String _externalVocabularyURI;
+
+    private final long[] _offsets;
+
+    /**
+     * The records that are not contained in one of the windows, mapped
+     * separately, or null if there are none.
+     */
+    private final ByteBuffer[] _records;
+
+    /**
+     * Create a record reader.
+     *
+     * @param buffer the buffer containing the container, from its position
+     *        to its limit.
+     * @throws IOException if the buffer does not contain a container.
+     */
+    public FastInfosetRecordReader(ByteBuffer buffer) throws IOException {
+        // The positions of a buffer are all within one window
+        this(new ByteBuffer[] {buffer.slice().asReadOnlyBuffer()}, 31, buffer.remaining(), null);
+    }
+
+    private FastInfosetRecordReader(ByteBuffer[] windows, int windowShift, long size,
+            FileChannel channel) throws IOException {
+        _windows = windows;
+        _windowShift = windowShift;
+        _size = size;
+
+        if (_size < RecordConstants.HEADER_SIZE
+                || !matches(RecordConstants.HEADER_MAGIC, 0)) {
+            throw new IOException(CommonResourceBundle.getInstance().
+                    getString("message.recordContainerHeaderInvalid"));
+        }
+        if (get(4) != RecordConstants.VERSION) {
+            throw new IOException(CommonResourceBundle.getInstance().
+                    getString("message.recordContainerVersionNotSupported", new Object[]{get(4)}));
+        }
+
+        long position = RecordConstants.HEADER_SIZE;
+        if ((get(5) & RecordConstants.EXTERNAL_VOCABULARY_FLAG) > 0) {
+            final int length = getShort(position) & 0xFFFF;
+            position += 2;
+            checkBounds(position, length);
+            final byte[] uri = new byte[length];
+            final ByteBuffer b = window(position).duplicate();
+            b.position(local(position));
+            b.get(uri);
+            position += length;
+            _externalVocabularyURI = new String(uri, StandardCharsets.UTF_8);
+        } else {
+            _externalVocabularyURI = null;
+        }
+
+        _offsets = hasTrailer(position) ? readIndex(position) : scanRecords(position);
+        _records = mapRecords(channel);
+    }
+
+    /**
+     * Create a record reader of a file.
+     * <p>
+     * The file is mapped into memory. A buffer holds at most 2 GB, so a
+     * larger file is mapped in overlapping windows, each starting 1 GB
+     * after the previous, and a record is read from the window that
+     * contains it. A record larger than 1 GB that is not contained in a
+     * window is mapped separately.
+     *
+     * @param file the file containing the container.
+     * @return the record reader.
+     * @throws IOException if the file cannot be mapped or does not contain
+     *         a container.
+     */
+    public static FastInfosetRecordReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer[] windows = new ByteBuffer[
+                    (int) Math.max(1, ((size - 1) >>> FILE_WINDOW_SHIFT) + 1)];
+            for (int i = 0; i < windows.length; i++) {
+                final long start = (long) i << FILE_WINDOW_SHIFT;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, Integer.MAX_VALUE));
+            }
+            return new FastInfosetRecordReader(windows, FILE_WINDOW_SHIFT, size, channel);
+        }
+    }
+
+    /**
+     * Get the URI of the external vocabulary shared by the documents.
+     *
+     * @return the URI of the external vocabulary, or null if the container
+     *         does not declare an external vocabulary.
+     */
+    public String getExternalVocabularyURI() {
+        return _externalVocabularyURI;
+    }
+
+    /**
+     * Get the number of records.
+     *
+     * @return the number of records.
+     */
+    public int getRecordCount() {
+        return _offsets.length;
+    }
+
+    /**
+     * Get the length of a record.
+     *
+     * @param index the index of the record.
+     * @return the length, in octets, of the fast infoset document.
+     */
+    public int getRecordLength(int index) {
+        return getInt(_offsets[index]);
+    }
+
+    /**
+     * Get a record.
+     *
+     * @param index the index of the record.
+     * @return the buffer containing the fast infoset document.
+     */
+    public ByteBuffer getRecordBuffer(int index) {
+        if (_records != null && _records[index] != null) {
+            return _records[index].duplicate();
+        }
+
+        final long offset = _offsets[index];
+        final int start = local(offset) + RecordConstants.RECORD_LENGTH_SIZE;
+        final ByteBuffer b = window(offset).duplicate();
+        b.limit(start + getRecordLength(index)).position(start);
+        return b.slice();
+    }
+
+    /**
+     * Get a record.
+     *
+     * @param index the index of the record.
+     * @return the stream from which the fast infoset document is read.
+     */
+    public InputStream getRecord(int index) {
+        return new ByteBufferInputStream(getRecordBuffer(index));
+    }
+
+    /**
+     * Get a spliterator over the records.
+     *
+     * @return the spliterator.
+     */
+    public Spliterator<InputStream> spliterator() {
+        return new RecordSpliterator(0, _offsets.length);
+    }
+
+    /**
+     * Get a sequential stream of the records.
+     *
+     * @return the stream.
+     */
+    public Stream<InputStream> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Get a parallel stream of the records.
+     *
+     * @return the stream.
+     */
+    public Stream<InputStream> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private boolean hasTrailer(long headerEnd) {
+        final long trailer = _size - RecordConstants.TRAILER_SIZE;
+        return trailer >= headerEnd + 4
+                && matches(RecordConstants.TRAILER_MAGIC, trailer + 8);
+    }
+
+    private long[] readIndex(long headerEnd) throws IOException {
+        final long trailer = _size - RecordConstants.TRAILER_SIZE;
+        final long indexOffset = getLong(trailer);
+        if (indexOffset < headerEnd || indexOffset > trailer - 4) {
+            throw new IOException(CommonResourceBundle.getInstance().
+                    getString("message.recordContainerIndexInvalid"));
+        }
+
+        long position = indexOffset;
+        final int count = getInt(position);
+        position += 4;
+        if (count < 0 || (long) count * RecordConstants.INDEX_ENTRY_SIZE != trailer - position) {
+            throw new IOException(CommonResourceBundle.getInstance().
+                    getString("message.recordContainerIndexInvalid"));
+        }
+
+        final long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = getLong(position);
+            position += RecordConstants.INDEX_ENTRY_SIZE;
+            if (offsets[i] < headerEnd || offsets[i] > indexOffset - RecordConstants.RECORD_LENGTH_SIZE) {
+                throw new IOException(CommonResourceBundle.getInstance().
+                        getString("message.recordContainerIndexInvalid"));
+            }
+            checkBounds(offsets[i] + RecordConstants.RECORD_LENGTH_SIZE, getInt(offsets[i]));
+        }
+        return offsets;
+    }
+
+    private long[] scanRecords(long position) throws IOException {
+        long[] offsets = new long[64];
+        int count = 0;
+        while (position < _size) {
+            checkBounds(position, RecordConstants.RECORD_LENGTH_SIZE);
+            final int length = getInt(position);
+            checkBounds(position + RecordConstants.RECORD_LENGTH_SIZE, length);
+
+            if (count == offsets.length) {
+                final long[] o = new long[offsets.length * 2];
+                System.arraycopy(offsets, 0, o, 0, count);
+                offsets = o;
+            }
+            offsets[count++] = position;
+            position += RecordConstants.RECORD_LENGTH_SIZE + length;
+        }
+
+        final long[] o = new long[count];
+        System.arraycopy(offsets, 0, o, 0, count);
+        return o;
+    }
+
+    private ByteBuffer[] mapRecords(FileChannel channel) throws IOException {
+        ByteBuffer[] records = null;
+        for (int i = 0; i < _offsets.length; i++) {
+            final long offset = _offsets[i];
+            final int length = getInt(offset);
+            if ((long) local(offset) + RecordConstants.RECORD_LENGTH_SIZE + length > window(offset).limit()) {
+                if (records == null) {
+                    records = new ByteBuffer[_offsets.length];
+                }
+                records[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        offset + RecordConstants.RECORD_LENGTH_SIZE, length);
+            }
+        }
+        return records;
+    }
+
+    private void checkBounds(long position, long length) throws IOException {
+        if (length < 0 || position > _size - length) {
+            throw new IOException(CommonResourceBundle.getInstance().
+                    getString("message.recordContainerTruncated"));
+        }
+    }
+
+    private boolean matches(byte[] magic, long position) {
+        for (int i = 0; i < magic.length; i++) {
+            if (get(position + i) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer window(long position) {
+        return _windows[(int) (position >>> _windowShift)];
+    }
+
+    private int local(long position) {
+        return (int) (position & ((1L << _windowShift) - 1));
+    }
+
+    private byte get(long position) {
+        return window(position).get(local(position));
+    }
+
+    private short getShort(long position) {
+        return window(position).getShort(local(position));
+    }
+
+    private int getInt(long position) {
+        return window(position).getInt(local(position));
+    }
+
+    private long getLong(long position) {
+        return window(position).getLong(local(position));
+    }
+
+    private final class RecordSpliterator implements Spliterator<InputStream> {
+        private int _index;
+        private final int _end;
+
+        RecordSpliterator(int index, int end) {
+            _index = index;
+            _end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super InputStream> action) {
+            if (_index < _end) {
+                action.accept(getRecord(_index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super InputStream> action) {
+            while (_index < _end) {
+                action.accept(getRecord(_index++));
+            }
+        }
+
+        @Override
+        public Spliterator<InputStream> trySplit() {
+            final int middle = (_index + _end) >>> 1;
+            if (middle <= _index) {
+                return null;
+            }
+            final Spliterator<InputStream> prefix = new RecordSpliterator(_index, middle);
+            _index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return _end - _index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer _b;
+
+        ByteBufferInputStream(ByteBuffer b) {
+            _b = b;
+        }
+
+        @Override
+        public int read() {
+            return _b.hasRemaining() ? _b.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!_b.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, _b.remaining());
+            _b.get(b, offset, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            final int skipped = (int) Math.max(0, Math.min(n, _b.remaining()));
+            _b.position(_b.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return _b.remaining();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.container;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes fast infoset documents as records of a framed container.
+ * <p>
+ * Each document is written as a length prefixed record. When the writer
+ * is closed an index of the records is written so that a
+ * {@link FastInfosetRecordReader} may access the records at random and
+ * in parallel. Offsets of records are 8 octets, so a container may be
+ * larger than 2 GB, see {@link FastInfosetRecordReader#open}.
+ * <p>
+ * The container may declare the URI of an external vocabulary that is
+ * shared by all the documents. The documents are expected to reference
+ * the vocabulary by the same URI, for example by encoding them with a
+ * serializer whose external vocabulary has been set.
+ */
+public class FastInfosetRecordWriter implements Closeable {
+    private final OutputStream _s;
+
+    private final byte[] _buffer = new byte[8];
+
+    private long[] _offsets = new long[64];
+
+    private int _recordCount;
+
+    private long _position;
+
+    private boolean _closed;
+
+    /**
+     * Create a record writer.
+     *
+     * @param s the stream the container is written to.
+     * @throws IOException if the header cannot be written.
+     */
+    public FastInfosetRecordWriter(OutputStream s) throws IOException {
+        this(s, null);
+    }
+
+    /**
+     * Create a record writer whose documents share an external vocabulary.
+     *
+     * @param s the stream the container is written to.
+     * @param externalVocabularyURI the URI of the external vocabulary, may
+     *        be null.
+     * @throws IOException if the header cannot be written.
+     */
+    public FastInfosetRecordWriter(OutputStream s, String externalVocabularyURI) throws IOException {
+        _s = s;
+
+        write(RecordConstants.HEADER_MAGIC, 0, RecordConstants.HEADER_MAGIC.length);
+        _buffer[0] = RecordConstants.VERSION;
+        if (externalVocabularyURI != null) {
+            final byte[] uri = externalVocabularyURI.getBytes(StandardCharsets.UTF_8);
+            if (uri.length > 0xFFFF) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                        getString("message.recordExternalVocabularyURITooLong"));
+            }
+            _buffer[1] = RecordConstants.EXTERNAL_VOCABULARY_FLAG;
+            _buffer[2] = (byte) (uri.length >>> 8);
+            _buffer[3] = (byte) uri.length;
+            write(_buffer, 0, 4);
+            write(uri, 0, uri.length);
+        } else {
+            _buffer[1] = 0;
+            write(_buffer, 0, 2);
+        }
+    }
+
+    /**
+     * Write a fast infoset document as a record.
+     *
+     * @param document the encoded fast infoset document.
+     * @throws IOException if the record cannot be written.
+     */
+    public void writeRecord(byte[] document) throws IOException {
+        writeRecord(document, 0, document.length);
+    }
+
+    /**
+     * Write a fast infoset document as a record.
+     *
+     * @param document the array containing the encoded fast infoset document.
+     * @param offset the offset of the document in the array.
+     * @param length the length of the document.
+     * @throws IOException if the record cannot be written.
+     */
+    public void writeRecord(byte[] document, int offset, int length) throws IOException {
+        if (_closed) {
+            throw new IOException(CommonResourceBundle.getInstance().
+                    getString("message.recordWriterClosed"));
+        }
+
+        if (_recordCount == _offsets.length) {
+            final long[] offsets = new long[_offsets.length * 2];
+            System.arraycopy(_offsets, 0, offsets, 0, _recordCount);
+            _offsets = offsets;
+        }
+        _offsets[_recordCount++] = _position;
+
+        writeInt(length);
+        write(document, offset, length);
+    }
+
+    /**
+     * Get the number of records written.
+     *
+     * @return the number of records.
+     */
+    public int getRecordCount() {
+        return _recordCount;
+    }
+
+    /**
+     * Write the index and trailer of the container and close the
+     * underlying stream.
+     *
+     * @throws IOException if the index cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (_closed) {
+            return;
+        }
+        _closed = true;
+
+        final long indexOffset = _position;
+        writeInt(_recordCount);
+        for (int i = 0; i < _recordCount; i++) {
+            writeLong(_offsets[i]);
+        }
+
+        writeLong(indexOffset);
+        write(RecordConstants.TRAILER_MAGIC, 0, RecordConstants.TRAILER_MAGIC.length);
+
+        _s.close();
+    }
+
+    private void writeInt(int i) throws IOException {
+        _buffer[0] = (byte) (i >>> 24);
+        _buffer[1] = (byte) (i >>> 16);
+        _buffer[2] = (byte) (i >>> 8);
+        _buffer[3] = (byte) i;
+        write(_buffer, 0, 4);
+    }
+
+    private void writeLong(long l) throws IOException {
+        for (int i = 7; i >= 0; i--) {
+            _buffer[i] = (byte) l;
+            l >>>= 8;
+        }
+        write(_buffer, 0, 8);
+    }
+
+    private void write(byte[] b, int offset, int length) throws IOException {
+        _s.write(b, offset, length);
+        _position += length;
+    }
+}
@@ -0,0 +1,655 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.container;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import com.sun.xml.fastinfoset.Encoder;
+import com.sun.xml.fastinfoset.EncodingConstants;
+import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.util.PathFilter;
+import com.sun.xml.fastinfoset.util.QualifiedNameArray;
+import com.sun.xml.fastinfoset.util.StringArray;
+import com.sun.xml.fastinfoset.util.StringIntMap;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import javax.xml.stream.XMLStreamException;
+import org.jvnet.fastinfoset.FastInfosetException;
+
+/**
+ * Splits a fast infoset document into records, the elements selected by a
+ * {@link PathFilter}, and encodes each record as a standalone fast infoset
+ * document.
+ * <p>
+ * The encoding of a record is copied from the document without being
+ * decoded and encoded again. Names and values of a record may refer to
+ * entries that were added to the vocabulary tables before the record, so
+ * the document of a record has an initial vocabulary of the entries of the
+ * tables at the start of the record, that refers to the external
+ * vocabulary of the document if any. The namespaces declared by the
+ * ancestors of a record are declared on the record.
+ * <p>
+ * The initial vocabulary of a record is reduced to the entries the record
+ * refers to, which are recorded as the record is skipped. The copied
+ * encoding refers to entries by their index in the tables of the document,
+ * so the entries of a table after the last entry referred to are omitted
+ * and the entries before it that are not referred to are replaced by
+ * placeholders of one or two octets. A record that refers to an entry added
+ * shortly before it therefore still has a placeholder for each entry added
+ * before that entry.
+ * <p>
+ * Elements that neither are nor may contain records are skipped without
+ * being decoded, see {@link StAXDocumentParser#skipElement()}. Records
+ * that are contained in a record are part of the containing record. The
+ * document element cannot be a record.
+ * <p>
+ * The documents of the records may be processed independently, for
+ * example written to a {@link FastInfosetRecordWriter} or parsed in
+ * parallel.
+ */
+public class FastInfosetSplitter {
+    private final RecordReader _reader;
+
+    /**
+     * Create a splitter of a document.
+     *
+     * @param s the input stream of the document.
+     * @param records the path filter of the records.
+     */
+    public FastInfosetSplitter(InputStream s, PathFilter records) {
+        _reader = new RecordReader(s, records.newMatcher());
+    }
+
+    /**
+     * Set the external vocabularies that may be referred to by the document.
+     *
+     * @param referencedVocabularies the map of URI to vocabulary.
+     */
+    public void setExternalVocabularies(Map<String, ParserVocabulary> referencedVocabularies) {
+        _reader.setExternalVocabularies(referencedVocabularies);
+    }
+
+    /**
+     * Split the next record of the document.
+     *
+     * @return the fast infoset document of the record, or null if there
+     *         are no more records.
+     * @throws FastInfosetException if the document is not valid or the
+     *         record cannot be encoded.
+     * @throws IOException if the document cannot be read.
+     */
+    public byte[] nextRecord() throws FastInfosetException, IOException {
+        try {
+            return _reader.nextRecord();
+        } catch (XMLStreamException e) {
+            final Throwable t = e.getNestedException();
+            if (t instanceof IOException) {
+                throw (IOException) t;
+            } else if (t instanceof FastInfosetException) {
+                throw (FastInfosetException) t;
+            }
+            throw new FastInfosetException(e);
+        }
+    }
+
+    /**
+     * Walks the elements of the document and copies the encoding of the
+     * records.
+     */
+    private static final class RecordReader extends StAXDocumentParser {
+        private final PathFilter.Matcher _matcher;
+
+        private final CaptureInputStream _capture;
+
+        private final RecordEncoder _encoder = new RecordEncoder();
+
+        private int _depth;
+
+        /**
+         * The sizes of the vocabulary tables at the start of the record.
+         */
+        private final int[] _tableSizes = new int[ParserVocabulary.ATTRIBUTE_NAME + 1];
+
+        /**
+         * The entries of the vocabulary tables referred to by the record.
+         */
+        private final BitSet[] _tableReferences = new BitSet[ParserVocabulary.ATTRIBUTE_NAME + 1];
+
+        /**
+         * The end of the namespace declarations of the ancestors of the
+         * record.
+         */
+        private int _ancestorNamespacesEnd;
+
+        RecordReader(InputStream s, PathFilter.Matcher matcher) {
+            _capture = new CaptureInputStream(s);
+            _matcher = matcher;
+            setInputStream(_capture);
+            for (int i = 0; i < _tableReferences.length; i++) {
+                _tableReferences[i] = new BitSet();
+            }
+            _references = _tableReferences;
+        }
+
+        byte[] nextRecord() throws XMLStreamException, FastInfosetException, IOException {
+            if (_eventType == END_DOCUMENT) {
+                return null;
+            }
+
+            while (true) {
+                if (_depth > 0 && (_internalState == INTERNAL_STATE_VOID ||
+                        _internalState == INTERNAL_STATE_SINGLE_TERMINATE_ELEMENT_WITH_NAMESPACES) &&
+                        peekNext() == START_ELEMENT) {
+                    mark();
+                }
+
+                switch (next()) {
+                    case START_ELEMENT:
+                        switch (_matcher.startElement(_qualifiedName, _attributes)) {
+                            case PathFilter.MATCH:
+                                if (_depth == 0) {
+                                    throw new FastInfosetException(CommonResourceBundle.getInstance().
+                                            getString("message.recordIsDocumentElement"));
+                                }
+                                return copyRecord();
+                            case PathFilter.NONE:
+                                _capture.stop();
+                                skipElement();
+                                _matcher.endElement();
+                                break;
+                            default:
+                                _capture.stop();
+                                _depth++;
+                        }
+                        break;
+                    case END_ELEMENT:
+                        _matcher.endElement();
+                        _depth--;
+                        break;
+                    case END_DOCUMENT:
+                        return null;
+                }
+            }
+        }
+
+        /**
+         * Mark the start of an element that may be a record.
+         */
+        private void mark() {
+            // The namespaces of a preceding sibling are undeclared
+            // when the element is decoded
+            _ancestorNamespacesEnd = (_internalState == INTERNAL_STATE_VOID) ?
+                _namespaceAIIsIndex : _currentNamespaceAIIsStart;
+
+            for (int i = 0; i < _tableSizes.length; i++) {
+                _tableSizes[i] = _v.tables[i].getSize();
+                _tableReferences[i].clear();
+            }
+
+            _capture.start(_octetBuffer, _octetBufferOffset, _octetBufferEnd - _octetBufferOffset);
+        }
+
+        private byte[] copyRecord() throws XMLStreamException, FastInfosetException, IOException {
+            // The namespaces declared by the record
+            final Set<String> prefixes = new HashSet<>();
+            for (int i = _ancestorNamespacesEnd; i < _namespaceAIIsIndex; i++) {
+                prefixes.add(_namespaceAIIsPrefix[i]);
+            }
+
+            // The namespaces declared by the ancestors that are in scope
+            final List<String> namespaces = new ArrayList<>();
+            for (int i = _ancestorNamespacesEnd - 1; i >= 0; i--) {
+                if (prefixes.add(_namespaceAIIsPrefix[i]) && !_namespaceAIIsNamespaceName[i].isEmpty()) {
+                    namespaces.add(_namespaceAIIsPrefix[i]);
+                    namespaces.add(_namespaceAIIsNamespaceName[i]);
+                }
+            }
+
+            skipElement();
+            _matcher.endElement();
+
+            // The octets of the record that have been read from the
+            // stream but not decoded belong to the following items
+            final int length = _capture.size() - (_octetBufferEnd - _octetBufferOffset);
+            final boolean closesDocument = (_internalState == INTERNAL_STATE_DOUBLE_TERMINATE_ELEMENT);
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(length + 256);
+            _encoder.encode(out, _v, _tableSizes, _tableReferences, namespaces,
+                    _capture.buffer(), length, closesDocument);
+            _capture.stop();
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Encodes the document of a record.
+     */
+    private static final class RecordEncoder extends Encoder {
+        /**
+         * The tables in the order of the optionals of an initial vocabulary.
+         */
+        private static final int[] TABLES = {
+            ParserVocabulary.RESTRICTED_ALPHABET,
+            ParserVocabulary.ENCODING_ALGORITHM,
+            ParserVocabulary.PREFIX,
+            ParserVocabulary.NAMESPACE_NAME,
+            ParserVocabulary.LOCAL_NAME,
+            ParserVocabulary.OTHER_NCNAME,
+            ParserVocabulary.OTHER_URI,
+            ParserVocabulary.ATTRIBUTE_VALUE,
+            ParserVocabulary.CHARACTER_CONTENT_CHUNK,
+            ParserVocabulary.OTHER_STRING,
+            ParserVocabulary.ELEMENT_NAME,
+            ParserVocabulary.ATTRIBUTE_NAME
+        };
+
+        /**
+         * The flags of the optionals of the tables.
+         */
+        private static final int[] FLAGS = {
+            EncodingConstants.INITIAL_VOCABULARY_RESTRICTED_ALPHABETS_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_ENCODING_ALGORITHMS_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_PREFIXES_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_NAMESPACE_NAMES_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_LOCAL_NAMES_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_OTHER_NCNAMES_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_OTHER_URIS_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_ATTRIBUTE_VALUES_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_CONTENT_CHARACTER_CHUNKS_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_OTHER_STRINGS_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_ELEMENT_NAME_SURROGATES_FLAG,
+            EncodingConstants.INITIAL_VOCABULARY_ATTRIBUTE_NAME_SURROGATES_FLAG
+        };
+
+        /**
+         * The string of a placeholder entry that is not referred to.
+         */
+        private static final String PLACEHOLDER = "_";
+
+        private final IndexMap _prefixes = new IndexMap();
+
+        private final IndexMap _namespaceNames = new IndexMap();
+
+        /**
+         * The end of the entries of each table that are encoded.
+         */
+        private final int[] _ends = new int[TABLES.length];
+
+        void encode(OutputStream s, ParserVocabulary v, int[] sizes, BitSet[] references, List<String> namespaces,
+                byte[] record, int length, boolean closesDocument) throws FastInfosetException, IOException {
+            setOutputStream(s);
+            encodeHeader(false);
+            encodeInitialVocabulary(v, sizes, references, namespaces);
+
+            // The attributes flag of an element with namespace attributes
+            // is set on the identification of the namespace attributes
+            final int attributes = record[0] & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG;
+            final boolean recordHasNamespaces = (record[0] & ~EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) ==
+                    (EncodingConstants.ELEMENT | EncodingConstants.ELEMENT_NAMESPACES_FLAG);
+            int offset = 0;
+            if (!namespaces.isEmpty() || recordHasNamespaces) {
+                write(EncodingConstants.ELEMENT | EncodingConstants.ELEMENT_NAMESPACES_FLAG | attributes);
+                for (int i = 0; i < namespaces.size(); i += 2) {
+                    final String prefix = namespaces.get(i);
+                    if (prefix.isEmpty()) {
+                        write(EncodingConstants.NAMESPACE_ATTRIBUTE | EncodingConstants.NAMESPACE_ATTRIBUTE_NAME_FLAG);
+                    } else {
+                        write(EncodingConstants.NAMESPACE_ATTRIBUTE |
+                                EncodingConstants.NAMESPACE_ATTRIBUTE_PREFIX_FLAG | EncodingConstants.NAMESPACE_ATTRIBUTE_NAME_FLAG);
+                        encodeNonZeroIntegerOnSecondBitFirstBitOne(_prefixes.index(prefix) + 1);
+                    }
+                    encodeNonZeroIntegerOnSecondBitFirstBitOne(_namespaceNames.index(namespaces.get(i + 1)) + 1);
+                }
+
+                if (recordHasNamespaces) {
+                    // The namespace attributes of the record follow
+                } else {
+                    write(EncodingConstants.TERMINATOR);
+                    write(record[0] & ~EncodingConstants.ELEMENT_ATTRIBUTE_FLAG);
+                }
+                offset = 1;
+            }
+
+            _s.write(_octetBuffer, 0, _octetBufferIndex);
+            _octetBufferIndex = 0;
+            _s.write(record, offset, length - offset);
+            if (!closesDocument) {
+                _s.write(EncodingConstants.TERMINATOR);
+            }
+        }
+
+        private void encodeInitialVocabulary(ParserVocabulary v, int[] sizes, BitSet[] references,
+                List<String> namespaces) throws FastInfosetException, IOException {
+            // Entries of an external vocabulary are referred to by its URI,
+            // entries of an initial vocabulary set on the parser are not
+            final boolean external = v.hasExternalVocabulary();
+            final int[] starts = new int[sizes.length];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = external ? v.tables[i].getReadOnlyArraySize() : 0;
+            }
+
+            // Namespaces of ancestors may also refer to entries of an
+            // external vocabulary
+            _prefixes.update(v.prefix::get, sizes[ParserVocabulary.PREFIX]);
+            _namespaceNames.update(v.namespaceName::get, sizes[ParserVocabulary.NAMESPACE_NAME]);
+
+            // The namespaces of the ancestors declared on the record, and the
+            // name surrogates referred to, refer to the prefixes, namespace
+            // names and local names
+            for (int i = 0; i < namespaces.size(); i += 2) {
+                if (!namespaces.get(i).isEmpty()) {
+                    references[ParserVocabulary.PREFIX].set(_prefixes.index(namespaces.get(i)));
+                }
+                references[ParserVocabulary.NAMESPACE_NAME].set(_namespaceNames.index(namespaces.get(i + 1)));
+            }
+            addNameReferences(v.elementName, references[ParserVocabulary.ELEMENT_NAME],
+                    starts[ParserVocabulary.ELEMENT_NAME], sizes[ParserVocabulary.ELEMENT_NAME], references);
+            addNameReferences(v.attributeName, references[ParserVocabulary.ATTRIBUTE_NAME],
+                    starts[ParserVocabulary.ATTRIBUTE_NAME], sizes[ParserVocabulary.ATTRIBUTE_NAME], references);
+
+            // The first 5 optionals of the 13 bit optional field are the
+            // external vocabulary and the tables up to the namespace names
+            int b = external ? EncodingConstants.INITIAL_VOCABULARY_EXTERNAL_VOCABULARY_FLAG : 0;
+            int b2 = 0;
+            for (int i = 0; i < TABLES.length; i++) {
+                final int table = TABLES[i];
+                // Restricted alphabets and encoding algorithms are referred
+                // to by identifiers that are not recorded
+                _ends[table] = (table == ParserVocabulary.RESTRICTED_ALPHABET ||
+                        table == ParserVocabulary.ENCODING_ALGORITHM) ? sizes[table] :
+                    Math.max(references[table].previousSetBit(sizes[table] - 1) + 1, starts[table]);
+                if (_ends[table] > starts[table]) {
+                    if (table <= ParserVocabulary.NAMESPACE_NAME) {
+                        b |= FLAGS[i];
+                    } else {
+                        b2 |= FLAGS[i];
+                    }
+                }
+            }
+
+            if (b == 0 && b2 == 0) {
+                write(0);
+                return;
+            }
+
+            write(EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG);
+            write(b);
+            write(b2);
+
+            if (external) {
+                encodeNonEmptyOctetStringOnSecondBit(v.getExternalVocabularyURI());
+            }
+
+            for (int table : TABLES) {
+                encodeTable(v, table, starts[table], _ends[table], references[table]);
+            }
+        }
+
+        /**
+         * Add the references of the name surrogates from a start index up
+         * to an end index that are referred to.
+         */
+        private void addNameReferences(QualifiedNameArray names, BitSet referenced, int start, int end,
+                BitSet[] references) throws FastInfosetException {
+            for (int i = referenced.nextSetBit(start); i >= 0 && i < end; i = referenced.nextSetBit(i + 1)) {
+                final QualifiedName name = names._array[i];
+                if (!name.prefix.isEmpty() && !name.prefix.equals(EncodingConstants.XML_NAMESPACE_PREFIX)) {
+                    references[ParserVocabulary.PREFIX].set(_prefixes.index(name.prefix));
+                }
+                if (!name.namespaceName.isEmpty() && !name.namespaceName.equals(EncodingConstants.XML_NAMESPACE_NAME)) {
+                    references[ParserVocabulary.NAMESPACE_NAME].set(_namespaceNames.index(name.namespaceName));
+                }
+                references[ParserVocabulary.LOCAL_NAME].set(name.localNameIndex);
+            }
+        }
+
+        /**
+         * Encode the entries of a table from a start index up to an end
+         * index, the entries that are not referred to as placeholders.
+         */
+        private void encodeTable(ParserVocabulary v, int table, int start, int end, BitSet references)
+                throws FastInfosetException, IOException {
+            if (end <= start) {
+                return;
+            }
+
+            encodeNumberOfItemsOfSequence(end - start);
+            for (int i = start; i < end; i++) {
+                if (references.get(i) || table == ParserVocabulary.RESTRICTED_ALPHABET ||
+                        table == ParserVocabulary.ENCODING_ALGORITHM) {
+                    encodeEntry(v, table, i);
+                } else {
+                    encodePlaceholder(v, table, end);
+                }
+            }
+        }
+
+        private void encodeEntry(ParserVocabulary v, int table, int i) throws FastInfosetException, IOException {
+            switch (table) {
+                case ParserVocabulary.RESTRICTED_ALPHABET:
+                    encodeNonIdentifyingStringOnFirstBit(v.restrictedAlphabet.get(i).toString(),
+                            (StringIntMap) null, false, false);
+                    break;
+                case ParserVocabulary.PREFIX:
+                    encodeNonEmptyOctetStringOnSecondBit(v.prefix.get(i));
+                    break;
+                case ParserVocabulary.OTHER_STRING:
+                    encodeNonIdentifyingStringOnFirstBit(v.otherString.get(i).toString(),
+                            (StringIntMap) null, false, false);
+                    break;
+                case ParserVocabulary.CHARACTER_CONTENT_CHUNK:
+                    encodeNonIdentifyingStringOnFirstBit(v.characterContentChunk.getString(i),
+                            (StringIntMap) null, false, false);
+                    break;
+                case ParserVocabulary.ELEMENT_NAME:
+                    encodeNameSurrogate(v.elementName._array[i]);
+                    break;
+                case ParserVocabulary.ATTRIBUTE_NAME:
+                    encodeNameSurrogate(v.attributeName._array[i]);
+                    break;
+                default:
+                    encodeNonEmptyOctetStringOnSecondBit(((StringArray) v.tables[table]).get(i));
+            }
+        }
+
+        /**
+         * Encode an entry that is not referred to.
+         *
+         * @param end the end of the entries of the table, the last entry is
+         *        referred to.
+         */
+        private void encodePlaceholder(ParserVocabulary v, int table, int end) throws FastInfosetException, IOException {
+            switch (table) {
+                case ParserVocabulary.CHARACTER_CONTENT_CHUNK:
+                case ParserVocabulary.OTHER_STRING:
+                    encodeNonIdentifyingStringOnFirstBit(PLACEHOLDER, (StringIntMap) null, false, false);
+                    break;
+                case ParserVocabulary.ELEMENT_NAME:
+                case ParserVocabulary.ATTRIBUTE_NAME:
+                    // A name with no prefix and no namespace name, the local
+                    // name of the last entry is referred to
+                    write(0);
+                    encodeNonZeroIntegerOnSecondBitFirstBitZero(
+                            ((QualifiedNameArray) v.tables[table])._array[end - 1].localNameIndex);
+                    break;
+                default:
+                    encodeNonEmptyOctetStringOnSecondBit(PLACEHOLDER);
+            }
+        }
+
+        private void encodeNameSurrogate(QualifiedName name) throws FastInfosetException, IOException {
+            int b = 0;
+            if (!name.prefix.isEmpty()) {
+                b |= EncodingConstants.NAME_SURROGATE_PREFIX_FLAG;
+            }
+            if (!name.namespaceName.isEmpty()) {
+                b |= EncodingConstants.NAME_SURROGATE_NAME_FLAG;
+            }
+            write(b);
+
+            if (!name.prefix.isEmpty()) {
+                encodeNonZeroIntegerOnSecondBitFirstBitZero(
+                        name.prefix.equals(EncodingConstants.XML_NAMESPACE_PREFIX) ?
+                            0 : _prefixes.index(name.prefix) + 1);
+            }
+            if (!name.namespaceName.isEmpty()) {
+                encodeNonZeroIntegerOnSecondBitFirstBitZero(
+                        name.namespaceName.equals(EncodingConstants.XML_NAMESPACE_NAME) ?
+                            0 : _namespaceNames.index(name.namespaceName) + 1);
+            }
+            encodeNonZeroIntegerOnSecondBitFirstBitZero(name.localNameIndex);
+        }
+
+        /**
+         * Encode the number of items of a sequence. Implementation of
+         * clause C.21 of ITU-T Rec. X.891 | ISO/IEC 24824-1.
+         */
+        private void encodeNumberOfItemsOfSequence(int n) throws IOException {
+            if (n <= 128) {
+                write(n - 1);
+            } else {
+                n -= 129;
+                write(0x80 | (n >> 16));
+                write((n >> 8) & 0xFF);
+                write(n & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * The indexes of the entries of the prefix or namespace name table. The
+     * index 0 of the tables as encoded is that of the XML namespace, the
+     * index of an entry is one greater than that returned.
+     */
+    private static final class IndexMap {
+        private final Map<String, Integer> _map = new HashMap<>();
+
+        private int _end;
+
+        /**
+         * Add the entries of a table up to an end index.
+         */
+        void update(IntFunction<String> table, int end) {
+            if (end < _end) {
+                _map.clear();
+                _end = 0;
+            }
+            for (; _end < end; _end++) {
+                _map.put(table.apply(_end), _end);
+            }
+        }
+
+        int index(String s) throws FastInfosetException {
+            final Integer index = _map.get(s);
+            if (index == null) {
+                throw new FastInfosetException(CommonResourceBundle.getInstance().
+                        getString("message.recordNameNotInVocabulary", new Object[]{s}));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * An input stream that captures the octets read from the stream from
+     * the start of a record.
+     */
+    private static final class CaptureInputStream extends FilterInputStream {
+        private byte[] _buffer = new byte[1024];
+
+        private int _size = -1;
+
+        CaptureInputStream(InputStream s) {
+            super(s);
+        }
+
+        /**
+         * Start capturing.
+         *
+         * @param b the octets that have been read but not decoded.
+         */
+        void start(byte[] b, int offset, int length) {
+            _size = 0;
+            append(b, offset, length);
+        }
+
+        void stop() {
+            _size = -1;
+        }
+
+        int size() {
+            return _size;
+        }
+
+        byte[] buffer() {
+            return _buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b >= 0 && _size >= 0) {
+                append(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = in.read(b, off, len);
+            if (n > 0 && _size >= 0) {
+                append(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped octets are read so that they are captured
+            final byte[] b = new byte[(int) Math.min(n, 1024)];
+            final int read = read(b, 0, b.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void append(byte[] b, int offset, int length) {
+            if (_size + length > _buffer.length) {
+                _buffer = Arrays.copyOf(_buffer, Math.max(_buffer.length * 2, _size + length));
+            }
+            System.arraycopy(b, offset, _buffer, _size, length);
+            _size += length;
+        }
+    }
+}
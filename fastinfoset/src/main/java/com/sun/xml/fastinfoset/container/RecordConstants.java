@@ -0,0 +1,50 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.container;
+
+/**
+ * Constants of the framed record container.
+ * <p>
+ * A container consists of a header, a sequence of records, an index
+ * of the records and a trailer:
+ * <pre>
+ * header:  'F' 'I' 'R' 'C' version flags [URI length (2 octets) URI (UTF-8)]
+ * record:  length (4 octets) fast infoset document
+ * index:   count (4 octets) offset of each record (8 octets each)
+ * trailer: offset of index (8 octets) 'F' 'I' 'R' 'X'
+ * </pre>
+ * All integers are unsigned and big-endian. The offset of a record is
+ * the position of its length in the container.
+ */
+final class RecordConstants {
+    static final byte[] HEADER_MAGIC = {'F', 'I', 'R', 'C'};
+    static final byte[] TRAILER_MAGIC = {'F', 'I', 'R', 'X'};
+
+    static final int VERSION = 1;
+
+    static final int EXTERNAL_VOCABULARY_FLAG = 0x01;
+
+    static final int HEADER_SIZE = HEADER_MAGIC.length + 2;
+    static final int RECORD_LENGTH_SIZE = 4;
+    static final int INDEX_ENTRY_SIZE = 8;
+    static final int TRAILER_SIZE = 8 + TRAILER_MAGIC.length;
+
+    private RecordConstants() {
+    }
+}
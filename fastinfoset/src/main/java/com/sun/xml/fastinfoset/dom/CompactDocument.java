@@ -0,0 +1,344 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.dom;
+
+import com.sun.xml.fastinfoset.QualifiedName;
+import org.w3c.dom.Node;
+
+/**
+ * A read only tree of a fast infoset document, decoded by the
+ * {@link CompactDocumentParser}.
+ * <p>
+ * A node is an <code>int</code>, the index of the node in document order,
+ * and the document node is node 0. The properties of the nodes are held in
+ * <code>int</code> arrays rather than as an object per node:
+ * <ul>
+ * <li>The type of a node, one of the DOM node types
+ * {@link Node#DOCUMENT_NODE}, {@link Node#ELEMENT_NODE},
+ * {@link Node#TEXT_NODE}, {@link Node#COMMENT_NODE} and
+ * {@link Node#PROCESSING_INSTRUCTION_NODE}.</li>
+ * <li>The name of an element, or the target of a processing instruction,
+ * as an index into the names of the document. The names are the
+ * {@link QualifiedName} entries of the vocabulary tables and are shared by
+ * all elements and attributes of the same name.</li>
+ * <li>The parent, first child and next sibling of a node, or {@link #NONE}.</li>
+ * <li>The characters of a text, comment or processing instruction node as
+ * the offset and length in a single character array, see
+ * {@link #getCharacters()}, and the attributes of an element as the index
+ * and number of its entries in the attribute arrays.</li>
+ * </ul>
+ * Adjacent character content is merged into one text node. Namespace
+ * declarations are not nodes of the tree; the names of elements and
+ * attributes are qualified with their namespace name.
+ */
+public final class CompactDocument {
+    /**
+     * The index of no node, such as the parent of the document node.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The document node.
+     */
+    public static final int DOCUMENT = 0;
+
+    int[] _type;
+
+    int[] _name;
+
+    int[] _parent;
+
+    int[] _firstChild;
+
+    int[] _nextSibling;
+
+    int[] _offset;
+
+    int[] _length;
+
+    int _nodeCount;
+
+    QualifiedName[] _names;
+
+    int _nameCount;
+
+    int[] _attributeName;
+
+    int[] _attributeOffset;
+
+    int[] _attributeLength;
+
+    int _attributeCount;
+
+    char[] _characters;
+
+    int _charactersLength;
+
+    CompactDocument(int nodeCapacity, int attributeCapacity, int charactersCapacity) {
+        _type = new int[nodeCapacity];
+        _name = new int[nodeCapacity];
+        _parent = new int[nodeCapacity];
+        _firstChild = new int[nodeCapacity];
+        _nextSibling = new int[nodeCapacity];
+        _offset = new int[nodeCapacity];
+        _length = new int[nodeCapacity];
+        _names = new QualifiedName[16];
+        _attributeName = new int[attributeCapacity];
+        _attributeOffset = new int[attributeCapacity];
+        _attributeLength = new int[attributeCapacity];
+        _characters = new char[charactersCapacity];
+    }
+
+    /**
+     * @return the number of nodes, including the document node.
+     */
+    public int getNodeCount() {
+        return _nodeCount;
+    }
+
+    /**
+     * @return the document element, or {@link #NONE} if the document has no
+     *         element.
+     */
+    public int getDocumentElement() {
+        return getFirstChildElement(DOCUMENT, null, null);
+    }
+
+    /**
+     * @param node the node.
+     * @return the DOM node type of the node.
+     */
+    public int getNodeType(int node) {
+        return _type[node];
+    }
+
+    public int getParentNode(int node) {
+        return _parent[node];
+    }
+
+    public int getFirstChild(int node) {
+        return _firstChild[node];
+    }
+
+    public int getNextSibling(int node) {
+        return _nextSibling[node];
+    }
+
+    /**
+     * @param node the node.
+     * @return the name of an element, the name of a processing instruction
+     *         as the local name, or null for other nodes.
+     */
+    public QualifiedName getName(int node) {
+        final int name = _name[node];
+        return (name == NONE) ? null : _names[name];
+    }
+
+    public String getLocalName(int node) {
+        final int name = _name[node];
+        return (name == NONE) ? null : _names[name].localName;
+    }
+
+    public String getNamespaceURI(int node) {
+        final int name = _name[node];
+        return (name == NONE) ? null : _names[name].namespaceName;
+    }
+
+    public String getPrefix(int node) {
+        final int name = _name[node];
+        return (name == NONE) ? null : _names[name].prefix;
+    }
+
+    /**
+     * Get the first child element of a node that has a name.
+     *
+     * @param node the node.
+     * @param namespaceName the namespace name, "" for no namespace, or null
+     *        for any namespace.
+     * @param localName the local name, or null for any local name.
+     * @return the first child element, or {@link #NONE}.
+     */
+    public int getFirstChildElement(int node, String namespaceName, String localName) {
+        final int child = _firstChild[node];
+        return (child == NONE || isElement(child, namespaceName, localName)) ?
+            child : getNextSiblingElement(child, namespaceName, localName);
+    }
+
+    /**
+     * Get the next sibling element of a node that has a name.
+     *
+     * @param node the node.
+     * @param namespaceName the namespace name, "" for no namespace, or null
+     *        for any namespace.
+     * @param localName the local name, or null for any local name.
+     * @return the next sibling element, or {@link #NONE}.
+     */
+    public int getNextSiblingElement(int node, String namespaceName, String localName) {
+        int sibling = _nextSibling[node];
+        while (sibling != NONE && !isElement(sibling, namespaceName, localName)) {
+            sibling = _nextSibling[sibling];
+        }
+        return sibling;
+    }
+
+    private boolean isElement(int node, String namespaceName, String localName) {
+        if (_type[node] != Node.ELEMENT_NODE) {
+            return false;
+        }
+        final QualifiedName name = _names[_name[node]];
+        return (localName == null || localName.equals(name.localName)) &&
+                (namespaceName == null || namespaceName.equals(name.namespaceName));
+    }
+
+    /**
+     * Get the characters of the text, comment and processing instruction
+     * nodes and of the attribute values.
+     * <p>
+     * The array is shared and must not be modified.
+     *
+     * @return the character array.
+     */
+    public char[] getCharacters() {
+        return _characters;
+    }
+
+    /**
+     * @param node a text, comment or processing instruction node.
+     * @return the offset of the characters of the node, the data of a
+     *         processing instruction.
+     */
+    public int getTextStart(int node) {
+        return _offset[node];
+    }
+
+    /**
+     * @param node a text, comment or processing instruction node.
+     * @return the number of characters of the node.
+     */
+    public int getTextLength(int node) {
+        return _length[node];
+    }
+
+    /**
+     * @param node a text, comment or processing instruction node.
+     * @return the characters of the node as a string.
+     */
+    public String getText(int node) {
+        return new String(_characters, _offset[node], _length[node]);
+    }
+
+    /**
+     * Get the text content of a node, the characters of its descendant
+     * text nodes in document order.
+     *
+     * @param node the node.
+     * @return the text content.
+     */
+    public String getTextContent(int node) {
+        switch (_type[node]) {
+            case Node.TEXT_NODE:
+            case Node.COMMENT_NODE:
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                return getText(node);
+            default:
+                break;
+        }
+
+        final StringBuilder b = new StringBuilder();
+        // Nodes are in document order so the descendants follow the node
+        // up to the next node that is not a descendant
+        final int end = (node == DOCUMENT) ? _nodeCount : following(node);
+        for (int n = node + 1; n < end; n++) {
+            if (_type[n] == Node.TEXT_NODE) {
+                b.append(_characters, _offset[n], _length[n]);
+            }
+        }
+        return b.toString();
+    }
+
+    /**
+     * @return the first node that follows a node and is not a descendant,
+     *         or the number of nodes.
+     */
+    private int following(int node) {
+        while (node != NONE) {
+            if (_nextSibling[node] != NONE) {
+                return _nextSibling[node];
+            }
+            node = _parent[node];
+        }
+        return _nodeCount;
+    }
+
+    /**
+     * @param element the element.
+     * @return the number of attributes of the element.
+     */
+    public int getAttributeCount(int element) {
+        return (_type[element] == Node.ELEMENT_NODE) ? _length[element] : 0;
+    }
+
+    /**
+     * @param element the element.
+     * @param index the index of the attribute.
+     * @return the name of the attribute.
+     */
+    public QualifiedName getAttributeName(int element, int index) {
+        return _names[_attributeName[attribute(element, index)]];
+    }
+
+    /**
+     * @param element the element.
+     * @param index the index of the attribute.
+     * @return the value of the attribute.
+     */
+    public String getAttributeValue(int element, int index) {
+        final int attribute = attribute(element, index);
+        return new String(_characters, _attributeOffset[attribute], _attributeLength[attribute]);
+    }
+
+    /**
+     * Get the value of an attribute of an element.
+     *
+     * @param element the element.
+     * @param namespaceName the namespace name, "" for no namespace, or null
+     *        for any namespace.
+     * @param localName the local name.
+     * @return the value of the attribute, or null if the element has no
+     *         such attribute.
+     */
+    public String getAttributeValue(int element, String namespaceName, String localName) {
+        final int count = getAttributeCount(element);
+        for (int i = 0; i < count; i++) {
+            final QualifiedName name = _names[_attributeName[_offset[element] + i]];
+            if (localName.equals(name.localName) &&
+                    (namespaceName == null || namespaceName.equals(name.namespaceName))) {
+                return getAttributeValue(element, i);
+            }
+        }
+        return null;
+    }
+
+    private int attribute(int element, int index) {
+        if (index < 0 || index >= getAttributeCount(element)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return _offset[element] + index;
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.dom;
+
+import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+import org.jvnet.fastinfoset.FastInfosetException;
+import org.w3c.dom.Node;
+
+/**
+ * The Fast Infoset parser that decodes a document into a
+ * {@link CompactDocument}.
+ * <p>
+ * The tree is built from the events of a {@link StAXDocumentParser}. The
+ * names of the tree are the entries of the vocabulary tables of that
+ * parser, so a new parser, and new vocabulary tables, are used for each
+ * document.
+ */
+public class CompactDocumentParser {
+    private Map<String, ParserVocabulary> _externalVocabularies;
+
+    public CompactDocumentParser() {
+    }
+
+    /**
+     * Set the external vocabularies that may be referred to by a document.
+     *
+     * @param referencedVocabularies the map of URI to vocabulary.
+     */
+    public void setExternalVocabularies(Map<String, ParserVocabulary> referencedVocabularies) {
+        _externalVocabularies = referencedVocabularies;
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link CompactDocument}.
+     *
+     * @param s the input stream containing the fast infoset document.
+     * @return the tree of the document.
+     * @throws FastInfosetException if the document is not valid.
+     * @throws IOException if the document cannot be read.
+     */
+    public CompactDocument parse(InputStream s) throws FastInfosetException, IOException {
+        final TreeReader reader = new TreeReader(s);
+        if (_externalVocabularies != null) {
+            reader.setExternalVocabularies(_externalVocabularies);
+        }
+        try {
+            return reader.readTree();
+        } catch (XMLStreamException e) {
+            final Throwable t = e.getNestedException();
+            if (t instanceof IOException) {
+                throw (IOException) t;
+            } else if (t instanceof FastInfosetException) {
+                throw (FastInfosetException) t;
+            }
+            throw new FastInfosetException(e);
+        }
+    }
+
+    /**
+     * Appends the nodes of the events of the document to the tree.
+     */
+    private static final class TreeReader extends StAXDocumentParser {
+        private final CompactDocument _d = new CompactDocument(64, 16, 1024);
+
+        /**
+         * The index of each name in the names of the tree.
+         */
+        private final Map<QualifiedName, Integer> _nameIndexes = new IdentityHashMap<>();
+
+        private final Map<String, Integer> _targetIndexes = new HashMap<>();
+
+        /**
+         * The open elements, the document node at depth 0.
+         */
+        private int[] _open = new int[16];
+
+        /**
+         * The last child of each open element.
+         */
+        private int[] _lastChild = new int[16];
+
+        private int _depth;
+
+        TreeReader(InputStream s) {
+            super(s);
+        }
+
+        CompactDocument readTree() throws XMLStreamException {
+            final CompactDocument d = _d;
+            addNode(Node.DOCUMENT_NODE, CompactDocument.NONE);
+            _open[0] = CompactDocument.DOCUMENT;
+            _lastChild[0] = CompactDocument.NONE;
+
+            int event;
+            while ((event = next()) != END_DOCUMENT) {
+                switch (event) {
+                    case START_ELEMENT:
+                        startElement();
+                        break;
+                    case END_ELEMENT:
+                        _depth--;
+                        break;
+                    case CHARACTERS:
+                    case SPACE:
+                    case CDATA:
+                        characters();
+                        break;
+                    case COMMENT: {
+                        final int node = appendChild(Node.COMMENT_NODE, CompactDocument.NONE);
+                        d._offset[node] = appendCharacters(getTextCharacters(), getTextStart(), getTextLength());
+                        d._length[node] = getTextLength();
+                        break;
+                    }
+                    case PROCESSING_INSTRUCTION: {
+                        final String target = getPITarget();
+                        Integer name = _targetIndexes.get(target);
+                        if (name == null) {
+                            name = addName(new QualifiedName("", "", target));
+                            _targetIndexes.put(target, name);
+                        }
+                        final int node = appendChild(Node.PROCESSING_INSTRUCTION_NODE, name);
+                        final String data = getPIData();
+                        d._offset[node] = appendCharacters(data);
+                        d._length[node] = data.length();
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+            return trim(d);
+        }
+
+        private void startElement() {
+            final CompactDocument d = _d;
+            final int node = appendChild(Node.ELEMENT_NODE, nameIndex(_qualifiedName));
+
+            final int attributeCount = _attributes.getLength();
+            if (d._attributeCount + attributeCount > d._attributeName.length) {
+                final int capacity = Math.max(d._attributeName.length * 2, d._attributeCount + attributeCount);
+                d._attributeName = Arrays.copyOf(d._attributeName, capacity);
+                d._attributeOffset = Arrays.copyOf(d._attributeOffset, capacity);
+                d._attributeLength = Arrays.copyOf(d._attributeLength, capacity);
+            }
+            d._offset[node] = d._attributeCount;
+            d._length[node] = attributeCount;
+            for (int i = 0; i < attributeCount; i++) {
+                final int attribute = d._attributeCount++;
+                final String value = _attributes.getValue(i);
+                d._attributeName[attribute] = nameIndex(_attributes.getQualifiedName(i));
+                d._attributeOffset[attribute] = appendCharacters(value);
+                d._attributeLength[attribute] = value.length();
+            }
+
+            if (++_depth == _open.length) {
+                _open = Arrays.copyOf(_open, _depth * 2);
+                _lastChild = Arrays.copyOf(_lastChild, _depth * 2);
+            }
+            _open[_depth] = node;
+            _lastChild[_depth] = CompactDocument.NONE;
+        }
+
+        private void characters() throws XMLStreamException {
+            final CompactDocument d = _d;
+            final int start = d._charactersLength;
+
+            // Copy the characters, decoding any remaining chunks
+            int sourceStart = 0;
+            while (true) {
+                ensureCharacters(1024);
+                final int length = d._characters.length - d._charactersLength;
+                final int copied = getTextCharacters(sourceStart, d._characters, d._charactersLength, length);
+                d._charactersLength += copied;
+                sourceStart += copied;
+                if (copied < length) {
+                    break;
+                }
+            }
+
+            final int previous = _lastChild[_depth];
+            if (previous != CompactDocument.NONE && d._type[previous] == Node.TEXT_NODE &&
+                    d._offset[previous] + d._length[previous] == start) {
+                d._length[previous] += sourceStart;
+            } else if (sourceStart > 0) {
+                final int node = appendChild(Node.TEXT_NODE, CompactDocument.NONE);
+                d._offset[node] = start;
+                d._length[node] = sourceStart;
+            }
+        }
+
+        private int appendChild(int type, int name) {
+            final CompactDocument d = _d;
+            final int parent = _open[_depth];
+            final int node = addNode(type, parent);
+            d._name[node] = name;
+
+            final int previous = _lastChild[_depth];
+            if (previous == CompactDocument.NONE) {
+                d._firstChild[parent] = node;
+            } else {
+                d._nextSibling[previous] = node;
+            }
+            _lastChild[_depth] = node;
+            return node;
+        }
+
+        private int addNode(int type, int parent) {
+            final CompactDocument d = _d;
+            final int node = d._nodeCount++;
+            if (node == d._type.length) {
+                final int capacity = node * 2;
+                d._type = Arrays.copyOf(d._type, capacity);
+                d._name = Arrays.copyOf(d._name, capacity);
+                d._parent = Arrays.copyOf(d._parent, capacity);
+                d._firstChild = Arrays.copyOf(d._firstChild, capacity);
+                d._nextSibling = Arrays.copyOf(d._nextSibling, capacity);
+                d._offset = Arrays.copyOf(d._offset, capacity);
+                d._length = Arrays.copyOf(d._length, capacity);
+            }
+            d._type[node] = type;
+            d._name[node] = CompactDocument.NONE;
+            d._parent[node] = parent;
+            d._firstChild[node] = CompactDocument.NONE;
+            d._nextSibling[node] = CompactDocument.NONE;
+            return node;
+        }
+
+        private int nameIndex(QualifiedName name) {
+            Integer index = _nameIndexes.get(name);
+            if (index == null) {
+                index = addName(name);
+                _nameIndexes.put(name, index);
+            }
+            return index;
+        }
+
+        private int addName(QualifiedName name) {
+            final CompactDocument d = _d;
+            if (d._nameCount == d._names.length) {
+                d._names = Arrays.copyOf(d._names, d._nameCount * 2);
+            }
+            d._names[d._nameCount] = name;
+            return d._nameCount++;
+        }
+
+        private int appendCharacters(String s) {
+            final int offset = _d._charactersLength;
+            ensureCharacters(s.length());
+            s.getChars(0, s.length(), _d._characters, offset);
+            _d._charactersLength += s.length();
+            return offset;
+        }
+
+        private int appendCharacters(char[] ch, int start, int length) {
+            final int offset = _d._charactersLength;
+            ensureCharacters(length);
+            System.arraycopy(ch, start, _d._characters, offset, length);
+            _d._charactersLength += length;
+            return offset;
+        }
+
+        private void ensureCharacters(int length) {
+            final CompactDocument d = _d;
+            if (d._charactersLength + length > d._characters.length) {
+                d._characters = Arrays.copyOf(d._characters,
+                        Math.max(d._characters.length * 2, d._charactersLength + length));
+            }
+        }
+
+        private static CompactDocument trim(CompactDocument d) {
+            final int n = d._nodeCount;
+            d._type = Arrays.copyOf(d._type, n);
+            d._name = Arrays.copyOf(d._name, n);
+            d._parent = Arrays.copyOf(d._parent, n);
+            d._firstChild = Arrays.copyOf(d._firstChild, n);
+            d._nextSibling = Arrays.copyOf(d._nextSibling, n);
+            d._offset = Arrays.copyOf(d._offset, n);
+            d._length = Arrays.copyOf(d._length, n);
+            d._names = Arrays.copyOf(d._names, d._nameCount);
+            d._attributeName = Arrays.copyOf(d._attributeName, d._attributeCount);
+            d._attributeOffset = Arrays.copyOf(d._attributeOffset, d._attributeCount);
+            d._attributeLength = Arrays.copyOf(d._attributeLength, d._attributeCount);
+            d._characters = Arrays.copyOf(d._characters, d._charactersLength);
+            return d;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sun.xml.fastinfoset.dom;
+
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.jvnet.fastinfoset.FastInfosetException;
+
+/**
+ * The base class of the DOM parsers that decode the content of an element
+ * separately from, and after, the rest of the document.
+ * <p>
+ * The content is located by its position in the octets of the document.
+ * The sizes of the vocabulary tables and the namespaces in scope at the
+ * start of the content are recorded, and the content is decoded by another
+ * parser with the tables of the whole document as they were when they
+ * were of those sizes.
+ */
+abstract class ContentDOMDocumentParser extends DOMDocumentParser {
+    /**
+     * The octets of the document being decoded, or null.
+     */
+    PositionInputStream _positionStream;
+
+    ContentDOMDocumentParser() {
+        super();
+    }
+
+    /**
+     * Create the stream of the octets of a document to be decoded.
+     * <p>
+     * A document compressed with deflate is decompressed into an array, so
+     * that positions are those of the decompressed octets.
+     *
+     * @param b the array containing the document.
+     * @param offset the offset of the document.
+     * @param length the length of the document.
+     * @return the stream.
+     * @throws IOException if the document cannot be decompressed.
+     */
+    final PositionInputStream newPositionInputStream(byte[] b, int offset, int length) throws IOException {
+        final byte[] inflated = inflateDocument(b, offset, length);
+        return (inflated != null) ? new PositionInputStream(inflated, 0, inflated.length)
+                : new PositionInputStream(b, offset, length);
+    }
+
+    /**
+     * @return the position in the octets of the document of the next
+     *         octet to be decoded.
+     */
+    final int position() {
+        return _positionStream.position() - (_octetBufferEnd - _octetBufferOffset);
+    }
+
+    /**
+     * @return the sizes of the vocabulary tables, indexed as
+     *         {@link ParserVocabulary#tables}.
+     */
+    final int[] getTableSizes() {
+        final int[] sizes = new int[_v.tables.length];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = _v.tables[i].getSize();
+        }
+        return sizes;
+    }
+
+    /**
+     * @return the prefix and namespace name index pairs of the namespaces
+     *         declared on the current element and its ancestors.
+     */
+    final int[] getNamespacesInScope() {
+        final int[] namespaces = new int[_namespacePrefixesIndex * 2];
+        for (int i = 0; i < _namespacePrefixesIndex; i++) {
+            final int prefixIndex = _namespacePrefixes[i];
+            namespaces[i * 2] = prefixIndex;
+            namespaces[i * 2 + 1] = _prefixTable._currentInScope[prefixIndex + 1] - 1;
+        }
+        return namespaces;
+    }
+
+    /**
+     * Set the content to be decoded by this parser.
+     *
+     * @param s the input stream of the content.
+     * @param v the vocabulary of the whole document, which is not modified.
+     * @param tableSizes the sizes of the tables at the start of the content.
+     * @param namespaces the namespaces in scope at the start of the content,
+     *        see {@link #getNamespacesInScope()}.
+     * @throws FastInfosetException if a namespace cannot be put in scope.
+     */
+    final void setContent(InputStream s, ParserVocabulary v, int[] tableSizes, int[] namespaces)
+            throws FastInfosetException {
+        // The tables as they were at the start of the content, so that
+        // entries are added at the same indexes as when decoding sequentially.
+        // The entries are shared with, not copied from, the tables of the
+        // whole document
+        _v.setSharedVocabulary(v, tableSizes);
+        setInputStream(s);
+
+        ++_prefixTable._declarationId;
+        for (int i = 0; i < namespaces.length; i += 2) {
+            _prefixTable.pushScope(namespaces[i], namespaces[i + 1]);
+        }
+        reset();
+    }
+
+    /**
+     * An input stream over an array that exposes the position of the
+     * next octet to be read.
+     */
+    static final class PositionInputStream extends ByteArrayInputStream {
+        private final int _offset;
+
+        PositionInputStream(byte[] b, int offset, int length) {
+            super(b, offset, length);
+            _offset = offset;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        int length() {
+            return count - _offset;
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
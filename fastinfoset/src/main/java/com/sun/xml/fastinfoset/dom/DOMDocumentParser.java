@@ -289,7 +289,6 @@ public class DOMDocumentParser extends Decoder {
         }
     }
     
-    @SuppressWarnings("fallthrough")
     protected final void processEII(QualifiedName name, boolean hasAttributes) throws FastInfosetException, IOException {
         if (_prefixTable._currentInScope[name.prefixIndex] != name.namespaceNameIndex) {
             throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.qnameOfEIINotInScope"));
@@ -313,6 +312,20 @@ public class DOMDocumentParser extends Decoder {
         
         parentCurrentNode.appendChild(_currentElement);
         
+        processEIIContent();
+        
+        _terminate = _doubleTerminate;
+        _doubleTerminate = false;
+        
+        _currentNode = parentCurrentNode;
+    }
+    
+    /**
+     * Process the children of the current node until the children are
+     * terminated.
+     */
+    @SuppressWarnings("fallthrough")
+    protected void processEIIContent() throws FastInfosetException, IOException {
         while(!_terminate) {
             _b = read();
             switch(DecoderStateTables.EII(_b)) {
@@ -501,11 +514,6 @@ public class DOMDocumentParser extends Decoder {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.IllegalStateDecodingEII"));
             }
         }
-        
-        _terminate = _doubleTerminate;
-        _doubleTerminate = false;
-        
-        _currentNode = parentCurrentNode;
     }
     
     private void appendOrCreateTextData(String textData) {
@@ -520,6 +528,11 @@ public class DOMDocumentParser extends Decoder {
 
     private String processUtf8CharacterString() throws FastInfosetException, IOException {
         if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
+            if (_characterContentChunkTable.isNextShared()) {
+                // The characters have already been decoded into the entry
+                skipOctets(_octetBufferLength);
+                return _characterContentChunkTable.getString(_characterContentChunkTable.addShared());
+            }
             _characterContentChunkTable.ensureSize(_octetBufferLength);
             final int charactersOffset = _characterContentChunkTable._arrayIndex;
             decodeUtf8StringAsCharBuffer(_characterContentChunkTable._array, charactersOffset);
@@ -691,6 +704,12 @@ public class DOMDocumentParser extends Decoder {
         }
     }
     
+    @Override
+    protected QualifiedName decodeSkippedLiteralQualifiedName(int state, QualifiedName q)
+    throws FastInfosetException, IOException {
+        return processLiteralQualifiedName(state, q);
+    }
+    
     protected final QualifiedName processLiteralQualifiedName(int state)
     throws FastInfosetException, IOException {
         switch (state) {
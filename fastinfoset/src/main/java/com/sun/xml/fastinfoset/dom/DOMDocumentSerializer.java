@@ -28,7 +28,6 @@ import org.jvnet.fastinfoset.FastInfosetException;
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 /**
  * The Fast Infoset DOM serializer.
@@ -47,6 +46,14 @@ public class DOMDocumentSerializer extends Encoder {
         super(useLocalNameAsKeyForQualifiedNameLookup);
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        while (_elementStackIndex > 0) {
+            _elementStack[--_elementStackIndex] = null;
+        }
+    }
+
     /**
      * Serialize a {@link Node}.
      *
@@ -79,9 +86,7 @@ public class DOMDocumentSerializer extends Encoder {
         encodeHeader(false);
         encodeInitialVocabulary();
         
-        final NodeList nl = d.getChildNodes();
-        for (int i = 0; i < nl.getLength(); i++) {
-            final Node n = nl.item(i);
+        for (Node n = d.getFirstChild(); n != null; n = n.getNextSibling()) {
             switch (n.getNodeType()) {
                 case Node.ELEMENT_NODE:
                     serializeElement(n);
@@ -113,8 +118,28 @@ public class DOMDocumentSerializer extends Encoder {
     // Collection of populated namespace available for current scope
     protected NamespaceContextImplementation _namespaceScopeContext = new NamespaceContextImplementation();
     protected Node[] _attributes = new Node[32];
+
+    /**
+     * The open elements whose descendants are being serialized, see
+     * {@link #serializeElementContent(Node)}.
+     */
+    private Node[] _elementStack = new Node[32];
+
+    private int _elementStackIndex;
     
     protected final void serializeElement(Node e) throws IOException {
+        serializeElementStart(e);
+        serializeElementContent(e);
+        serializeElementEnd();
+    }
+
+    /**
+     * Serialize the namespace attributes, name and attributes of an
+     * element, and push the namespace context of the element.
+     *
+     * @param e the element.
+     */
+    private void serializeElementStart(Node e) throws IOException {
         encodeTermination();
         
         int attributesSize = 0;
@@ -206,33 +231,91 @@ public class DOMDocumentSerializer extends Encoder {
             _b = EncodingConstants.TERMINATOR;
             _terminate = true;
         }
-        
-        if (e.hasChildNodes()) {
-            // Serialize the children
-            final NodeList nl = e.getChildNodes();
-            for (int i = 0; i < nl.getLength(); i++) {
-                final Node n = nl.item(i);
-                switch (n.getNodeType()) {
-                    case Node.ELEMENT_NODE:
-                        serializeElement(n);
-                        break;
-                    case Node.TEXT_NODE:
-                        serializeText(n);
-                        break;
-                    case Node.CDATA_SECTION_NODE:
-                        serializeCDATA(n);
-                        break;
-                    case Node.COMMENT_NODE:
-                        serializeComment(n);
-                        break;
-                    case Node.PROCESSING_INSTRUCTION_NODE:
-                        serializeProcessingInstruction(n);
-                        break;
+    }
+
+    private void serializeElementEnd() throws IOException {
+        encodeElementTermination();
+        _namespaceScopeContext.popContext();
+    }
+
+    /**
+     * Serialize the children of an element.
+     * <p>
+     * The start of the element has been encoded. The termination of the
+     * element is encoded after this method returns.
+     * <p>
+     * The descendants are walked in document order with an explicit stack
+     * of the open elements, rather than by recursion, so the depth of the
+     * tree is not limited by the depth of the call stack. Children are
+     * navigated as siblings rather than with a {@link org.w3c.dom.NodeList},
+     * which avoids the node list cache of DOM implementations.
+     *
+     * @param e the element whose children to serialize.
+     */
+    protected void serializeElementContent(Node e) throws IOException {
+        Node n = e.getFirstChild();
+        if (n == null) {
+            return;
+        }
+
+        final int base = _elementStackIndex;
+        while (true) {
+            if (n.getNodeType() == Node.ELEMENT_NODE) {
+                serializeElementStart(n);
+                final Node child = n.getFirstChild();
+                if (child != null) {
+                    if (_elementStackIndex == _elementStack.length) {
+                        final Node[] elementStack = new Node[_elementStackIndex * 3 / 2 + 1];
+                        System.arraycopy(_elementStack, 0, elementStack, 0, _elementStackIndex);
+                        _elementStack = elementStack;
+                    }
+                    _elementStack[_elementStackIndex++] = n;
+                    n = child;
+                    continue;
                 }
+                serializeElementEnd();
+            } else {
+                serializeChild(n);
             }
+
+            // Terminate the elements whose last child has been serialized
+            Node next = n.getNextSibling();
+            while (next == null) {
+                if (_elementStackIndex == base) {
+                    return;
+                }
+                n = _elementStack[--_elementStackIndex];
+                _elementStack[_elementStackIndex] = null;
+                serializeElementEnd();
+                next = n.getNextSibling();
+            }
+            n = next;
+        }
+    }
+
+    /**
+     * Serialize a child of an element.
+     *
+     * @param n the child to serialize.
+     */
+    protected final void serializeChild(Node n) throws IOException {
+        switch (n.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                serializeElement(n);
+                break;
+            case Node.TEXT_NODE:
+                serializeText(n);
+                break;
+            case Node.CDATA_SECTION_NODE:
+                serializeCDATA(n);
+                break;
+            case Node.COMMENT_NODE:
+                serializeComment(n);
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                serializeProcessingInstruction(n);
+                break;
         }
-        encodeElementTermination();
-        _namespaceScopeContext.popContext();
     }
     
     
@@ -0,0 +1,286 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.dom;
+
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.FastInfosetException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * The Fast Infoset DOM parser that defers decoding the content of elements
+ * until the content is required.
+ * <p>
+ * Elements at or below the deferred depth, see
+ * {@link #setDeferredDepth(int)}, are created with their attributes and
+ * namespace declarations but the content is skimmed, as by
+ * {@link ParallelDOMDocumentParser}, rather than decoded. Entries are
+ * still added to the vocabulary tables so that the rest of the document
+ * decodes correctly. The position of the content and the sizes of the
+ * tables at the start of the content are recorded with the element, and
+ * {@link #expand(Node)} decodes the content into the children of the
+ * element with the tables truncated to those sizes.
+ * <p>
+ * A W3C DOM implementation does not notify when the children of a node
+ * are first navigated, so an application expands an element before
+ * navigating its children. A deferred element retains the octets of the
+ * document and a copy of the vocabulary tables as they are at the end of
+ * the document, which is taken once for each document with deferred
+ * content. The vocabulary of this parser, such as one set with
+ * {@link #setVocabulary}, is otherwise used as by {@link DOMDocumentParser}.
+ * The content of an element is decoded with the copied tables shared, not
+ * copied again.
+ */
+public class DeferredDOMDocumentParser extends ContentDOMDocumentParser {
+    /**
+     * The default deferred depth, the content of the children of the
+     * document element is deferred.
+     */
+    public static final int DEFAULT_DEFERRED_DEPTH = 2;
+
+    private static final String DEFERRED_CONTENT_KEY = DeferredDOMDocumentParser.class.getName();
+
+    private int _deferredDepth = DEFAULT_DEFERRED_DEPTH;
+
+    private int _depth;
+
+    private DocumentState _documentState;
+
+    public DeferredDOMDocumentParser() {
+        super();
+    }
+
+    /**
+     * Set the depth of the elements whose content is deferred.
+     *
+     * @param deferredDepth the depth, where the document element is at
+     *        depth 1.
+     */
+    public void setDeferredDepth(int deferredDepth) {
+        if (deferredDepth <= 0) {
+            throw new IllegalArgumentException();
+        }
+        _deferredDepth = deferredDepth;
+    }
+
+    public int getDeferredDepth() {
+        return _deferredDepth;
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link Document} instance.
+     * <p>
+     * All the octets of the input stream are read before decoding.
+     *
+     * @param d the {@link Document} instance.
+     * @param s the input stream containing the fast infoset document.
+     */
+    @Override
+    public void parse(Document d, InputStream s) throws FastInfosetException, IOException {
+        parse(d, s.readAllBytes());
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link Document} instance.
+     * <p>
+     * The array is retained by deferred elements and must not be modified.
+     *
+     * @param d the {@link Document} instance.
+     * @param b the octets of the fast infoset document.
+     */
+    public void parse(Document d, byte[] b) throws FastInfosetException, IOException {
+        parse(d, b, 0, b.length);
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link Document} instance.
+     * <p>
+     * The array is retained by deferred elements and must not be modified.
+     * A document compressed with deflate is decompressed into an array
+     * before decoding, and that array is retained instead.
+     *
+     * @param d the {@link Document} instance.
+     * @param b the array containing the fast infoset document.
+     * @param offset the offset of the fast infoset document.
+     * @param length the length of the fast infoset document.
+     */
+    public void parse(Document d, byte[] b, int offset, int length) throws FastInfosetException, IOException {
+        _currentNode = _document = d;
+        _namespaceAttributesIndex = 0;
+        _depth = 0;
+
+        _positionStream = newPositionInputStream(b, offset, length);
+        _documentState = new DocumentState(_positionStream.buffer(), getStringInterning(), getRegisteredEncodingAlgorithms());
+        try {
+            parse(_positionStream);
+
+            // The vocabulary is reused for the next document, so the deferred
+            // elements of this document retain a copy of the tables
+            if (_documentState._deferred) {
+                final ParserVocabulary v = new ParserVocabulary();
+                v.setInitialVocabulary(_v, false);
+                _documentState._vocabulary = v;
+            }
+        } finally {
+            _positionStream = null;
+            _documentState = null;
+        }
+    }
+
+    @Override
+    protected void processEIIContent() throws FastInfosetException, IOException {
+        if (++_depth < _deferredDepth || _positionStream == null || _terminate) {
+            try {
+                super.processEIIContent();
+            } finally {
+                _depth--;
+            }
+            return;
+        }
+        _depth--;
+
+        // Skim the content up to and including the terminator of the element
+        final int start = position();
+        final int[] tableSizes = getTableSizes();
+
+        final int[] namespaces = getNamespacesInScope();
+
+        _doubleTerminate = skipElementContent();
+        _terminate = true;
+
+        _documentState._deferred = true;
+        _currentNode.setUserData(DEFERRED_CONTENT_KEY,
+                new DeferredContent(_documentState, start, position(), tableSizes, namespaces), null);
+    }
+
+    /**
+     * @param node the node.
+     * @return true if the content of the node is deferred and the node has
+     *         not been expanded.
+     */
+    public static boolean isDeferred(Node node) {
+        return node.getUserData(DEFERRED_CONTENT_KEY) != null;
+    }
+
+    /**
+     * Decode the deferred content of a node into the children of the node.
+     * <p>
+     * The content is decoded completely, the content of the descendants
+     * of the node is not deferred. A node whose content is not deferred is
+     * not modified.
+     *
+     * @param node the node.
+     * @throws FastInfosetException if the content is not valid.
+     * @throws IOException if the content cannot be decoded.
+     */
+    public static void expand(Node node) throws FastInfosetException, IOException {
+        final DeferredContent c = (DeferredContent) node.getUserData(DEFERRED_CONTENT_KEY);
+        if (c != null) {
+            new ContentParser(c._documentState).parse(node, c);
+            node.setUserData(DEFERRED_CONTENT_KEY, null, null);
+        }
+    }
+
+    /**
+     * The state of a parsed document shared by its deferred elements.
+     */
+    private static final class DocumentState {
+        final byte[] _buffer;
+
+        final boolean _stringInterning;
+
+        final Map<String, EncodingAlgorithm> _registeredEncodingAlgorithms;
+
+        /**
+         * True if the content of an element is deferred.
+         */
+        boolean _deferred;
+
+        /**
+         * The vocabulary at the end of the document.
+         */
+        ParserVocabulary _vocabulary;
+
+        DocumentState(byte[] buffer, boolean stringInterning,
+                Map<String, EncodingAlgorithm> registeredEncodingAlgorithms) {
+            _buffer = buffer;
+            _stringInterning = stringInterning;
+            _registeredEncodingAlgorithms = registeredEncodingAlgorithms;
+        }
+    }
+
+    /**
+     * The deferred content of an element.
+     */
+    private static final class DeferredContent {
+        final DocumentState _documentState;
+
+        final int _start;
+
+        final int _end;
+
+        final int[] _tableSizes;
+
+        final int[] _namespaces;
+
+        DeferredContent(DocumentState documentState, int start, int end, int[] tableSizes, int[] namespaces) {
+            _documentState = documentState;
+            _start = start;
+            _end = end;
+            _tableSizes = tableSizes;
+            _namespaces = namespaces;
+        }
+    }
+
+    /**
+     * Decodes the deferred content of an element into the children of the
+     * element.
+     */
+    private static final class ContentParser extends ContentDOMDocumentParser {
+        private final ParserVocabulary _vocabulary;
+
+        private final byte[] _buffer;
+
+        ContentParser(DocumentState s) {
+            setStringInterning(s._stringInterning);
+            setRegisteredEncodingAlgorithms(s._registeredEncodingAlgorithms);
+            _vocabulary = s._vocabulary;
+            _buffer = s._buffer;
+        }
+
+        void parse(Node node, DeferredContent c) throws FastInfosetException, IOException {
+            // The content includes the terminator of the element
+            setContent(new ByteArrayInputStream(_buffer, c._start, c._end - c._start),
+                    _vocabulary, c._tableSizes, c._namespaces);
+
+            _document = node.getOwnerDocument();
+            _currentNode = node;
+            try {
+                processEIIContent();
+            } catch (RuntimeException e) {
+                throw new FastInfosetException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.dom;
+
+import com.sun.xml.fastinfoset.DecoderStateTables;
+import com.sun.xml.fastinfoset.EncodingConstants;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.jvnet.fastinfoset.FastInfosetException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.Node;
+
+/**
+ * The Fast Infoset DOM parser that decodes large documents in parallel.
+ * <p>
+ * Entries are added to the vocabulary tables in document order so a
+ * document cannot be split and decoded independently. This parser decodes
+ * the document in two passes:
+ * <ol>
+ * <li>The children of the document element are skimmed sequentially.
+ * Entries are added to the vocabulary tables but nodes are not created
+ * and strings that are not added to a table are not decoded. The children
+ * are grouped into chunks of approximately {@link #getChunkSize()}
+ * octets, each starting at an element.</li>
+ * <li>Each chunk is decoded into nodes on a {@link ForkJoinPool}. The
+ * sizes of the vocabulary tables at the start of each chunk are recorded
+ * in the first pass. An entry is never modified once added, so a chunk is
+ * decoded with the tables at the end of the first pass truncated to those
+ * sizes, and every entry is added at, and referred to by, the same index
+ * as when decoding sequentially.</li>
+ * </ol>
+ * The nodes of the chunks are appended to the document element in
+ * document order. Documents smaller than the chunk size are decoded
+ * sequentially.
+ */
+public class ParallelDOMDocumentParser extends ContentDOMDocumentParser {
+    /**
+     * The default number of octets of a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private static final byte[] TERMINATOR = {(byte) EncodingConstants.TERMINATOR};
+
+    private ForkJoinPool _pool = ForkJoinPool.commonPool();
+
+    private int _chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public ParallelDOMDocumentParser() {
+        super();
+    }
+
+    /**
+     * Set the fork join pool that chunks are decoded on.
+     *
+     * @param pool the fork join pool, by default the common pool.
+     */
+    public void setForkJoinPool(ForkJoinPool pool) {
+        _pool = pool;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return _pool;
+    }
+
+    /**
+     * Set the approximate number of octets of the children of the
+     * document element that are decoded as one chunk.
+     *
+     * @param chunkSize the chunk size.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        _chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return _chunkSize;
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link Document} instance.
+     * <p>
+     * All the octets of the input stream are read before decoding.
+     *
+     * @param d the {@link Document} instance.
+     * @param s the input stream containing the fast infoset document.
+     */
+    @Override
+    public void parse(Document d, InputStream s) throws FastInfosetException, IOException {
+        parse(d, s.readAllBytes());
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link Document} instance.
+     *
+     * @param d the {@link Document} instance.
+     * @param b the octets of the fast infoset document.
+     */
+    public void parse(Document d, byte[] b) throws FastInfosetException, IOException {
+        parse(d, b, 0, b.length);
+    }
+
+    /**
+     * Parse a fast infoset document into a {@link Document} instance.
+     * <p>
+     * A document compressed with deflate is decompressed into an array
+     * before decoding.
+     *
+     * @param d the {@link Document} instance.
+     * @param b the array containing the fast infoset document.
+     * @param offset the offset of the fast infoset document.
+     * @param length the length of the fast infoset document.
+     */
+    public void parse(Document d, byte[] b, int offset, int length) throws FastInfosetException, IOException {
+        _currentNode = _document = d;
+        _namespaceAttributesIndex = 0;
+
+        _positionStream = newPositionInputStream(b, offset, length);
+        try {
+            parse(_positionStream);
+        } finally {
+            _positionStream = null;
+        }
+    }
+
+    @Override
+    protected void processEIIContent() throws FastInfosetException, IOException {
+        if (_positionStream == null || _currentNode.getParentNode() != _document ||
+                _positionStream.length() <= _chunkSize) {
+            super.processEIIContent();
+            return;
+        }
+
+        final Node element = _currentNode;
+
+        // First pass, skim the children recording the start of each chunk
+        // and the sizes of the tables at the start
+        final List<Integer> chunks = new ArrayList<>();
+        final List<int[]> tableSizes = new ArrayList<>();
+        int chunkStart = position();
+        int contentEnd = chunkStart;
+        chunks.add(chunkStart);
+        tableSizes.add(getTableSizes());
+        while (!_terminate) {
+            final int itemStart = position();
+            _b = read();
+            switch(DecoderStateTables.EII(_b)) {
+                case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                case DecoderStateTables.EII_INDEX_MEDIUM:
+                case DecoderStateTables.EII_INDEX_LARGE:
+                case DecoderStateTables.EII_LITERAL:
+                case DecoderStateTables.EII_NAMESPACES:
+                    if (itemStart - chunkStart >= _chunkSize) {
+                        chunkStart = itemStart;
+                        chunks.add(chunkStart);
+                        tableSizes.add(getTableSizes());
+                    }
+                    if (skipItem(_b)) {
+                        // The last child also terminates the document element
+                        _terminate = true;
+                    }
+                    contentEnd = position();
+                    break;
+                case DecoderStateTables.TERMINATOR_DOUBLE:
+                    _doubleTerminate = true;
+                    _terminate = true;
+                    break;
+                case DecoderStateTables.TERMINATOR_SINGLE:
+                    _terminate = true;
+                    break;
+                default:
+                    skipItem(_b);
+                    contentEnd = position();
+            }
+        }
+        chunks.add(contentEnd);
+
+        // Namespaces declared on the document element are in scope for all chunks
+        final int[] namespaces = getNamespacesInScope();
+
+        // Second pass, decode the chunks in parallel
+        final byte[] b = _positionStream.buffer();
+        final List<ForkJoinTask<DocumentFragment>> tasks = new ArrayList<>(chunks.size() - 1);
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            final int start = chunks.get(i);
+            final int end = chunks.get(i + 1);
+            final int[] sizes = tableSizes.get(i);
+            tasks.add(_pool.submit(() -> new ChunkParser(this).parse(b, start, end, sizes, namespaces)));
+        }
+
+        for (ForkJoinTask<DocumentFragment> task : tasks) {
+            final DocumentFragment f;
+            try {
+                f = task.join();
+            } catch (RuntimeException e) {
+                for (Throwable t = e; t != null; t = t.getCause()) {
+                    if (t instanceof FastInfosetException) {
+                        throw (FastInfosetException) t;
+                    } else if (t instanceof IOException) {
+                        throw (IOException) t;
+                    }
+                }
+                throw e;
+            }
+
+            final Node adopted = _document.adoptNode(f);
+            element.appendChild((adopted != null) ? adopted : _document.importNode(f, true));
+        }
+    }
+
+    /**
+     * Decodes a chunk of the children of the document element into a
+     * document fragment of a new document.
+     */
+    private static final class ChunkParser extends ContentDOMDocumentParser {
+        private final ParserVocabulary _vocabulary;
+
+        private final DOMImplementation _implementation;
+
+        ChunkParser(ParallelDOMDocumentParser p) {
+            setStringInterning(p.getStringInterning());
+            setRegisteredEncodingAlgorithms(p.getRegisteredEncodingAlgorithms());
+            _vocabulary = p._v;
+            _implementation = p._document.getImplementation();
+        }
+
+        DocumentFragment parse(byte[] b, int start, int end, int[] tableSizes, int[] namespaces)
+                throws FastInfosetException, IOException {
+            // Terminate the children of the chunk
+            setContent(new SequenceInputStream(
+                    new ByteArrayInputStream(b, start, end - start),
+                    new ByteArrayInputStream(TERMINATOR)), _vocabulary, tableSizes, namespaces);
+
+            _document = _implementation.createDocument(null, null, null);
+            final DocumentFragment f = _document.createDocumentFragment();
+            _currentNode = f;
+            processEIIContent();
+            return f;
+        }
+    }
+}
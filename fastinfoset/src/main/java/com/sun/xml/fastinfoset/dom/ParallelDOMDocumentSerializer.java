@@ -0,0 +1,292 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.dom;
+
+import com.sun.xml.fastinfoset.util.KeyIntMap;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.w3c.dom.Node;
+
+/**
+ * The Fast Infoset DOM serializer that encodes large documents in parallel.
+ * <p>
+ * Entries are added to the vocabulary tables in document order so the
+ * encoding of an item generally depends on all the items before it. If the
+ * vocabulary is frozen, that is all names and values are either in the
+ * external vocabulary or encoded as literals without being added to the
+ * tables, then the encoding of an item depends only on the items of the
+ * external vocabulary and the in-scope namespaces.
+ * <p>
+ * This serializer groups the children of the document element into
+ * segments of {@link #getSegmentSize()} nodes and encodes each segment on a
+ * {@link ForkJoinPool} into a separate buffer. The buffers are concatenated
+ * in document order, merging the pending terminators at the boundaries of
+ * the segments. A segment is only used if no entries were added to the
+ * tables when it was encoded. Otherwise the remaining children are encoded
+ * sequentially, so that the document is always identical to that encoded
+ * by {@link DOMDocumentSerializer}.
+ * <p>
+ * The vocabulary is frozen by setting an external vocabulary, see
+ * {@link #setExternalVocabulary(ExternalVocabulary)}, that contains all the
+ * names of the document and the targets of its processing instructions,
+ * and by setting the maximum sizes of the attribute values and character
+ * content chunks that are indexed to 0. Documents without an external
+ * vocabulary are encoded sequentially.
+ * <p>
+ * The nodes of the document are read concurrently, the document must not
+ * be modified while it is serialized. DOM implementations that expand nodes
+ * lazily, such as the deferred DOM of Xerces, are not safe to read
+ * concurrently and such documents should be fully expanded.
+ */
+public class ParallelDOMDocumentSerializer extends DOMDocumentSerializer {
+    /**
+     * The default number of children of the document element of a segment.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 256;
+
+    private final boolean _useLocalNameAsKeyForQualifiedNameLookup;
+
+    private ForkJoinPool _pool = ForkJoinPool.commonPool();
+
+    private int _segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    private ExternalVocabulary _externalVocabulary;
+
+    /*
+     * The size of the vocabulary when it contains only the external
+     * vocabulary
+     */
+    private int _externalVocabularySize;
+
+    public ParallelDOMDocumentSerializer() {
+        this(false);
+    }
+
+    public ParallelDOMDocumentSerializer(boolean useLocalNameAsKeyForQualifiedNameLookup) {
+        super(useLocalNameAsKeyForQualifiedNameLookup);
+        _useLocalNameAsKeyForQualifiedNameLookup = useLocalNameAsKeyForQualifiedNameLookup;
+    }
+
+    /**
+     * Set the fork join pool that segments are encoded on.
+     *
+     * @param pool the fork join pool, by default the common pool.
+     */
+    public void setForkJoinPool(ForkJoinPool pool) {
+        _pool = pool;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return _pool;
+    }
+
+    /**
+     * Set the number of children of the document element that are encoded
+     * as one segment.
+     *
+     * @param segmentSize the segment size.
+     */
+    public void setSegmentSize(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        _segmentSize = segmentSize;
+    }
+
+    public int getSegmentSize() {
+        return _segmentSize;
+    }
+
+    @Override
+    public void setExternalVocabulary(ExternalVocabulary v) {
+        super.setExternalVocabulary(v);
+        _externalVocabulary = v;
+        _externalVocabularySize = vocabularySize(_v);
+    }
+
+    @Override
+    public void setVocabulary(SerializerVocabulary vocabulary) {
+        super.setVocabulary(vocabulary);
+        _externalVocabulary = null;
+    }
+
+    @Override
+    protected void serializeElementContent(Node e) throws IOException {
+        final Node parent = e.getParentNode();
+        if (_externalVocabulary == null || getPersistentVocabulary() ||
+                parent == null || parent.getNodeType() != Node.DOCUMENT_NODE) {
+            super.serializeElementContent(e);
+            return;
+        }
+
+        // Group the children into segments
+        final List<Node> segments = new ArrayList<>();
+        int size = _segmentSize;
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (size == _segmentSize) {
+                segments.add(n);
+                size = 0;
+            }
+            size++;
+        }
+
+        // Segments are encoded with the external vocabulary only, which
+        // is the vocabulary of this serializer only if nothing was added
+        if (segments.size() < 2 ||
+                vocabularySize(_v) != _externalVocabularySize) {
+            super.serializeElementContent(e);
+            return;
+        }
+
+        final String[] namespaces = new String[
+                (_namespaceScopeContext.getCurrentContextEndIndex() -
+                _namespaceScopeContext.getCurrentContextStartIndex()) * 2];
+        for (int i = 0; i < namespaces.length; i += 2) {
+            final int index = _namespaceScopeContext.getCurrentContextStartIndex() + i / 2;
+            namespaces[i] = _namespaceScopeContext.getPrefix(index);
+            namespaces[i + 1] = _namespaceScopeContext.getNamespaceURI(index);
+        }
+
+        final List<ForkJoinTask<SegmentSerializer>> tasks = new ArrayList<>(segments.size());
+        for (Node first : segments) {
+            tasks.add(_pool.submit(() -> new SegmentSerializer(this).serialize(first, namespaces)));
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            final SegmentSerializer s;
+            try {
+                s = tasks.get(i).join();
+            } catch (RuntimeException ex) {
+                cancel(tasks, i + 1);
+                for (Throwable t = ex; t != null; t = t.getCause()) {
+                    if (t instanceof IOException) {
+                        throw (IOException) t;
+                    }
+                }
+                throw ex;
+            }
+
+            if (s._additions) {
+                // Entries would have been added to the tables, encode
+                // the remaining children sequentially
+                cancel(tasks, i + 1);
+                for (Node n = segments.get(i); n != null; n = n.getNextSibling()) {
+                    serializeChild(n);
+                }
+                return;
+            }
+
+            final ByteArrayOutputStream octets = s._octets;
+            if (octets.size() > 0) {
+                encodeTermination();
+                write(octets.toByteArray(), octets.size());
+                _terminate = s._pendingTerminate;
+                _b = s._pendingB;
+            }
+        }
+    }
+
+    private static void cancel(List<ForkJoinTask<SegmentSerializer>> tasks, int from) {
+        for (int i = from; i < tasks.size(); i++) {
+            tasks.get(i).cancel(false);
+        }
+    }
+
+    private static int vocabularySize(SerializerVocabulary v) {
+        int size = v.elementName.getIndex() + v.attributeName.getIndex();
+        for (KeyIntMap table : v.tables) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    /**
+     * Encodes a segment of the children of the document element into a
+     * buffer.
+     */
+    private static final class SegmentSerializer extends DOMDocumentSerializer {
+        private final int _segmentSize;
+
+        private final int _initialVocabularySize;
+
+        private final ByteArrayOutputStream _octets = new ByteArrayOutputStream();
+
+        private boolean _pendingTerminate;
+
+        private int _pendingB;
+
+        private boolean _additions;
+
+        SegmentSerializer(ParallelDOMDocumentSerializer s) {
+            super(s._useLocalNameAsKeyForQualifiedNameLookup);
+            setIgnoreDTD(s.getIgnoreDTD());
+            setIgnoreComments(s.getIgnoreComments());
+            setIgnoreProcesingInstructions(s.getIgnoreProcesingInstructions());
+            setIgnoreWhiteSpaceTextContent(s.getIgnoreWhiteSpaceTextContent());
+            setCharacterEncodingScheme(s.getCharacterEncodingScheme());
+            setRegisteredEncodingAlgorithms(s.getRegisteredEncodingAlgorithms());
+            setLargeCharacterContentChunkAlgorithm(s.getLargeCharacterContentChunkAlgorithmURI(),
+                    s.getLargeCharacterContentChunkMinSize());
+            setMinAttributeValueSize(s.getMinAttributeValueSize());
+            setMaxAttributeValueSize(s.getMaxAttributeValueSize());
+            setAttributeValueMapMemoryLimit(s.getAttributeValueMapMemoryLimit());
+            setMinCharacterContentChunkSize(s.getMinCharacterContentChunkSize());
+            setMaxCharacterContentChunkSize(s.getMaxCharacterContentChunkSize());
+            setCharacterContentChunkMapMemoryLimit(s.getCharacterContentChunkMapMemoryLimit());
+            setExternalVocabulary(s._externalVocabulary);
+            _segmentSize = s._segmentSize;
+            _initialVocabularySize = s._externalVocabularySize;
+        }
+
+        SegmentSerializer serialize(Node first, String[] namespaces) throws IOException {
+            setOutputStream(_octets);
+            reset();
+
+            // The namespaces in scope of the document element
+            _namespaceScopeContext.pushContext();
+            for (int i = 0; i < namespaces.length; i += 2) {
+                _namespaceScopeContext.declarePrefix(namespaces[i], namespaces[i + 1]);
+            }
+
+            Node n = first;
+            for (int i = 0; i < _segmentSize && n != null; i++) {
+                serializeChild(n);
+                if (vocabularySize(_v) != _initialVocabularySize) {
+                    _additions = true;
+                    return this;
+                }
+                n = n.getNextSibling();
+            }
+
+            if (_octetBufferIndex > 0) {
+                _s.write(_octetBuffer, 0, _octetBufferIndex);
+                _octetBufferIndex = 0;
+            }
+            _pendingTerminate = _terminate;
+            _pendingB = _b;
+            return this;
+        }
+    }
+}
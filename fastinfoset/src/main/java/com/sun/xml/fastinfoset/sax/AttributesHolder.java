@@ -22,6 +22,13 @@ import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.QualifiedName;
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -45,6 +52,60 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
     private int[] _algorithmIds;
     private Object[] _algorithmData;
     
+    /*
+     * The octets of values that are decoded when first read, see
+     * addAttributeWithOctets. The encoding of a value is OCTETS_NONE if
+     * the value is not held as octets.
+     */
+    private static final int OCTETS_NONE = 0;
+    private static final int OCTETS_UTF8 = 1;
+    private static final int OCTETS_UTF16 = 2;
+    
+    private byte[] _octets = new byte[256];
+    private int _octetsLength;
+    
+    private int[] _octetsEncodings;
+    private int[] _octetsOffsets;
+    private int[] _octetsLengths;
+    
+    private CharsetDecoder _utf8Decoder;
+    
+    /*
+     * Single values of the built-in int, long and double algorithms that
+     * are held without an array, see addAttributeWithPrimitiveValue. A
+     * double is held as its bits.
+     */
+    private boolean[] _primitive;
+    private long[] _primitiveValues;
+    
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    
+    /*
+     * The number of attributes above which attributes are looked up by
+     * name with a hash table rather than by a linear search.
+     */
+    private static final int HASHED_LOOKUP_THRESHOLD = 8;
+    
+    /*
+     * An open addressing hash table of the index plus one of each
+     * attribute, or 0, hashed on the local name. The table is built when
+     * an attribute is first looked up by name.
+     */
+    private int[] _lookupTable = new int[0];
+    private boolean _lookupTableValid;
+    
+    /*
+     * An open addressing hash table of the index plus one of each
+     * attribute whose name is an entry of the attribute name table, or 0,
+     * hashed on the index of the entry. The table is built when an
+     * attribute is first looked up by a qualified name of the table.
+     */
+    private int[] _indexLookupTable = new int[0];
+    private boolean _indexLookupTableValid;
+    
     public AttributesHolder() {
         _names = new QualifiedName[DEFAULT_CAPACITY];
         _values = new String[DEFAULT_CAPACITY];
@@ -52,6 +113,13 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         _algorithmURIs = new String[DEFAULT_CAPACITY];
         _algorithmIds = new int[DEFAULT_CAPACITY];
         _algorithmData = new Object[DEFAULT_CAPACITY];
+        
+        _octetsEncodings = new int[DEFAULT_CAPACITY];
+        _octetsOffsets = new int[DEFAULT_CAPACITY];
+        _octetsLengths = new int[DEFAULT_CAPACITY];
+        
+        _primitive = new boolean[DEFAULT_CAPACITY];
+        _primitiveValues = new long[DEFAULT_CAPACITY];
     }
 
     public AttributesHolder(Map<String, EncodingAlgorithm> registeredEncodingAlgorithms) {
@@ -93,6 +161,15 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
             return value;
         }
         
+        if (_octetsEncodings[index] != OCTETS_NONE) {
+            return _values[index] = decodeOctets(index);
+        }
+        
+        if (_primitive[index]) {
+            return _values[index] = convertPrimitiveValueToString(
+                    _algorithmIds[index], _primitiveValues[index]);
+        }
+        
         if (_algorithmData[index] == null ||
                 (_algorithmIds[index] >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START &&
                 _registeredEncodingAlgorithms == null)) {
@@ -119,14 +196,7 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
             localName = qName.substring(i + 1);
         }
         
-        for (i = 0; i < _attributeCount; i++) {
-            QualifiedName name = _names[i];
-            if (localName.equals(name.localName) &&
-                prefix.equals(name.prefix)) {
-                return i;
-            }
-        }
-        return -1;
+        return lookup(localName, null, prefix);
     }
 
     @Override
@@ -143,7 +213,7 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
     public final String getValue(String qName) {
         int index = getIndex(qName);
         if (index >= 0) {
-            return _values[index];
+            return getValue(index);
         } else {
             return null;
         }
@@ -151,14 +221,7 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
 
     @Override
     public final int getIndex(String uri, String localName) {
-        for (int i = 0; i < _attributeCount; i++) {
-            QualifiedName name = _names[i];
-            if (localName.equals(name.localName) &&
-                uri.equals(name.namespaceName)) {
-                return i;
-            }
-        }
-        return -1;
+        return lookup(localName, uri, null);
     }
 
     @Override
@@ -175,18 +238,152 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
     public final String getValue(String uri, String localName) {
         int index = getIndex(uri, localName);
         if (index >= 0) {
-            return _values[index];
+            return getValue(index);
         } else {
             return null;
         }
     }
 
+    /**
+     * Get the index of an attribute by name.
+     * <p>
+     * A name that is an entry of the attribute name table, such as a name
+     * returned by {@link #getQualifiedName(int)} for a previous element,
+     * is found without comparing strings.
+     *
+     * @param name the name of the attribute.
+     * @return the index of the attribute, or -1 if there is no such attribute.
+     */
+    public final int getIndex(QualifiedName name) {
+        if (_attributeCount <= HASHED_LOOKUP_THRESHOLD) {
+            for (int i = 0; i < _attributeCount; i++) {
+                if (_names[i] == name) {
+                    return i;
+                }
+            }
+        } else if (name.index >= 0) {
+            if (!_indexLookupTableValid) {
+                _indexLookupTable = buildLookupTable(_indexLookupTable, true);
+                _indexLookupTableValid = true;
+            }
+            
+            final int mask = _indexLookupTable.length - 1;
+            for (int slot = hash(name.index) & mask; ; slot = (slot + 1) & mask) {
+                final int entry = _indexLookupTable[slot];
+                if (entry == 0) {
+                    break;
+                } else if (_names[entry - 1] == name) {
+                    return entry - 1;
+                }
+            }
+        }
+        
+        // A name that is not an entry of the table, or is another entry
+        // of the same name
+        return lookup(name.localName, name.namespaceName, null);
+    }
+    
+    /**
+     * Get the value of an attribute by name.
+     *
+     * @param name the name of the attribute.
+     * @return the value of the attribute, or null if there is no such attribute.
+     * @see #getIndex(QualifiedName)
+     */
+    public final String getValue(QualifiedName name) {
+        final int index = getIndex(name);
+        return (index >= 0) ? getValue(index) : null;
+    }
+    
+    /**
+     * Get the index of the first attribute with a local name and, if not
+     * null, a namespace name and prefix.
+     */
+    private int lookup(String localName, String namespaceName, String prefix) {
+        if (_attributeCount <= HASHED_LOOKUP_THRESHOLD) {
+            for (int i = 0; i < _attributeCount; i++) {
+                if (matches(_names[i], localName, namespaceName, prefix)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        if (!_lookupTableValid) {
+            _lookupTable = buildLookupTable(_lookupTable, false);
+            _lookupTableValid = true;
+        }
+        
+        // Attributes with the same local name are in document order
+        // along the probe sequence
+        final int mask = _lookupTable.length - 1;
+        for (int slot = hash(localName) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = _lookupTable[slot];
+            if (entry == 0) {
+                return -1;
+            } else if (matches(_names[entry - 1], localName, namespaceName, prefix)) {
+                return entry - 1;
+            }
+        }
+    }
+    
+    private static boolean matches(QualifiedName name, String localName, String namespaceName, String prefix) {
+        return localName.equals(name.localName) &&
+                (namespaceName == null || namespaceName.equals(name.namespaceName)) &&
+                (prefix == null || prefix.equals(name.prefix));
+    }
+    
+    /*
+     * Build a lookup table of the attributes hashed on the local name, or
+     * on the index of the entry of the attribute name table of the name.
+     */
+    private int[] buildLookupTable(int[] table, boolean byIndex) {
+        final int length = Integer.highestOneBit(_attributeCount) << 2;
+        if (table.length < length) {
+            table = new int[length];
+        } else {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = 0;
+            }
+        }
+        
+        final int mask = table.length - 1;
+        for (int i = 0; i < _attributeCount; i++) {
+            final QualifiedName name = _names[i];
+            if (byIndex && name.index < 0) {
+                continue;
+            }
+            
+            int slot = (byIndex ? hash(name.index) : hash(name.localName)) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+    
+    private static int hash(String s) {
+        final int h = s.hashCode();
+        return h ^ (h >>> 16);
+    }
+    
+    private static int hash(int i) {
+        final int h = i * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
     public final void clear() {
         for (int i = 0; i < _attributeCount; i++) {
             _values[i] = null;
             _algorithmData[i] = null;
+            _octetsEncodings[i] = OCTETS_NONE;
+            _primitive[i] = false;
         }
         _attributeCount = 0;
+        _octetsLength = 0;
+        _lookupTableValid = false;
+        _indexLookupTableValid = false;
     }
 
     // EncodingAlgorithmAttributes
@@ -203,6 +400,9 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
     
     @Override
     public final Object getAlgorithmData(int index) {
+        if (_primitive[index] && _algorithmData[index] == null) {
+            _algorithmData[index] = createPrimitiveArray(_algorithmIds[index], _primitiveValues[index]);
+        }
         return _algorithmData[index];
     }
 
@@ -216,6 +416,36 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         return false;
     }
     
+    @Override
+    public final boolean hasPrimitiveValue(int index) {
+        return _primitive[index];
+    }
+    
+    @Override
+    public final int getIntValue(int index) {
+        if (_primitive[index] && _algorithmIds[index] == EncodingAlgorithmIndexes.INT) {
+            return (int) _primitiveValues[index];
+        }
+        return EncodingAlgorithmAttributes.super.getIntValue(index);
+    }
+    
+    @Override
+    public final long getLongValue(int index) {
+        if (_primitive[index] && _algorithmIds[index] != EncodingAlgorithmIndexes.DOUBLE) {
+            return _primitiveValues[index];
+        }
+        return EncodingAlgorithmAttributes.super.getLongValue(index);
+    }
+    
+    @Override
+    public final double getDoubleValue(int index) {
+        if (_primitive[index]) {
+            return (_algorithmIds[index] == EncodingAlgorithmIndexes.DOUBLE) ?
+                Double.longBitsToDouble(_primitiveValues[index]) : _primitiveValues[index];
+        }
+        return EncodingAlgorithmAttributes.super.getDoubleValue(index);
+    }
+    
     // -----
     
     public final void addAttribute(QualifiedName name, String value) {
@@ -223,6 +453,8 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
             resize();
         }
         _names[_attributeCount] = name;
+        _lookupTableValid = false;
+        _indexLookupTableValid = false;
         _values[_attributeCount++] = value;
     }
 
@@ -231,6 +463,8 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
             resize();
         }
         _names[_attributeCount] = name;
+        _lookupTableValid = false;
+        _indexLookupTableValid = false;
         _values[_attributeCount] = null;
 
         _algorithmURIs[_attributeCount] = URI;
@@ -238,6 +472,79 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         _algorithmData[_attributeCount++] = data;
     }
 
+    /**
+     * Add an attribute whose value is the data of the built-in int, long
+     * or double encoding algorithm, if the data is a single value.
+     * <p>
+     * The value is held without an array, see
+     * {@link #hasPrimitiveValue(int)}.
+     *
+     * @param name the name of the attribute.
+     * @param id the built-in encoding algorithm identifier.
+     * @param b the array containing the encoded data.
+     * @param offset the offset of the encoded data.
+     * @param length the number of octets of the encoded data.
+     * @return true if the attribute is added, false if the data is not a
+     *         single int, long or double and the attribute is not added.
+     */
+    public final boolean addAttributeWithPrimitiveValue(QualifiedName name, int id, byte[] b, int offset, int length) {
+        final long value;
+        if (id == EncodingAlgorithmIndexes.INT && length == 4) {
+            value = (int) INT_VIEW.get(b, offset);
+        } else if ((id == EncodingAlgorithmIndexes.LONG || id == EncodingAlgorithmIndexes.DOUBLE) && length == 8) {
+            value = (long) LONG_VIEW.get(b, offset);
+        } else {
+            return false;
+        }
+        
+        if (_attributeCount == _names.length) {
+            resize();
+        }
+        _names[_attributeCount] = name;
+        _lookupTableValid = false;
+        _indexLookupTableValid = false;
+        _values[_attributeCount] = null;
+        
+        _algorithmURIs[_attributeCount] = null;
+        _algorithmIds[_attributeCount] = id;
+        _primitive[_attributeCount] = true;
+        _primitiveValues[_attributeCount++] = value;
+        return true;
+    }
+
+    /**
+     * Add an attribute whose value is decoded from octets when first read.
+     * <p>
+     * The octets are copied, so the array may be modified once this method
+     * returns.
+     *
+     * @param name the name of the attribute.
+     * @param b the array containing the encoded value.
+     * @param offset the offset of the encoded value.
+     * @param length the number of octets of the encoded value.
+     * @param utf8 true if the value is encoded in UTF-8, otherwise UTF-16.
+     */
+    public final void addAttributeWithOctets(QualifiedName name, byte[] b, int offset, int length, boolean utf8) {
+        if (_attributeCount == _names.length) {
+            resize();
+        }
+        if (_octetsLength + length > _octets.length) {
+            final byte[] octets = new byte[Math.max(_octets.length * 2, _octetsLength + length)];
+            System.arraycopy(_octets, 0, octets, 0, _octetsLength);
+            _octets = octets;
+        }
+        System.arraycopy(b, offset, _octets, _octetsLength, length);
+        
+        _names[_attributeCount] = name;
+        _lookupTableValid = false;
+        _indexLookupTableValid = false;
+        _values[_attributeCount] = null;
+        _octetsEncodings[_attributeCount] = utf8 ? OCTETS_UTF8 : OCTETS_UTF16;
+        _octetsOffsets[_attributeCount] = _octetsLength;
+        _octetsLengths[_attributeCount++] = length;
+        _octetsLength += length;
+    }
+
     public final QualifiedName getQualifiedName(int index) {
         return _names[index];
     }
@@ -255,6 +562,13 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         String[] algorithmURIs = new String[newLength];
         int[] algorithmIds = new int[newLength];
         Object[] algorithmData = new Object[newLength];
+        
+        int[] octetsEncodings = new int[newLength];
+        int[] octetsOffsets = new int[newLength];
+        int[] octetsLengths = new int[newLength];
+        
+        boolean[] primitive = new boolean[newLength];
+        long[] primitiveValues = new long[newLength];
 
         System.arraycopy(_names, 0, names, 0, _attributeCount);
         System.arraycopy(_values, 0, values, 0, _attributeCount);
@@ -262,6 +576,13 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         System.arraycopy(_algorithmURIs, 0, algorithmURIs, 0, _attributeCount);
         System.arraycopy(_algorithmIds, 0, algorithmIds, 0, _attributeCount);
         System.arraycopy(_algorithmData, 0, algorithmData, 0, _attributeCount);
+        
+        System.arraycopy(_octetsEncodings, 0, octetsEncodings, 0, _attributeCount);
+        System.arraycopy(_octetsOffsets, 0, octetsOffsets, 0, _attributeCount);
+        System.arraycopy(_octetsLengths, 0, octetsLengths, 0, _attributeCount);
+        
+        System.arraycopy(_primitive, 0, primitive, 0, _attributeCount);
+        System.arraycopy(_primitiveValues, 0, primitiveValues, 0, _attributeCount);
 
         _names = names;
         _values = values;
@@ -269,6 +590,57 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         _algorithmURIs = algorithmURIs;
         _algorithmIds = algorithmIds;
         _algorithmData = algorithmData;
+        
+        _octetsEncodings = octetsEncodings;
+        _octetsOffsets = octetsOffsets;
+        _octetsLengths = octetsLengths;
+        
+        _primitive = primitive;
+        _primitiveValues = primitiveValues;
+    }
+    
+    private String decodeOctets(int index) {
+        final int offset = _octetsOffsets[index];
+        final int length = _octetsLengths[index];
+
+        if (_octetsEncodings[index] == OCTETS_UTF16) {
+            final char[] ch = new char[length / 2];
+            for (int i = 0; i < ch.length; i++) {
+                ch[i] = (char) (((_octets[offset + i * 2] & 0xFF) << 8) | (_octets[offset + i * 2 + 1] & 0xFF));
+            }
+            return new String(ch);
+        }
+
+        if (_utf8Decoder == null) {
+            _utf8Decoder = StandardCharsets.UTF_8.newDecoder();
+        }
+        try {
+            return _utf8Decoder.decode(ByteBuffer.wrap(_octets, offset, length)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+    
+    private static Object createPrimitiveArray(int id, long value) {
+        switch (id) {
+            case EncodingAlgorithmIndexes.INT:
+                return new int[] {(int) value};
+            case EncodingAlgorithmIndexes.LONG:
+                return new long[] {value};
+            default:
+                return new double[] {Double.longBitsToDouble(value)};
+        }
+    }
+    
+    private static String convertPrimitiveValueToString(int id, long value) {
+        switch (id) {
+            case EncodingAlgorithmIndexes.INT:
+                return Integer.toString((int) value);
+            case EncodingAlgorithmIndexes.LONG:
+                return Long.toString(value);
+            default:
+                return Double.toString(Double.longBitsToDouble(value));
+        }
     }
     
     private StringBuffer convertEncodingAlgorithmDataToString(int identifier, String URI, Object data) throws FastInfosetException, IOException {
@@ -22,6 +22,7 @@ import com.sun.xml.fastinfoset.Decoder;
 import com.sun.xml.fastinfoset.DecoderStateTables;
 import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmState;
 import org.jvnet.fastinfoset.sax.EncodingAlgorithmContentHandler;
@@ -29,6 +30,7 @@ import org.jvnet.fastinfoset.sax.FastInfosetReader;
 import org.jvnet.fastinfoset.sax.PrimitiveTypeContentHandler;
 import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -52,6 +54,7 @@ import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.DefaultHandler;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 import com.sun.xml.fastinfoset.util.DuplicateAttributeVerifier;
+import com.sun.xml.fastinfoset.util.PathFilter;
 import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -161,6 +164,27 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
     protected BuiltInEncodingAlgorithmState builtInAlgorithmState =
             new BuiltInEncodingAlgorithmState();
     
+    /*
+     * The maximum number of primitive types reported in a chunk, or 0
+     */
+    private int _primitiveChunkLength;
+    
+    /*
+     * The octets of the chunks of primitive types read from an octet stream,
+     * the octets from _primitiveOctetsStart to _primitiveOctetsEnd of the
+     * character information item
+     */
+    private byte[] _primitiveOctets = new byte[0];
+    
+    private int _primitiveOctetsStart;
+    
+    private int _primitiveOctetsEnd;
+    
+    /*
+     * Reused to convert built-in encoding algorithm data to characters
+     */
+    private final StringBuilder _algorithmCharacters = new StringBuilder();
+    
     protected AttributesHolder _attributes;
     
     protected int[] _namespacePrefixes = new int[16];
@@ -169,6 +193,8 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
     
     protected boolean _clearAttributes = false;
     
+    private PathFilter _pathFilter;
+    
     /** Creates a new instance of DocumetParser2 */
     public SAXDocumentParser() {
         DefaultHandler handler = new DefaultHandler();
@@ -425,6 +451,55 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         return _primitiveHandler;
     }
     
+    /**
+     * Set the maximum number of primitive types that are reported to the
+     * primitive type content handler in a chunk.
+     * <p>
+     * The primitive types of a character information item encoded with a
+     * built-in encoding algorithm are decoded and reported in chunks of at
+     * most this number, the number of long for the "uuid" encoding
+     * algorithm, into an array that is reused for all chunks. The memory
+     * used to decode large arrays is then bounded by the length of the
+     * chunks.
+     *
+     * @param length the maximum length of the chunks, or 0, the default,
+     *        if the primitive types of a character information item are
+     *        reported in one chunk.
+     */
+    public void setPrimitiveTypeChunkLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.primitiveTypeChunkLengthNegative"));
+        }
+        _primitiveChunkLength = length;
+    }
+    
+    public int getPrimitiveTypeChunkLength() {
+        return _primitiveChunkLength;
+    }
+    
+    /**
+     * Set the path filter of the elements that are reported.
+     * <p>
+     * Only the elements selected by the filter, and their attributes and
+     * content, are reported. Other elements are not reported and their
+     * content is skipped without being decoded, except for elements that
+     * may contain a selected element. The items of the document that are
+     * not contained in the document element, and the prefix mappings of
+     * the elements that are decoded, are always reported.
+     *
+     * @param filter the path filter, or null, the default, if all elements
+     *        are reported.
+     */
+    public void setPathFilter(PathFilter filter) {
+        _pathFilter = filter;
+        _pathMatcher = (filter != null) ? filter.newMatcher() : null;
+    }
+    
+    public PathFilter getPathFilter() {
+        return _pathFilter;
+    }
+    
     
     
     
@@ -654,29 +729,11 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                 case DecoderStateTables.CII_UTF16_SMALL_LENGTH:
                     _octetBufferLength = (_b & EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_MASK)
                     + 1;
-                    decodeUtf16StringAsCharBuffer();
-                    if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
-                        _characterContentChunkTable.add(_charBuffer, _charBufferLength);
-                    }
-                    
-                    try {
-                        _contentHandler.characters(_charBuffer, 0, _charBufferLength);
-                    } catch (SAXException e) {
-                        throw new FastInfosetException("processCII", e);
-                    }
+                    processUtf16CharacterString();
                     break;
                 case DecoderStateTables.CII_UTF16_MEDIUM_LENGTH:
                     _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT;
-                    decodeUtf16StringAsCharBuffer();
-                    if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
-                        _characterContentChunkTable.add(_charBuffer, _charBufferLength);
-                    }
-                    
-                    try {
-                        _contentHandler.characters(_charBuffer, 0, _charBufferLength);
-                    } catch (SAXException e) {
-                        throw new FastInfosetException("processCII", e);
-                    }
+                    processUtf16CharacterString();
                     break;
                 case DecoderStateTables.CII_UTF16_LARGE_LENGTH:
                     _octetBufferLength = ((read() << 24) |
@@ -684,16 +741,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                             (read() << 8) |
                             read())
                             + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
-                    decodeUtf16StringAsCharBuffer();
-                    if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
-                        _characterContentChunkTable.add(_charBuffer, _charBufferLength);
-                    }
-                    
-                    try {
-                        _contentHandler.characters(_charBuffer, 0, _charBufferLength);
-                    } catch (SAXException e) {
-                        throw new FastInfosetException("processCII", e);
-                    }
+                    processUtf16CharacterString();
                     break;
                 case DecoderStateTables.CII_RA:
                 {
@@ -728,9 +776,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                     _b = read();
                     _identifier |= (_b & 0xFC) >> 2;
                     
-                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(_b);
-                    
-                    processCIIEncodingAlgorithm(addToTable);
+                    decodeAndProcessCIIEncodingAlgorithm(_b, addToTable);
                     break;
                 }
                 case DecoderStateTables.CII_INDEX_SMALL:
@@ -912,11 +958,15 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
             processAIIs();
         }
         
-        try {
-            _contentHandler.startElement(name.namespaceName, name.localName, name.qName, _attributes);
-        } catch (SAXException e) {
-            logger.log(Level.FINE, "processEII error", e);
-            throw new FastInfosetException("processEII", e);
+        final int match = (_pathMatcher != null) ?
+            _pathMatcher.startElement(name, _attributes) : PathFilter.MATCH;
+        if (match == PathFilter.MATCH) {
+            try {
+                _contentHandler.startElement(name.namespaceName, name.localName, name.qName, _attributes);
+            } catch (SAXException e) {
+                logger.log(Level.FINE, "processEII error", e);
+                throw new FastInfosetException("processEII", e);
+            }
         }
         
         if (_clearAttributes) {
@@ -924,6 +974,13 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
             _clearAttributes = false;
         }
         
+        if (match == PathFilter.PARTIAL) {
+            processFilteredChildren();
+        } else if (match == PathFilter.NONE && !_terminate) {
+            _doubleTerminate = skipElementContent();
+            _terminate = true;
+        }
+        
         while(!_terminate) {
             _b = read();
             switch(DecoderStateTables.EII(_b)) {
@@ -971,29 +1028,11 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                 case DecoderStateTables.CII_UTF16_SMALL_LENGTH:
                     _octetBufferLength = (_b & EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_MASK)
                     + 1;
-                    decodeUtf16StringAsCharBuffer();
-                    if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
-                        _characterContentChunkTable.add(_charBuffer, _charBufferLength);
-                    }
-                    
-                    try {
-                        _contentHandler.characters(_charBuffer, 0, _charBufferLength);
-                    } catch (SAXException e) {
-                        throw new FastInfosetException("processCII", e);
-                    }
+                    processUtf16CharacterString();
                     break;
                 case DecoderStateTables.CII_UTF16_MEDIUM_LENGTH:
                     _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT;
-                    decodeUtf16StringAsCharBuffer();
-                    if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
-                        _characterContentChunkTable.add(_charBuffer, _charBufferLength);
-                    }
-                    
-                    try {
-                        _contentHandler.characters(_charBuffer, 0, _charBufferLength);
-                    } catch (SAXException e) {
-                        throw new FastInfosetException("processCII", e);
-                    }
+                    processUtf16CharacterString();
                     break;
                 case DecoderStateTables.CII_UTF16_LARGE_LENGTH:
                     _octetBufferLength = ((read() << 24) |
@@ -1001,16 +1040,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                             (read() << 8) |
                             read())
                             + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
-                    decodeUtf16StringAsCharBuffer();
-                    if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
-                        _characterContentChunkTable.add(_charBuffer, _charBufferLength);
-                    }
-                    
-                    try {
-                        _contentHandler.characters(_charBuffer, 0, _charBufferLength);
-                    } catch (SAXException e) {
-                        throw new FastInfosetException("processCII", e);
-                    }
+                    processUtf16CharacterString();
                     break;
                 case DecoderStateTables.CII_RA:
                 {
@@ -1044,9 +1074,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                     _b = read();
                     _identifier |= (_b & 0xFC) >> 2;
                     
-                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(_b);
-                    
-                    processCIIEncodingAlgorithm(addToTable);
+                    decodeAndProcessCIIEncodingAlgorithm(_b, addToTable);
                     break;
                 }
                 case DecoderStateTables.CII_INDEX_SMALL:
@@ -1148,6 +1176,10 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         _terminate = _doubleTerminate;
         _doubleTerminate = false;
         
+        if (_pathMatcher != null && !_pathMatcher.endElement()) {
+            return;
+        }
+        
         try {
             _contentHandler.endElement(name.namespaceName, name.localName, name.qName);
         } catch (SAXException e) {
@@ -1155,6 +1187,50 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         }
     }
     
+    /**
+     * Process the children of an element that is not selected by the path
+     * filter. Child elements are processed, all other children are skipped.
+     */
+    @SuppressWarnings("fallthrough")
+    private void processFilteredChildren() throws FastInfosetException, IOException {
+        while(!_terminate) {
+            _b = read();
+            switch(DecoderStateTables.EII(_b)) {
+                case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                    processEII(_elementNameTable._array[_b], false);
+                    break;
+                case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                    processEII(_elementNameTable._array[_b & EncodingConstants.INTEGER_3RD_BIT_SMALL_MASK], true);
+                    break;
+                case DecoderStateTables.EII_INDEX_MEDIUM:
+                    processEII(decodeEIIIndexMedium(), (_b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0);
+                    break;
+                case DecoderStateTables.EII_INDEX_LARGE:
+                    processEII(decodeEIIIndexLarge(), (_b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0);
+                    break;
+                case DecoderStateTables.EII_LITERAL:
+                {
+                    final QualifiedName qn = decodeLiteralQualifiedName(
+                            _b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK,
+                            _elementNameTable.getNext());
+                    _elementNameTable.add(qn);
+                    processEII(qn, (_b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0);
+                    break;
+                }
+                case DecoderStateTables.EII_NAMESPACES:
+                    processEIIWithNamespaces();
+                    break;
+                case DecoderStateTables.TERMINATOR_DOUBLE:
+                    _doubleTerminate = true;
+                case DecoderStateTables.TERMINATOR_SINGLE:
+                    _terminate = true;
+                    break;
+                default:
+                    skipItem(_b);
+            }
+        }
+    }
+    
     private void processUtf8CharacterString() throws FastInfosetException, IOException {
         if ((_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
             _characterContentChunkTable.ensureSize(_octetBufferLength);
@@ -1166,6 +1242,8 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
             } catch (SAXException e) {
                 throw new FastInfosetException("processCII", e);
             }
+        } else if (startCharactersChunks(true)) {
+            processCharactersChunks();
         } else {
             decodeUtf8StringAsCharBuffer();
             try {
@@ -1176,6 +1254,37 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         }
     }
     
+    private void processUtf16CharacterString() throws FastInfosetException, IOException {
+        final boolean addToTable = (_b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0;
+        if (!addToTable && startCharactersChunks(false)) {
+            processCharactersChunks();
+            return;
+        }
+        
+        decodeUtf16StringAsCharBuffer();
+        if (addToTable) {
+            _characterContentChunkTable.add(_charBuffer, _charBufferLength);
+        }
+        
+        try {
+            _contentHandler.characters(_charBuffer, 0, _charBufferLength);
+        } catch (SAXException e) {
+            throw new FastInfosetException("processCII", e);
+        }
+    }
+    
+    private void processCharactersChunks() throws FastInfosetException, IOException {
+        try {
+            _contentHandler.characters(_charBuffer, 0, _charBufferLength);
+            while (hasNextCharactersChunk()) {
+                decodeNextCharactersChunk();
+                _contentHandler.characters(_charBuffer, 0, _charBufferLength);
+            }
+        } catch (SAXException e) {
+            throw new FastInfosetException("processCII", e);
+        }
+    }
+    
     protected final void processEIIWithNamespaces() throws FastInfosetException, IOException {
         final boolean hasAttributes = (_b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0;
         
@@ -1358,21 +1467,11 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
             switch(DecoderStateTables.NISTRING(b)) {
                 case DecoderStateTables.NISTRING_UTF8_SMALL_LENGTH:
                     _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1;
-                    value = decodeUtf8StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, true);
                     break;
                 case DecoderStateTables.NISTRING_UTF8_MEDIUM_LENGTH:
                     _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
-                    value = decodeUtf8StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, true);
                     break;
                 case DecoderStateTables.NISTRING_UTF8_LARGE_LENGTH:
                     _octetBufferLength = ((read() << 24) |
@@ -1380,30 +1479,15 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                             (read() << 8) |
                             read())
                             + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
-                    value = decodeUtf8StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, true);
                     break;
                 case DecoderStateTables.NISTRING_UTF16_SMALL_LENGTH:
                     _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1;
-                    value = decodeUtf16StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, false);
                     break;
                 case DecoderStateTables.NISTRING_UTF16_MEDIUM_LENGTH:
                     _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
-                    value = decodeUtf16StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, false);
                     break;
                 case DecoderStateTables.NISTRING_UTF16_LARGE_LENGTH:
                     _octetBufferLength = ((read() << 24) |
@@ -1411,12 +1495,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                             (read() << 8) |
                             read())
                             + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
-                    value = decodeUtf16StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, false);
                     break;
                 case DecoderStateTables.NISTRING_RA:
                 {
@@ -1568,20 +1647,21 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                     throw new FastInfosetException(e);
                 }
             } else {
-                StringBuffer buffer = new StringBuffer();
-                processBuiltInEncodingAlgorithmAsCharacters(buffer);
+                convertBuiltInEncodingAlgorithmDataIntoCharBuffer();
                 
                 try {
-                    _contentHandler.characters(buffer.toString().toCharArray(), 0, buffer.length());
+                    _contentHandler.characters(_charBuffer, 0, _charBufferLength);
                 } catch (SAXException e) {
                     throw new FastInfosetException(e);
                 }
             }
             
             if (addToTable) {
-                StringBuffer buffer = new StringBuffer();
-                processBuiltInEncodingAlgorithmAsCharacters(buffer);
-                _characterContentChunkTable.add(buffer.toString().toCharArray(), buffer.length());
+                // The characters reported are added without converting again
+                if (_primitiveHandler != null || _algorithmHandler != null) {
+                    convertBuiltInEncodingAlgorithmDataIntoCharBuffer();
+                }
+                _characterContentChunkTable.add(_charBuffer, _charBufferLength);
             }
         } else if (_identifier == EncodingAlgorithmIndexes.CDATA) {
             // Set back buffer position to start of encoded string
@@ -1625,9 +1705,10 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                 throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.addToTableNotSupported"));
             }
         } else if (_identifier >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
-            // TODO should have property to ignore
-            throw new EncodingAlgorithmException(
-                    CommonResourceBundle.getInstance().getString("message.algorithmDataCannotBeReported"));
+            processCIIApplicationEncodingAlgorithm();
+            if (addToTable) {
+                throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.addToTableNotSupported"));
+            }
         } else {
             // Reserved built-in algorithms for future use
             // TODO should use sax property to decide if event will be
@@ -1636,141 +1717,313 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         }
     }
     
-    protected final void processCIIBuiltInEncodingAlgorithmAsPrimitive() throws FastInfosetException, IOException {
+    /**
+     * Report the data of a registered application-defined encoding
+     * algorithm without an encoding algorithm content handler.
+     * <p>
+     * Data that is an array of a primitive type, such as the data of
+     * {@link com.sun.xml.fastinfoset.algorithm.DeltaIntEncodingAlgorithm},
+     * is reported to the primitive type content handler, if any. Other
+     * data, such as the data of
+     * {@link com.sun.xml.fastinfoset.algorithm.DeflateTextEncodingAlgorithm},
+     * is converted to characters and reported to the content handler.
+     */
+    private void processCIIApplicationEncodingAlgorithm() throws FastInfosetException, IOException {
+        final String URI = _v.encodingAlgorithm.get(_identifier - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
+        if (URI == null) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().
+                    getString("message.URINotPresent", new Object[]{_identifier}));
+        }
+        
+        final EncodingAlgorithm ea = _registeredEncodingAlgorithms.get(URI);
+        if (ea == null) {
+            throw new EncodingAlgorithmException(
+                    CommonResourceBundle.getInstance().getString("message.algorithmDataCannotBeReported"));
+        }
+        
+        final Object data = ea.decodeFromBytes(_octetBuffer, _octetBufferStart, _octetBufferLength);
         try {
-            int length;
-            switch(_identifier) {
-                case EncodingAlgorithmIndexes.HEXADECIMAL:
-                case EncodingAlgorithmIndexes.BASE64:
-                    _primitiveHandler.bytes(_octetBuffer, _octetBufferStart, _octetBufferLength);
-                    break;
-                case EncodingAlgorithmIndexes.SHORT:
-                    length = BuiltInEncodingAlgorithmFactory.shortEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength);
-                    if (length > builtInAlgorithmState.shortArray.length) {
-                        final short[] array = new short[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.shortArray, 0,
-                                array, 0, builtInAlgorithmState.shortArray.length);
-                        builtInAlgorithmState.shortArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.shortEncodingAlgorithm.
-                            decodeFromBytesToShortArray(builtInAlgorithmState.shortArray, 0,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.shorts(builtInAlgorithmState.shortArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.INT:
-                    length = BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength);
-                    if (length > builtInAlgorithmState.intArray.length) {
-                        final int[] array = new int[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.intArray, 0,
-                                array, 0, builtInAlgorithmState.intArray.length);
-                        builtInAlgorithmState.intArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.
-                            decodeFromBytesToIntArray(builtInAlgorithmState.intArray, 0,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.ints(builtInAlgorithmState.intArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.LONG:
-                    length = BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength);
-                    if (length > builtInAlgorithmState.longArray.length) {
-                        final long[] array = new long[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.longArray, 0,
-                                array, 0, builtInAlgorithmState.longArray.length);
-                        builtInAlgorithmState.longArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.
-                            decodeFromBytesToLongArray(builtInAlgorithmState.longArray, 0,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.longs(builtInAlgorithmState.longArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.BOOLEAN:
-                    length = BuiltInEncodingAlgorithmFactory.booleanEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength, _octetBuffer[_octetBufferStart] & 0xFF);
-                    if (length > builtInAlgorithmState.booleanArray.length) {
-                        final boolean[] array = new boolean[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.booleanArray, 0,
-                                array, 0, builtInAlgorithmState.booleanArray.length);
-                        builtInAlgorithmState.booleanArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.booleanEncodingAlgorithm.
-                            decodeFromBytesToBooleanArray(
-                            builtInAlgorithmState.booleanArray, 0, length,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.booleans(builtInAlgorithmState.booleanArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.FLOAT:
-                    length = BuiltInEncodingAlgorithmFactory.floatEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength);
-                    if (length > builtInAlgorithmState.floatArray.length) {
-                        final float[] array = new float[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.floatArray, 0,
-                                array, 0, builtInAlgorithmState.floatArray.length);
-                        builtInAlgorithmState.floatArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.floatEncodingAlgorithm.
-                            decodeFromBytesToFloatArray(builtInAlgorithmState.floatArray, 0,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.floats(builtInAlgorithmState.floatArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.DOUBLE:
-                    length = BuiltInEncodingAlgorithmFactory.doubleEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength);
-                    if (length > builtInAlgorithmState.doubleArray.length) {
-                        final double[] array = new double[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.doubleArray, 0,
-                                array, 0, builtInAlgorithmState.doubleArray.length);
-                        builtInAlgorithmState.doubleArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.doubleEncodingAlgorithm.
-                            decodeFromBytesToDoubleArray(builtInAlgorithmState.doubleArray, 0,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.doubles(builtInAlgorithmState.doubleArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.UUID:
-                    length = BuiltInEncodingAlgorithmFactory.uuidEncodingAlgorithm.
-                            getPrimtiveLengthFromOctetLength(_octetBufferLength);
-                    if (length > builtInAlgorithmState.longArray.length) {
-                        final long[] array = new long[length * 3 / 2 + 1];
-                        System.arraycopy(builtInAlgorithmState.longArray, 0,
-                                array, 0, builtInAlgorithmState.longArray.length);
-                        builtInAlgorithmState.longArray = array;
-                    }
-                    
-                    BuiltInEncodingAlgorithmFactory.uuidEncodingAlgorithm.
-                            decodeFromBytesToLongArray(builtInAlgorithmState.longArray, 0,
-                            _octetBuffer, _octetBufferStart, _octetBufferLength);
-                    _primitiveHandler.uuids(builtInAlgorithmState.longArray, 0, length);
-                    break;
-                case EncodingAlgorithmIndexes.CDATA:
-                    throw new UnsupportedOperationException("CDATA");
-                default:
+            if (_primitiveHandler != null && reportPrimitiveArray(data)) {
+                return;
+            }
+            
+            final StringBuffer characters = new StringBuffer();
+            ea.convertToCharacters(data, characters);
+            _charBufferLength = characters.length();
+            if (_charBuffer.length < _charBufferLength) {
+                _charBuffer = new char[_charBufferLength];
+            }
+            characters.getChars(0, _charBufferLength, _charBuffer, 0);
+            _contentHandler.characters(_charBuffer, 0, _charBufferLength);
+        } catch (SAXException e) {
+            throw new FastInfosetException(e);
+        }
+    }
+    
+    /**
+     * Report an array of a primitive type to the primitive type content
+     * handler.
+     *
+     * @return false if the data is not an array of a primitive type.
+     */
+    private boolean reportPrimitiveArray(Object data) throws SAXException {
+        if (data instanceof int[]) {
+            final int[] array = (int[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.ints(array, 0, array.length);
+        } else if (data instanceof long[]) {
+            final long[] array = (long[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.longs(array, 0, array.length);
+        } else if (data instanceof short[]) {
+            final short[] array = (short[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.shorts(array, 0, array.length);
+        } else if (data instanceof float[]) {
+            final float[] array = (float[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.floats(array, 0, array.length);
+        } else if (data instanceof double[]) {
+            final double[] array = (double[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.doubles(array, 0, array.length);
+        } else if (data instanceof boolean[]) {
+            final boolean[] array = (boolean[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.booleans(array, 0, array.length);
+        } else if (data instanceof byte[]) {
+            final byte[] array = (byte[]) data;
+            _primitiveHandler.startPrimitives(_identifier, array.length);
+            _primitiveHandler.bytes(array, 0, array.length);
+        } else {
+            return false;
+        }
+        _primitiveHandler.endPrimitives();
+        return true;
+    }
+    
+    protected final void processCIIBuiltInEncodingAlgorithmAsPrimitive() throws FastInfosetException, IOException {
+        reportPrimitives(_octetBufferLength, null);
+    }
+    
+    /*
+     * Decode the octets of a character information item encoded with an
+     * encoding algorithm and process it. The octets of primitive types
+     * reported in chunks are read for each chunk and are not decoded into
+     * the octet buffer as a whole.
+     */
+    private void decodeAndProcessCIIEncodingAlgorithm(int b, boolean addToTable) throws FastInfosetException, IOException {
+        final int length = decodeOctetsLengthOnSeventhBit(b);
+        if (!addToTable && _primitiveHandler != null && _primitiveChunkLength > 0 &&
+                _identifier < EncodingConstants.ENCODING_ALGORITHM_BUILTIN_END) {
+            reportPrimitives(length, startOctetsStream(length));
+        } else {
+            decodeOctets(length);
+            processCIIEncodingAlgorithm(addToTable);
+        }
+    }
+    
+    /*
+     * Report the primitive types of a character information item encoded
+     * with a built-in encoding algorithm in chunks, decoded into the reused
+     * arrays of the built-in algorithm state. The octets are those of the
+     * octet buffer, or are read for each chunk from an octet stream if the
+     * stream is not null.
+     */
+    private void reportPrimitives(int octetLength, InputStream s) throws FastInfosetException, IOException {
+        _primitiveOctetsStart = _primitiveOctetsEnd = 0;
+        
+        final BuiltInEncodingAlgorithm algorithm;
+        final int length;
+        switch(_identifier) {
+            case EncodingAlgorithmIndexes.HEXADECIMAL:
+            case EncodingAlgorithmIndexes.BASE64:
+                // The octets are reported
+                algorithm = null;
+                length = octetLength;
+                break;
+            case EncodingAlgorithmIndexes.BOOLEAN:
+            {
+                final int b;
+                if (s != null) {
+                    readPrimitiveOctets(s, 0, 1);
+                    b = _primitiveOctets[0];
+                } else {
+                    b = _octetBuffer[_octetBufferStart];
+                }
+                algorithm = BuiltInEncodingAlgorithmFactory.booleanEncodingAlgorithm;
+                length = BuiltInEncodingAlgorithmFactory.booleanEncodingAlgorithm.
+                        getPrimtiveLengthFromOctetLength(octetLength, b & 0xFF);
+                break;
+            }
+            case EncodingAlgorithmIndexes.CDATA:
+                throw new UnsupportedOperationException("CDATA");
+            default:
+                algorithm = BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier);
+                if (algorithm == null) {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().
                             getString("message.unsupportedAlgorithm", new Object[]{_identifier}));
-            }
+                }
+                length = algorithm.getPrimtiveLengthFromOctetLength(octetLength);
+        }
+        
+        try {
+            _primitiveHandler.startPrimitives(_identifier, length);
+            int i = 0;
+            do {
+                final int chunkLength = (_identifier == EncodingAlgorithmIndexes.UUID) ?
+                    getUUIDChunkLength(length - i) : getPrimitiveChunkLength(length - i);
+                
+                // The octets of the chunk, the octet of the first boolean
+                // may also contain the last booleans of the previous chunk
+                final int from;
+                final int to;
+                if (algorithm == null) {
+                    from = i;
+                    to = i + chunkLength;
+                } else if (_identifier == EncodingAlgorithmIndexes.BOOLEAN) {
+                    from = (i + 4) / 8;
+                    to = algorithm.getOctetLengthFromPrimitiveLength(i + chunkLength);
+                } else {
+                    from = algorithm.getOctetLengthFromPrimitiveLength(i);
+                    to = algorithm.getOctetLengthFromPrimitiveLength(i + chunkLength);
+                }
+                
+                if (s != null) {
+                    readPrimitiveOctets(s, from, to);
+                    reportPrimitiveChunk(_primitiveOctets, 0, to - from, i - from * 8, chunkLength);
+                } else {
+                    reportPrimitiveChunk(_octetBuffer, _octetBufferStart + from, to - from, i - from * 8, chunkLength);
+                }
+                i += chunkLength;
+            } while (i < length);
+            _primitiveHandler.endPrimitives();
         } catch (SAXException e) {
             throw new FastInfosetException(e);
         }
     }
     
+    /*
+     * Read the octets of a character information item from an octet stream
+     * into the start of the primitive octets, keeping those that were read
+     * for the previous chunk.
+     */
+    private void readPrimitiveOctets(InputStream s, int from, int to) throws IOException {
+        final int kept = _primitiveOctetsEnd - from;
+        final byte[] b = (to - from > _primitiveOctets.length) ? new byte[to - from] : _primitiveOctets;
+        System.arraycopy(_primitiveOctets, from - _primitiveOctetsStart, b, 0, kept);
+        _primitiveOctets = b;
+        
+        final int length = to - _primitiveOctetsEnd;
+        if (s.readNBytes(b, kept, length) < length) {
+            throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+        }
+        _primitiveOctetsStart = from;
+        _primitiveOctetsEnd = to;
+    }
+    
+    /*
+     * Decode and report a chunk of primitive types. The index of the first
+     * boolean is that from the first encoded boolean, less 8 for each octet
+     * before the octet at start.
+     */
+    private void reportPrimitiveChunk(byte[] b, int start, int octetLength, int index, int length) throws FastInfosetException, SAXException {
+        switch(_identifier) {
+            case EncodingAlgorithmIndexes.HEXADECIMAL:
+            case EncodingAlgorithmIndexes.BASE64:
+                _primitiveHandler.bytes(b, start, length);
+                break;
+            case EncodingAlgorithmIndexes.SHORT:
+                if (length > builtInAlgorithmState.shortArray.length) {
+                    builtInAlgorithmState.shortArray = new short[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.shortEncodingAlgorithm.
+                        decodeFromBytesToShortArray(builtInAlgorithmState.shortArray, 0, b, start, octetLength);
+                _primitiveHandler.shorts(builtInAlgorithmState.shortArray, 0, length);
+                break;
+            case EncodingAlgorithmIndexes.INT:
+                if (length > builtInAlgorithmState.intArray.length) {
+                    builtInAlgorithmState.intArray = new int[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.
+                        decodeFromBytesToIntArray(builtInAlgorithmState.intArray, 0, b, start, octetLength);
+                _primitiveHandler.ints(builtInAlgorithmState.intArray, 0, length);
+                break;
+            case EncodingAlgorithmIndexes.LONG:
+                if (length > builtInAlgorithmState.longArray.length) {
+                    builtInAlgorithmState.longArray = new long[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.
+                        decodeFromBytesToLongArray(builtInAlgorithmState.longArray, 0, b, start, octetLength);
+                _primitiveHandler.longs(builtInAlgorithmState.longArray, 0, length);
+                break;
+            case EncodingAlgorithmIndexes.BOOLEAN:
+                if (length > builtInAlgorithmState.booleanArray.length) {
+                    builtInAlgorithmState.booleanArray = new boolean[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.booleanEncodingAlgorithm.
+                        decodeFromBytesToBooleanArray(builtInAlgorithmState.booleanArray, 0, length,
+                        b, start, octetLength, index);
+                _primitiveHandler.booleans(builtInAlgorithmState.booleanArray, 0, length);
+                break;
+            case EncodingAlgorithmIndexes.FLOAT:
+                if (length > builtInAlgorithmState.floatArray.length) {
+                    builtInAlgorithmState.floatArray = new float[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.floatEncodingAlgorithm.
+                        decodeFromBytesToFloatArray(builtInAlgorithmState.floatArray, 0, b, start, octetLength);
+                _primitiveHandler.floats(builtInAlgorithmState.floatArray, 0, length);
+                break;
+            case EncodingAlgorithmIndexes.DOUBLE:
+                if (length > builtInAlgorithmState.doubleArray.length) {
+                    builtInAlgorithmState.doubleArray = new double[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.doubleEncodingAlgorithm.
+                        decodeFromBytesToDoubleArray(builtInAlgorithmState.doubleArray, 0, b, start, octetLength);
+                _primitiveHandler.doubles(builtInAlgorithmState.doubleArray, 0, length);
+                break;
+            case EncodingAlgorithmIndexes.UUID:
+                if (length > builtInAlgorithmState.longArray.length) {
+                    builtInAlgorithmState.longArray = new long[length * 3 / 2 + 1];
+                }
+                BuiltInEncodingAlgorithmFactory.uuidEncodingAlgorithm.
+                        decodeFromBytesToLongArray(builtInAlgorithmState.longArray, 0, b, start, octetLength);
+                _primitiveHandler.uuids(builtInAlgorithmState.longArray, 0, length);
+                break;
+            default:
+                throw new FastInfosetException(CommonResourceBundle.getInstance().
+                        getString("message.unsupportedAlgorithm", new Object[]{_identifier}));
+        }
+    }
+    
+    /*
+     * The number of primitive types of the next chunk, of the remaining
+     * number of primitive types of a character information item.
+     */
+    private int getPrimitiveChunkLength(int remaining) {
+        return (_primitiveChunkLength > 0 && _primitiveChunkLength < remaining) ?
+            _primitiveChunkLength : remaining;
+    }
+    
+    /*
+     * The number of long of the next chunk of UUIDs, which contains whole
+     * UUIDs, pairs of long, of the even remaining number of long.
+     */
+    private int getUUIDChunkLength(int remaining) {
+        return Math.max(2, getPrimitiveChunkLength(remaining) & ~1);
+    }
+    
     
     protected final void processAIIEncodingAlgorithm(QualifiedName name, boolean addToTable) throws FastInfosetException, IOException {
         if (_identifier < EncodingConstants.ENCODING_ALGORITHM_BUILTIN_END) {
             if (_primitiveHandler != null || _algorithmHandler != null) {
-                Object data = processBuiltInEncodingAlgorithmAsObject();
-                _attributes.addAttributeWithAlgorithmData(name, null, _identifier, data);
+                if (!_attributes.addAttributeWithPrimitiveValue(name, _identifier,
+                        _octetBuffer, _octetBufferStart, _octetBufferLength)) {
+                    Object data = processBuiltInEncodingAlgorithmAsObject();
+                    _attributes.addAttributeWithAlgorithmData(name, null, _identifier, data);
+                }
             } else {
-                StringBuffer buffer = new StringBuffer();
-                processBuiltInEncodingAlgorithmAsCharacters(buffer);
-                _attributes.addAttribute(name, buffer.toString());
+                _attributes.addAttribute(name, convertBuiltInEncodingAlgorithmData().toString());
             }
         } else if (_identifier >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START && _algorithmHandler != null) {
             final String URI = _v.encodingAlgorithm.get(_identifier - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
@@ -1814,6 +2067,33 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier).convertToCharacters(array,  buffer);
     }
     
+    /**
+     * Convert the built-in encoding algorithm data, identified by _identifier
+     * and located by _octetBufferStart and _octetBufferLength, to characters.
+     *
+     * @return the characters, which are valid until the next conversion.
+     */
+    private StringBuilder convertBuiltInEncodingAlgorithmData() throws FastInfosetException, IOException {
+        final BuiltInEncodingAlgorithm ea = BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier);
+        _algorithmCharacters.setLength(0);
+        ea.convertToCharacters(ea.decodeFromBytes(_octetBuffer, _octetBufferStart, _octetBufferLength),
+                _algorithmCharacters);
+        return _algorithmCharacters;
+    }
+    
+    /**
+     * Convert the built-in encoding algorithm data to characters in
+     * _charBuffer.
+     */
+    private void convertBuiltInEncodingAlgorithmDataIntoCharBuffer() throws FastInfosetException, IOException {
+        final StringBuilder characters = convertBuiltInEncodingAlgorithmData();
+        _charBufferLength = characters.length();
+        if (_charBuffer.length < _charBufferLength) {
+            _charBuffer = new char[_charBufferLength];
+        }
+        characters.getChars(0, _charBufferLength, _charBuffer, 0);
+    }
+    
     protected final Object processBuiltInEncodingAlgorithmAsObject() throws FastInfosetException, IOException {
         return BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier).
                 decodeFromBytes(_octetBuffer, _octetBufferStart, _octetBufferLength);
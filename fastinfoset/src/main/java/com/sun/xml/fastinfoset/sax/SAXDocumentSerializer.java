@@ -21,9 +21,13 @@ package com.sun.xml.fastinfoset.sax;
 import com.sun.xml.fastinfoset.Encoder;
 import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.algorithm.DeltaIntEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.DeltaLongEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.XorDoubleEncodingAlgorithm;
 import org.jvnet.fastinfoset.sax.FastInfosetWriter;
 import com.sun.xml.fastinfoset.util.LocalNameQualifiedNamesMap;
 import java.io.IOException;
+import java.util.Arrays;
 import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
 import org.jvnet.fastinfoset.FastInfosetException;
 import org.jvnet.fastinfoset.RestrictedAlphabet;
@@ -53,6 +57,12 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
 
     protected boolean _charactersAsCDATA = false;
     
+    protected String _intsEncodingAlgorithmURI;
+    
+    protected String _longsEncodingAlgorithmURI;
+    
+    protected String _doublesEncodingAlgorithmURI;
+    
     protected SAXDocumentSerializer(boolean v) {
         super(v);
     }
@@ -69,6 +79,60 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
         _charactersAsCDATA = false;
     }
     
+    /**
+     * Set the encoding algorithm with which {@link #ints(int[], int, int)}
+     * encodes ints.
+     * <p>
+     * The encoding algorithm is registered, see
+     * {@link #setRegisteredEncodingAlgorithms(java.util.Map)}, and the URI is
+     * present in the encoding algorithm table of the vocabulary.
+     *
+     * @param URI the URI of an encoding algorithm whose data is an int[],
+     *        such as {@link DeltaIntEncodingAlgorithm#URI}, or null to encode
+     *        ints with the built-in int encoding algorithm.
+     */
+    public void setIntsEncodingAlgorithmURI(String URI) {
+        _intsEncodingAlgorithmURI = URI;
+    }
+    
+    public String getIntsEncodingAlgorithmURI() {
+        return _intsEncodingAlgorithmURI;
+    }
+    
+    /**
+     * Set the encoding algorithm with which {@link #longs(long[], int, int)}
+     * encodes longs.
+     *
+     * @param URI the URI of an encoding algorithm whose data is a long[],
+     *        such as {@link DeltaLongEncodingAlgorithm#URI}, or null to
+     *        encode longs with the built-in long encoding algorithm.
+     * @see #setIntsEncodingAlgorithmURI(String)
+     */
+    public void setLongsEncodingAlgorithmURI(String URI) {
+        _longsEncodingAlgorithmURI = URI;
+    }
+    
+    public String getLongsEncodingAlgorithmURI() {
+        return _longsEncodingAlgorithmURI;
+    }
+    
+    /**
+     * Set the encoding algorithm with which
+     * {@link #doubles(double[], int, int)} encodes doubles.
+     *
+     * @param URI the URI of an encoding algorithm whose data is a double[],
+     *        such as {@link XorDoubleEncodingAlgorithm#URI}, or null to
+     *        encode doubles with the built-in double encoding algorithm.
+     * @see #setIntsEncodingAlgorithmURI(String)
+     */
+    public void setDoublesEncodingAlgorithmURI(String URI) {
+        _doublesEncodingAlgorithmURI = URI;
+    }
+    
+    public String getDoublesEncodingAlgorithmURI() {
+        return _doublesEncodingAlgorithmURI;
+    }
+    
     // ContentHandler
 
     @Override
@@ -335,7 +399,12 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
         try {
             encodeTermination();
 
-            encodeCIIBuiltInAlgorithmData(EncodingAlgorithmIndexes.INT, i, start, length);
+            if (_intsEncodingAlgorithmURI != null) {
+                encodeNonIdentifyingStringOnThirdBit(_intsEncodingAlgorithmURI, 0,
+                        (start == 0 && length == i.length) ? i : Arrays.copyOfRange(i, start, start + length));
+            } else {
+                encodeCIIBuiltInAlgorithmData(EncodingAlgorithmIndexes.INT, i, start, length);
+            }
         } catch (IOException | FastInfosetException e) {
             throw new SAXException(e);
         }
@@ -350,7 +419,12 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
         try {
             encodeTermination();
 
-            encodeCIIBuiltInAlgorithmData(EncodingAlgorithmIndexes.LONG, l, start, length);
+            if (_longsEncodingAlgorithmURI != null) {
+                encodeNonIdentifyingStringOnThirdBit(_longsEncodingAlgorithmURI, 0,
+                        (start == 0 && length == l.length) ? l : Arrays.copyOfRange(l, start, start + length));
+            } else {
+                encodeCIIBuiltInAlgorithmData(EncodingAlgorithmIndexes.LONG, l, start, length);
+            }
         } catch (IOException | FastInfosetException e) {
             throw new SAXException(e);
         }
@@ -395,7 +469,12 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
         try {
             encodeTermination();
 
-            encodeCIIBuiltInAlgorithmData(EncodingAlgorithmIndexes.DOUBLE, d, start, length);
+            if (_doublesEncodingAlgorithmURI != null) {
+                encodeNonIdentifyingStringOnThirdBit(_doublesEncodingAlgorithmURI, 0,
+                        (start == 0 && length == d.length) ? d : Arrays.copyOfRange(d, start, start + length));
+            } else {
+                encodeCIIBuiltInAlgorithmData(EncodingAlgorithmIndexes.DOUBLE, d, start, length);
+            }
         } catch (IOException | FastInfosetException e) {
             throw new SAXException(e);
         }
@@ -517,6 +596,10 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
             String alphabet;
             for (int i = 0; i < eAtts.getLength(); i++) {
                 if (encodeAttribute(atts.getURI(i), atts.getQName(i), atts.getLocalName(i))) {
+                    if (eAtts.hasPrimitiveValue(i)) {
+                        encodePrimitiveAttributeValue(eAtts, i);
+                        continue;
+                    }
                     data = eAtts.getAlgorithmData(i);
                     // If data is null then there is no algorithm data
                     if (data == null) {
@@ -555,6 +638,22 @@ public class SAXDocumentSerializer extends Encoder implements FastInfosetWriter
         _terminate = true;
     }
     
+    /**
+     * Encode an attribute value that is a single primitive value, without
+     * an array, see {@link EncodingAlgorithmAttributes#hasPrimitiveValue(int)}.
+     *
+     * @param atts the attributes.
+     * @param index the index of the attribute.
+     */
+    protected final void encodePrimitiveAttributeValue(EncodingAlgorithmAttributes atts, int index) throws IOException {
+        final int id = atts.getAlgorithmIndex(index);
+        if (id == EncodingAlgorithmIndexes.DOUBLE) {
+            encodeAIIBuiltInAlgorithmPrimitiveValue(id, Double.doubleToLongBits(atts.getDoubleValue(index)));
+        } else {
+            encodeAIIBuiltInAlgorithmPrimitiveValue(id, atts.getLongValue(index));
+        }
+    }
+    
     protected void encodeElement(String namespaceURI, String qName, String localName) throws IOException {
         LocalNameQualifiedNamesMap.Entry entry = _v.elementName.obtainEntry(qName);
         if (entry._valueIndex > 0) {
@@ -151,6 +151,10 @@ public class SAXDocumentSerializerWithPrefixMapping extends SAXDocumentSerialize
             for (int i = 0; i < eAtts.getLength(); i++) {
                 final String uri = atts.getURI(i);
                 if (encodeAttribute(uri, atts.getQName(i), atts.getLocalName(i))) {
+                    if (eAtts.hasPrimitiveValue(i)) {
+                        encodePrimitiveAttributeValue(eAtts, i);
+                        continue;
+                    }
                     data = eAtts.getAlgorithmData(i);
                     // If data is null then there is no algorithm data
                     if (data == null) {
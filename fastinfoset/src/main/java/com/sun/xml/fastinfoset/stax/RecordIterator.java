@@ -0,0 +1,514 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.stax;
+
+import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.sax.AttributesHolder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Iterates over the records of a document, the elements of a repeating
+ * name, read with a {@link StAXDocumentParser}.
+ * <p>
+ * A record presents the attributes of the element and the text of its
+ * child elements. The names and attribute values are those decoded by the
+ * parser, and the text of the children is copied into a buffer of the
+ * record, so that no strings are created for the text. The iterator
+ * returns the same record for each element, that is overwritten when the
+ * next record is read. {@link Record#copy()} returns a record that is not
+ * overwritten.
+ * <p>
+ * The {@link #spliterator()}, and so the streams, return copied records
+ * that are not overwritten, so that the records may be collected. The
+ * spliterator splits the records by reading batches of records, so that
+ * {@link #parallelStream()} can process records on all cores while the
+ * thread that reads the document decodes the following records:
+ * <pre>
+ * new RecordIterator(parser, null, "entry").parallelStream().map(record -&gt; {
+ *     ...
+ * })
+ * </pre>
+ * <p>
+ * Records contained in a record are children of the record. The text of
+ * a child is the text it contains directly, the elements contained in a
+ * child are skipped, see {@link StAXDocumentParser#skipElement()}. Errors
+ * of the parser are thrown as an {@link IllegalStateException} whose cause
+ * is the {@link XMLStreamException}.
+ */
+public class RecordIterator implements Iterator<RecordIterator.Record> {
+    /**
+     * The default number of records of the first batch of a split.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final int MAXIMUM_BATCH_SIZE = 1 << 16;
+
+    private final StAXDocumentParser _parser;
+
+    private final String _namespaceName;
+
+    private final String _localName;
+
+    private final Record _record = new Record();
+
+    private int _batchSize = DEFAULT_BATCH_SIZE;
+
+    private boolean _started;
+
+    private boolean _advanced;
+
+    private boolean _hasNext;
+
+    /**
+     * Create an iterator over the records of a document.
+     *
+     * @param parser the parser of the document, positioned before or at
+     *        the start of the first record.
+     * @param namespaceName the namespace name of the records, or null for
+     *        any namespace name.
+     * @param localName the local name of the records.
+     */
+    public RecordIterator(StAXDocumentParser parser, String namespaceName, String localName) {
+        _parser = parser;
+        _namespaceName = namespaceName;
+        _localName = localName;
+    }
+
+    /**
+     * Set the number of records of the first batch of a split. Each
+     * following split reads a larger batch.
+     *
+     * @param batchSize the batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        _batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return _batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!_advanced) {
+            try {
+                _hasNext = advance();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            }
+            _advanced = true;
+        }
+        return _hasNext;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the record, that is overwritten when the next record is
+     *         read.
+     */
+    @Override
+    public Record next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        _advanced = false;
+        try {
+            read(_record);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+        return _record;
+    }
+
+    /**
+     * Get a spliterator over copies of the remaining records.
+     *
+     * @return the spliterator.
+     */
+    public Spliterator<Record> spliterator() {
+        return new RecordSpliterator(_batchSize);
+    }
+
+    /**
+     * Get a sequential stream of the remaining records.
+     *
+     * @return the stream.
+     */
+    public Stream<Record> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Get a parallel stream of the remaining records.
+     *
+     * @return the stream.
+     */
+    public Stream<Record> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private boolean advance() throws XMLStreamException {
+        if (!_started) {
+            _started = true;
+            if (_parser.getEventType() == XMLStreamConstants.START_ELEMENT && matches()) {
+                return true;
+            }
+        }
+
+        while (_parser.hasNext()) {
+            if (_parser.next() == XMLStreamConstants.START_ELEMENT && matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches() {
+        final QualifiedName name = _parser._qualifiedName;
+        return _localName.equals(name.localName) &&
+                (_namespaceName == null || _namespaceName.equals(name.namespaceName));
+    }
+
+    private void read(Record r) throws XMLStreamException {
+        r.clear();
+        r._name = _parser._qualifiedName;
+
+        final AttributesHolder attributes = _parser.getAttributesHolder();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            r.addAttribute(attributes.getQualifiedName(i), attributes.getValue(i));
+        }
+
+        // The depth is 0 in the record and 1 in a child
+        int depth = 0;
+        while (true) {
+            switch (_parser.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (depth == 0) {
+                        r.addChild(_parser._qualifiedName);
+                        depth = 1;
+                    } else {
+                        _parser.skipElement();
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 0) {
+                        return;
+                    }
+                    depth = 0;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (depth == 1) {
+                        r.appendChildText(_parser);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The attributes and the text of the children of a record.
+     */
+    public static final class Record {
+        private QualifiedName _name;
+
+        private int _attributeCount;
+
+        private QualifiedName[] _attributeNames;
+
+        private String[] _attributeValues;
+
+        private int _childCount;
+
+        private QualifiedName[] _childNames;
+
+        private int[] _childTextOffsets;
+
+        private int[] _childTextLengths;
+
+        private char[] _text;
+
+        private int _textLength;
+
+        Record() {
+            _attributeNames = new QualifiedName[8];
+            _attributeValues = new String[8];
+            _childNames = new QualifiedName[8];
+            _childTextOffsets = new int[8];
+            _childTextLengths = new int[8];
+            _text = new char[512];
+        }
+
+        private Record(Record r) {
+            _name = r._name;
+            _attributeCount = r._attributeCount;
+            _attributeNames = Arrays.copyOf(r._attributeNames, r._attributeCount);
+            _attributeValues = Arrays.copyOf(r._attributeValues, r._attributeCount);
+            _childCount = r._childCount;
+            _childNames = Arrays.copyOf(r._childNames, r._childCount);
+            _childTextOffsets = Arrays.copyOf(r._childTextOffsets, r._childCount);
+            _childTextLengths = Arrays.copyOf(r._childTextLengths, r._childCount);
+            _text = Arrays.copyOf(r._text, r._textLength);
+            _textLength = r._textLength;
+        }
+
+        /**
+         * @return a copy of this record that is not overwritten.
+         */
+        public Record copy() {
+            return new Record(this);
+        }
+
+        public String getLocalName() {
+            return _name.localName;
+        }
+
+        public String getNamespaceURI() {
+            return _name.namespaceName;
+        }
+
+        public String getPrefix() {
+            return _name.prefix;
+        }
+
+        public int getAttributeCount() {
+            return _attributeCount;
+        }
+
+        public String getAttributeLocalName(int index) {
+            return _attributeNames[index].localName;
+        }
+
+        public String getAttributeNamespace(int index) {
+            return _attributeNames[index].namespaceName;
+        }
+
+        public String getAttributeValue(int index) {
+            return _attributeValues[index];
+        }
+
+        /**
+         * Get the value of an attribute.
+         *
+         * @param namespaceURI the namespace name of the attribute, or null
+         *        for any namespace name.
+         * @param localName the local name of the attribute.
+         * @return the value, or null if the record has no such attribute.
+         */
+        public String getAttributeValue(String namespaceURI, String localName) {
+            for (int i = 0; i < _attributeCount; i++) {
+                if (matches(_attributeNames[i], namespaceURI, localName)) {
+                    return _attributeValues[i];
+                }
+            }
+            return null;
+        }
+
+        public int getChildCount() {
+            return _childCount;
+        }
+
+        public String getChildLocalName(int index) {
+            return _childNames[index].localName;
+        }
+
+        public String getChildNamespace(int index) {
+            return _childNames[index].namespaceName;
+        }
+
+        /**
+         * Get the index of the first child of a name.
+         *
+         * @param namespaceURI the namespace name of the child, or null for
+         *        any namespace name.
+         * @param localName the local name of the child.
+         * @return the index, or -1 if the record has no such child.
+         */
+        public int getChildIndex(String namespaceURI, String localName) {
+            for (int i = 0; i < _childCount; i++) {
+                if (matches(_childNames[i], namespaceURI, localName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Get the array that contains the text of the children. The array
+         * is valid until the record is overwritten.
+         *
+         * @return the array.
+         */
+        public char[] getTextCharacters() {
+            return _text;
+        }
+
+        /**
+         * @param index the index of the child.
+         * @return the offset of the text of the child in the array returned
+         *         by {@link #getTextCharacters()}.
+         */
+        public int getChildTextStart(int index) {
+            return _childTextOffsets[index];
+        }
+
+        public int getChildTextLength(int index) {
+            return _childTextLengths[index];
+        }
+
+        /**
+         * Get the text of a child as a string, that is created.
+         *
+         * @param index the index of the child.
+         * @return the text.
+         */
+        public String getChildText(int index) {
+            return new String(_text, _childTextOffsets[index], _childTextLengths[index]);
+        }
+
+        /**
+         * Get the text of the first child of a name as a string, that is
+         * created.
+         *
+         * @param namespaceURI the namespace name of the child, or null for
+         *        any namespace name.
+         * @param localName the local name of the child.
+         * @return the text, or null if the record has no such child.
+         */
+        public String getChildText(String namespaceURI, String localName) {
+            final int index = getChildIndex(namespaceURI, localName);
+            return (index != -1) ? getChildText(index) : null;
+        }
+
+        private static boolean matches(QualifiedName name, String namespaceURI, String localName) {
+            return localName.equals(name.localName) &&
+                    (namespaceURI == null || namespaceURI.equals(name.namespaceName));
+        }
+
+        void clear() {
+            _attributeCount = 0;
+            _childCount = 0;
+            _textLength = 0;
+        }
+
+        void addAttribute(QualifiedName name, String value) {
+            if (_attributeCount == _attributeNames.length) {
+                _attributeNames = Arrays.copyOf(_attributeNames, _attributeCount * 2);
+                _attributeValues = Arrays.copyOf(_attributeValues, _attributeCount * 2);
+            }
+            _attributeNames[_attributeCount] = name;
+            _attributeValues[_attributeCount++] = value;
+        }
+
+        void addChild(QualifiedName name) {
+            if (_childCount == _childNames.length) {
+                _childNames = Arrays.copyOf(_childNames, _childCount * 2);
+                _childTextOffsets = Arrays.copyOf(_childTextOffsets, _childCount * 2);
+                _childTextLengths = Arrays.copyOf(_childTextLengths, _childCount * 2);
+            }
+            _childNames[_childCount] = name;
+            _childTextOffsets[_childCount] = _textLength;
+            _childTextLengths[_childCount++] = 0;
+        }
+
+        void appendChildText(StAXDocumentParser parser) throws XMLStreamException {
+            int copied = 0;
+            while (true) {
+                if (_textLength == _text.length) {
+                    _text = Arrays.copyOf(_text, _text.length * 2);
+                }
+                final int length = parser.getTextCharacters(copied, _text, _textLength, _text.length - _textLength);
+                if (length == 0) {
+                    break;
+                }
+                copied += length;
+                _textLength += length;
+            }
+            _childTextLengths[_childCount - 1] += copied;
+        }
+    }
+
+    /**
+     * Splits the records by reading batches of copied records, each larger
+     * than the previous.
+     */
+    private final class RecordSpliterator implements Spliterator<Record> {
+        private int _nextBatchSize;
+
+        RecordSpliterator(int batchSize) {
+            _nextBatchSize = batchSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Record> action) {
+            if (hasNext()) {
+                action.accept(next().copy());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Record> action) {
+            while (hasNext()) {
+                action.accept(next().copy());
+            }
+        }
+
+        @Override
+        public Spliterator<Record> trySplit() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            final Record[] batch = new Record[_nextBatchSize];
+            int size = 0;
+            do {
+                batch[size++] = next().copy();
+            } while (size < batch.length && hasNext());
+
+            _nextBatchSize = Math.min(_nextBatchSize + _batchSize, MAXIMUM_BATCH_SIZE);
+            return Spliterators.spliterator(batch, 0, size, ORDERED | IMMUTABLE | NONNULL);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
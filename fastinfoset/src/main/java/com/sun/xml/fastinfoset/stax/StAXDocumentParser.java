@@ -27,6 +27,8 @@ import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
 import com.sun.xml.fastinfoset.sax.AttributesHolder;
 import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
@@ -43,6 +45,7 @@ import org.jvnet.fastinfoset.FastInfosetException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 import com.sun.xml.fastinfoset.org.apache.xerces.util.XMLChar;
 import com.sun.xml.fastinfoset.util.DuplicateAttributeVerifier;
+import com.sun.xml.fastinfoset.util.PathFilter;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jvnet.fastinfoset.stax.FastInfosetStreamReader;
@@ -112,6 +115,12 @@ public class StAXDocumentParser extends Decoder
     protected char[] _characters;
     protected int _charactersOffset;
     
+    /**
+     * The index, in the current character content, of the first
+     * character in the buffer when the content is decoded in chunks.
+     */
+    private int _charactersChunkStart;
+    
     protected String _algorithmURI;
     protected int _algorithmId;
     protected boolean _isAlgorithmDataCloned;
@@ -119,6 +128,16 @@ public class StAXDocumentParser extends Decoder
     protected int _algorithmDataOffset;
     protected int _algorithmDataLength;
     
+    /**
+     * The stream of the encoding algorithm data when the data is not
+     * buffered.
+     */
+    private InputStream _algorithmDataStream;
+    
+    private int _algorithmDataStreamingThreshold;
+    
+    private PathFilter _pathFilter;
+    
     /**
      * State for processing instruction
      */
@@ -171,6 +190,7 @@ public class StAXDocumentParser extends Decoder
             _characters = null;
             _algorithmData = null;
         }
+        _algorithmDataStream = null;
         
         _characterEncodingScheme = "UTF-8";
         _eventType = START_DOCUMENT;
@@ -190,6 +210,7 @@ public class StAXDocumentParser extends Decoder
         _namespaceAIIsIndex = 0;
         _characters = null;
         _algorithmData = null;
+        _algorithmDataStream = null;
         
         _eventType = START_DOCUMENT;
         _internalState = INTERNAL_STATE_START_DOCUMENT;
@@ -208,6 +229,72 @@ public class StAXDocumentParser extends Decoder
     
     @Override
     public int next() throws XMLStreamException {
+        if (_pathMatcher == null) {
+            return nextItem();
+        }
+        
+        while (true) {
+            if (_pathMatcher.isFiltering() && _internalState == INTERNAL_STATE_VOID) {
+                skipFilteredItems();
+            }
+            
+            final int eventType = nextItem();
+            switch (eventType) {
+                case START_ELEMENT:
+                    switch (_pathMatcher.startElement(_qualifiedName, _attributes)) {
+                        case PathFilter.MATCH:
+                            return eventType;
+                        case PathFilter.NONE:
+                            skipElement();
+                            break;
+                    }
+                    break;
+                case END_ELEMENT:
+                    if (_pathMatcher.endElement()) {
+                        return eventType;
+                    }
+                    break;
+                default:
+                    if (!_pathMatcher.isFiltering()) {
+                        return eventType;
+                    }
+            }
+        }
+    }
+    
+    /**
+     * Skip the items, other than elements, that are children of an element
+     * that is not selected by the path filter.
+     */
+    private void skipFilteredItems() throws XMLStreamException {
+        try {
+            while (true) {
+                switch(DecoderStateTables.EII(peek(this))) {
+                    case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                    case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                    case DecoderStateTables.EII_INDEX_MEDIUM:
+                    case DecoderStateTables.EII_INDEX_LARGE:
+                    case DecoderStateTables.EII_LITERAL:
+                    case DecoderStateTables.EII_NAMESPACES:
+                    case DecoderStateTables.TERMINATOR_DOUBLE:
+                    case DecoderStateTables.TERMINATOR_SINGLE:
+                        return;
+                    default:
+                        skipItem(read());
+                }
+            }
+        } catch (IOException | FastInfosetException e) {
+            resetOnError();
+            logger.log(Level.FINE, "next() exception", e);
+            throw new XMLStreamException(e);
+        } catch (RuntimeException e) {
+            resetOnError();
+            logger.log(Level.FINE, "next() exception", e);
+            throw e;
+        }
+    }
+    
+    private int nextItem() throws XMLStreamException {
         try {
             if (_internalState != INTERNAL_STATE_VOID) {
                 switch (_internalState) {
@@ -264,8 +351,20 @@ public class StAXDocumentParser extends Decoder
                 }
             }
             
+            // Skip character content that was not read
+            if (hasNextCharactersChunk()) {
+                skipCharactersChunks();
+            }
+            
+            // Skip encoding algorithm data that was not read
+            if (_algorithmDataStream != null) {
+                skipOctetsStream();
+                _algorithmDataStream = null;
+            }
+            
             // Reset internal state
             _characters = null;
+            _charactersChunkStart = 0;
             _algorithmData = null;
             _currentNamespaceAIIsEnd = 0;
             
@@ -273,9 +372,11 @@ public class StAXDocumentParser extends Decoder
             final int b = read();
             switch(DecoderStateTables.EII(b)) {
                 case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                    addReference(ParserVocabulary.ELEMENT_NAME, b);
                     processEII(_elementNameTable._array[b], false);
                     return _eventType;
                 case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                    addReference(ParserVocabulary.ELEMENT_NAME, b & EncodingConstants.INTEGER_3RD_BIT_SMALL_MASK);
                     processEII(_elementNameTable._array[b & EncodingConstants.INTEGER_3RD_BIT_SMALL_MASK], true);
                     return _eventType;
                 case DecoderStateTables.EII_INDEX_MEDIUM:
@@ -289,6 +390,7 @@ public class StAXDocumentParser extends Decoder
                     final QualifiedName qn = processLiteralQualifiedName(
                             b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK,
                             _elementNameTable.getNext());
+                    addReferences(qn);
                     _elementNameTable.add(qn);
                     processEII(qn, (b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0);
                     return _eventType;
@@ -359,7 +461,17 @@ public class StAXDocumentParser extends Decoder
                     final int b2 = read();
                     _algorithmId |= (b2 & 0xFC) >> 2;
                     
-                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(b2);
+                    if (_algorithmDataStreamingThreshold > 0 && !addToTable &&
+                            _algorithmId != EncodingAlgorithmIndexes.CDATA) {
+                        final int length = decodeOctetsLengthOnSeventhBit(b2);
+                        if (length > _algorithmDataStreamingThreshold) {
+                            processCIIEncodingAlgorithmStream(length);
+                            return _eventType = CHARACTERS;
+                        }
+                        decodeOctets(length);
+                    } else {
+                        decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(b2);
+                    }
                     processCIIEncodingAlgorithm(addToTable);
                     
                     if (_algorithmId == EncodingAlgorithmIndexes.CDATA) {
@@ -425,7 +537,7 @@ public class StAXDocumentParser extends Decoder
                 {
                     processUnexpandedEntityReference(b);
                     // Skip the reference
-                    return next();
+                    return nextItem();
                 }
                 case DecoderStateTables.TERMINATOR_DOUBLE:
                     if (_stackCount != -1) {
@@ -473,15 +585,20 @@ public class StAXDocumentParser extends Decoder
             decodeUtf8StringAsCharBuffer(_characterContentChunkTable._array, _charactersOffset);
             _characterContentChunkTable.add(_charBufferLength);
         } else {
-            decodeUtf8StringAsCharBuffer();
+            if (!startCharactersChunks(true)) {
+                decodeUtf8StringAsCharBuffer();
+            }
             _characters = _charBuffer;
             _charactersOffset = 0;
         }
     }
     
     private void processUtf16CharacterString(final int b) throws IOException {
-        decodeUtf16StringAsCharBuffer();
-        if ((b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0) {
+        final boolean addToTable = (b & EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG) > 0;
+        if (addToTable || !startCharactersChunks(false)) {
+            decodeUtf16StringAsCharBuffer();
+        }
+        if (addToTable) {
             _charactersOffset = _characterContentChunkTable.add(_charBuffer, _charBufferLength);
             _characters = _characterContentChunkTable._array;
         } else {
@@ -566,6 +683,76 @@ public class StAXDocumentParser extends Decoder
         return content.toString();
     }
     
+    /** Skips the content of the current element. Precondition:
+     * the current event is START_ELEMENT. Postcondition:
+     * The current event is the corresponding END_ELEMENT.
+     * <p>
+     * The content is skipped without reporting events. Names and values
+     * that are added to the vocabulary tables are decoded so that they may
+     * be referenced by index after the element, all other strings are
+     * skipped without conversion to characters and encoding algorithms
+     * are not applied.
+     * @throws XMLStreamException if the current event is not a START_ELEMENT
+     */
+    public final void skipElement() throws XMLStreamException {
+        if (_eventType != START_ELEMENT) {
+            throw new XMLStreamException(
+                    CommonResourceBundle.getInstance().getString("message.mustBeOnSTARTELEMENTToSkip"), getLocation());
+        }
+        
+        if (_internalState == INTERNAL_STATE_START_ELEMENT_TERMINATE) {
+            // The element has no children
+            nextItem();
+        } else {
+            try {
+                final boolean doubleTerminate = skipElementContent();
+                
+                // Pop information off the stack
+                popStack();
+                
+                if (doubleTerminate) {
+                    _internalState = INTERNAL_STATE_DOUBLE_TERMINATE_ELEMENT;
+                } else if (_currentNamespaceAIIsEnd > 0) {
+                    _internalState = INTERNAL_STATE_SINGLE_TERMINATE_ELEMENT_WITH_NAMESPACES;
+                }
+                _eventType = END_ELEMENT;
+            } catch (IOException | FastInfosetException e) {
+                resetOnError();
+                logger.log(Level.FINE, "skipElement() exception", e);
+                throw new XMLStreamException(e);
+            } catch (RuntimeException e) {
+                resetOnError();
+                logger.log(Level.FINE, "skipElement() exception", e);
+                throw e;
+            }
+        }
+        
+        if (_pathMatcher != null) {
+            _pathMatcher.endElement();
+        }
+    }
+    
+    /**
+     * Set the path filter of the elements that are reported.
+     * <p>
+     * Only the elements selected by the filter, and their attributes and
+     * content, are reported. Other elements are not reported and their
+     * content is skipped without being decoded, except for elements that
+     * may contain a selected element. The items of the document that are
+     * not contained in the document element are always reported.
+     *
+     * @param filter the path filter, or null, the default, if all elements
+     *        are reported.
+     */
+    public void setPathFilter(PathFilter filter) {
+        _pathFilter = filter;
+        _pathMatcher = (filter != null) ? filter.newMatcher() : null;
+    }
+    
+    public PathFilter getPathFilter() {
+        return _pathFilter;
+    }
+    
     /** Skips any white space (isWhiteSpace() returns true), COMMENT,
      * or PROCESSING_INSTRUCTION,
      * until a START_ELEMENT or END_ELEMENT is reached.
@@ -676,23 +863,27 @@ public class StAXDocumentParser extends Decoder
         if (localName == null)
             throw new IllegalArgumentException();
         
-        // Search for the attributes in _attributes
-        if (namespaceURI != null) {
-            for (int i = 0; i < _attributes.getLength(); i++) {
-                if (_attributes.getLocalName(i).equals(localName) &&
-                        _attributes.getURI(i).equals(namespaceURI)) {
-                    return _attributes.getValue(i);
-                }
-            }
-        } else {
-            for (int i = 0; i < _attributes.getLength(); i++) {
-                if (_attributes.getLocalName(i).equals(localName)) {
-                    return _attributes.getValue(i);
-                }
-            }
+        // A null namespace name matches any namespace name
+        final int index = _attributes.getIndex(namespaceURI, localName);
+        return (index >= 0) ? _attributes.getValue(index) : null;
+    }
+    
+    /**
+     * Get the value of an attribute of the current element by name.
+     * <p>
+     * A name that is an entry of the attribute name table, such as a name
+     * returned by {@link AttributesHolder#getQualifiedName(int)} for a
+     * previous element, is found without comparing strings.
+     *
+     * @param name the name of the attribute.
+     * @return the value of the attribute, or null if there is no such attribute.
+     */
+    public final String getAttributeValue(QualifiedName name) {
+        if (_eventType != START_ELEMENT) {
+            throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.invalidCallingGetAttributeValue"));
         }
         
-        return null;
+        return _attributes.getValue(name);
     }
     
     @Override
@@ -800,6 +991,7 @@ public class StAXDocumentParser extends Decoder
         if (_characters == null) {
             checkTextState();
         }
+        decodeCharactersChunks();
         
         if (_characters == _characterContentChunkTable._array) {
             return _characterContentChunkTable.getString(_characterContentChunkTable._cachedIndex);
@@ -813,6 +1005,7 @@ public class StAXDocumentParser extends Decoder
         if (_characters == null) {
             checkTextState();
         }
+        decodeCharactersChunks();
         
         return _characters;
     }
@@ -822,6 +1015,7 @@ public class StAXDocumentParser extends Decoder
         if (_characters == null) {
             checkTextState();
         }
+        decodeCharactersChunks();
         
         return _charactersOffset;
     }
@@ -831,10 +1025,21 @@ public class StAXDocumentParser extends Decoder
         if (_characters == null) {
             checkTextState();
         }
+        decodeCharactersChunks();
         
         return _charBufferLength;
     }
     
+    /**
+     * Copy characters of the current text event.
+     * <p>
+     * If character content is decoded in chunks, see
+     * {@link #setCharactersChunkSize(int)}, then chunks are decoded as
+     * required and are discarded once characters of a following chunk are
+     * copied. The characters must then be copied in order, and the other
+     * methods that return the text are not available after the first chunk
+     * is discarded.
+     */
     @Override
     public final int getTextCharacters(int sourceStart, char[] target,
             int targetStart, int length) throws XMLStreamException {
@@ -842,17 +1047,75 @@ public class StAXDocumentParser extends Decoder
             checkTextState();
         }
         
+        if (sourceStart < _charactersChunkStart) {
+            throw new XMLStreamException(CommonResourceBundle.getInstance().getString("message.charactersChunkDiscarded"));
+        }
+        
         try {
-            int bytesToCopy = Math.min(_charBufferLength, length);
-            System.arraycopy(_characters, _charactersOffset + sourceStart,
-                    target, targetStart, bytesToCopy);
-            return bytesToCopy;
-        } catch (IndexOutOfBoundsException e) {
+            int copied = 0;
+            while (copied < length) {
+                // Decode chunks up to the chunk containing the next character
+                final int chunkIndex = sourceStart + copied - _charactersChunkStart;
+                if (chunkIndex >= _charBufferLength) {
+                    if (!hasNextCharactersChunk()) {
+                        break;
+                    }
+                    _charactersChunkStart += _charBufferLength;
+                    decodeNextCharactersChunk();
+                    _characters = _charBuffer;
+                    _charactersOffset = 0;
+                    continue;
+                }
+                
+                final int charactersToCopy = Math.min(_charBufferLength - chunkIndex, length - copied);
+                System.arraycopy(_characters, _charactersOffset + chunkIndex,
+                        target, targetStart + copied, charactersToCopy);
+                copied += charactersToCopy;
+            }
+            return copied;
+        } catch (IndexOutOfBoundsException | IOException e) {
             throw new XMLStreamException(e);
         }
     }
     
+    /**
+     * Decode the chunks of the current character content that remain to be
+     * decoded, so that the content is available as a whole.
+     */
+    private void decodeCharactersChunks() {
+        if (!hasNextCharactersChunk()) {
+            return;
+        }
+        
+        if (_charactersChunkStart > 0) {
+            throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.charactersChunkDiscarded"));
+        }
+        
+        try {
+            char[] ch = new char[_charBufferLength * 2];
+            System.arraycopy(_charBuffer, 0, ch, 0, _charBufferLength);
+            int length = _charBufferLength;
+            while (hasNextCharactersChunk()) {
+                decodeNextCharactersChunk();
+                if (length + _charBufferLength > ch.length) {
+                    final char[] newCh = new char[(length + _charBufferLength) * 3 / 2];
+                    System.arraycopy(ch, 0, newCh, 0, length);
+                    ch = newCh;
+                }
+                System.arraycopy(_charBuffer, 0, ch, length, _charBufferLength);
+                length += _charBufferLength;
+            }
+            
+            _characters = ch;
+            _charactersOffset = 0;
+            _charBufferLength = length;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     protected final void checkTextState() {
+        decodeAlgorithmDataStream();
         if (_algorithmData == null) {
             throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.InvalidStateForText"));
         }
@@ -988,9 +1251,53 @@ public class StAXDocumentParser extends Decoder
     }
     
     public final boolean hasTextAlgorithmBytes() {
+        decodeAlgorithmDataStream();
         return _algorithmData != null;
     }
     
+    /**
+     * Set the length above which the encoding algorithm data of character
+     * content is not buffered.
+     * <p>
+     * The data of such character content is read directly from the
+     * underlying input stream using the stream returned by
+     * {@link #getTextAlgorithmStream()}. If any other method is used to
+     * access the text of the event then the data is buffered as a whole.
+     * Data that is not read is skipped when the next event is parsed.
+     *
+     * @param threshold the length in octets, or 0, the default, if the
+     *        data is always buffered.
+     */
+    public void setAlgorithmDataStreamingThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException();
+        }
+        _algorithmDataStreamingThreshold = threshold;
+    }
+    
+    public int getAlgorithmDataStreamingThreshold() {
+        return _algorithmDataStreamingThreshold;
+    }
+    
+    /**
+     * Returns the encoding algorithm data of the character content as a
+     * stream.
+     * <p>
+     * The stream is only valid until the next event is parsed.
+     *
+     * @return the stream of the encoding algorithm data, or null if the
+     *         character content is not encoded using an encoding algorithm.
+     */
+    public final InputStream getTextAlgorithmStream() {
+        if (_algorithmDataStream != null) {
+            return _algorithmDataStream;
+        } else if (_algorithmData == null) {
+            return null;
+        }
+        
+        return new ByteArrayInputStream(_algorithmData, _algorithmDataOffset, _algorithmDataLength);
+    }
+    
     
     /**
      * Returns the byte[], which represents text algorithms.
@@ -1001,6 +1308,7 @@ public class StAXDocumentParser extends Decoder
     public final byte[] getTextAlgorithmBytes() {
         // Do not return the actual _algorithmData due to security reasons
 //        return _algorithmData;
+        decodeAlgorithmDataStream();
         if (_algorithmData == null) {
             return null;
         }
@@ -1011,6 +1319,7 @@ public class StAXDocumentParser extends Decoder
     }
     
     public final byte[] getTextAlgorithmBytesClone() {
+        decodeAlgorithmDataStream();
         if (_algorithmData == null) {
             return null;
         }
@@ -1021,6 +1330,7 @@ public class StAXDocumentParser extends Decoder
     }
     
     public final int getTextAlgorithmStart() {
+        decodeAlgorithmDataStream();
         return _algorithmDataOffset;
     }
     
@@ -1030,6 +1340,7 @@ public class StAXDocumentParser extends Decoder
     
     public final int getTextAlgorithmBytes(int sourceStart, byte[] target,
             int targetStart, int length) throws XMLStreamException {
+        decodeAlgorithmDataStream();
         try {
             System.arraycopy(_algorithmData, sourceStart, target,
                     targetStart, length);
@@ -1043,6 +1354,7 @@ public class StAXDocumentParser extends Decoder
     
     @Override
     public final int peekNext() throws XMLStreamException {
+        decodeAlgorithmDataStream();
         try {
             switch(DecoderStateTables.EII(peek(this))) {
                 case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
@@ -1117,6 +1429,7 @@ public class StAXDocumentParser extends Decoder
     @Override
     public final char[] accessTextCharacters() {
         if (_characters == null) return null;
+        decodeCharactersChunks();
         
         // we return a cloned version of _characters
         final char[] clonedCharacters = new char[_characters.length];
@@ -1126,11 +1439,13 @@ public class StAXDocumentParser extends Decoder
     
     @Override
     public final int accessTextStart() {
+        decodeCharactersChunks();
         return _charactersOffset;
     }
     
     @Override
     public final int accessTextLength() {
+        decodeCharactersChunks();
         return _charBufferLength;
     }
     
@@ -1249,6 +1564,7 @@ public class StAXDocumentParser extends Decoder
                     prefix = _namespaceAIIsPrefix[_namespaceAIIsIndex] = "";
                     namespaceName = _namespaceAIIsNamespaceName[_namespaceAIIsIndex] =
                             decodeIdentifyingNonEmptyStringOnFirstBitAsNamespaceName(false);
+                    addReference(ParserVocabulary.NAMESPACE_NAME, _namespaceNameIndex - 1);
                     
                     _prefixIndex = _namespaceAIIsPrefixIndex[_namespaceAIIsIndex++] = -1;
                     break;
@@ -1257,6 +1573,7 @@ public class StAXDocumentParser extends Decoder
                 case 2:
                     prefix = _namespaceAIIsPrefix[_namespaceAIIsIndex] =
                             decodeIdentifyingNonEmptyStringOnFirstBitAsPrefix(false);
+                    addReference(ParserVocabulary.PREFIX, _prefixIndex - 1);
                     namespaceName = _namespaceAIIsNamespaceName[_namespaceAIIsIndex] = "";
                     
                     _namespaceNameIndex = -1;
@@ -1267,8 +1584,10 @@ public class StAXDocumentParser extends Decoder
                 case 3:
                     prefix = _namespaceAIIsPrefix[_namespaceAIIsIndex] =
                             decodeIdentifyingNonEmptyStringOnFirstBitAsPrefix(true);
+                    addReference(ParserVocabulary.PREFIX, _prefixIndex - 1);
                     namespaceName = _namespaceAIIsNamespaceName[_namespaceAIIsIndex] =
                             decodeIdentifyingNonEmptyStringOnFirstBitAsNamespaceName(true);
+                    addReference(ParserVocabulary.NAMESPACE_NAME, _namespaceNameIndex - 1);
                     
                     _namespaceAIIsPrefixIndex[_namespaceAIIsIndex++] = _prefixIndex;
                     break;
@@ -1287,6 +1606,7 @@ public class StAXDocumentParser extends Decoder
         b = read();
         switch(DecoderStateTables.EII(b)) {
             case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                addReference(ParserVocabulary.ELEMENT_NAME, b);
                 processEII(_elementNameTable._array[b], hasAttributes);
                 break;
             case DecoderStateTables.EII_INDEX_MEDIUM:
@@ -1300,6 +1620,7 @@ public class StAXDocumentParser extends Decoder
                 final QualifiedName qn = processLiteralQualifiedName(
                         b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK,
                         _elementNameTable.getNext());
+                addReferences(qn);
                 _elementNameTable.add(qn);
                 processEII(qn, hasAttributes);
                 break;
@@ -1363,12 +1684,14 @@ public class StAXDocumentParser extends Decoder
             b = read();
             switch (DecoderStateTables.AII(b)) {
                 case DecoderStateTables.AII_INDEX_SMALL:
+                    addReference(ParserVocabulary.ATTRIBUTE_NAME, b);
                     name = _attributeNameTable._array[b];
                     break;
                 case DecoderStateTables.AII_INDEX_MEDIUM:
                 {
                     final int i = (((b & EncodingConstants.INTEGER_2ND_BIT_MEDIUM_MASK) << 8) | read())
                     + EncodingConstants.INTEGER_2ND_BIT_SMALL_LIMIT;
+                    addReference(ParserVocabulary.ATTRIBUTE_NAME, i);
                     name = _attributeNameTable._array[i];
                     break;
                 }
@@ -1376,6 +1699,7 @@ public class StAXDocumentParser extends Decoder
                 {
                     final int i = (((b & EncodingConstants.INTEGER_2ND_BIT_LARGE_MASK) << 16) | (read() << 8) | read())
                     + EncodingConstants.INTEGER_2ND_BIT_MEDIUM_LIMIT;
+                    addReference(ParserVocabulary.ATTRIBUTE_NAME, i);
                     name = _attributeNameTable._array[i];
                     break;
                 }
@@ -1383,6 +1707,7 @@ public class StAXDocumentParser extends Decoder
                     name = processLiteralQualifiedName(
                             b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK,
                             _attributeNameTable.getNext());
+                    addReferences(name);
                     name.createAttributeValues(DuplicateAttributeVerifier.MAP_SIZE);
                     _attributeNameTable.add(name);
                     break;
@@ -1408,21 +1733,11 @@ public class StAXDocumentParser extends Decoder
             switch(DecoderStateTables.NISTRING(b)) {
                 case DecoderStateTables.NISTRING_UTF8_SMALL_LENGTH:
                     _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1;
-                    value = decodeUtf8StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, true);
                     break;
                 case DecoderStateTables.NISTRING_UTF8_MEDIUM_LENGTH:
                     _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
-                    value = decodeUtf8StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, true);
                     break;
                 case DecoderStateTables.NISTRING_UTF8_LARGE_LENGTH:
                     _octetBufferLength = ((read() << 24) |
@@ -1430,30 +1745,15 @@ public class StAXDocumentParser extends Decoder
                             (read() << 8) |
                             read())
                             + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
-                    value = decodeUtf8StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, true);
                     break;
                 case DecoderStateTables.NISTRING_UTF16_SMALL_LENGTH:
                     _octetBufferLength = (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1;
-                    value = decodeUtf16StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, false);
                     break;
                 case DecoderStateTables.NISTRING_UTF16_MEDIUM_LENGTH:
                     _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT;
-                    value = decodeUtf16StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, false);
                     break;
                 case DecoderStateTables.NISTRING_UTF16_LARGE_LENGTH:
                     _octetBufferLength = ((read() << 24) |
@@ -1461,12 +1761,7 @@ public class StAXDocumentParser extends Decoder
                             (read() << 8) |
                             read())
                             + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT;
-                    value = decodeUtf16StringAsString();
-                    if ((b & EncodingConstants.NISTRING_ADD_TO_TABLE_FLAG) > 0) {
-                        _attributeValueTable.add(value);
-                    }
-                    
-                    _attributes.addAttribute(name, value);
+                    processAIIStringValue(_attributes, name, b, false);
                     break;
                 case DecoderStateTables.NISTRING_RA:
                 {
@@ -1499,6 +1794,7 @@ public class StAXDocumentParser extends Decoder
                     break;
                 }
                 case DecoderStateTables.NISTRING_INDEX_SMALL:
+                    addReference(ParserVocabulary.ATTRIBUTE_VALUE, b & EncodingConstants.INTEGER_2ND_BIT_SMALL_MASK);
                     _attributes.addAttribute(name,
                             _attributeValueTable._array[b & EncodingConstants.INTEGER_2ND_BIT_SMALL_MASK]);
                     break;
@@ -1506,6 +1802,7 @@ public class StAXDocumentParser extends Decoder
                 {
                     final int index = (((b & EncodingConstants.INTEGER_2ND_BIT_MEDIUM_MASK) << 8) | read())
                     + EncodingConstants.INTEGER_2ND_BIT_SMALL_LIMIT;
+                    addReference(ParserVocabulary.ATTRIBUTE_VALUE, index);
                     
                     _attributes.addAttribute(name,
                             _attributeValueTable._array[index]);
@@ -1515,6 +1812,7 @@ public class StAXDocumentParser extends Decoder
                 {
                     final int index = (((b & EncodingConstants.INTEGER_2ND_BIT_LARGE_MASK) << 16) | (read() << 8) | read())
                     + EncodingConstants.INTEGER_2ND_BIT_MEDIUM_LIMIT;
+                    addReference(ParserVocabulary.ATTRIBUTE_VALUE, index);
                     
                     _attributes.addAttribute(name,
                             _attributeValueTable._array[index]);
@@ -1536,6 +1834,7 @@ public class StAXDocumentParser extends Decoder
     protected final QualifiedName processEIIIndexMedium(int b) throws FastInfosetException, IOException {
         final int i = (((b & EncodingConstants.INTEGER_3RD_BIT_MEDIUM_MASK) << 8) | read())
         + EncodingConstants.INTEGER_3RD_BIT_SMALL_LIMIT;
+        addReference(ParserVocabulary.ELEMENT_NAME, i);
         return _elementNameTable._array[i];
     }
     
@@ -1550,9 +1849,16 @@ public class StAXDocumentParser extends Decoder
             i = (((read() & EncodingConstants.INTEGER_3RD_BIT_LARGE_LARGE_MASK) << 16) | (read() << 8) | read())
             + EncodingConstants.INTEGER_3RD_BIT_LARGE_LIMIT;
         }
+        addReference(ParserVocabulary.ELEMENT_NAME, i);
         return _elementNameTable._array[i];
     }
     
+    @Override
+    protected QualifiedName decodeSkippedLiteralQualifiedName(int state, QualifiedName q)
+    throws FastInfosetException, IOException {
+        return processLiteralQualifiedName(state, q);
+    }
+    
     protected final QualifiedName processLiteralQualifiedName(int state, QualifiedName q)
     throws FastInfosetException, IOException {
         if (q == null) q = new QualifiedName();
@@ -1677,6 +1983,44 @@ public class StAXDocumentParser extends Decoder
         _algorithmDataLength = _octetBufferLength;
         _isAlgorithmDataCloned = false;
         
+        processCIIEncodingAlgorithmURI();
+        
+        if (addToTable) {
+            convertEncodingAlgorithmDataToCharacters();
+            _characterContentChunkTable.add(_characters, _characters.length);
+        }
+    }
+    
+    private void processCIIEncodingAlgorithmStream(int length) throws FastInfosetException {
+        _algorithmDataStream = startOctetsStream(length);
+        _algorithmData = null;
+        _algorithmDataOffset = 0;
+        _algorithmDataLength = length;
+        _isAlgorithmDataCloned = false;
+        
+        processCIIEncodingAlgorithmURI();
+    }
+    
+    /**
+     * Buffer the encoding algorithm data that is not buffered.
+     */
+    private void decodeAlgorithmDataStream() {
+        if (_algorithmDataStream == null) {
+            return;
+        } else if (getOctetsStreamRemaining() != _algorithmDataLength) {
+            throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.algorithmDataStreamRead"));
+        }
+        
+        try {
+            _algorithmData = _algorithmDataStream.readNBytes(_algorithmDataLength);
+            _algorithmDataStream = null;
+            _isAlgorithmDataCloned = true;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private void processCIIEncodingAlgorithmURI() throws FastInfosetException {
         if (_algorithmId >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
             _algorithmURI = _v.encodingAlgorithm.get(_algorithmId - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
             if (_algorithmURI == null) {
@@ -1688,11 +2032,6 @@ public class StAXDocumentParser extends Decoder
             // reported, allows for support through handler if required.
             throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.identifiers10to31Reserved"));
         }
-        
-        if (addToTable) {
-            convertEncodingAlgorithmDataToCharacters();
-            _characterContentChunkTable.add(_characters, _characters.length);
-        }
     }
     
     protected final void processAIIEncodingAlgorithm(QualifiedName name, boolean addToTable) throws FastInfosetException, IOException {
@@ -1714,6 +2053,12 @@ public class StAXDocumentParser extends Decoder
             // TODO should use sax property to decide if event will be
             // reported, allows for support through handler if required.
             throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.identifiers10to31Reserved"));
+        } else if (_attributes.addAttributeWithPrimitiveValue(name, _identifier,
+                _octetBuffer, _octetBufferStart, _octetBufferLength)) {
+            if (addToTable) {
+                _attributeValueTable.add(_attributes.getValue(_attributes.getLength() - 1));
+            }
+            return;
         } else {
             ea = BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier);
         }
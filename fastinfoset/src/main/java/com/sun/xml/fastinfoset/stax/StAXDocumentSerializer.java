@@ -22,12 +22,14 @@ import com.sun.xml.fastinfoset.Encoder;
 import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.util.NamespaceContextImplementation;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.EmptyStackException;
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
+import org.jvnet.fastinfoset.FastInfosetException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 import com.sun.xml.fastinfoset.QualifiedName;
 import com.sun.xml.fastinfoset.util.LocalNameQualifiedNamesMap;
@@ -604,6 +606,64 @@ public class StAXDocumentSerializer extends Encoder
             throw new XMLStreamException(e);
         }
     }
+
+    /**
+     * Write octets read from a stream as base64 encoded character content.
+     * <p>
+     * The octets are copied to the output stream in blocks and are not
+     * buffered as a whole.
+     *
+     * @param s the stream of the octets.
+     * @param length the number of octets to be read from the stream.
+     * @throws XMLStreamException if an error occurs, or if the stream ends
+     *         before length octets are read
+     */
+    public void writeOctets(InputStream s, long length)
+        throws XMLStreamException
+    {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+
+        try {
+            if (length == 0) {
+                return;
+            }
+
+            encodeTerminationAndCurrentElement(true);
+
+            encodeCIIOctetAlgorithmData(EncodingAlgorithmIndexes.BASE64, s, (int) length);
+        }
+        catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+    
+    /**
+     * Write character content encoded with an encoding algorithm.
+     *
+     * @param URI the URI of a registered encoding algorithm, such as
+     *        {@link com.sun.xml.fastinfoset.algorithm.DeltaIntEncodingAlgorithm#URI},
+     *        that is present in the encoding algorithm table of the
+     *        vocabulary, or null for the built-in encoding algorithm of the
+     *        identifier.
+     * @param id the identifier of the built-in encoding algorithm, if the
+     *        URI is null.
+     * @param data the data to be encoded by the encoding algorithm.
+     * @throws XMLStreamException if an error occurs.
+     */
+    public void writeAlgorithmData(String URI, int id, Object data)
+        throws XMLStreamException
+    {
+        try {
+            encodeTerminationAndCurrentElement(true);
+
+            encodeNonIdentifyingStringOnThirdBit(URI, id, data);
+        }
+        catch (IOException | FastInfosetException e) {
+            throw new XMLStreamException(e);
+        }
+    }
     
     protected void encodeTerminationAndCurrentElement(boolean terminateAfter) throws XMLStreamException {
         try {
@@ -37,10 +37,10 @@ public class CharArrayArray extends ValueArray {
     
     @Override
     public final void clear() {
-        for (int i = 0; i < _size; i++) {
+        for (int i = Math.max(_readOnlyArraySize, _sharedSize); i < _size; i++) {
             _array[i] = null;
         }
-        _size = 0;
+        _size = _readOnlyArraySize;
     }
 
     /**
@@ -72,22 +72,51 @@ public class CharArrayArray extends ValueArray {
             if (clear) {
                 clear();
             }
+
+            _array = getCompleteArray();
+            _size = _readOnlyArraySize;
+            _sharedSize = -1;
         }
     }
-    
-    public final CharArray get(int i) {
+
+    @Override
+    public final void setSharedArray(ValueArray array, int size) {
+        if (!(array instanceof CharArrayArray)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalClass", new Object[]{array}));
+        }
+
+        final CharArrayArray a = (CharArrayArray)array;
+        _readOnlyArray = null;
+        _array = a._array;
+        _sharedSize = a._size;
+        _size = _readOnlyArraySize = size;
+    }
+
+    public final CharArray[] getCompleteArray() {
         if (_readOnlyArray == null) {
-            return _array[i];
+            // Return cloned version of internal _array
+            return getArray();
         } else {
-            if (i < _readOnlyArraySize) {
-               return _readOnlyArray.get(i); 
-            } else {
-                return _array[i - _readOnlyArraySize];
-            }
+            final CharArray[] ra = _readOnlyArray.getCompleteArray();
+            final CharArray[] a = new CharArray[_readOnlyArraySize + _array.length];
+            System.arraycopy(ra, 0, a, 0, _readOnlyArraySize);
+            return a;
         }
-   }
+    }
+    
+    public final CharArray get(int i) {
+        return _array[i];
+    }
     
     public final void add(CharArray s) {
+        if (_sharedSize >= 0) {
+            if (_size < _sharedSize) {
+                _size++;
+                return;
+            }
+            unshare();
+        }
+
         if (_size == _array.length) {
             resize();
         }
@@ -95,6 +124,13 @@ public class CharArrayArray extends ValueArray {
        _array[_size++] = s;
     }
     
+    private void unshare() {
+        final CharArray[] newArray = new CharArray[_array.length];
+        System.arraycopy(_array, 0, newArray, 0, _size);
+        _array = newArray;
+        _sharedSize = -1;
+    }
+    
     protected final void resize() {
         if (_size == _maximumCapacity) {
             throw new ValueArrayResourceException(CommonResourceBundle.getInstance().getString("message.arrayMaxCapacity"));
@@ -64,6 +64,17 @@ public class ContiguousCharArrayArray extends ValueArray {
         }
     }
     
+    @Override
+    public final void truncate(int size) {
+        if (size < _size) {
+            _arrayIndex = _offset[size];
+            if (_readOnlyArrayIndex > _arrayIndex) {
+                _readOnlyArrayIndex = _arrayIndex;
+            }
+        }
+        super.truncate(size);
+    }
+    
     public final int getArrayIndex() {
         return _arrayIndex;
     }
@@ -92,7 +103,25 @@ public class ContiguousCharArrayArray extends ValueArray {
             _length = getCompleteLengthArray();
             _size = _readOnlyArraySize;
             _arrayIndex = _readOnlyArrayIndex;
+            _sharedSize = -1;
+        }
+    }
+
+    @Override
+    public final void setSharedArray(ValueArray array, int size) {
+        if (!(array instanceof ContiguousCharArrayArray)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalClass", new Object[]{array}));
         }
+
+        final ContiguousCharArrayArray a = (ContiguousCharArrayArray)array;
+        _readOnlyArray = null;
+        _cachedStrings = null;
+        _array = a._array;
+        _offset = a._offset;
+        _length = a._length;
+        _sharedSize = a._size;
+        _size = _readOnlyArraySize = size;
+        _arrayIndex = _readOnlyArrayIndex = (size < a._size) ? a._offset[size] : a._arrayIndex;
     }
     
     public final char[] getCompleteCharArray() {
@@ -162,12 +191,25 @@ public class ContiguousCharArrayArray extends ValueArray {
     }
     
     public final void ensureSize(int l) {
+        // Characters are to be decoded in place
+        if (_sharedSize >= 0) {
+            unshare();
+        }
+
         if (_arrayIndex + l >= _array.length) {
             resizeArray(_arrayIndex + l);
         }        
     }
     
     public final void add(int l) {
+        if (_sharedSize >= 0) {
+            if (_size < _sharedSize) {
+                addShared();
+                return;
+            }
+            unshare();
+        }
+
         if (_size == _offset.length) {
             resize();
         }
@@ -180,6 +222,13 @@ public class ContiguousCharArrayArray extends ValueArray {
     }
     
     public final int add(char[] c, int l) {
+        if (_sharedSize >= 0) {
+            if (_size < _sharedSize) {
+                return _offset[addShared()];
+            }
+            unshare();
+        }
+
         if (_size == _offset.length) {
             resize();
         }
@@ -201,6 +250,34 @@ public class ContiguousCharArrayArray extends ValueArray {
         return oldArrayIndex;
     }
     
+    /**
+     * Add the next entry, which is at the index of an entry shared with
+     * another array.
+     *
+     * @return the index of the entry.
+     */
+    public final int addShared() {
+        _cachedIndex = _size;
+        _arrayIndex = _offset[_size] + _length[_size];
+        return _size++;
+    }
+
+    private void unshare() {
+        final char[] array = new char[_array.length];
+        System.arraycopy(_array, 0, array, 0, _arrayIndex);
+        _array = array;
+
+        final int[] offset = new int[_offset.length];
+        System.arraycopy(_offset, 0, offset, 0, _size);
+        _offset = offset;
+
+        final int[] length = new int[_length.length];
+        System.arraycopy(_length, 0, length, 0, _size);
+        _length = length;
+
+        _sharedSize = -1;
+    }
+
     protected final void resize() {
         if (_size == _maximumCapacity) {
             throw new ValueArrayResourceException(CommonResourceBundle.getInstance().getString("message.arrayMaxCapacity"));
@@ -39,6 +39,16 @@ final public class NamespaceContextImplementation implements NamespaceContext {
     
     private int currentContext;
     
+    private static final int LOOKUP_CACHE_SIZE = 8;
+    
+    /*
+     * The results of recent lookups of the namespace URI of a prefix, as
+     * the index of the declaration or -1, indexed by the hash code of the
+     * prefix. The results are valid until the declarations change.
+     */
+    private final String[] lookupPrefixes = new String[LOOKUP_CACHE_SIZE];
+    private final int[] lookupIndexes = new int[LOOKUP_CACHE_SIZE];
+    
     public NamespaceContextImplementation() {
         prefixes[0] = "xml";
         namespaceURIs[0] = "http://www.w3.org/XML/1998/namespace";
@@ -55,14 +65,20 @@ final public class NamespaceContextImplementation implements NamespaceContext {
         
 //        prefix = prefix.intern();
         
-        for (int i = namespacePosition - 1; i >= 0; i--) {
-            final String declaredPrefix = prefixes[i];
-            if (declaredPrefix.equals(prefix)) {
-                return namespaceURIs[i];
-            }
+        final int slot = prefix.hashCode() & (LOOKUP_CACHE_SIZE - 1);
+        if (lookupPrefixes[slot] == prefix) {
+            final int index = lookupIndexes[slot];
+            return (index < 0) ? "" : namespaceURIs[index];
+        }
+        
+        int i = namespacePosition - 1;
+        while (i >= 0 && !prefixes[i].equals(prefix)) {
+            i--;
         }
+        lookupPrefixes[slot] = prefix;
+        lookupIndexes[slot] = i;
         
-        return "";
+        return (i < 0) ? "" : namespaceURIs[i];
     }
     
     @Override
@@ -170,6 +186,8 @@ final public class NamespaceContextImplementation implements NamespaceContext {
         if (prefix == "xml" || prefix == "xmlns")
             return;
         
+        clearLookups();
+        
         // Replace any previous declaration
         for (int i = currentContext; i < namespacePosition; i++) {
             final String declaredPrefix = prefixes[i];
@@ -215,11 +233,22 @@ final public class NamespaceContextImplementation implements NamespaceContext {
     
     public void popContext() {
         if (contextPosition > 0) {
-            namespacePosition = currentContext = contexts[--contextPosition];
+            final int position = contexts[--contextPosition];
+            if (position != namespacePosition) {
+                clearLookups();
+            }
+            namespacePosition = currentContext = position;
         }
     }
     
     public void reset() {
         currentContext = namespacePosition = 2;
+        clearLookups();
+    }
+    
+    private void clearLookups() {
+        for (int i = 0; i < LOOKUP_CACHE_SIZE; i++) {
+            lookupPrefixes[i] = null;
+        }
     }
 }
@@ -0,0 +1,424 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import com.sun.xml.fastinfoset.QualifiedName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.xml.sax.Attributes;
+
+/**
+ * A compiled filter of the elements of a document selected by a subset of
+ * XPath location paths.
+ * <p>
+ * An expression is one or more absolute paths separated by '|'. A path is
+ * a sequence of steps, each preceded by '/', that select child elements by
+ * name. The name of a step is either '*', that matches any name, a local
+ * name, that matches the local name in any namespace, or a local name or
+ * '*' preceded by a namespace name in braces, for example
+ * <code>{urn:ns}name</code>, that matches in that namespace only. The
+ * name may be followed by predicates, <code>[@name]</code>, that select
+ * elements with an attribute, or <code>[@name='value']</code>, that select
+ * elements with an attribute of a value. For example
+ * <pre>
+ *     /Envelope/Header/MessageID | /Envelope/Body/*[@id='1']
+ * </pre>
+ * <p>
+ * A parser with a path filter only reports the elements that are selected,
+ * together with their attributes and content. The content of elements that
+ * cannot contain a selected element is skipped without being decoded.
+ * <p>
+ * A filter is immutable and may be shared between parsers. The state of
+ * the evaluation of a filter in a document is held by a {@link Matcher}.
+ */
+public final class PathFilter {
+    /**
+     * The element is not selected and does not contain a selected element.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The element is not selected but may contain a selected element.
+     */
+    public static final int PARTIAL = 1;
+
+    /**
+     * The element is selected, or is contained in a selected element.
+     */
+    public static final int MATCH = 2;
+
+    private static final int MAXIMUM_PATHS = 64;
+
+    private final String _expression;
+
+    private final Step[][] _paths;
+
+    private final int _steps;
+
+    private PathFilter(String expression, Step[][] paths, int steps) {
+        _expression = expression;
+        _paths = paths;
+        _steps = steps;
+    }
+
+    /**
+     * Compile a path expression.
+     *
+     * @param expression the path expression.
+     * @return the path filter.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public static PathFilter compile(String expression) {
+        return new Parser(expression).parse();
+    }
+
+    /**
+     * @return a new matcher of this filter.
+     */
+    public Matcher newMatcher() {
+        return new Matcher();
+    }
+
+    @Override
+    public String toString() {
+        return _expression;
+    }
+
+    /**
+     * Evaluates a path filter against the elements of a document in
+     * document order.
+     * <p>
+     * The local names of elements are compared once for each entry of the
+     * local name table of the vocabulary, subsequent elements with names
+     * referring to the same entry are matched by index. The matcher must
+     * be reset when the vocabulary is reset.
+     */
+    public final class Matcher {
+        /**
+         * The paths alive at each depth, as a mask of path indexes.
+         */
+        private long[] _alive = new long[16];
+
+        private int _depth;
+
+        /**
+         * The depth of the selected element, or -1.
+         */
+        private int _matchDepth = -1;
+
+        /**
+         * The cached comparisons of the local name of each step with the
+         * entries of the local name table.
+         */
+        private byte[][] _localNameMatches = new byte[_steps][];
+
+        private Matcher() {
+            reset();
+        }
+
+        public void reset() {
+            _depth = 0;
+            _matchDepth = -1;
+            _alive[0] = (_paths.length == MAXIMUM_PATHS) ? -1L : (1L << _paths.length) - 1;
+            for (int i = 0; i < _localNameMatches.length; i++) {
+                if (_localNameMatches[i] != null) {
+                    Arrays.fill(_localNameMatches[i], (byte) 0);
+                }
+            }
+        }
+
+        /**
+         * @return true if the items at the current depth are filtered, that
+         *         is the current element is not selected.
+         */
+        public boolean isFiltering() {
+            return _depth > 0 && _matchDepth == -1;
+        }
+
+        /**
+         * Evaluate the start of an element.
+         *
+         * @param name the name of the element.
+         * @param attributes the attributes of the element.
+         * @return {@link #NONE}, {@link #PARTIAL} or {@link #MATCH}.
+         */
+        public int startElement(QualifiedName name, Attributes attributes) {
+            if (_depth + 1 == _alive.length) {
+                _alive = Arrays.copyOf(_alive, _alive.length * 2);
+            }
+
+            if (_matchDepth != -1) {
+                _alive[++_depth] = 0;
+                return MATCH;
+            }
+
+            final long alive = _alive[_depth];
+            long next = 0;
+            int result = NONE;
+            for (int i = 0; i < _paths.length; i++) {
+                if ((alive & (1L << i)) == 0) {
+                    continue;
+                }
+
+                final Step step = _paths[i][_depth];
+                if (matches(step, name) && step.matches(attributes)) {
+                    if (_paths[i].length == _depth + 1) {
+                        result = MATCH;
+                        break;
+                    }
+                    next |= 1L << i;
+                    result = PARTIAL;
+                }
+            }
+
+            if (result == MATCH) {
+                _matchDepth = _depth;
+            }
+            _alive[++_depth] = next;
+            return result;
+        }
+
+        /**
+         * Evaluate the end of an element.
+         *
+         * @return true if the element was selected or is contained in a
+         *         selected element.
+         */
+        public boolean endElement() {
+            if (--_depth == _matchDepth) {
+                _matchDepth = -1;
+                return true;
+            }
+            return _matchDepth != -1;
+        }
+
+        private boolean matches(Step step, QualifiedName name) {
+            if (step.namespaceName != null && !step.namespaceName.equals(name.namespaceName)) {
+                return false;
+            } else if (step.localName == null) {
+                return true;
+            }
+
+            final int index = name.localNameIndex;
+            if (index < 0) {
+                return step.localName.equals(name.localName);
+            }
+
+            byte[] matches = _localNameMatches[step.id];
+            if (matches == null || index >= matches.length) {
+                matches = _localNameMatches[step.id] = Arrays.copyOf(
+                        (matches == null) ? new byte[0] : matches, Math.max(index + 1, 32));
+            }
+            if (matches[index] == 0) {
+                matches[index] = step.localName.equals(name.localName) ? (byte) 1 : (byte) 2;
+            }
+            return matches[index] == 1;
+        }
+    }
+
+    private static final class Step {
+        final int id;
+
+        /**
+         * The namespace name, or null for any namespace.
+         */
+        final String namespaceName;
+
+        /**
+         * The local name, or null for any local name.
+         */
+        final String localName;
+
+        final Predicate[] predicates;
+
+        Step(int id, String namespaceName, String localName, Predicate[] predicates) {
+            this.id = id;
+            this.namespaceName = namespaceName;
+            this.localName = localName;
+            this.predicates = predicates;
+        }
+
+        boolean matches(Attributes attributes) {
+            for (Predicate p : predicates) {
+                if (!p.matches(attributes)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Predicate {
+        final String namespaceName;
+
+        final String localName;
+
+        /**
+         * The value, or null if the attribute is only required to be present.
+         */
+        final String value;
+
+        Predicate(String namespaceName, String localName, String value) {
+            this.namespaceName = namespaceName;
+            this.localName = localName;
+            this.value = value;
+        }
+
+        boolean matches(Attributes attributes) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                // Attributes of the same local name may be in other
+                // namespaces or have other values
+                if (localName.equals(attributes.getLocalName(i)) &&
+                        (namespaceName == null || namespaceName.equals(attributes.getURI(i))) &&
+                        (value == null || value.equals(attributes.getValue(i)))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Parser {
+        private final String _expression;
+
+        private int _index;
+
+        private int _steps;
+
+        Parser(String expression) {
+            _expression = expression;
+        }
+
+        PathFilter parse() {
+            final List<Step[]> paths = new ArrayList<>();
+            do {
+                skipWhiteSpace();
+                paths.add(parsePath());
+                skipWhiteSpace();
+            } while (accept('|'));
+
+            if (_index != _expression.length() || paths.size() > MAXIMUM_PATHS) {
+                throw error();
+            }
+            return new PathFilter(_expression, paths.toArray(new Step[0][]), _steps);
+        }
+
+        private Step[] parsePath() {
+            final List<Step> steps = new ArrayList<>();
+            if (!accept('/')) {
+                throw error();
+            }
+            do {
+                steps.add(parseStep());
+            } while (accept('/'));
+            return steps.toArray(new Step[0]);
+        }
+
+        private Step parseStep() {
+            final String namespaceName = parseNamespaceName();
+            final String localName = accept('*') ? null : parseNCName();
+
+            final List<Predicate> predicates = new ArrayList<>();
+            while (accept('[')) {
+                if (!accept('@')) {
+                    throw error();
+                }
+                final String attributeNamespaceName = parseNamespaceName();
+                final String attributeLocalName = parseNCName();
+                String value = null;
+                if (accept('=')) {
+                    value = parseLiteral();
+                }
+                if (!accept(']')) {
+                    throw error();
+                }
+                predicates.add(new Predicate(attributeNamespaceName, attributeLocalName, value));
+            }
+
+            return new Step(_steps++, namespaceName, localName, predicates.toArray(new Predicate[0]));
+        }
+
+        private String parseNamespaceName() {
+            if (!accept('{')) {
+                return null;
+            }
+            final int end = _expression.indexOf('}', _index);
+            if (end == -1) {
+                throw error();
+            }
+            final String namespaceName = _expression.substring(_index, end);
+            _index = end + 1;
+            return namespaceName;
+        }
+
+        private String parseNCName() {
+            final int start = _index;
+            while (_index < _expression.length() && isNCNameChar(_expression.charAt(_index))) {
+                _index++;
+            }
+            if (_index == start || Character.isDigit(_expression.charAt(start)) ||
+                    _expression.charAt(start) == '-' || _expression.charAt(start) == '.') {
+                throw error();
+            }
+            return _expression.substring(start, _index);
+        }
+
+        private String parseLiteral() {
+            if (_index == _expression.length()) {
+                throw error();
+            }
+            final char quote = _expression.charAt(_index);
+            if (quote != '\'' && quote != '"') {
+                throw error();
+            }
+            final int end = _expression.indexOf(quote, _index + 1);
+            if (end == -1) {
+                throw error();
+            }
+            final String value = _expression.substring(_index + 1, end);
+            _index = end + 1;
+            return value;
+        }
+
+        private boolean isNCNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c > 0x7F;
+        }
+
+        private void skipWhiteSpace() {
+            while (_index < _expression.length() && Character.isWhitespace(_expression.charAt(_index))) {
+                _index++;
+            }
+        }
+
+        private boolean accept(char c) {
+            if (_index < _expression.length() && _expression.charAt(_index) == c) {
+                _index++;
+                return true;
+            }
+            return false;
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.invalidPathExpression", new Object[]{_expression, _index}));
+        }
+    }
+}
@@ -41,6 +41,16 @@ public class QualifiedNameArray extends ValueArray {
         _size = _readOnlyArraySize;
     }
 
+    @Override
+    public final void truncate(int size) {
+        // Discarded names may be shared with a read only array
+        // and so cannot be reused by getNext()
+        for (int i = Math.max(size, _sharedSize); i < _size; i++) {
+            _array[i] = null;
+        }
+        super.truncate(size);
+    }
+
     /**
      * Returns cloned version of internal QualifiedName[].
      * @return cloned version of internal QualifiedName[].
@@ -74,9 +84,24 @@ public class QualifiedNameArray extends ValueArray {
             
             _array = getCompleteArray();
             _size = _readOnlyArraySize;
+            _sharedSize = -1;
         }
     }
 
+    @Override
+    public final void setSharedArray(ValueArray array, int size) {
+        if (!(array instanceof QualifiedNameArray)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{array}));
+        }
+
+        final QualifiedNameArray a = (QualifiedNameArray)array;
+        _readOnlyArray = null;
+        _array = a._array;
+        _sharedSize = a._size;
+        _size = _readOnlyArraySize = size;
+    }
+
     public final QualifiedName[] getCompleteArray() {
         if (_readOnlyArray == null) {
             // Return cloned version of internal _array
@@ -91,10 +116,19 @@ public class QualifiedNameArray extends ValueArray {
     }
  
     public final QualifiedName getNext() {
-        return (_size == _array.length) ? null : _array[_size];
+        // Shared names cannot be reused
+        return (_size == _array.length || _sharedSize >= 0) ? null : _array[_size];
     }
     
     public final void add(QualifiedName s) {
+        if (_sharedSize >= 0) {
+            if (_size < _sharedSize) {
+                _size++;
+                return;
+            }
+            unshare();
+        }
+
         if (_size == _array.length) {
             resize();
         }
@@ -102,6 +136,13 @@ public class QualifiedNameArray extends ValueArray {
        _array[_size++] = s;
     }
 
+    private void unshare() {
+        final QualifiedName[] newArray = new QualifiedName[_array.length];
+        System.arraycopy(_array, 0, newArray, 0, _size);
+        _array = newArray;
+        _sharedSize = -1;
+    }
+
     protected final void resize() {
         if (_size == _maximumCapacity) {
             throw new ValueArrayResourceException(CommonResourceBundle.getInstance().getString("message.arrayMaxCapacity"));
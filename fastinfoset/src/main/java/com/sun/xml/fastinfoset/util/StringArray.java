@@ -39,7 +39,7 @@ public class StringArray extends ValueArray {
 
     @Override
     public final void clear() {
-        if (_clear) for (int i = _readOnlyArraySize; i < _size; i++) {
+        if (_clear) for (int i = Math.max(_readOnlyArraySize, _sharedSize); i < _size; i++) {
             _array[i] = null;
         }
         _size = _readOnlyArraySize;
@@ -78,9 +78,24 @@ public class StringArray extends ValueArray {
 
             _array = getCompleteArray();
             _size = _readOnlyArraySize;
+            _sharedSize = -1;
         }
     }
 
+    @Override
+    public final void setSharedArray(ValueArray array, int size) {
+        if (!(array instanceof StringArray)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{array}));
+        }
+
+        final StringArray a = (StringArray)array;
+        _readOnlyArray = null;
+        _array = a._array;
+        _sharedSize = a._size;
+        _size = _readOnlyArraySize = size;
+    }
+
     public final String[] getCompleteArray() {
         if (_readOnlyArray == null) {
             // Return cloned version of internal _array
@@ -99,6 +114,13 @@ public class StringArray extends ValueArray {
     }
  
     public final int add(String s) {
+        if (_sharedSize >= 0) {
+            if (_size < _sharedSize) {
+                return ++_size;
+            }
+            unshare();
+        }
+
         if (_size == _array.length) {
             resize();
         }
@@ -107,6 +129,13 @@ public class StringArray extends ValueArray {
        return _size;
     }
     
+    private void unshare() {
+        final String[] newArray = new String[_array.length];
+        System.arraycopy(_array, 0, newArray, 0, _size);
+        _array = newArray;
+        _sharedSize = -1;
+    }
+
     protected final void resize() {
         if (_size == _maximumCapacity) {
             throw new ValueArrayResourceException(CommonResourceBundle.getInstance().getString("message.arrayMaxCapacity"));
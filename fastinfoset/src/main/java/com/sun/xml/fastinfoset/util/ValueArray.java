@@ -28,6 +28,12 @@ public abstract class ValueArray {
     
     protected int _maximumCapacity;
 
+    /**
+     * The number of entries shared with another array, see
+     * {@link #setSharedArray}, or -1 if the entries are not shared.
+     */
+    protected int _sharedSize = -1;
+
     protected ValueArray() {
     }
 
@@ -35,6 +41,14 @@ public abstract class ValueArray {
         return _size;
     }
 
+    /**
+     * @return the number of entries of the read only array, that precede
+     *         the entries added to this array.
+     */
+    public int getReadOnlyArraySize() {
+        return _readOnlyArraySize;
+    }
+
     public int getMaximumCapacity() {
         return _maximumCapacity;
     }
@@ -43,6 +57,45 @@ public abstract class ValueArray {
         _maximumCapacity = maximumCapacity;
     }
     
+    /**
+     * Discard the entries at and after an index, such that the next entry
+     * added is at that index.
+     *
+     * @param size the index of the first entry to discard.
+     */
+    public void truncate(int size) {
+        _size = size;
+        if (_readOnlyArraySize > size) {
+            _readOnlyArraySize = size;
+        }
+    }
+    
+    /**
+     * @return true if the next entry added is at the index of an entry
+     *         shared with another array.
+     */
+    public final boolean isNextShared() {
+        return _size < _sharedSize;
+    }
+
+    /**
+     * Set the entries of this array to be those of another array, such that
+     * the next entry added is at an index.
+     * <p>
+     * Entries subsequently added at the indexes of entries of the other
+     * array are taken to be equal to those entries, as when the same
+     * octets are decoded a second time, and so need not be stored.
+     * Arrays that can share the entries of the other array without copying
+     * them override this method, the entries are otherwise copied.
+     *
+     * @param array the array whose entries are shared.
+     * @param size the index of the next entry added.
+     */
+    public void setSharedArray(ValueArray array, int size) {
+        setReadOnlyArray(array, false);
+        truncate(size);
+    }
+
     public abstract void setReadOnlyArray(ValueArray array, boolean clear);
     
     public abstract void clear();
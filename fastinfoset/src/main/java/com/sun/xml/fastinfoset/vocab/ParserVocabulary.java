@@ -133,6 +133,23 @@ public class ParserVocabulary extends Vocabulary {
         setReadOnlyVocabulary(initialVocabulary, clear);
     }
     
+    /**
+     * Set the tables to share the entries of another vocabulary, as the
+     * tables were when they were of the given sizes, while that vocabulary
+     * is not modified.
+     *
+     * @param sharedVocabulary the vocabulary whose entries are shared.
+     * @param tableSizes the sizes of the tables, indexed as {@link #tables}.
+     * @see com.sun.xml.fastinfoset.util.ValueArray#setSharedArray
+     */
+    public void setSharedVocabulary(ParserVocabulary sharedVocabulary, int[] tableSizes) {
+        setExternalVocabularyURI(null);
+        setInitialReadOnlyVocabulary(true);
+        for (int i = 0; i < tables.length; i++) {
+            tables[i].setSharedArray(sharedVocabulary.tables[i], tableSizes[i]);
+        }
+    }
+    
     public void setReferencedVocabulary(String referencedVocabularyURI, ParserVocabulary referencedVocabulary, boolean clear) {
         if (!referencedVocabularyURI.equals(getExternalVocabularyURI())) {
             setInitialReadOnlyVocabulary(false);
@@ -23,6 +23,7 @@ module com.sun.xml.fastinfoset {
     exports com.sun.xml.fastinfoset;
     exports com.sun.xml.fastinfoset.algorithm;
     exports com.sun.xml.fastinfoset.alphabet;
+    exports com.sun.xml.fastinfoset.container;
     exports com.sun.xml.fastinfoset.dom;
     exports com.sun.xml.fastinfoset.sax;
     exports com.sun.xml.fastinfoset.stax;
@@ -103,4 +103,93 @@ public interface EncodingAlgorithmAttributes extends Attributes {
      * @return True if attribute value should be indexed, otherwise false.
      */
     boolean getToIndex(int index);
+
+    /**
+     * Return whether the attribute value is a single value of the
+     * built-in int, long or double encoding algorithm that is held
+     * without an array.
+     *
+     * <p>The algorithm is returned by {@link #getAlgorithmIndex(int)} and
+     *    the value by {@link #getIntValue(int)}, {@link #getLongValue(int)}
+     *    or {@link #getDoubleValue(int)}. {@link #getAlgorithmData(int)}
+     *    returns an array of the one value.</p>
+     *
+     * @param index The attribute index (zero-based).
+     * @return True if the attribute value is a single primitive value,
+     *         otherwise false.
+     */
+    default boolean hasPrimitiveValue(int index) {
+        return false;
+    }
+
+    /**
+     * Return the attribute value as an int.
+     *
+     * <p>The value is the int of algorithm data that is a single int or
+     *    short, otherwise the attribute value is parsed as an int.</p>
+     *
+     * @param index The attribute index (zero-based).
+     * @return The int value.
+     * @throws NumberFormatException if the attribute value is not an int.
+     */
+    default int getIntValue(int index) {
+        final Object data = getAlgorithmData(index);
+        if (data instanceof int[] && ((int[]) data).length == 1) {
+            return ((int[]) data)[0];
+        } else if (data instanceof short[] && ((short[]) data).length == 1) {
+            return ((short[]) data)[0];
+        }
+        return Integer.parseInt(trim(getValue(index)));
+    }
+
+    /**
+     * Return the attribute value as a long.
+     *
+     * <p>The value is the long of algorithm data that is a single long,
+     *    int or short, otherwise the attribute value is parsed as a
+     *    long.</p>
+     *
+     * @param index The attribute index (zero-based).
+     * @return The long value.
+     * @throws NumberFormatException if the attribute value is not a long.
+     */
+    default long getLongValue(int index) {
+        final Object data = getAlgorithmData(index);
+        if (data instanceof long[] && ((long[]) data).length == 1) {
+            return ((long[]) data)[0];
+        } else if (data instanceof int[] && ((int[]) data).length == 1) {
+            return ((int[]) data)[0];
+        } else if (data instanceof short[] && ((short[]) data).length == 1) {
+            return ((short[]) data)[0];
+        }
+        return Long.parseLong(trim(getValue(index)));
+    }
+
+    /**
+     * Return the attribute value as a double.
+     *
+     * <p>The value is the double of algorithm data that is a single double
+     *    or float, otherwise the attribute value is parsed as a double.</p>
+     *
+     * @param index The attribute index (zero-based).
+     * @return The double value.
+     * @throws NumberFormatException if the attribute value is not a double.
+     */
+    default double getDoubleValue(int index) {
+        final Object data = getAlgorithmData(index);
+        if (data instanceof double[] && ((double[]) data).length == 1) {
+            return ((double[]) data)[0];
+        } else if (data instanceof float[] && ((float[]) data).length == 1) {
+            return ((float[]) data)[0];
+        }
+        final String value = getValue(index);
+        if (value == null) {
+            throw new NumberFormatException("null");
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static String trim(String s) {
+        return (s != null) ? s.trim() : null;
+    }
 }
@@ -52,6 +52,11 @@ import org.xml.sax.SAXException;
  * return all contiguous primtive types in a single chunk, or they may split 
  * it into several chunks</p>
  *
+ * <p>The notifications of the chunks of each character information item
+ * are preceded by a call to {@link #startPrimitives startPrimitives} and
+ * followed by a call to {@link #endPrimitives endPrimitives}. The array
+ * of a chunk may be reused by the parser for the next chunk.</p>
+ *
  * <p>The application must not attempt to read from the array
  * outside of the specified range.</p>
  *
@@ -211,4 +216,34 @@ public interface PrimitiveTypeContentHandler {
      *            wrapping another exception
      */
     void uuids(long[] msblsb, int start, int length) throws SAXException;
+
+    /**
+     * Receive notification of the start of the primitive types of a
+     * character information item.
+     *
+     * <p>The primitive types are reported in one or more chunks by
+     * notifications of the method corresponding to the encoding
+     * algorithm, followed by a notification of
+     * {@link #endPrimitives endPrimitives}.</p>
+     *
+     * @param algorithm the index of the encoding algorithm, see
+     *        {@link org.jvnet.fastinfoset.EncodingAlgorithmIndexes}
+     * @param length the number of primitive types that are reported, the
+     *        number of long for the "uuid" encoding algorithm and the number
+     *        of byte for the "base64" and "hexadecimal" encoding algorithms
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     */
+    default void startPrimitives(int algorithm, int length) throws SAXException {
+    }
+
+    /**
+     * Receive notification of the end of the primitive types of a
+     * character information item.
+     *
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     */
+    default void endPrimitives() throws SAXException {
+    }
 }
@@ -73,6 +73,14 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
     
     private boolean[] _toIndex;
     
+    /*
+     * Single values of the built-in int, long and double algorithms that
+     * are held without an array. A double is held as its bits.
+     */
+    private boolean[] _primitive;
+    
+    private long[] _primitiveValues;
+    
     /**
      * Construct a new, empty EncodingAlgorithmAttributesImpl object.
      */
@@ -109,6 +117,8 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _algorithmData = new Object[DEFAULT_CAPACITY];
         _alphabets = new String[DEFAULT_CAPACITY];
         _toIndex = new boolean[DEFAULT_CAPACITY];
+        _primitive = new boolean[DEFAULT_CAPACITY];
+        _primitiveValues = new long[DEFAULT_CAPACITY];
         
         _registeredEncodingAlgorithms = registeredEncodingAlgorithms;
         
@@ -129,6 +139,7 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         for (int i = 0; i < _length; i++) {
             _data[i * SIZE + VALUE_OFFSET] = null;
             _algorithmData[i] = null;
+            _primitive[i] = false;
         }
         _length = 0;
     }
@@ -164,6 +175,7 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _data[i++] = replaceNull(value);
         _toIndex[_length] = false;
         _alphabets[_length] = null;
+        _primitive[_length] = false;
         
         _length++;
     }
@@ -202,6 +214,7 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _data[i++] = replaceNull(value);
         _toIndex[_length] = index;
         _alphabets[_length] = alphabet;
+        _primitive[_length] = false;
         
         _length++;
     }
@@ -240,6 +253,7 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _algorithmData[_length] = algorithmData;
         _toIndex[_length] = false;
         _alphabets[_length] = null;
+        _primitive[_length] = false;
         
         _length++;
     }
@@ -279,6 +293,7 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _algorithmData[_length] = algorithmData;
         _toIndex[_length] = false;
         _alphabets[_length] = null;
+        _primitive[_length] = false;
         
         _length++;
     }
@@ -306,6 +321,91 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _algorithmData[index] = algorithmData;
         _toIndex[index] = false;
         _alphabets[index] = null;
+        _primitive[index] = false;
+    }
+    
+    /**
+     * Add an attribute with a single value of the built in int encoding
+     * algorithm to the end of the list.
+     *
+     * <p>The value is held without an array, see
+     * {@link #hasPrimitiveValue(int)}.</p>
+     *
+     * @param URI The Namespace URI, or the empty string if
+     *        none is available or Namespace processing is not
+     *        being performed.
+     * @param localName The local name, or the empty string if
+     *        Namespace processing is not being performed.
+     * @param qName The qualified (prefixed) name, or the empty string
+     *        if qualified names are not available.
+     * @param value The int value.
+     */
+    public void addAttributeWithIntValue(String URI, String localName, String qName, int value) {
+        addAttributeWithPrimitiveValue(URI, localName, qName, EncodingAlgorithmIndexes.INT, value);
+    }
+    
+    /**
+     * Add an attribute with a single value of the built in long encoding
+     * algorithm to the end of the list.
+     *
+     * <p>The value is held without an array, see
+     * {@link #hasPrimitiveValue(int)}.</p>
+     *
+     * @param URI The Namespace URI, or the empty string if
+     *        none is available or Namespace processing is not
+     *        being performed.
+     * @param localName The local name, or the empty string if
+     *        Namespace processing is not being performed.
+     * @param qName The qualified (prefixed) name, or the empty string
+     *        if qualified names are not available.
+     * @param value The long value.
+     */
+    public void addAttributeWithLongValue(String URI, String localName, String qName, long value) {
+        addAttributeWithPrimitiveValue(URI, localName, qName, EncodingAlgorithmIndexes.LONG, value);
+    }
+    
+    /**
+     * Add an attribute with a single value of the built in double encoding
+     * algorithm to the end of the list.
+     *
+     * <p>The value is held without an array, see
+     * {@link #hasPrimitiveValue(int)}.</p>
+     *
+     * @param URI The Namespace URI, or the empty string if
+     *        none is available or Namespace processing is not
+     *        being performed.
+     * @param localName The local name, or the empty string if
+     *        Namespace processing is not being performed.
+     * @param qName The qualified (prefixed) name, or the empty string
+     *        if qualified names are not available.
+     * @param value The double value.
+     */
+    public void addAttributeWithDoubleValue(String URI, String localName, String qName, double value) {
+        addAttributeWithPrimitiveValue(URI, localName, qName, EncodingAlgorithmIndexes.DOUBLE,
+                Double.doubleToRawLongBits(value));
+    }
+    
+    private void addAttributeWithPrimitiveValue(String URI, String localName, String qName,
+            int algorithmID, long value) {
+        if (_length >= _algorithmData.length) {
+            resize();
+        }
+        
+        int i = _length * SIZE;
+        _data[i++] = replaceNull(URI);
+        _data[i++] = replaceNull(localName);
+        _data[i++] = replaceNull(qName);
+        _data[i++] = "CDATA";
+        _data[i++] = null;
+        _data[i++] = null;
+        _algorithmIds[_length] = algorithmID;
+        _algorithmData[_length] = null;
+        _toIndex[_length] = false;
+        _alphabets[_length] = null;
+        _primitive[_length] = true;
+        _primitiveValues[_length] = value;
+        
+        _length++;
     }
     
     /**
@@ -331,6 +431,7 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
                 index++;
                 _toIndex[i] = false;
                 _alphabets[i] = null;
+                _primitive[i] = false;
             }
         }
     }
@@ -354,12 +455,23 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
                 _data[index++] = atts.getLocalName(i);
                 _data[index++] = atts.getQName(i);
                 _data[index++] = atts.getType(i);
+                _toIndex[i] = false;
+                _alphabets[i] = null;
+                _primitive[i] = atts.hasPrimitiveValue(i);
+                if (_primitive[i]) {
+                    // The value is converted to characters when first read
+                    _data[index++] = null;
+                    _data[index++] = null;
+                    _algorithmIds[i] = atts.getAlgorithmIndex(i);
+                    _algorithmData[i] = null;
+                    _primitiveValues[i] = (_algorithmIds[i] == EncodingAlgorithmIndexes.DOUBLE) ?
+                        Double.doubleToRawLongBits(atts.getDoubleValue(i)) : atts.getLongValue(i);
+                    continue;
+                }
                 _data[index++] = atts.getValue(i);
                 _data[index++] = atts.getAlgorithmURI(i);
                 _algorithmIds[i] = atts.getAlgorithmIndex(i);
                 _algorithmData[i] = atts.getAlgorithmData(i);
-                _toIndex[i] = false;
-                _alphabets[i] = null;
             }
         }
     }
@@ -416,6 +528,11 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
             return null;
         }
         
+        if (_primitive[index]) {
+            return _data[index * SIZE + VALUE_OFFSET] = convertPrimitiveValueToString(
+                    _algorithmIds[index], _primitiveValues[index]);
+        }
+        
         if (_algorithmData[index] == null || _registeredEncodingAlgorithms == null) {
             return null;
         }
@@ -514,12 +631,45 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
     @Override
     public final Object getAlgorithmData(int index) {
         if (index >= 0 && index < _length) {
+            if (_primitive[index] && _algorithmData[index] == null) {
+                _algorithmData[index] = createPrimitiveArray(_algorithmIds[index], _primitiveValues[index]);
+            }
             return _algorithmData[index];
         } else {
             return null;
         }
     }
     
+    @Override
+    public final boolean hasPrimitiveValue(int index) {
+        return index >= 0 && index < _length && _primitive[index];
+    }
+    
+    @Override
+    public final int getIntValue(int index) {
+        if (hasPrimitiveValue(index) && _algorithmIds[index] == EncodingAlgorithmIndexes.INT) {
+            return (int) _primitiveValues[index];
+        }
+        return EncodingAlgorithmAttributes.super.getIntValue(index);
+    }
+    
+    @Override
+    public final long getLongValue(int index) {
+        if (hasPrimitiveValue(index) && _algorithmIds[index] != EncodingAlgorithmIndexes.DOUBLE) {
+            return _primitiveValues[index];
+        }
+        return EncodingAlgorithmAttributes.super.getLongValue(index);
+    }
+    
+    @Override
+    public final double getDoubleValue(int index) {
+        if (hasPrimitiveValue(index)) {
+            return (_algorithmIds[index] == EncodingAlgorithmIndexes.DOUBLE) ?
+                Double.longBitsToDouble(_primitiveValues[index]) : _primitiveValues[index];
+        }
+        return EncodingAlgorithmAttributes.super.getDoubleValue(index);
+    }
+    
     // ExtendedAttributes
     
     @Override
@@ -552,6 +702,10 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         _data = new String[newLength * SIZE];
         _algorithmIds = new int[newLength];
         _algorithmData = new Object[newLength];
+        _alphabets = new String[newLength];
+        _toIndex = new boolean[newLength];
+        _primitive = new boolean[newLength];
+        _primitiveValues = new long[newLength];
     }
     
     private void resize() {
@@ -562,18 +716,46 @@ public class EncodingAlgorithmAttributesImpl implements EncodingAlgorithmAttribu
         Object[] algorithmData = new Object[newLength];
         String[] alphabets = new String[newLength];
         boolean[] toIndex = new boolean[newLength];
+        boolean[] primitive = new boolean[newLength];
+        long[] primitiveValues = new long[newLength];
         
         System.arraycopy(_data, 0, data, 0, _length * SIZE);
         System.arraycopy(_algorithmIds, 0, algorithmIds, 0, _length);
         System.arraycopy(_algorithmData, 0, algorithmData, 0, _length);
         System.arraycopy(_alphabets, 0, alphabets, 0, _length);
         System.arraycopy(_toIndex, 0, toIndex, 0, _length);
+        System.arraycopy(_primitive, 0, primitive, 0, _length);
+        System.arraycopy(_primitiveValues, 0, primitiveValues, 0, _length);
         
         _data = data;
         _algorithmIds = algorithmIds;
         _algorithmData = algorithmData;
         _alphabets = alphabets;
         _toIndex = toIndex;
+        _primitive = primitive;
+        _primitiveValues = primitiveValues;
+    }
+    
+    private static Object createPrimitiveArray(int id, long value) {
+        switch (id) {
+            case EncodingAlgorithmIndexes.INT:
+                return new int[] {(int) value};
+            case EncodingAlgorithmIndexes.LONG:
+                return new long[] {value};
+            default:
+                return new double[] {Double.longBitsToDouble(value)};
+        }
+    }
+    
+    private static String convertPrimitiveValueToString(int id, long value) {
+        switch (id) {
+            case EncodingAlgorithmIndexes.INT:
+                return Integer.toString((int) value);
+            case EncodingAlgorithmIndexes.LONG:
+                return Long.toString(value);
+            default:
+                return Double.toString(Double.longBitsToDouble(value));
+        }
     }
     
     private StringBuffer convertEncodingAlgorithmDataToString(
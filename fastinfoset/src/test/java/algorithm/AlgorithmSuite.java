@@ -39,6 +39,12 @@ public class AlgorithmSuite extends TestCase {
     public static junit.framework.Test suite() {
         junit.framework.TestSuite suite = new junit.framework.TestSuite("AlgorithmSuite");
         suite.addTest(algorithm.AlgorithmTest.suite());
+        suite.addTestSuite(algorithm.NumericCharactersTest.class);
+        suite.addTestSuite(algorithm.OctetConversionTest.class);
+        suite.addTestSuite(algorithm.DeltaEncodingAlgorithmTest.class);
+        suite.addTestSuite(algorithm.XorDoubleEncodingAlgorithmTest.class);
+        suite.addTestSuite(algorithm.DeflateTextEncodingAlgorithmTest.class);
+        suite.addTestSuite(algorithm.BinaryCharactersTest.class);
         return suite;
     }
     
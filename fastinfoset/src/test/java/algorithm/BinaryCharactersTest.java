@@ -0,0 +1,213 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithm;
+
+import com.sun.xml.fastinfoset.algorithm.BASE64EncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.BooleanEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.HexadecimalEncodingAlgorithm;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.sax.helpers.FastInfosetDefaultHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class BinaryCharactersTest extends TestCase {
+    private final Random _random = new Random(48);
+
+    public void testBase64() throws Exception {
+        BASE64EncodingAlgorithm a = new BASE64EncodingAlgorithm();
+        for (int length : new int[] {0, 1, 2, 3, 4, 5, 100, 3 * 1024 + 1, 10000}) {
+            byte[] data = createData(length);
+            String s = Base64.getEncoder().encodeToString(data);
+
+            assertTrue(Arrays.equals(data, (byte[]) convert(a, s)));
+            assertTrue(Arrays.equals(data, (byte[]) convert(a, insertWhiteSpace(s))));
+            assertEquals(s, toStringBuffer(a, data));
+            assertEquals(s, toStringBuilder(a, data));
+
+            char[] ch = new char[BASE64EncodingAlgorithm.getCharacterLengthFromOctetLength(length) + 2];
+            assertEquals(ch.length - 1, a.convertToCharacters(data, 0, length, ch, 1));
+            assertEquals(s, new String(ch, 1, ch.length - 2));
+        }
+
+        // Padding may be omitted
+        assertTrue(Arrays.equals(new byte[] {1, 2}, (byte[]) convert(a, "AQI")));
+        assertTrue(Arrays.equals(new byte[] {1}, (byte[]) convert(a, "AQ = = \n")));
+        assertTrue(Arrays.equals(new byte[0], (byte[]) convert(a, " \t ")));
+
+        assertInvalid(a, "AQI*");
+        assertInvalid(a, "AQI\u00e9");
+        assertInvalid(a, "A");
+        assertInvalid(a, "AQ==AQ==");
+        assertInvalid(a, "====");
+    }
+
+    public void testHexadecimal() throws Exception {
+        HexadecimalEncodingAlgorithm a = new HexadecimalEncodingAlgorithm();
+        for (int length : new int[] {0, 1, 2, 100, 2049, 10000}) {
+            byte[] data = createData(length);
+            StringBuilder b = new StringBuilder();
+            for (byte o : data) {
+                b.append(String.format("%02X", o & 0xFF));
+            }
+            String s = b.toString();
+
+            assertTrue(Arrays.equals(data, (byte[]) convert(a, s)));
+            assertTrue(Arrays.equals(data, (byte[]) convert(a, s.toLowerCase())));
+            assertTrue(Arrays.equals(data, (byte[]) convert(a, insertWhiteSpace(s))));
+            assertEquals(s, toStringBuffer(a, data));
+            assertEquals(s, toStringBuilder(a, data));
+        }
+
+        assertTrue(Arrays.equals(new byte[] {(byte) 0xAB}, (byte[]) convert(a, " a\nB c")));
+        assertInvalid(a, "0G");
+        assertInvalid(a, "0/");
+        assertInvalid(a, "\u0660\u0661");
+    }
+
+    public void testBoolean() throws Exception {
+        BooleanEncodingAlgorithm a = new BooleanEncodingAlgorithm();
+        for (int length = 0; length < 40; length++) {
+            boolean[] data = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = _random.nextBoolean();
+            }
+
+            byte[] expected = encodeBooleans(data);
+            assertEquals(expected.length, a.getOctetLengthFromPrimitiveLength(length));
+
+            byte[] b = new byte[expected.length + 2];
+            a.encodeToBytes(data, 0, length, b, 1);
+            assertTrue(Arrays.equals(expected, Arrays.copyOfRange(b, 1, b.length - 1)));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            a.encodeToOutputStream(data, out);
+            assertTrue(Arrays.equals(expected, out.toByteArray()));
+            assertTrue(Arrays.equals(data, (boolean[]) a.decodeFromInputStream(new ByteArrayInputStream(expected))));
+            if (length > 0) {
+                assertTrue(Arrays.equals(data, (boolean[]) a.decodeFromBytes(b, 1, expected.length)));
+            }
+
+            String s = Arrays.toString(data).replaceAll("[\\[\\],]", "");
+            assertTrue(Arrays.equals(data, (boolean[]) convert(a, s)));
+            assertTrue(Arrays.equals(data, (boolean[]) convert(a, "\n " + s.replace(" ", " \t\r\n ") + " ")));
+            assertEquals(s, toStringBuffer(a, data));
+            assertEquals(s, toStringBuilder(a, data));
+        }
+    }
+
+    public void testBooleansDocument() throws Exception {
+        for (int length : new int[] {1, 13, 14, 15, 300}) {
+            boolean[] data = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = _random.nextBoolean();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            SAXDocumentSerializer s = new SAXDocumentSerializer();
+            s.setOutputStream(out);
+            s.startDocument();
+            s.startElement("", "e", "e", new AttributesImpl());
+            s.booleans(data, 0, data.length);
+            s.endElement("", "e", "e");
+            s.endDocument();
+
+            final List<boolean[]> values = new ArrayList<>();
+            SAXDocumentParser p = new SAXDocumentParser();
+            FastInfosetDefaultHandler h = new FastInfosetDefaultHandler() {
+                @Override
+                public void booleans(boolean[] b, int start, int length) {
+                    values.add(Arrays.copyOfRange(b, start, start + length));
+                }
+            };
+            p.setContentHandler(h);
+            p.setPrimitiveTypeContentHandler(h);
+            p.parse(new ByteArrayInputStream(out.toByteArray()));
+
+            assertEquals(1, values.size());
+            assertTrue(Arrays.equals(data, values.get(0)));
+        }
+    }
+
+    private byte[] createData(int length) {
+        byte[] data = new byte[length];
+        _random.nextBytes(data);
+        return data;
+    }
+
+    private String insertWhiteSpace(String s) {
+        StringBuilder b = new StringBuilder(" ");
+        for (int i = 0; i < s.length(); i++) {
+            b.append(s.charAt(i));
+            if (_random.nextInt(5) == 0) {
+                b.append(" \t\r\n".charAt(_random.nextInt(4)));
+            }
+        }
+        return b.append('\n').toString();
+    }
+
+    /*
+     * The octets of booleans, packed one bit at a time.
+     */
+    private static byte[] encodeBooleans(boolean[] data) {
+        int bits = 4 + data.length;
+        byte[] b = new byte[(bits + 7) / 8];
+        b[0] = (byte) (((8 - bits % 8) % 8) << 4);
+        for (int i = 0; i < data.length; i++) {
+            if (data[i]) {
+                b[(i + 4) / 8] |= 0x80 >>> ((i + 4) % 8);
+            }
+        }
+        return b;
+    }
+
+    private static Object convert(BuiltInEncodingAlgorithm a, String s) throws Exception {
+        // Characters outside of the converted range are not converted
+        String padded = "*" + s + "*";
+        return a.convertFromCharacters(padded.toCharArray(), 1, s.length());
+    }
+
+    private static String toStringBuffer(BuiltInEncodingAlgorithm a, Object data) throws Exception {
+        StringBuffer b = new StringBuffer("*");
+        a.convertToCharacters(data, b);
+        return b.substring(1);
+    }
+
+    private static String toStringBuilder(BuiltInEncodingAlgorithm a, Object data) throws Exception {
+        StringBuilder b = new StringBuilder("*");
+        a.convertToCharacters(data, b);
+        return b.substring(1);
+    }
+
+    private static void assertInvalid(BuiltInEncodingAlgorithm a, String s) throws Exception {
+        try {
+            convert(a, s);
+            fail(s);
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
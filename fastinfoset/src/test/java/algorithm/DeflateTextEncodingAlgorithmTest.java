@@ -0,0 +1,232 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithm;
+
+import com.sun.xml.fastinfoset.algorithm.DeflateTextEncodingAlgorithm;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class DeflateTextEncodingAlgorithmTest extends TestCase {
+    private static final String EXTERNAL_VOCABULARY_URI_STRING = "urn:external-vocabulary";
+
+    private static final byte[] DICTIONARY = "level=INFO message=request completed in ms status=200"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Random _random = new Random(46);
+
+    public void testRoundTrip() throws Exception {
+        String[] texts = {"", "a", createLog(1000), "\u00e9\u4e2d\ud83d\ude00 " + createLog(10)};
+        EncodingAlgorithm[] algorithms = {
+            new DeflateTextEncodingAlgorithm(),
+            new DeflateTextEncodingAlgorithm(Deflater.BEST_SPEED, DICTIONARY)
+        };
+        for (EncodingAlgorithm a : algorithms) {
+            for (String text : texts) {
+                byte[] b = encode(a, text);
+
+                // Octets before and after the data are not decoded
+                byte[] padded = new byte[b.length + 2];
+                System.arraycopy(b, 0, padded, 1, b.length);
+                assertEquals(text, a.decodeFromBytes(padded, 1, b.length));
+
+                assertEquals(text, a.decodeFromInputStream(new OneOctetInputStream(b)));
+
+                StringBuffer s = new StringBuffer();
+                a.convertToCharacters(a.convertFromCharacters(text.toCharArray(), 0, text.length()), s);
+                assertEquals(text, s.toString());
+            }
+        }
+    }
+
+    public void testDictionary() throws Exception {
+        String text = "level=INFO message=request completed in 12 ms status=200";
+        EncodingAlgorithm a = new DeflateTextEncodingAlgorithm();
+        EncodingAlgorithm d = new DeflateTextEncodingAlgorithm(Deflater.DEFAULT_COMPRESSION, DICTIONARY);
+        byte[] b = encode(d, text);
+        assertTrue(b.length < encode(a, text).length);
+
+        // The same dictionary is required to decode
+        assertInvalid(a, b);
+        assertInvalid(new DeflateTextEncodingAlgorithm(Deflater.DEFAULT_COMPRESSION, new byte[] {1, 2, 3}), b);
+    }
+
+    public void testInvalidOctets() throws Exception {
+        EncodingAlgorithm a = new DeflateTextEncodingAlgorithm();
+        byte[] b = encode(a, createLog(100));
+        assertInvalid(a, Arrays.copyOf(b, b.length / 2));
+        assertInvalid(a, new byte[] {1, 2, 3, 4});
+    }
+
+    public void testLargeCharacterContentChunks() throws Exception {
+        String log = createLog(1000);
+        String small = "small text";
+        StringBuilder random = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            random.append((char) (0x4e00 + _random.nextInt(0x5000)));
+        }
+        String[] texts = {log, small, random.toString()};
+
+        byte[] plain = createDocument(texts, false);
+        byte[] compressed = createDocument(texts, true);
+        assertTrue(compressed.length < plain.length - log.length() / 2);
+
+        // Only the log is compressed
+        byte[] expected = createDocument(new String[] {small, random.toString()}, false);
+        byte[] actual = createDocument(new String[] {small, random.toString()}, true);
+        assertTrue(Arrays.equals(expected, actual));
+
+        String expectedText = log + small + random;
+        assertEquals(expectedText, parseSAX(compressed));
+        assertEquals(expectedText, parseStAX(compressed));
+    }
+
+    private String createLog(int lines) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            b.append("level=INFO message=request completed in ").append(_random.nextInt(100))
+                    .append(" ms status=200\n");
+        }
+        return b.toString();
+    }
+
+    private static byte[] createDocument(String[] texts, boolean compress) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        s.setOutputStream(out);
+        SerializerVocabulary externalVocabulary = new SerializerVocabulary();
+        externalVocabulary.encodingAlgorithm.add(DeflateTextEncodingAlgorithm.URI);
+        SerializerVocabulary initialVocabulary = new SerializerVocabulary();
+        initialVocabulary.setExternalVocabulary(EXTERNAL_VOCABULARY_URI_STRING,
+                externalVocabulary, false);
+        s.setVocabulary(initialVocabulary);
+        s.setRegisteredEncodingAlgorithms(createAlgorithms());
+        if (compress) {
+            s.setLargeCharacterContentChunkAlgorithm(DeflateTextEncodingAlgorithm.URI, 256);
+        }
+
+        s.startDocument();
+        s.startElement("", "e", "e", new AttributesImpl());
+        for (String text : texts) {
+            s.startElement("", "t", "t", new AttributesImpl());
+            s.characters(text.toCharArray(), 0, text.length());
+            s.endElement("", "t", "t");
+        }
+        s.endElement("", "e", "e");
+        s.endDocument();
+        return out.toByteArray();
+    }
+
+    private static String parseSAX(byte[] b) throws Exception {
+        SAXDocumentParser p = new SAXDocumentParser();
+        p.setExternalVocabularies(createExternalVocabularies());
+        p.setRegisteredEncodingAlgorithms(createAlgorithms());
+
+        final StringBuilder text = new StringBuilder();
+        p.setContentHandler(new DefaultHandler() {
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                text.append(ch, start, length);
+            }
+        });
+        p.parse(new ByteArrayInputStream(b));
+        return text.toString();
+    }
+
+    private static String parseStAX(byte[] b) throws Exception {
+        StAXDocumentParser p = new StAXDocumentParser();
+        p.setExternalVocabularies(createExternalVocabularies());
+        p.setRegisteredEncodingAlgorithms(createAlgorithms());
+        p.setInputStream(new ByteArrayInputStream(b));
+
+        StringBuilder text = new StringBuilder();
+        while (p.hasNext()) {
+            if (p.next() == XMLStreamReader.CHARACTERS) {
+                text.append(p.getText());
+            }
+        }
+        return text.toString();
+    }
+
+    private static Map<String, ParserVocabulary> createExternalVocabularies() {
+        ParserVocabulary externalVocabulary = new ParserVocabulary();
+        externalVocabulary.encodingAlgorithm.add(DeflateTextEncodingAlgorithm.URI);
+        Map<String, ParserVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(EXTERNAL_VOCABULARY_URI_STRING, externalVocabulary);
+        return externalVocabularies;
+    }
+
+    private static Map<String, EncodingAlgorithm> createAlgorithms() {
+        Map<String, EncodingAlgorithm> algorithms = new HashMap<>();
+        algorithms.put(DeflateTextEncodingAlgorithm.URI, new DeflateTextEncodingAlgorithm());
+        return algorithms;
+    }
+
+    private static byte[] encode(EncodingAlgorithm a, String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        a.encodeToOutputStream(text, out);
+        return out.toByteArray();
+    }
+
+    private static void assertInvalid(EncodingAlgorithm a, byte[] b) throws Exception {
+        try {
+            a.decodeFromBytes(b, 0, b.length);
+            fail();
+        } catch (EncodingAlgorithmException e) {
+        }
+        try {
+            a.decodeFromInputStream(new ByteArrayInputStream(b));
+            fail();
+        } catch (EncodingAlgorithmException e) {
+        }
+    }
+
+    /*
+     * A stream that reads at most one octet at a time.
+     */
+    private static final class OneOctetInputStream extends FilterInputStream {
+        OneOctetInputStream(byte[] b) {
+            super(new ByteArrayInputStream(b));
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithm;
+
+import com.sun.xml.fastinfoset.algorithm.DeltaIntEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.DeltaLongEncodingAlgorithm;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+import org.jvnet.fastinfoset.FastInfosetParser;
+import org.jvnet.fastinfoset.sax.helpers.FastInfosetDefaultHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class DeltaEncodingAlgorithmTest extends TestCase {
+    private static final String EXTERNAL_VOCABULARY_URI_STRING = "urn:external-vocabulary";
+
+    private final Random _random = new Random(44);
+
+    public void testIntRoundTrip() throws Exception {
+        DeltaIntEncodingAlgorithm a = new DeltaIntEncodingAlgorithm();
+        int[][] data = {
+            {},
+            {0},
+            {Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, -1, 1},
+            randomInts(1000)
+        };
+        for (int[] d : data) {
+            assertTrue(Arrays.equals(d, (int[]) decode(a, encode(a, d))));
+        }
+    }
+
+    public void testLongRoundTrip() throws Exception {
+        DeltaLongEncodingAlgorithm a = new DeltaLongEncodingAlgorithm();
+        long[] random = new long[1000];
+        for (int i = 0; i < random.length; i++) {
+            random[i] = _random.nextLong() >> _random.nextInt(64);
+        }
+        long[][] data = {
+            {},
+            {0},
+            {Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0, -1, 1},
+            random
+        };
+        for (long[] d : data) {
+            assertTrue(Arrays.equals(d, (long[]) decode(a, encode(a, d))));
+        }
+    }
+
+    public void testMonotonicData() throws Exception {
+        int[] data = new int[1000];
+        long[] ldata = new long[data.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1000000 + i * 10 + _random.nextInt(5);
+            ldata[i] = 1700000000000L + data[i];
+        }
+
+        DeltaIntEncodingAlgorithm a = new DeltaIntEncodingAlgorithm();
+        byte[] b = encode(a, data);
+        assertEquals(a.getOctetLength(data, 0, data.length), b.length);
+        // The first value takes 3 octets, the deltas one octet each
+        assertEquals(3 + data.length - 1, b.length);
+        assertTrue(b.length < data.length * 4);
+
+        DeltaLongEncodingAlgorithm la = new DeltaLongEncodingAlgorithm();
+        b = encode(la, ldata);
+        assertEquals(la.getOctetLength(ldata, 0, ldata.length), b.length);
+        assertTrue(b.length < ldata.length * 2);
+    }
+
+    public void testInvalidOctets() throws Exception {
+        DeltaIntEncodingAlgorithm a = new DeltaIntEncodingAlgorithm();
+        // Truncated
+        assertInvalid(a, new byte[] {0x01, (byte) 0x80});
+        // Too long
+        assertInvalid(a, new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01});
+
+        DeltaLongEncodingAlgorithm la = new DeltaLongEncodingAlgorithm();
+        byte[] b = new byte[11];
+        Arrays.fill(b, (byte) 0x80);
+        b[10] = 0x01;
+        assertInvalid(la, b);
+        assertInvalid(la, new byte[] {(byte) 0xFF});
+    }
+
+    public void testSAX() throws Exception {
+        int[] data = randomInts(100);
+        long[] ldata = new long[] {Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE};
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        s.setOutputStream(out);
+        s.setVocabulary(createSerializerVocabulary());
+        s.setRegisteredEncodingAlgorithms(createAlgorithms());
+        s.setIntsEncodingAlgorithmURI(DeltaIntEncodingAlgorithm.URI);
+        s.setLongsEncodingAlgorithmURI(DeltaLongEncodingAlgorithm.URI);
+
+        s.startDocument();
+        s.startElement("", "e", "e", new AttributesImpl());
+        s.ints(data, 0, data.length);
+        s.startElement("", "l", "l", new AttributesImpl());
+        // Part of an array
+        s.longs(ldata, 1, 3);
+        s.endElement("", "l", "l");
+        s.endElement("", "e", "e");
+        s.endDocument();
+
+        List<Object> values = parse(out.toByteArray());
+        assertEquals(2, values.size());
+        assertTrue(Arrays.equals(data, (int[]) values.get(0)));
+        assertTrue(Arrays.equals(new long[] {-1, 0, 1}, (long[]) values.get(1)));
+    }
+
+    public void testStAX() throws Exception {
+        int[] data = randomInts(100);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer s = new StAXDocumentSerializer();
+        s.setOutputStream(out);
+        s.setVocabulary(createSerializerVocabulary());
+        s.setRegisteredEncodingAlgorithms(createAlgorithms());
+
+        s.writeStartDocument();
+        s.writeStartElement("e");
+        s.writeAlgorithmData(DeltaIntEncodingAlgorithm.URI, 0, data);
+        s.writeEndElement();
+        s.writeEndDocument();
+        s.close();
+
+        List<Object> values = parse(out.toByteArray());
+        assertEquals(1, values.size());
+        assertTrue(Arrays.equals(data, (int[]) values.get(0)));
+    }
+
+    private int[] randomInts(int length) {
+        int[] data = new int[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = _random.nextInt() >> _random.nextInt(32);
+        }
+        return data;
+    }
+
+    private static byte[] encode(EncodingAlgorithm a, Object data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        a.encodeToOutputStream(data, out);
+        return out.toByteArray();
+    }
+
+    private static Object decode(EncodingAlgorithm a, byte[] b) throws Exception {
+        // Octets before and after the data are not decoded
+        byte[] padded = new byte[b.length + 2];
+        System.arraycopy(b, 0, padded, 1, b.length);
+        Object data = a.decodeFromBytes(padded, 1, b.length);
+
+        Object streamData = a.decodeFromInputStream(new ByteArrayInputStream(b));
+        assertTrue(Arrays.deepEquals(new Object[] {data}, new Object[] {streamData}));
+        return data;
+    }
+
+    private static void assertInvalid(EncodingAlgorithm a, byte[] b) throws Exception {
+        try {
+            a.decodeFromBytes(b, 0, b.length);
+            fail();
+        } catch (EncodingAlgorithmException e) {
+        }
+    }
+
+    private static Map<String, EncodingAlgorithm> createAlgorithms() {
+        Map<String, EncodingAlgorithm> algorithms = new HashMap<>();
+        algorithms.put(DeltaIntEncodingAlgorithm.URI, new DeltaIntEncodingAlgorithm());
+        algorithms.put(DeltaLongEncodingAlgorithm.URI, new DeltaLongEncodingAlgorithm());
+        return algorithms;
+    }
+
+    private static SerializerVocabulary createSerializerVocabulary() {
+        SerializerVocabulary externalVocabulary = new SerializerVocabulary();
+        externalVocabulary.encodingAlgorithm.add(DeltaIntEncodingAlgorithm.URI);
+        externalVocabulary.encodingAlgorithm.add(DeltaLongEncodingAlgorithm.URI);
+
+        SerializerVocabulary initialVocabulary = new SerializerVocabulary();
+        initialVocabulary.setExternalVocabulary(EXTERNAL_VOCABULARY_URI_STRING,
+                externalVocabulary, false);
+        return initialVocabulary;
+    }
+
+    private static List<Object> parse(byte[] b) throws Exception {
+        SAXDocumentParser p = new SAXDocumentParser();
+
+        ParserVocabulary externalVocabulary = new ParserVocabulary();
+        externalVocabulary.encodingAlgorithm.add(DeltaIntEncodingAlgorithm.URI);
+        externalVocabulary.encodingAlgorithm.add(DeltaLongEncodingAlgorithm.URI);
+        Map<String, ParserVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(EXTERNAL_VOCABULARY_URI_STRING, externalVocabulary);
+        p.setProperty(FastInfosetParser.EXTERNAL_VOCABULARIES_PROPERTY, externalVocabularies);
+        p.setRegisteredEncodingAlgorithms(createAlgorithms());
+
+        final List<Object> values = new ArrayList<>();
+        FastInfosetDefaultHandler h = new FastInfosetDefaultHandler() {
+            @Override
+            public void ints(int[] i, int start, int length) {
+                values.add(Arrays.copyOfRange(i, start, start + length));
+            }
+
+            @Override
+            public void longs(long[] l, int start, int length) {
+                values.add(Arrays.copyOfRange(l, start, start + length));
+            }
+        };
+        p.setContentHandler(h);
+        p.setPrimitiveTypeContentHandler(h);
+        p.parse(new ByteArrayInputStream(b));
+        return values;
+    }
+}
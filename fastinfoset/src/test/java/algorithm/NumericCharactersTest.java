@@ -0,0 +1,167 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithm;
+
+import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.DoubleEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.FloatEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.IntEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.LongEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.ShortEncodingAlgorithm;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+
+public class NumericCharactersTest extends TestCase {
+    private static final int VALUES = 1000;
+
+    private final Random _random = new Random(41);
+
+    public void testShort() throws Exception {
+        ShortEncodingAlgorithm a = new ShortEncodingAlgorithm();
+        short[] data = new short[VALUES];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (short) _random.nextInt();
+        }
+        data[0] = Short.MIN_VALUE;
+        data[1] = Short.MAX_VALUE;
+
+        String s = join(Arrays.toString(data));
+        assertTrue(Arrays.equals(data, (short[]) convert(a, s)));
+        assertEquals(s, toStringBuffer(a, data));
+        assertEquals(s, toStringBuilder(a, data));
+    }
+
+    public void testInt() throws Exception {
+        IntEncodingAlgorithm a = new IntEncodingAlgorithm();
+        int[] data = new int[VALUES];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = _random.nextInt() >> _random.nextInt(32);
+        }
+        data[0] = Integer.MIN_VALUE;
+        data[1] = Integer.MAX_VALUE;
+
+        String s = join(Arrays.toString(data));
+        assertTrue(Arrays.equals(data, (int[]) convert(a, s)));
+        assertEquals(s, toStringBuffer(a, data));
+        assertEquals(s, toStringBuilder(a, data));
+
+        assertTrue(Arrays.equals(new int[] {1, -2, 3, 0},
+                (int[]) convert(a, " \t+1\n-2\r\n  0003 -0 ")));
+        assertEquals(0, ((int[]) convert(a, " \n ")).length);
+        assertInvalid(a, "2147483648");
+        assertInvalid(a, "1-");
+        assertInvalid(a, "+");
+    }
+
+    public void testLong() throws Exception {
+        LongEncodingAlgorithm a = new LongEncodingAlgorithm();
+        long[] data = new long[VALUES];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = _random.nextLong() >> _random.nextInt(64);
+        }
+        data[0] = Long.MIN_VALUE;
+        data[1] = Long.MAX_VALUE;
+
+        String s = join(Arrays.toString(data));
+        assertTrue(Arrays.equals(data, (long[]) convert(a, s)));
+        assertEquals(s, toStringBuffer(a, data));
+        assertEquals(s, toStringBuilder(a, data));
+        assertInvalid(a, "9223372036854775808");
+    }
+
+    public void testFloat() throws Exception {
+        FloatEncodingAlgorithm a = new FloatEncodingAlgorithm();
+        float[] data = new float[VALUES];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Float.intBitsToFloat(_random.nextInt());
+        }
+        data[0] = Float.NaN;
+        data[1] = Float.NEGATIVE_INFINITY;
+        data[2] = -0.0f;
+        data[3] = Float.MIN_VALUE;
+
+        String s = join(Arrays.toString(data));
+        assertTrue(Arrays.equals(data, (float[]) convert(a, s)));
+        assertEquals(s, toStringBuffer(a, data));
+        assertEquals(s, toStringBuilder(a, data));
+
+        String[] lexical = {"1", "-1.5", "0.1", "3.4028235e38", "1.17549435E-38",
+            "123.4567e-3", "+.5", "5.", "0.000001", "1234567", "12345678", "1e10", "16777217"};
+        for (String l : lexical) {
+            assertEquals(l, Float.parseFloat(l), ((float[]) convert(a, l))[0]);
+        }
+        assertInvalid(a, ".");
+        assertInvalid(a, "1e");
+        assertInvalid(a, "1.2.3");
+    }
+
+    public void testDouble() throws Exception {
+        DoubleEncodingAlgorithm a = new DoubleEncodingAlgorithm();
+        double[] data = new double[VALUES];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (i % 2 == 0) ? Double.longBitsToDouble(_random.nextLong()) : _random.nextInt(1000000) / 1000.0;
+        }
+        data[0] = Double.NaN;
+        data[1] = Double.POSITIVE_INFINITY;
+        data[2] = -0.0;
+
+        String s = join(Arrays.toString(data));
+        assertTrue(Arrays.equals(data, (double[]) convert(a, s)));
+        assertEquals(s, toStringBuffer(a, data));
+        assertEquals(s, toStringBuilder(a, data));
+
+        String[] lexical = {"0.1", "-2.5e-3", "1e22", "1e23", "9007199254740993", "123456789012345",
+            "0.3", "4.9e-324", "1.7976931348623157E308", "00000.0000000000000000000001"};
+        for (String l : lexical) {
+            assertEquals(l, Double.parseDouble(l), ((double[]) convert(a, l))[0]);
+        }
+    }
+
+    private static String join(String arrayString) {
+        return arrayString.substring(1, arrayString.length() - 1).replace(", ", " ");
+    }
+
+    private static Object convert(EncodingAlgorithm a, String s) throws Exception {
+        // Characters before and after the content are not converted
+        char[] ch = ("x" + s + "x").toCharArray();
+        return a.convertFromCharacters(ch, 1, s.length());
+    }
+
+    private static String toStringBuffer(EncodingAlgorithm a, Object data) throws Exception {
+        StringBuffer s = new StringBuffer();
+        a.convertToCharacters(data, s);
+        return s.toString();
+    }
+
+    private static String toStringBuilder(BuiltInEncodingAlgorithm a, Object data) throws Exception {
+        StringBuilder s = new StringBuilder();
+        a.convertToCharacters(data, s);
+        return s.toString();
+    }
+
+    private static void assertInvalid(EncodingAlgorithm a, String s) throws Exception {
+        try {
+            convert(a, s);
+            fail(s);
+        } catch (NumberFormatException e) {
+        }
+    }
+}
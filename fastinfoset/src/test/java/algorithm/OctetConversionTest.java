@@ -0,0 +1,160 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithm;
+
+import com.sun.xml.fastinfoset.algorithm.DoubleEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.FloatEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.IntEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.LongEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.ShortEncodingAlgorithm;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+
+public class OctetConversionTest extends TestCase {
+    // Lengths below, at and above the length converted with a view buffer
+    private static final int[] LENGTHS = {0, 1, 7, 31, 32, 33, 1000};
+
+    // Octets before and after the values are not modified
+    private static final int OFFSET = 3;
+
+    private final Random _random = new Random(43);
+
+    public void testShort() throws Exception {
+        ShortEncodingAlgorithm a = new ShortEncodingAlgorithm();
+        for (int length : LENGTHS) {
+            short[] data = new short[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (short) _random.nextInt();
+            }
+            byte[] b = newOctets(length * 2);
+            a.encodeToBytesFromShortArray(data, 0, length, b, OFFSET);
+            for (int i = 0; i < length; i++) {
+                assertEquals(data[i], bigEndian(b, OFFSET + i * 2, 2));
+            }
+            assertPadding(b);
+
+            short[] decoded = new short[length + 1];
+            a.decodeFromBytesToShortArray(decoded, 1, b, OFFSET, length * 2);
+            assertTrue(Arrays.equals(data, Arrays.copyOfRange(decoded, 1, length + 1)));
+        }
+    }
+
+    public void testInt() throws Exception {
+        IntEncodingAlgorithm a = new IntEncodingAlgorithm();
+        for (int length : LENGTHS) {
+            int[] data = new int[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = _random.nextInt();
+            }
+            byte[] b = newOctets(length * 4);
+            a.encodeToBytesFromIntArray(data, 0, length, b, OFFSET);
+            for (int i = 0; i < length; i++) {
+                assertEquals(data[i], bigEndian(b, OFFSET + i * 4, 4));
+            }
+            assertPadding(b);
+
+            int[] decoded = new int[length + 1];
+            a.decodeFromBytesToIntArray(decoded, 1, b, OFFSET, length * 4);
+            assertTrue(Arrays.equals(data, Arrays.copyOfRange(decoded, 1, length + 1)));
+        }
+    }
+
+    public void testLong() throws Exception {
+        LongEncodingAlgorithm a = new LongEncodingAlgorithm();
+        for (int length : LENGTHS) {
+            long[] data = new long[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = _random.nextLong();
+            }
+            byte[] b = newOctets(length * 8);
+            a.encodeToBytesFromLongArray(data, 0, length, b, OFFSET);
+            for (int i = 0; i < length; i++) {
+                assertEquals(data[i], bigEndian(b, OFFSET + i * 8, 8));
+            }
+            assertPadding(b);
+
+            long[] decoded = new long[length + 1];
+            a.decodeFromBytesToLongArray(decoded, 1, b, OFFSET, length * 8);
+            assertTrue(Arrays.equals(data, Arrays.copyOfRange(decoded, 1, length + 1)));
+        }
+    }
+
+    public void testFloat() throws Exception {
+        FloatEncodingAlgorithm a = new FloatEncodingAlgorithm();
+        for (int length : LENGTHS) {
+            float[] data = new float[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = Float.intBitsToFloat(_random.nextInt());
+            }
+            byte[] b = newOctets(length * 4);
+            a.encodeToBytesFromFloatArray(data, 0, length, b, OFFSET);
+            for (int i = 0; i < length; i++) {
+                // NaN values are encoded as the canonical NaN value
+                assertEquals(Float.floatToIntBits(data[i]), bigEndian(b, OFFSET + i * 4, 4));
+            }
+            assertPadding(b);
+
+            float[] decoded = new float[length + 1];
+            a.decodeFromBytesToFloatArray(decoded, 1, b, OFFSET, length * 4);
+            assertTrue(Arrays.equals(data, Arrays.copyOfRange(decoded, 1, length + 1)));
+        }
+    }
+
+    public void testDouble() throws Exception {
+        DoubleEncodingAlgorithm a = new DoubleEncodingAlgorithm();
+        for (int length : LENGTHS) {
+            double[] data = new double[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = Double.longBitsToDouble(_random.nextLong());
+            }
+            byte[] b = newOctets(length * 8);
+            a.encodeToBytesFromDoubleArray(data, 0, length, b, OFFSET);
+            for (int i = 0; i < length; i++) {
+                assertEquals(Double.doubleToLongBits(data[i]), bigEndian(b, OFFSET + i * 8, 8));
+            }
+            assertPadding(b);
+
+            double[] decoded = new double[length + 1];
+            a.decodeFromBytesToDoubleArray(decoded, 1, b, OFFSET, length * 8);
+            assertTrue(Arrays.equals(data, Arrays.copyOfRange(decoded, 1, length + 1)));
+        }
+    }
+
+    private static byte[] newOctets(int length) {
+        byte[] b = new byte[OFFSET + length + OFFSET];
+        Arrays.fill(b, (byte) 0x55);
+        return b;
+    }
+
+    private static void assertPadding(byte[] b) {
+        for (int i = 0; i < OFFSET; i++) {
+            assertEquals(0x55, b[i]);
+            assertEquals(0x55, b[b.length - 1 - i]);
+        }
+    }
+
+    private static long bigEndian(byte[] b, int start, int size) {
+        long v = b[start];
+        for (int i = 1; i < size; i++) {
+            v = (v << 8) | (b[start + i] & 0xFF);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithm;
+
+import com.sun.xml.fastinfoset.algorithm.XorDoubleEncodingAlgorithm;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+import org.jvnet.fastinfoset.FastInfosetParser;
+import org.jvnet.fastinfoset.sax.helpers.FastInfosetDefaultHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class XorDoubleEncodingAlgorithmTest extends TestCase {
+    private static final String EXTERNAL_VOCABULARY_URI_STRING = "urn:external-vocabulary";
+
+    private final Random _random = new Random(45);
+
+    private final XorDoubleEncodingAlgorithm _algorithm = new XorDoubleEncodingAlgorithm();
+
+    public void testRoundTrip() throws Exception {
+        double[] random = new double[1000];
+        for (int i = 0; i < random.length; i++) {
+            random[i] = Double.longBitsToDouble(_random.nextLong());
+        }
+        double[][] data = {
+            {},
+            {1.5},
+            {0.0, -0.0, Double.NaN, Double.longBitsToDouble(0x7FF0000000000001L),
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE,
+                Double.MAX_VALUE, Double.MAX_VALUE, 1.0},
+            random,
+            createSeries(1000)
+        };
+        for (double[] d : data) {
+            assertRoundTrip(d);
+        }
+    }
+
+    public void testSeries() throws Exception {
+        double[] data = createSeries(1000);
+        byte[] b = encode(data);
+        assertTrue(b.length < data.length * 8 / 2);
+
+        // Repeated values take one bit each
+        double[] constant = new double[800];
+        Arrays.fill(constant, 21.5);
+        assertEquals(4 + 8 + (constant.length - 1 + 7) / 8, encode(constant).length);
+    }
+
+    public void testPartOfArray() throws Exception {
+        double[] data = createSeries(100);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        _algorithm.encodeToOutputStreamFromDoubleArray(data, 10, 50, out);
+        byte[] b = out.toByteArray();
+        assertTrue(Arrays.equals(Arrays.copyOfRange(data, 10, 60),
+                (double[]) _algorithm.decodeFromBytes(b, 0, b.length)));
+    }
+
+    public void testInvalidOctets() throws Exception {
+        byte[] b = encode(createSeries(100));
+        assertInvalid(Arrays.copyOf(b, b.length - 1));
+        assertInvalid(Arrays.copyOf(b, 10));
+        assertInvalid(new byte[] {0, 0});
+
+        // A '10' block without a previous '11' block
+        byte[] noWindow = new byte[4 + 8 + 1];
+        noWindow[3] = 2;
+        noWindow[12] = (byte) 0x80;
+        assertInvalid(noWindow);
+    }
+
+    public void testSAX() throws Exception {
+        double[] data = createSeries(200);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        s.setOutputStream(out);
+        SerializerVocabulary externalVocabulary = new SerializerVocabulary();
+        externalVocabulary.encodingAlgorithm.add(XorDoubleEncodingAlgorithm.URI);
+        SerializerVocabulary initialVocabulary = new SerializerVocabulary();
+        initialVocabulary.setExternalVocabulary(EXTERNAL_VOCABULARY_URI_STRING,
+                externalVocabulary, false);
+        s.setVocabulary(initialVocabulary);
+        s.setRegisteredEncodingAlgorithms(createAlgorithms());
+        s.setDoublesEncodingAlgorithmURI(XorDoubleEncodingAlgorithm.URI);
+
+        s.startDocument();
+        s.startElement("", "e", "e", new AttributesImpl());
+        s.doubles(data, 0, data.length);
+        s.endElement("", "e", "e");
+        s.endDocument();
+
+        SAXDocumentParser p = new SAXDocumentParser();
+        ParserVocabulary parserExternalVocabulary = new ParserVocabulary();
+        parserExternalVocabulary.encodingAlgorithm.add(XorDoubleEncodingAlgorithm.URI);
+        Map<String, ParserVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(EXTERNAL_VOCABULARY_URI_STRING, parserExternalVocabulary);
+        p.setProperty(FastInfosetParser.EXTERNAL_VOCABULARIES_PROPERTY, externalVocabularies);
+        p.setRegisteredEncodingAlgorithms(createAlgorithms());
+
+        final List<double[]> values = new ArrayList<>();
+        FastInfosetDefaultHandler h = new FastInfosetDefaultHandler() {
+            @Override
+            public void doubles(double[] d, int start, int length) {
+                values.add(Arrays.copyOfRange(d, start, start + length));
+            }
+        };
+        p.setContentHandler(h);
+        p.setPrimitiveTypeContentHandler(h);
+        p.parse(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(1, values.size());
+        assertTrue(Arrays.equals(data, values.get(0)));
+    }
+
+    /*
+     * A slowly changing series of values with few significant digits.
+     */
+    private double[] createSeries(int length) {
+        double[] data = new double[length];
+        double v = 20.0;
+        for (int i = 0; i < length; i++) {
+            if (_random.nextInt(4) == 0) {
+                v += (_random.nextInt(3) - 1) * 0.25;
+            }
+            data[i] = v;
+        }
+        return data;
+    }
+
+    private void assertRoundTrip(double[] data) throws Exception {
+        byte[] b = encode(data);
+
+        // Octets before and after the data are not decoded
+        byte[] padded = new byte[b.length + 2];
+        System.arraycopy(b, 0, padded, 1, b.length);
+        assertBitsEqual(data, (double[]) _algorithm.decodeFromBytes(padded, 1, b.length));
+
+        assertBitsEqual(data, (double[]) _algorithm.decodeFromInputStream(new ByteArrayInputStream(b)));
+    }
+
+    private static void assertBitsEqual(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+    }
+
+    private byte[] encode(double[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        _algorithm.encodeToOutputStream(data, out);
+        return out.toByteArray();
+    }
+
+    private void assertInvalid(byte[] b) throws Exception {
+        try {
+            _algorithm.decodeFromBytes(b, 0, b.length);
+            fail();
+        } catch (EncodingAlgorithmException e) {
+        }
+    }
+
+    private static Map<String, EncodingAlgorithm> createAlgorithms() {
+        Map<String, EncodingAlgorithm> algorithms = new HashMap<>();
+        algorithms.put(XorDoubleEncodingAlgorithm.URI, new XorDoubleEncodingAlgorithm());
+        return algorithms;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package container;
+
+import com.sun.xml.fastinfoset.container.FastInfosetRecordReader;
+import com.sun.xml.fastinfoset.container.FastInfosetRecordWriter;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+
+public class RecordContainerTest extends TestCase {
+    private static final int RECORDS = 1000;
+
+    public void testParallelStream() throws Exception {
+        FastInfosetRecordReader reader = new FastInfosetRecordReader(
+                ByteBuffer.wrap(createContainer(true, null)));
+
+        assertEquals(RECORDS, reader.getRecordCount());
+        assertNull(reader.getExternalVocabularyURI());
+
+        List<String> values = reader.parallelStream().
+                map(RecordContainerTest::parseRecord).
+                collect(Collectors.toList());
+
+        assertEquals(RECORDS, values.size());
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals(Integer.toString(i), values.get(i));
+        }
+    }
+
+    public void testRandomAccess() throws Exception {
+        FastInfosetRecordReader reader = new FastInfosetRecordReader(
+                ByteBuffer.wrap(createContainer(true, "urn:records")));
+
+        assertEquals("urn:records", reader.getExternalVocabularyURI());
+        assertEquals("500", parseRecord(reader.getRecord(500)));
+        assertEquals("0", parseRecord(reader.getRecord(0)));
+    }
+
+    public void testWithoutIndex() throws Exception {
+        FastInfosetRecordReader reader = new FastInfosetRecordReader(
+                ByteBuffer.wrap(createContainer(false, null)));
+
+        assertEquals(RECORDS, reader.getRecordCount());
+        assertEquals(Integer.toString(RECORDS - 1), parseRecord(reader.getRecord(RECORDS - 1)));
+    }
+
+    public void testInvalidContainer() throws Exception {
+        try {
+            new FastInfosetRecordReader(ByteBuffer.wrap(new byte[] {0, 1, 2, 3, 4, 5, 6, 7}));
+            fail();
+        } catch (IOException e) {
+        }
+
+        byte[] container = createContainer(false, null);
+        byte[] truncated = new byte[container.length - 1];
+        System.arraycopy(container, 0, truncated, 0, truncated.length);
+        try {
+            new FastInfosetRecordReader(ByteBuffer.wrap(truncated));
+            fail();
+        } catch (IOException e) {
+        }
+    }
+
+    public void testLargeFile() throws Exception {
+        FastInfosetRecordReader records = new FastInfosetRecordReader(
+                ByteBuffer.wrap(createContainer(true, null)));
+        byte[] first = toArray(records.getRecordBuffer(0));
+        byte[] last = toArray(records.getRecordBuffer(RECORDS - 1));
+        int largeLength = Integer.MAX_VALUE - 8;
+
+        // A sparse file larger than a buffer can hold, with a record larger
+        // than a window whose octets are not written
+        File file = File.createTempFile("records", ".fir");
+        try {
+            long[] offsets = new long[3];
+            try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+                f.write(new byte[] {'F', 'I', 'R', 'C', 1, 0});
+                offsets[0] = f.getFilePointer();
+                f.writeInt(first.length);
+                f.write(first);
+                offsets[1] = f.getFilePointer();
+                f.writeInt(largeLength);
+                f.seek(f.getFilePointer() + largeLength);
+                offsets[2] = f.getFilePointer();
+                f.writeInt(last.length);
+                f.write(last);
+
+                long indexOffset = f.getFilePointer();
+                f.writeInt(offsets.length);
+                for (long offset : offsets) {
+                    f.writeLong(offset);
+                }
+                f.writeLong(indexOffset);
+                f.write(new byte[] {'F', 'I', 'R', 'X'});
+            }
+            assertTrue(file.length() > Integer.MAX_VALUE);
+
+            FastInfosetRecordReader reader = FastInfosetRecordReader.open(file.toPath());
+            assertEquals(3, reader.getRecordCount());
+            assertEquals("0", parseRecord(reader.getRecord(0)));
+            assertEquals(largeLength, reader.getRecordLength(1));
+            assertEquals(largeLength, reader.getRecordBuffer(1).remaining());
+            assertEquals(Integer.toString(RECORDS - 1), parseRecord(reader.getRecord(2)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer b) {
+        byte[] a = new byte[b.remaining()];
+        b.get(a);
+        return a;
+    }
+
+    private byte[] createContainer(boolean close, String externalVocabularyURI) throws Exception {
+        ByteArrayOutputStream container = new ByteArrayOutputStream();
+        FastInfosetRecordWriter writer = new FastInfosetRecordWriter(container, externalVocabularyURI);
+
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        ByteArrayOutputStream document = new ByteArrayOutputStream();
+        for (int i = 0; i < RECORDS; i++) {
+            document.reset();
+            serializer.setOutputStream(document);
+            serializer.writeStartDocument();
+            serializer.writeStartElement("record");
+            serializer.writeCharacters(Integer.toString(i));
+            serializer.writeEndElement();
+            serializer.writeEndDocument();
+            serializer.close();
+
+            writer.writeRecord(document.toByteArray());
+        }
+        assertEquals(RECORDS, writer.getRecordCount());
+
+        if (close) {
+            writer.close();
+        }
+        return container.toByteArray();
+    }
+
+    private static String parseRecord(InputStream record) {
+        try {
+            StAXDocumentParser parser = new StAXDocumentParser(record);
+            parser.nextTag();
+            return parser.getElementText();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package container;
+
+import com.sun.xml.fastinfoset.container.FastInfosetSplitter;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import com.sun.xml.fastinfoset.util.PathFilter;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLStreamConstants;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.jvnet.fastinfoset.FastInfosetException;
+import org.jvnet.fastinfoset.Vocabulary;
+
+public class SplitterTest extends TestCase implements XMLStreamConstants {
+    private static final String RECORDS = "/{urn:feed}feed/{urn:feed}entries/entry";
+
+    public void testSplit() throws Exception {
+        byte[] document = createDocument(null);
+        List<String> expected = describeRecords(document, null);
+        assertEquals(50, expected.size());
+
+        FastInfosetSplitter splitter = new FastInfosetSplitter(
+                new ByteArrayInputStream(document), PathFilter.compile(RECORDS));
+        List<String> records = new ArrayList<>();
+        byte[] record;
+        while ((record = splitter.nextRecord()) != null) {
+            records.add(describeRecord(record, null));
+        }
+        assertEquals(expected, records);
+        assertNull(splitter.nextRecord());
+    }
+
+    public void testSplitExternalVocabulary() throws Exception {
+        Vocabulary v = new Vocabulary();
+        v.prefixes.add("f");
+        v.namespaceNames.add("urn:feed");
+        v.localNames.add("entry");
+        v.localNames.add("title");
+        v.attributeValues.add("odd");
+        ExternalVocabulary externalVocabulary = new ExternalVocabulary("urn:vocabulary", v);
+
+        Map<String, ParserVocabulary> vocabularies = new HashMap<>();
+        vocabularies.put(externalVocabulary.URI, new ParserVocabulary(v));
+
+        byte[] document = createDocument(externalVocabulary);
+        List<String> expected = describeRecords(document, vocabularies);
+
+        FastInfosetSplitter splitter = new FastInfosetSplitter(
+                new ByteArrayInputStream(document), PathFilter.compile(RECORDS));
+        splitter.setExternalVocabularies(vocabularies);
+        List<String> records = new ArrayList<>();
+        byte[] record;
+        while ((record = splitter.nextRecord()) != null) {
+            records.add(describeRecord(record, vocabularies));
+        }
+        assertEquals(expected, records);
+    }
+
+    public void testRecordVocabulary() throws Exception {
+        // Each record adds entries that no other record refers to
+        byte[] document = createValuesDocument(false);
+        List<String> expected = describeRecords(document, null);
+
+        List<byte[]> records = split(document);
+        assertEquals(expected.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(expected.get(i), describeRecord(records.get(i), null));
+        }
+        // The entries added by the records after the first are omitted
+        assertTrue(records.get(records.size() - 1).length < records.get(1).length + 16);
+    }
+
+    public void testRecordVocabularyPlaceholders() throws Exception {
+        // Each second record refers to entries added by the preceding record
+        byte[] document = createValuesDocument(true);
+        List<String> expected = describeRecords(document, null);
+
+        List<byte[]> records = split(document);
+        assertEquals(expected.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(expected.get(i), describeRecord(records.get(i), null));
+        }
+    }
+
+    public void testDocumentElement() throws Exception {
+        FastInfosetSplitter splitter = new FastInfosetSplitter(
+                new ByteArrayInputStream(createDocument(null)), PathFilter.compile("/*"));
+        try {
+            splitter.nextRecord();
+            fail();
+        } catch (FastInfosetException e) {
+        }
+    }
+
+    private List<byte[]> split(byte[] document) throws Exception {
+        FastInfosetSplitter splitter = new FastInfosetSplitter(
+                new ByteArrayInputStream(document), PathFilter.compile(RECORDS));
+        List<byte[]> records = new ArrayList<>();
+        byte[] record;
+        while ((record = splitter.nextRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private List<String> describeRecords(byte[] document, Map<String, ParserVocabulary> vocabularies) throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(document));
+        parser.setExternalVocabularies(vocabularies);
+        parser.setPathFilter(PathFilter.compile(RECORDS));
+        List<String> records = new ArrayList<>();
+        while (parser.next() != END_DOCUMENT) {
+            if (parser.getEventType() == START_ELEMENT) {
+                records.add(describe(parser));
+            }
+        }
+        return records;
+    }
+
+    private String describeRecord(byte[] record, Map<String, ParserVocabulary> vocabularies) throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(record));
+        parser.setExternalVocabularies(vocabularies);
+        assertEquals(START_ELEMENT, parser.nextTag());
+        String description = describe(parser);
+        assertEquals(END_DOCUMENT, parser.next());
+        return description;
+    }
+
+    private String describe(StAXDocumentParser parser) throws Exception {
+        StringBuilder b = new StringBuilder();
+        int depth = 0;
+        do {
+            switch (parser.getEventType()) {
+                case START_ELEMENT:
+                    depth++;
+                    b.append("<{").append(parser.getNamespaceURI()).append('}').
+                            append(parser.getPrefix()).append(':').append(parser.getLocalName());
+                    for (int i = 0; i < parser.getAttributeCount(); i++) {
+                        b.append(' ').append(parser.getAttributeName(i)).
+                                append("='").append(parser.getAttributeValue(i)).append('\'');
+                    }
+                    b.append('>');
+                    break;
+                case END_ELEMENT:
+                    depth--;
+                    b.append("</").append(parser.getLocalName()).append('>');
+                    break;
+                case CHARACTERS:
+                    b.append(parser.getText());
+                    break;
+                case COMMENT:
+                    b.append("<!--").append(parser.getText()).append("-->");
+                    break;
+                case PROCESSING_INSTRUCTION:
+                    b.append("<?").append(parser.getPITarget()).append(' ').
+                            append(parser.getPIData()).append("?>");
+                    break;
+            }
+        } while (depth > 0 && parser.next() != END_DOCUMENT);
+        return b.toString();
+    }
+
+    private byte[] createDocument(ExternalVocabulary vocabulary) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        if (vocabulary != null) {
+            writer.setExternalVocabulary(vocabulary);
+        }
+        writer.writeStartDocument();
+        writer.setPrefix("f", "urn:feed");
+        writer.setDefaultNamespace("urn:default");
+        writer.writeStartElement("f", "feed", "urn:feed");
+        writer.writeNamespace("f", "urn:feed");
+        writer.writeNamespace("x", "urn:x");
+        writer.writeDefaultNamespace("urn:default");
+
+        writer.writeStartElement("f", "title", "urn:feed");
+        writer.writeCharacters("title");
+        writer.writeEndElement();
+
+        writer.writeStartElement("f", "entries", "urn:feed");
+        for (int i = 0; i < 50; i++) {
+            writer.writeStartElement("", "entry", "urn:default");
+            writer.writeAttribute("id", Integer.toString(i));
+            writer.writeAttribute("parity", (i % 2 == 0) ? "even" : "odd");
+            if (i % 10 == 9) {
+                // An empty record
+                writer.writeEndElement();
+                continue;
+            }
+            if (i % 7 == 3) {
+                writer.writeNamespace("y", "urn:other");
+                writer.writeAttribute("y", "urn:other", "a", "b");
+            }
+            writer.writeComment("comment");
+            writer.writeStartElement("x", "value", "urn:x");
+            writer.writeCharacters("value" + (i % 3));
+            writer.writeEndElement();
+            writer.writeProcessingInstruction("pi", "data");
+            writer.writeStartElement("", "empty", "urn:default");
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private byte[] createValuesDocument(boolean shared) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("f", "feed", "urn:feed");
+        writer.writeNamespace("f", "urn:feed");
+        writer.writeStartElement("f", "entries", "urn:feed");
+        for (int i = 0; i < 100; i++) {
+            // Values longer than 16 characters are added to the tables
+            int value = shared ? i / 2 : i;
+            writer.writeStartElement("entry");
+            writer.writeAttribute("id", "identifier-of-entry-" + value);
+            writer.writeAttribute("kind", "entry");
+            writer.writeStartElement("text");
+            writer.writeCharacters("text-of-entry-" + value);
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+}
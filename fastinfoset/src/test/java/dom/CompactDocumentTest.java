@@ -0,0 +1,142 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dom;
+
+import com.sun.xml.fastinfoset.dom.CompactDocument;
+import com.sun.xml.fastinfoset.dom.CompactDocumentParser;
+import com.sun.xml.fastinfoset.dom.DOMDocumentParser;
+import com.sun.xml.fastinfoset.tools.XML_SAX_FI;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import junit.framework.TestCase;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+public class CompactDocumentTest extends TestCase {
+
+    public void testTree() throws Exception {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\"?><!-- prolog -->");
+        xml.append("<root xmlns=\"urn:default\" xmlns:p=\"urn:p\" p:version=\"1\">");
+        for (int i = 0; i < 200; i++) {
+            xml.append("<item id=\"").append(i % 7).append("\" p:type=\"t").append(i % 3).append("\">");
+            xml.append("<p:name>name").append(i % 11).append("</p:name>");
+            xml.append("<value>").append(i).append("</value>");
+            xml.append("<empty/><!-- comment ").append(i % 4).append(" --><?pi data?>");
+            xml.append("</item>text").append(i % 13);
+        }
+        xml.append("</root>");
+        byte[] fi = toFastInfoset(xml.toString());
+
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document expected = dbf.newDocumentBuilder().newDocument();
+        new DOMDocumentParser().parse(expected, new ByteArrayInputStream(fi));
+
+        CompactDocument actual = new CompactDocumentParser().parse(new ByteArrayInputStream(fi));
+        assertEquals(CompactDocument.NONE, actual.getParentNode(CompactDocument.DOCUMENT));
+        assertEquals(Node.DOCUMENT_NODE, actual.getNodeType(CompactDocument.DOCUMENT));
+        assertNode(expected, actual, CompactDocument.DOCUMENT);
+
+        // The names are shared by the elements
+        int root = actual.getDocumentElement();
+        int item = actual.getFirstChildElement(root, "urn:default", "item");
+        assertSame(actual.getName(item), actual.getName(actual.getNextSiblingElement(item, null, null)));
+    }
+
+    public void testNavigation() throws Exception {
+        byte[] fi = toFastInfoset("<a xmlns:p='urn:p'><b>1</b><p:b>2</p:b><c x='y'>3<d>4</d>5</c></a>");
+        CompactDocument d = new CompactDocumentParser().parse(new ByteArrayInputStream(fi));
+
+        int a = d.getDocumentElement();
+        assertEquals("a", d.getLocalName(a));
+        assertEquals("12345", d.getTextContent(a));
+
+        int b = d.getFirstChildElement(a, "urn:p", "b");
+        assertEquals("p", d.getPrefix(b));
+        assertEquals("2", d.getTextContent(b));
+        assertEquals(CompactDocument.NONE, d.getNextSiblingElement(b, null, "b"));
+
+        int c = d.getNextSiblingElement(b, "", null);
+        assertEquals("c", d.getLocalName(c));
+        assertEquals(a, d.getParentNode(c));
+        assertEquals("y", d.getAttributeValue(c, "", "x"));
+        assertNull(d.getAttributeValue(c, "", "z"));
+        assertEquals("345", d.getTextContent(c));
+        assertEquals("4", d.getTextContent(d.getFirstChildElement(c, null, "d")));
+        assertEquals(CompactDocument.NONE, d.getNextSibling(c));
+    }
+
+    private void assertNode(Node expected, CompactDocument actual, int node) {
+        assertEquals(expected.getNodeType(), actual.getNodeType(node));
+        switch (expected.getNodeType()) {
+            case Node.ELEMENT_NODE: {
+                assertEquals(expected.getLocalName(), actual.getLocalName(node));
+                assertEquals(nonNull(expected.getNamespaceURI()), actual.getNamespaceURI(node));
+                assertEquals(nonNull(expected.getPrefix()), actual.getPrefix(node));
+
+                NamedNodeMap attributes = expected.getAttributes();
+                int count = 0;
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    Attr attribute = (Attr) attributes.item(i);
+                    if ("http://www.w3.org/2000/xmlns/".equals(attribute.getNamespaceURI())) {
+                        continue;
+                    }
+                    count++;
+                    assertEquals(attribute.getValue(), actual.getAttributeValue(node,
+                            nonNull(attribute.getNamespaceURI()), attribute.getLocalName()));
+                }
+                assertEquals(count, actual.getAttributeCount(node));
+                break;
+            }
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                assertEquals(expected.getNodeName(), actual.getLocalName(node));
+                assertEquals(expected.getNodeValue(), actual.getText(node));
+                break;
+            case Node.TEXT_NODE:
+            case Node.COMMENT_NODE:
+                assertEquals(expected.getNodeValue(), actual.getText(node));
+                break;
+            default:
+                break;
+        }
+
+        int child = actual.getFirstChild(node);
+        for (Node n = expected.getFirstChild(); n != null; n = n.getNextSibling()) {
+            assertTrue(child != CompactDocument.NONE);
+            assertEquals(node, actual.getParentNode(child));
+            assertNode(n, actual, child);
+            child = actual.getNextSibling(child);
+        }
+        assertEquals(CompactDocument.NONE, child);
+    }
+
+    private String nonNull(String s) {
+        return (s == null) ? "" : s;
+    }
+
+    private byte[] toFastInfoset(String xml) throws Exception {
+        ByteArrayOutputStream fi = new ByteArrayOutputStream();
+        new XML_SAX_FI().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")), fi);
+        return fi.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dom;
+
+import com.sun.xml.fastinfoset.dom.DOMDocumentParser;
+import com.sun.xml.fastinfoset.dom.DOMDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamConstants;
+import junit.framework.TestCase;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+public class DOMDocumentSerializerTest extends TestCase {
+
+    public void testSerialize() throws Exception {
+        String xml = "<root xmlns='urn:default' xmlns:p='urn:p' p:a='1'>" +
+                "<p:x><y xmlns='urn:y' a='2'><p:z/>text<!--c--><?pi data?></y><y/></p:x>" +
+                "<x xmlns:p='urn:other' p:b='3'><p:x/></x><q:x xmlns:q='urn:q'/>tail</root>";
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document d = dbf.newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+
+        Document actual = newDocument();
+        new DOMDocumentParser().parse(actual, new ByteArrayInputStream(serialize(d)));
+        assertTrue(d.isEqualNode(actual));
+    }
+
+    public void testDeepTree() throws Exception {
+        final int depth = 50000;
+        Document d = newDocument();
+        Node parent = d;
+        for (int i = 0; i < depth; i++) {
+            Element e = d.createElementNS("urn:deep", (i % 2 == 0) ? "e" : "p:e");
+            parent.appendChild(e);
+            parent = e;
+        }
+        parent.appendChild(d.createTextNode("leaf"));
+
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(serialize(d)));
+        int elements = 0;
+        int event;
+        while ((event = parser.next()) != XMLStreamConstants.END_DOCUMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                assertEquals("urn:deep", parser.getNamespaceURI());
+                elements++;
+            } else if (event == XMLStreamConstants.CHARACTERS) {
+                assertEquals(depth, elements);
+                assertEquals("leaf", parser.getText());
+            }
+        }
+        assertEquals(depth, elements);
+    }
+
+    private byte[] serialize(Node n) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DOMDocumentSerializer serializer = new DOMDocumentSerializer();
+        serializer.setOutputStream(out);
+        serializer.serialize(n);
+        return out.toByteArray();
+    }
+
+    private Document newDocument() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().newDocument();
+    }
+}
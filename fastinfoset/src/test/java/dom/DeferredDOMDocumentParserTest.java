@@ -0,0 +1,193 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dom;
+
+import com.sun.xml.fastinfoset.dom.DOMDocumentParser;
+import com.sun.xml.fastinfoset.dom.DOMDocumentSerializer;
+import com.sun.xml.fastinfoset.dom.DeferredDOMDocumentParser;
+import com.sun.xml.fastinfoset.tools.XML_SAX_FI;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.Vocabulary;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+public class DeferredDOMDocumentParserTest extends TestCase {
+
+    public void testDeferredParse() throws Exception {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\"?><!-- prolog -->");
+        xml.append("<root xmlns=\"urn:default\" xmlns:p=\"urn:p\" p:version=\"1\">");
+        for (int i = 0; i < 100; i++) {
+            xml.append("<item id=\"").append(i % 7).append("\" p:type=\"t").append(i % 3).append("\">");
+            xml.append("<p:name>name").append(i % 11).append("</p:name>");
+            // Names and values first added in deferred content are referred to by later items
+            xml.append("<value").append(i % 5).append(" xmlns:q=\"urn:q").append(i % 5).append("\" q:unit=\"u\">");
+            xml.append(i).append("</value").append(i % 5).append(">");
+            xml.append("<empty/><!-- comment ").append(i % 4).append(" --><?pi data?>");
+            xml.append("</item>text").append(i % 13);
+        }
+        xml.append("<last a=\"b\"/><nested><deep><deeper/></deep></nested></root><!-- epilog -->");
+        byte[] fi = toFastInfoset(xml.toString());
+
+        Document expected = newDocument();
+        new DOMDocumentParser().parse(expected, new ByteArrayInputStream(fi));
+
+        Document actual = newDocument();
+        new DeferredDOMDocumentParser().parse(actual, new ByteArrayInputStream(fi));
+
+        Element root = actual.getDocumentElement();
+        assertFalse(DeferredDOMDocumentParser.isDeferred(root));
+        Element item = (Element) root.getFirstChild();
+        assertTrue(DeferredDOMDocumentParser.isDeferred(item));
+        assertFalse(item.hasChildNodes());
+        assertEquals("t0", item.getAttributeNS("urn:p", "type"));
+
+        // Expand items out of document order
+        Node last = root.getLastChild();
+        DeferredDOMDocumentParser.expand(last);
+        assertEquals("deeper", last.getFirstChild().getFirstChild().getLocalName());
+        for (Node n = last; n != null; n = n.getPreviousSibling()) {
+            DeferredDOMDocumentParser.expand(n);
+            assertFalse(DeferredDOMDocumentParser.isDeferred(n));
+        }
+        assertTrue(expected.isEqualNode(actual));
+    }
+
+    public void testDeferredDepth() throws Exception {
+        byte[] fi = toFastInfoset("<a><b><c>1</c></b><b><c>2</c></b></a>");
+
+        DeferredDOMDocumentParser parser = new DeferredDOMDocumentParser();
+        parser.setDeferredDepth(1);
+        Document d = newDocument();
+        parser.parse(d, new ByteArrayInputStream(fi));
+
+        Element a = d.getDocumentElement();
+        assertFalse(a.hasChildNodes());
+        DeferredDOMDocumentParser.expand(a);
+        assertEquals("12", a.getTextContent());
+
+        try {
+            parser.setDeferredDepth(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testCompressedDocument() throws Exception {
+        Document d = newDocument();
+        Element root = d.createElement("root");
+        d.appendChild(root);
+        for (int i = 0; i < 5000; i++) {
+            Element item = d.createElement("item");
+            item.appendChild(d.createElement("value")).setTextContent("value" + (i % 100));
+            root.appendChild(item);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DOMDocumentSerializer serializer = new DOMDocumentSerializer();
+        serializer.setDeflateCompression(true, null);
+        serializer.setOutputStream(out);
+        serializer.serialize(d);
+        byte[] fi = out.toByteArray();
+
+        Document expected = newDocument();
+        new DOMDocumentParser().parse(expected, new ByteArrayInputStream(fi));
+
+        Document actual = newDocument();
+        new DeferredDOMDocumentParser().parse(actual, new ByteArrayInputStream(fi));
+
+        Node last = actual.getDocumentElement().getLastChild();
+        assertTrue(DeferredDOMDocumentParser.isDeferred(last));
+        DeferredDOMDocumentParser.expand(last);
+        assertEquals("value99", last.getTextContent());
+        for (Node n = last; n != null; n = n.getPreviousSibling()) {
+            DeferredDOMDocumentParser.expand(n);
+        }
+        assertTrue(expected.isEqualNode(actual));
+    }
+
+    public void testVocabulary() throws Exception {
+        Vocabulary v = new Vocabulary();
+        v.localNames.add("item");
+        v.elements.add(new QName("item"));
+        v.characterContentChunks.add("text");
+
+        Document d = newDocument();
+        Element root = d.createElement("root");
+        d.appendChild(root);
+        for (int i = 0; i < 10; i++) {
+            Element item = d.createElement("item");
+            item.appendChild(d.createElement("item")).setTextContent("text");
+            item.appendChild(d.createTextNode("text" + (i % 3)));
+            root.appendChild(item);
+        }
+
+        // The document refers to the entries of the vocabulary
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DOMDocumentSerializer serializer = new DOMDocumentSerializer();
+        serializer.setVocabulary(new SerializerVocabulary(v, false));
+        serializer.setOutputStream(out);
+        serializer.serialize(d);
+        byte[] fi = out.toByteArray();
+
+        DOMDocumentParser p = new DOMDocumentParser();
+        p.setVocabulary(new ParserVocabulary(v));
+        Document expected = newDocument();
+        p.parse(expected, new ByteArrayInputStream(fi));
+
+        DeferredDOMDocumentParser parser = new DeferredDOMDocumentParser();
+        parser.setVocabulary(new ParserVocabulary(v));
+        Document actual = newDocument();
+        parser.parse(actual, fi);
+        for (Node n = actual.getDocumentElement().getFirstChild(); n != null; n = n.getNextSibling()) {
+            DeferredDOMDocumentParser.expand(n);
+        }
+        assertTrue(expected.isEqualNode(actual));
+
+        // Deferred content is not affected by decoding another document
+        parser = new DeferredDOMDocumentParser();
+        byte[] other = toFastInfoset("<root><other>other</other><item>other</item></root>");
+        Document first = newDocument();
+        parser.parse(first, toFastInfoset("<root><item>text</item><item>text</item></root>"));
+        parser.parse(newDocument(), other);
+        for (Node n = first.getDocumentElement().getFirstChild(); n != null; n = n.getNextSibling()) {
+            DeferredDOMDocumentParser.expand(n);
+        }
+        assertEquals("texttext", first.getDocumentElement().getTextContent());
+    }
+
+    private byte[] toFastInfoset(String xml) throws Exception {
+        ByteArrayOutputStream fi = new ByteArrayOutputStream();
+        new XML_SAX_FI().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")), fi);
+        return fi.toByteArray();
+    }
+
+    private Document newDocument() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().newDocument();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dom;
+
+import com.sun.xml.fastinfoset.dom.DOMDocumentParser;
+import com.sun.xml.fastinfoset.dom.DOMDocumentSerializer;
+import com.sun.xml.fastinfoset.dom.ParallelDOMDocumentParser;
+import com.sun.xml.fastinfoset.tools.XML_SAX_FI;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import junit.framework.TestCase;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class ParallelDOMDocumentParserTest extends TestCase {
+
+    public void testParallelParse() throws Exception {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\"?><!-- prolog -->");
+        xml.append("<root xmlns=\"urn:default\" xmlns:p=\"urn:p\" p:version=\"1\">");
+        for (int i = 0; i < 500; i++) {
+            xml.append("<item id=\"").append(i % 7).append("\" p:type=\"t").append(i % 3).append("\">");
+            xml.append("<p:name>name").append(i % 11).append("</p:name>");
+            xml.append("<value xmlns:q=\"urn:q").append(i % 5).append("\" q:unit=\"u\">");
+            xml.append(i).append("</value>");
+            xml.append("<empty/><!-- comment ").append(i % 4).append(" --><?pi data?>");
+            xml.append("</item>text").append(i % 13);
+        }
+        xml.append("<last><nested><deep/></nested></last></root><!-- epilog -->");
+
+        byte[] fi = toFastInfoset(xml.toString());
+
+        Document expected = newDocument();
+        new DOMDocumentParser().parse(expected, new ByteArrayInputStream(fi));
+
+        ParallelDOMDocumentParser parser = new ParallelDOMDocumentParser();
+        parser.setChunkSize(256);
+        Document actual = newDocument();
+        parser.parse(actual, fi);
+
+        assertTrue(expected.isEqualNode(actual));
+        assertEquals(1001, actual.getDocumentElement().getChildNodes().getLength());
+    }
+
+    public void testCompressedDocument() throws Exception {
+        Document d = newDocument();
+        Element root = d.createElement("root");
+        d.appendChild(root);
+        for (int i = 0; i < 5000; i++) {
+            Element item = d.createElement("item");
+            item.setAttribute("id", String.valueOf(i % 17));
+            item.setTextContent("value" + i);
+            root.appendChild(item);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DOMDocumentSerializer serializer = new DOMDocumentSerializer();
+        serializer.setDeflateCompression(true, null);
+        serializer.setOutputStream(out);
+        serializer.serialize(d);
+        byte[] fi = out.toByteArray();
+
+        Document expected = newDocument();
+        new DOMDocumentParser().parse(expected, new ByteArrayInputStream(fi));
+
+        ParallelDOMDocumentParser parser = new ParallelDOMDocumentParser();
+        parser.setChunkSize(1024);
+        Document actual = newDocument();
+        parser.parse(actual, new ByteArrayInputStream(fi));
+
+        assertTrue(expected.isEqualNode(actual));
+        assertEquals(5000, actual.getDocumentElement().getChildNodes().getLength());
+    }
+
+    public void testSmallDocument() throws Exception {
+        byte[] fi = toFastInfoset("<root><a>1</a><b>2</b></root>");
+
+        Document actual = newDocument();
+        new ParallelDOMDocumentParser().parse(actual, new ByteArrayInputStream(fi));
+
+        assertEquals("12", actual.getDocumentElement().getTextContent());
+    }
+
+    private byte[] toFastInfoset(String xml) throws Exception {
+        ByteArrayOutputStream fi = new ByteArrayOutputStream();
+        new XML_SAX_FI().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")), fi);
+        return fi.toByteArray();
+    }
+
+    private Document newDocument() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().newDocument();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dom;
+
+import com.sun.xml.fastinfoset.algorithm.DeflateTextEncodingAlgorithm;
+import com.sun.xml.fastinfoset.dom.DOMDocumentParser;
+import com.sun.xml.fastinfoset.dom.DOMDocumentSerializer;
+import com.sun.xml.fastinfoset.dom.ParallelDOMDocumentSerializer;
+import com.sun.xml.fastinfoset.tools.VocabularyGenerator;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.jvnet.fastinfoset.Vocabulary;
+import org.w3c.dom.Document;
+
+public class ParallelDOMDocumentSerializerTest extends TestCase {
+
+    public void testParallelSerialize() throws Exception {
+        String xml = createDocument(500, false);
+        ExternalVocabulary ev = createVocabulary(xml);
+        Document d = parse(xml);
+
+        byte[] expected = serialize(new DOMDocumentSerializer(), ev, d);
+
+        ParallelDOMDocumentSerializer serializer = new ParallelDOMDocumentSerializer();
+        serializer.setSegmentSize(16);
+        assertTrue(Arrays.equals(expected, serialize(serializer, ev, d)));
+
+        Map<String, ParserVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(ev.URI, new ParserVocabulary(ev.vocabulary));
+        DOMDocumentParser parser = new DOMDocumentParser();
+        parser.setExternalVocabularies(externalVocabularies);
+        Document actual = newDocument();
+        parser.parse(actual, new ByteArrayInputStream(expected));
+        assertTrue(d.isEqualNode(actual));
+    }
+
+    public void testAdditions() throws Exception {
+        // Names of the last items are not in the vocabulary
+        ExternalVocabulary ev = createVocabulary(createDocument(100, false));
+        Document d = parse(createDocument(500, true));
+
+        byte[] expected = serialize(new DOMDocumentSerializer(), ev, d);
+
+        ParallelDOMDocumentSerializer serializer = new ParallelDOMDocumentSerializer();
+        serializer.setSegmentSize(16);
+        assertTrue(Arrays.equals(expected, serialize(serializer, ev, d)));
+    }
+
+    public void testLargeCharacterContentChunkAlgorithm() throws Exception {
+        StringBuilder xml = new StringBuilder("<root>");
+        for (int i = 0; i < 200; i++) {
+            xml.append("<text>");
+            for (int j = 0; j < 100; j++) {
+                xml.append("text ").append(i % 10).append(j % 10).append("   ");
+            }
+            xml.append("</text>");
+        }
+        xml.append("</root>");
+        Document d = parse(xml.toString());
+
+        ExternalVocabulary ev = createVocabulary(xml.toString());
+        ev.vocabulary.encodingAlgorithms.add(DeflateTextEncodingAlgorithm.URI);
+        Map<String, EncodingAlgorithm> algorithms = new HashMap<>();
+        algorithms.put(DeflateTextEncodingAlgorithm.URI, new DeflateTextEncodingAlgorithm());
+
+        DOMDocumentSerializer serializer = new DOMDocumentSerializer();
+        serializer.setRegisteredEncodingAlgorithms(algorithms);
+        serializer.setLargeCharacterContentChunkAlgorithm(DeflateTextEncodingAlgorithm.URI, 256);
+        byte[] expected = serialize(serializer, ev, d);
+        assertTrue(expected.length < 200 * 1000 / 2);
+
+        ParallelDOMDocumentSerializer parallelSerializer = new ParallelDOMDocumentSerializer();
+        parallelSerializer.setSegmentSize(16);
+        parallelSerializer.setRegisteredEncodingAlgorithms(algorithms);
+        parallelSerializer.setLargeCharacterContentChunkAlgorithm(DeflateTextEncodingAlgorithm.URI, 256);
+        assertTrue(Arrays.equals(expected, serialize(parallelSerializer, ev, d)));
+    }
+
+    public void testWithoutExternalVocabulary() throws Exception {
+        Document d = parse(createDocument(100, false));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DOMDocumentSerializer serializer = new DOMDocumentSerializer();
+        serializer.setOutputStream(expected);
+        serializer.serialize(d);
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        ParallelDOMDocumentSerializer parallelSerializer = new ParallelDOMDocumentSerializer();
+        parallelSerializer.setSegmentSize(4);
+        parallelSerializer.setOutputStream(actual);
+        parallelSerializer.serialize(d);
+
+        assertTrue(Arrays.equals(expected.toByteArray(), actual.toByteArray()));
+    }
+
+    private String createDocument(int items, boolean extraNames) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<root xmlns=\"urn:default\" xmlns:p=\"urn:p\" p:version=\"1\">");
+        for (int i = 0; i < items; i++) {
+            xml.append("<item id=\"").append(i % 7).append("\" p:type=\"t\">");
+            xml.append("<p:name>name").append(i).append("</p:name>");
+            xml.append("<value xmlns:q=\"urn:q\" q:unit=\"u\">").append(i).append("</value>");
+            xml.append("<empty/><!-- comment ").append(i).append(" --><?pi data?>");
+            if (extraNames && i > 300) {
+                xml.append("<extra").append(i % 3).append("/>");
+            }
+            xml.append("</item>text").append(i);
+        }
+        xml.append("</root>");
+        return xml.toString();
+    }
+
+    private ExternalVocabulary createVocabulary(String xml) throws Exception {
+        VocabularyGenerator vocabularyGenerator = new VocabularyGenerator();
+        vocabularyGenerator.setCharacterContentChunkSizeLimit(0);
+        vocabularyGenerator.setAttributeValueSizeLimit(0);
+        SAXParserFactory spf = SAXParserFactory.newInstance();
+        spf.setNamespaceAware(true);
+        spf.newSAXParser().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")), vocabularyGenerator);
+        Vocabulary v = vocabularyGenerator.getVocabulary();
+        // Targets of processing instructions are always indexed
+        v.otherNCNames.add("pi");
+        return new ExternalVocabulary("urn:parallel", v);
+    }
+
+    private byte[] serialize(DOMDocumentSerializer serializer, ExternalVocabulary ev, Document d) throws Exception {
+        serializer.setExternalVocabulary(ev);
+        serializer.setMaxAttributeValueSize(0);
+        serializer.setMaxCharacterContentChunkSize(0);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        serializer.setOutputStream(baos);
+        serializer.serialize(d);
+        return baos.toByteArray();
+    }
+
+    private Document parse(String xml) throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        // Nodes are read concurrently and must not be expanded lazily
+        dbf.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+        return dbf.newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+    }
+
+    private Document newDocument() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().newDocument();
+    }
+}
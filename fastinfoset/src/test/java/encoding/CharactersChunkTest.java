@@ -0,0 +1,147 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package encoding;
+
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.FastInfosetSerializer;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class CharactersChunkTest extends TestCase {
+
+    private static final String TEXT = createText();
+
+    public void testSAXUtf8() throws Exception {
+        testSAX(createDocument(FastInfosetSerializer.UTF_8));
+    }
+
+    public void testSAXUtf16() throws Exception {
+        testSAX(createDocument(FastInfosetSerializer.UTF_16BE));
+    }
+
+    public void testSAXUtf8SmallChunks() throws Exception {
+        testSAX(createDocument(FastInfosetSerializer.UTF_8), 1);
+    }
+
+    public void testSAXUtf16SmallChunks() throws Exception {
+        testSAX(createDocument(FastInfosetSerializer.UTF_16BE), 1);
+    }
+
+    public void testStAXUtf8() throws Exception {
+        testStAX(createDocument(FastInfosetSerializer.UTF_8));
+    }
+
+    public void testStAXUtf16() throws Exception {
+        testStAX(createDocument(FastInfosetSerializer.UTF_16BE));
+    }
+
+    public void testStAXGetText() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(
+                new ByteArrayInputStream(createDocument(FastInfosetSerializer.UTF_8)));
+        parser.setCharactersChunkSize(7);
+
+        parser.nextTag();
+        assertEquals(XMLStreamReader.CHARACTERS, parser.next());
+        assertEquals(TEXT, parser.getText());
+        assertEquals(XMLStreamReader.END_ELEMENT, parser.next());
+    }
+
+    public void testStAXPartialRead() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(
+                new ByteArrayInputStream(createDocument(FastInfosetSerializer.UTF_8)));
+        parser.setCharactersChunkSize(7);
+
+        parser.nextTag();
+        assertEquals(XMLStreamReader.CHARACTERS, parser.next());
+        char[] ch = new char[3];
+        assertEquals(3, parser.getTextCharacters(0, ch, 0, 3));
+        assertEquals(TEXT.substring(0, 3), new String(ch));
+        assertEquals(XMLStreamReader.END_ELEMENT, parser.next());
+        assertEquals("text", parser.getLocalName());
+    }
+
+    private void testSAX(byte[] document) throws Exception {
+        testSAX(document, 7);
+    }
+
+    private void testSAX(byte[] document, final int chunkSize) throws Exception {
+        final StringBuilder text = new StringBuilder();
+        final int[] calls = new int[1];
+        SAXDocumentParser parser = new SAXDocumentParser();
+        parser.setCharactersChunkSize(chunkSize);
+        parser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                // A chunk holds at least one character or surrogate pair
+                assertTrue(length > 0);
+                assertTrue(length <= Math.max(chunkSize, 2));
+                // A chunk does not end between the chars of a surrogate pair
+                assertFalse(Character.isHighSurrogate(ch[start + length - 1]));
+                text.append(ch, start, length);
+                calls[0]++;
+            }
+        });
+        parser.parse(new ByteArrayInputStream(document));
+
+        assertEquals(TEXT, text.toString());
+        assertTrue(calls[0] > 1);
+    }
+
+    private void testStAX(byte[] document) throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(document));
+        parser.setCharactersChunkSize(7);
+
+        parser.nextTag();
+        assertEquals(XMLStreamReader.CHARACTERS, parser.next());
+        StringBuilder text = new StringBuilder();
+        char[] ch = new char[5];
+        int length;
+        while ((length = parser.getTextCharacters(text.length(), ch, 0, ch.length)) > 0) {
+            text.append(ch, 0, length);
+        }
+        assertEquals(TEXT, text.toString());
+        assertEquals(XMLStreamReader.END_ELEMENT, parser.next());
+    }
+
+    private static String createText() {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            b.append("a\u00e9\u20ac\ud83d\ude00").append(i);
+        }
+        return b.toString();
+    }
+
+    private byte[] createDocument(String characterEncodingScheme) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.setCharacterEncodingScheme(characterEncodingScheme);
+        writer.writeStartDocument();
+        writer.writeStartElement("text");
+        writer.writeCharacters(TEXT);
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+}
@@ -21,6 +21,7 @@ package encoding;
 import com.sun.xml.fastinfoset.sax.AttributesHolder;
 import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
 import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
 import com.sun.xml.fastinfoset.tools.VocabularyGenerator;
 import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
 import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
@@ -33,6 +34,7 @@ import java.util.HashMap;
 import java.util.Map;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamConstants;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -173,6 +175,33 @@ public class DecodingTest extends TestCase {
         byte[] finfDocument = baos.toByteArray();
         compare(finfDocument, obtainBytesFromStream(_finfDocumentURL.openStream()));
     }
+
+    public void testDecodeNameSurrogates() throws Exception {
+        byte[] finfDocument = {
+            (byte) 0xE0, 0x00, 0x00, 0x01,
+            // Initial vocabulary of prefixes, namespace names, local names
+            // and element name surrogates
+            0x20, 0x03, (byte) 0x82,
+            0x00, 0x00, 'p',
+            0x00, 0x04, 'u', 'r', 'n', ':', 'a',
+            0x00, 0x00, 'e',
+            // Surrogate of index 1, the index 0 of the prefix and namespace
+            // name tables is that of the XML namespace
+            0x00, 0x03, 0x01, 0x01, 0x00,
+            // <p:e xmlns:p="urn:a"/>, the name by surrogate index
+            0x38, (byte) 0xCF, (byte) 0x81, (byte) 0x81, (byte) 0xF0, 0x00,
+            (byte) 0xFF
+        };
+
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setInputStream(new ByteArrayInputStream(finfDocument));
+        assertEquals(XMLStreamConstants.START_ELEMENT, parser.next());
+        assertEquals("p", parser.getPrefix());
+        assertEquals("urn:a", parser.getNamespaceURI());
+        assertEquals("e", parser.getLocalName());
+        assertEquals(XMLStreamConstants.END_ELEMENT, parser.next());
+        assertEquals(XMLStreamConstants.END_DOCUMENT, parser.next());
+    }
  
         
     private void compare(byte[] fiDocument, byte[] specFiDocument) throws Exception {
@@ -0,0 +1,189 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package encoding;
+
+import com.sun.xml.fastinfoset.Decoder;
+import com.sun.xml.fastinfoset.dom.DOMDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+import org.w3c.dom.Document;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class DeflateCompressionTest extends TestCase {
+    private static final byte[] DICTIONARY = "reading sensor temperature humidity"
+            .getBytes(StandardCharsets.UTF_8);
+
+    public void testCompressedDocument() throws Exception {
+        StAXDocumentSerializer plainSerializer = new StAXDocumentSerializer();
+        byte[] plain = createDocument(plainSerializer, 1);
+
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setDeflateCompression(true, null);
+        assertTrue(serializer.getDeflateCompression());
+        byte[] compressed = createDocument(serializer, 1);
+        assertTrue(compressed.length < plain.length / 2);
+
+        assertTrue(Decoder.isFastInfosetDocument(new ByteArrayInputStream(compressed)));
+        assertFalse(Decoder.isFastInfosetDocument(new ByteArrayInputStream(
+                "<?xml version='1.0'?><e/>".getBytes(StandardCharsets.UTF_8))));
+
+        String expected = parseStAX(new StAXDocumentParser(), plain);
+        assertEquals(expected, parseStAX(new StAXDocumentParser(), compressed));
+        assertEquals(expected, parseSAX(compressed, null));
+
+        DOMDocumentParser domParser = new DOMDocumentParser();
+        Document d = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        domParser.parse(d, new ByteArrayInputStream(compressed));
+        assertEquals(100, d.getDocumentElement().getChildNodes().getLength());
+    }
+
+    public void testDictionary() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setDeflateCompression(true, null);
+        byte[] compressed = createDocument(serializer, 1);
+
+        serializer = new StAXDocumentSerializer();
+        serializer.setDeflateCompression(true, DICTIONARY);
+        byte[] withDictionary = createDocument(serializer, 1);
+        assertTrue(withDictionary.length < compressed.length);
+
+        assertFalse(Decoder.isFastInfosetDocument(new ByteArrayInputStream(withDictionary)));
+        assertTrue(Decoder.isFastInfosetDocument(new ByteArrayInputStream(withDictionary), DICTIONARY));
+
+        String expected = parseSAX(compressed, null);
+        assertEquals(expected, parseSAX(withDictionary, DICTIONARY));
+
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setDeflateDictionary(DICTIONARY);
+        assertEquals(parseStAX(new StAXDocumentParser(), compressed), parseStAX(parser, withDictionary));
+
+        try {
+            parseStAX(new StAXDocumentParser(), withDictionary);
+            fail("The document requires the dictionary");
+        } catch (XMLStreamException e) {
+        }
+    }
+
+    public void testSession() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+        serializer.setDeflateCompression(true, DICTIONARY);
+
+        // The documents of the session are written to one stream
+        ByteArrayOutputStream session = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; i++) {
+            writeDocument(serializer, session, i);
+        }
+
+        // The parser reads beyond the end of each compressed document
+        InputStream in = new ByteArrayInputStream(session.toByteArray());
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        parser.setDeflateDictionary(DICTIONARY);
+        StAXDocumentParser plainParser = new StAXDocumentParser();
+        plainParser.setPersistentVocabulary(true);
+        StAXDocumentSerializer plainSerializer = new StAXDocumentSerializer();
+        plainSerializer.setPersistentVocabulary(true);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(parseStAX(plainParser, createDocument(plainSerializer, i)), parseStAX(parser, in));
+        }
+        assertEquals(-1, in.read());
+    }
+
+    private static byte[] createDocument(StAXDocumentSerializer serializer, int id) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeDocument(serializer, out, id);
+        return out.toByteArray();
+    }
+
+    private static void writeDocument(StAXDocumentSerializer serializer, ByteArrayOutputStream out, int id) throws Exception {
+        serializer.setOutputStream(out);
+        serializer.writeStartDocument();
+        serializer.writeStartElement("readings");
+        serializer.writeAttribute("id", Integer.toString(id));
+        for (int i = 0; i < 100; i++) {
+            serializer.writeStartElement("reading");
+            serializer.writeAttribute("sensor", "sensor-" + (i % 7));
+            serializer.writeStartElement(i % 2 == 0 ? "temperature" : "humidity");
+            serializer.writeCharacters(Integer.toString(1000 + i * id));
+            serializer.writeEndElement();
+            serializer.writeEndElement();
+        }
+        serializer.writeEndElement();
+        serializer.writeEndDocument();
+        serializer.close();
+    }
+
+    private static String parseStAX(StAXDocumentParser parser, byte[] document) throws Exception {
+        return parseStAX(parser, new ByteArrayInputStream(document));
+    }
+
+    private static String parseStAX(StAXDocumentParser parser, InputStream in) throws Exception {
+        parser.setInputStream(in);
+
+        StringBuilder b = new StringBuilder();
+        while (parser.hasNext()) {
+            switch (parser.next()) {
+                case XMLStreamReader.START_ELEMENT:
+                    b.append('<').append(parser.getLocalName());
+                    for (int i = 0; i < parser.getAttributeCount(); i++) {
+                        b.append(' ').append(parser.getAttributeValue(i));
+                    }
+                    break;
+                case XMLStreamReader.CHARACTERS:
+                    b.append(' ').append(parser.getText());
+                    break;
+            }
+        }
+        return b.toString();
+    }
+
+    private static String parseSAX(byte[] document, byte[] dictionary) throws Exception {
+        SAXDocumentParser parser = new SAXDocumentParser();
+        parser.setDeflateDictionary(dictionary);
+
+        final StringBuilder b = new StringBuilder();
+        parser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                b.append('<').append(localName);
+                for (int i = 0; i < atts.getLength(); i++) {
+                    b.append(' ').append(atts.getValue(i));
+                }
+            }
+
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                b.append(' ').append(ch, start, length);
+            }
+        });
+        parser.parse(new ByteArrayInputStream(document));
+        return b.toString();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package encoding;
+
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLStreamConstants;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.FastInfosetSerializer;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class LazyAttributeValuesTest extends TestCase implements XMLStreamConstants {
+    private static final int ELEMENTS = 100;
+
+    public void testStAX() throws Exception {
+        checkStAX(FastInfosetSerializer.UTF_8);
+        checkStAX(FastInfosetSerializer.UTF_16BE);
+    }
+
+    public void testSAX() throws Exception {
+        for (String encoding : new String[] {FastInfosetSerializer.UTF_8, FastInfosetSerializer.UTF_16BE}) {
+            final List<String> values = new ArrayList<>();
+            SAXDocumentParser parser = new SAXDocumentParser();
+            parser.setLazyAttributeValues(true);
+            parser.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes atts) {
+                    if (localName.equals("e")) {
+                        // Read the values out of order, and the second twice
+                        values.add(atts.getValue("", "b") + atts.getValue(0) + atts.getValue("b"));
+                    }
+                }
+            });
+            parser.parse(new ByteArrayInputStream(createDocument(encoding)));
+
+            assertEquals(ELEMENTS, values.size());
+            for (int i = 0; i < ELEMENTS; i++) {
+                assertEquals(second(i) + first(i) + second(i), values.get(i));
+            }
+        }
+    }
+
+    private void checkStAX(String encoding) throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument(encoding)));
+        parser.setLazyAttributeValues(true);
+        int i = 0;
+        while (parser.next() != END_DOCUMENT) {
+            if (parser.getEventType() == START_ELEMENT && parser.getLocalName().equals("e")) {
+                // Values of some elements are not read
+                if (i % 3 != 0) {
+                    assertEquals(second(i), parser.getAttributeValue(1));
+                    assertEquals(first(i), parser.getAttributeValue(null, "a"));
+                    assertEquals("v", parser.getAttributeValue(null, "c"));
+                }
+                i++;
+            }
+        }
+        assertEquals(ELEMENTS, i);
+    }
+
+    private static String first(int i) {
+        return "first value of element number " + i + " \u00e9\u4e2d\ud83d\ude00";
+    }
+
+    private static String second(int i) {
+        StringBuilder b = new StringBuilder();
+        for (int j = 0; j < i * 10; j++) {
+            b.append((char) ('a' + j % 26));
+        }
+        return b.toString();
+    }
+
+    private byte[] createDocument(String encoding) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.setCharacterEncodingScheme(encoding);
+        writer.writeStartDocument();
+        writer.writeStartElement("root");
+        for (int i = 0; i < ELEMENTS; i++) {
+            writer.writeStartElement("e");
+            writer.writeAttribute("a", first(i));
+            writer.writeAttribute("b", second(i));
+            // Added to the attribute value table
+            writer.writeAttribute("c", "v");
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package encoding;
+
+import com.sun.xml.fastinfoset.EncodingConstants;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import com.sun.xml.fastinfoset.util.PathFilter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.stream.XMLStreamConstants;
+import junit.framework.TestCase;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class PathFilterTest extends TestCase implements XMLStreamConstants {
+
+    public void testStAX() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        parser.setPathFilter(PathFilter.compile("/Envelope/Header/MessageID | /Envelope/Body/item[@id='7']"));
+
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("MessageID", parser.getLocalName());
+        assertEquals("urn:env", parser.getNamespaceURI());
+        assertEquals("m1", parser.getElementText());
+
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("item", parser.getLocalName());
+        assertEquals("7", parser.getAttributeValue(null, "id"));
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("value", parser.getLocalName());
+        assertEquals("v7", parser.getElementText());
+        assertEquals(END_ELEMENT, parser.next());
+        assertEquals("item", parser.getLocalName());
+
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testStAXAfterSkippedContent() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        parser.setPathFilter(PathFilter.compile("/{urn:env}Envelope/{urn:env}Trailer/*[@id]"));
+
+        // The trailer refers to names and values added in the skipped body
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("item", parser.getLocalName());
+        assertEquals("3", parser.getAttributeValue(null, "id"));
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("v3", parser.getElementText());
+        assertEquals(END_ELEMENT, parser.next());
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testStAXNoMatch() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        parser.setPathFilter(PathFilter.compile("/{urn:other}Envelope"));
+
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testStAXAfterEntityReference() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocumentWithEntityReference()));
+        parser.setPathFilter(PathFilter.compile("/Envelope/Body/item[@id='7']"));
+
+        // The unexpanded entity reference is skipped before the value
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("item", parser.getLocalName());
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("value", parser.getLocalName());
+        assertEquals("v7", parser.getElementText());
+        assertEquals(END_ELEMENT, parser.next());
+        assertEquals("item", parser.getLocalName());
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testStAXAttributesOfSameLocalName() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("Envelope");
+        writer.writeNamespace("x", "urn:x");
+        for (int i = 0; i < 3; i++) {
+            writer.writeStartElement("item");
+            writer.writeAttribute("x", "urn:x", "id", Integer.toString(i));
+            writer.writeAttribute("id", Integer.toString(i + 1));
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+
+        // The first attribute named id of the item 1 has another value
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(out.toByteArray()));
+        parser.setPathFilter(PathFilter.compile("/Envelope/item[@id='2']"));
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("1", parser.getAttributeValue("urn:x", "id"));
+        assertEquals(END_ELEMENT, parser.next());
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("2", parser.getAttributeValue("urn:x", "id"));
+        assertEquals(END_ELEMENT, parser.next());
+        assertEquals(END_DOCUMENT, parser.next());
+
+        // The first attribute named id of the item 1 is in another namespace
+        parser = new StAXDocumentParser(new ByteArrayInputStream(out.toByteArray()));
+        parser.setPathFilter(PathFilter.compile("/Envelope/item[@{}id='2']"));
+        assertEquals(START_ELEMENT, parser.next());
+        assertEquals("1", parser.getAttributeValue("urn:x", "id"));
+        assertEquals(END_ELEMENT, parser.next());
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testSAX() throws Exception {
+        final StringBuilder events = new StringBuilder();
+        SAXDocumentParser parser = new SAXDocumentParser();
+        parser.setPathFilter(PathFilter.compile("/Envelope/Header/MessageID | /Envelope/*/item[@id='7']"));
+        parser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                events.append('<').append(localName).append('>');
+            }
+
+            @Override
+            public void endElement(String uri, String localName, String qName) {
+                events.append("</").append(localName).append('>');
+            }
+
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                events.append(ch, start, length);
+            }
+        });
+        parser.parse(new ByteArrayInputStream(createDocument()));
+
+        assertEquals("<MessageID>m1</MessageID><item><value>v7</value></item>", events.toString());
+    }
+
+    public void testInvalidExpression() {
+        String[] expressions = {"", "Envelope", "/Envelope/", "/Envelope[id]", "/Envelope[@id='1'", "/{urn:env"};
+        for (String expression : expressions) {
+            try {
+                PathFilter.compile(expression);
+                fail(expression);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+    }
+
+    private byte[] createDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.setPrefix("env", "urn:env");
+        writer.writeStartElement("env", "Envelope", "urn:env");
+        writer.writeNamespace("env", "urn:env");
+
+        writer.writeStartElement("env", "Header", "urn:env");
+        writer.writeStartElement("env", "MessageID", "urn:env");
+        writer.writeCharacters("m1");
+        writer.writeEndElement();
+        writer.writeComment("comment");
+        writer.writeEndElement();
+
+        writer.writeStartElement("env", "Body", "urn:env");
+        writer.writeCharacters("text");
+        for (int i = 0; i < 100; i++) {
+            writer.writeProcessingInstruction("pi", "data");
+            writeItem(writer, i);
+            writer.writeOctets(new byte[] {1, 2, 3}, 0, 3);
+        }
+        writer.writeEndElement();
+
+        writer.writeStartElement("env", "Trailer", "urn:env");
+        writeItem(writer, 3);
+        writer.writeEmptyElement("empty");
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /*
+     * A document with an unexpanded entity reference before the value of
+     * the item 7. The serializer does not write unexpanded entity references,
+     * so the reference is inserted where a processing instruction would be.
+     */
+    private byte[] createDocumentWithEntityReference() throws Exception {
+        byte[] withoutReference = createItemsDocument(false);
+        byte[] withInstruction = createItemsDocument(true);
+
+        int start = 0;
+        while (withoutReference[start] == withInstruction[start]) {
+            start++;
+        }
+
+        // An unexpanded entity reference to the entity 'amp'
+        byte[] reference = {(byte) EncodingConstants.UNEXPANDED_ENTITY_REFERENCE, 0x02, 'a', 'm', 'p'};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(withoutReference, 0, start);
+        out.write(reference);
+        out.write(withoutReference, start, withoutReference.length - start);
+        return out.toByteArray();
+    }
+
+    private byte[] createItemsDocument(boolean instruction) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("Envelope");
+        writer.writeStartElement("Body");
+        for (int i = 0; i < 10; i++) {
+            writer.writeStartElement("item");
+            writer.writeAttribute("id", Integer.toString(i));
+            if (instruction && i == 7) {
+                writer.writeProcessingInstruction("entity");
+            }
+            writer.writeStartElement("value");
+            writer.writeCharacters("v" + i);
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private void writeItem(StAXDocumentSerializer writer, int i) throws Exception {
+        writer.writeStartElement("item");
+        writer.writeAttribute("id", Integer.toString(i));
+        writer.writeStartElement("value");
+        writer.writeCharacters("v" + i);
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+}
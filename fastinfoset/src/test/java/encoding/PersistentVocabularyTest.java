@@ -0,0 +1,196 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package encoding;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+
+public class PersistentVocabularyTest extends TestCase {
+
+    public void testTablesPersistAcrossDocuments() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+
+        byte[] first = createDocument(serializer, 1);
+        byte[] second = createDocument(serializer, 2);
+
+        // The second document references names and values by index
+        assertTrue(second.length < first.length);
+
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        assertEquals("1 id a b c", parseDocument(parser, first));
+        assertEquals("2 id a b c", parseDocument(parser, second));
+    }
+
+    public void testReset() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+
+        byte[] first = createDocument(serializer, 1);
+        byte[] second = createDocument(serializer, 2);
+        serializer.resetPersistentVocabulary();
+        byte[] third = createDocument(serializer, 3);
+
+        assertEquals(first.length, third.length);
+
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        assertEquals("1 id a b c", parseDocument(parser, first));
+        assertEquals("2 id a b c", parseDocument(parser, second));
+        assertEquals("3 id a b c", parseDocument(parser, third));
+    }
+
+    public void testItemsLimit() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+        serializer.setPersistentVocabularyItemsLimit(1);
+
+        byte[] first = createDocument(serializer, 1);
+        byte[] second = createDocument(serializer, 2);
+
+        // Every document starts with cleared tables
+        assertEquals(first.length, second.length);
+
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        assertEquals("1 id a b c", parseDocument(parser, first));
+        assertEquals("2 id a b c", parseDocument(parser, second));
+    }
+
+    public void testDocumentWithoutPreviousDocuments() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+
+        byte[] first = createDocument(serializer, 1);
+        byte[] second = createDocument(serializer, 2);
+
+        assertEquals("1 id a b c", parseDocument(new StAXDocumentParser(), first));
+        try {
+            parseDocument(new StAXDocumentParser(), second);
+            fail("The second document references entries of the first document");
+        } catch (XMLStreamException | RuntimeException e) {
+        }
+    }
+
+    public void testDocumentsFromOneStream() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+
+        ByteArrayOutputStream session = new ByteArrayOutputStream();
+        for (int i = 1; i <= 4; i++) {
+            session.write(createDocument(serializer, i));
+        }
+
+        // The parser reads beyond the end of each document
+        InputStream in = new ByteArrayInputStream(session.toByteArray());
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i + " id a b c", parseDocument(parser, in));
+        }
+        assertEquals(-1, in.read());
+    }
+
+    public void testCheckpoint() throws Exception {
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        serializer.setPersistentVocabulary(true);
+
+        byte[] first = createDocument(serializer, 1);
+        byte[] second = createDocument(serializer, 2);
+        serializer.checkpointPersistentVocabulary();
+        byte[] third = createDocument(serializer, 3);
+        serializer.resetPersistentVocabulary();
+        serializer.checkpointPersistentVocabulary();
+        byte[] fourth = createDocument(serializer, 4);
+
+        StAXDocumentParser parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        assertEquals("1 id a b c", parseDocument(parser, first));
+        assertEquals("2 id a b c", parseDocument(parser, second));
+        assertEquals("3 id a b c", parseDocument(parser, third));
+        assertEquals("4 id a b c", parseDocument(parser, fourth));
+
+        // The second document is lost
+        parser = new StAXDocumentParser();
+        parser.setPersistentVocabulary(true);
+        assertEquals("1 id a b c", parseDocument(parser, first));
+        try {
+            parseDocument(parser, third);
+            fail("The third document is decoded without the second document");
+        } catch (XMLStreamException e) {
+        }
+        // The reset starts a new session
+        assertEquals("4 id a b c", parseDocument(parser, fourth));
+    }
+
+    private byte[] createDocument(StAXDocumentSerializer serializer, int id) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        serializer.setOutputStream(baos);
+
+        serializer.writeStartDocument();
+            serializer.writeStartElement("message");
+            serializer.writeAttribute("id", Integer.toString(id));
+                serializer.writeStartElement("name");
+                serializer.writeAttribute("type", "id");
+                    serializer.writeCharacters("a");
+                serializer.writeEndElement();
+                serializer.writeStartElement("name");
+                    serializer.writeCharacters("b");
+                serializer.writeEndElement();
+                serializer.writeStartElement("name");
+                    serializer.writeCharacters("c");
+                serializer.writeEndElement();
+            serializer.writeEndElement();
+        serializer.writeEndDocument();
+        serializer.close();
+
+        return baos.toByteArray();
+    }
+
+    private String parseDocument(StAXDocumentParser parser, byte[] document) throws Exception {
+        return parseDocument(parser, new ByteArrayInputStream(document));
+    }
+
+    private String parseDocument(StAXDocumentParser parser, InputStream in) throws Exception {
+        parser.setInputStream(in);
+
+        StringBuilder b = new StringBuilder();
+        while (parser.hasNext()) {
+            switch (parser.next()) {
+                case XMLStreamReader.START_ELEMENT:
+                    for (int i = 0; i < parser.getAttributeCount(); i++) {
+                        if (b.length() > 0) b.append(' ');
+                        b.append(parser.getAttributeValue(i));
+                    }
+                    break;
+                case XMLStreamReader.CHARACTERS:
+                    b.append(' ').append(parser.getText());
+                    break;
+            }
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sax;
+
+import com.sun.xml.fastinfoset.EncodingConstants;
+import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.sax.AttributesHolder;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class AlgorithmCharactersTest extends TestCase {
+
+    public void testCharacters() throws Exception {
+        int[] data = new int[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i * 1000 - 500000;
+        }
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < data.length; i++) {
+            expected.append(i == 0 ? "" : " ").append(data[i]);
+        }
+
+        byte[] b = createDocument(data);
+        // Set the add to table flag of the chunk, the serializer does not
+        // add encoding algorithm data to the table
+        final int id = EncodingAlgorithmIndexes.INT;
+        for (int i = 0; i < b.length - 1; i++) {
+            if (b[i] == (byte) (EncodingConstants.CHARACTER_CHUNK | EncodingConstants.CHARACTER_CHUNK_ENCODING_ALGORITHM_FLAG)
+                    && (b[i + 1] & 0xFC) == id << 2) {
+                b[i] |= EncodingConstants.CHARACTER_CHUNK_ADD_TO_TABLE_FLAG;
+                break;
+            }
+        }
+
+        final List<String> characters = new ArrayList<>();
+        final String[] attribute = new String[1];
+        TableParser parser = new TableParser();
+        parser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                if (atts.getLength() > 0) {
+                    attribute[0] = atts.getValue(0);
+                }
+            }
+
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                characters.add(new String(ch, start, length));
+            }
+        });
+        parser.parse(new ByteArrayInputStream(b));
+
+        assertEquals(1, characters.size());
+        assertEquals(expected.toString(), characters.get(0));
+        List<String> table = parser.getCharacterContentChunks();
+        assertEquals(1, table.size());
+        assertEquals(expected.toString(), table.get(0));
+        assertEquals("1 2 3", attribute[0]);
+    }
+
+    private byte[] createDocument(int[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer serializer = new SAXDocumentSerializer();
+        serializer.setOutputStream(out);
+        serializer.startDocument();
+        serializer.startElement("", "root", "root", new AttributesImpl());
+        serializer.ints(data, 0, data.length);
+        AttributesHolder atts = new AttributesHolder();
+        atts.addAttributeWithAlgorithmData(new QualifiedName("", "", "a"),
+                null, EncodingAlgorithmIndexes.INT, new int[] {1, 2, 3});
+        serializer.startElement("", "e", "e", atts);
+        serializer.endElement("", "e", "e");
+        serializer.endElement("", "root", "root");
+        serializer.endDocument();
+        return out.toByteArray();
+    }
+
+    private static final class TableParser extends SAXDocumentParser {
+        List<String> getCharacterContentChunks() {
+            List<String> chunks = new ArrayList<>();
+            for (int i = 0; i < _characterContentChunkTable.getSize(); i++) {
+                chunks.add(_characterContentChunkTable.getString(i));
+            }
+            return chunks;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sax;
+
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
+import org.jvnet.fastinfoset.sax.helpers.FastInfosetDefaultHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class PrimitiveTypeChunksTest extends TestCase {
+    private static final int LENGTH = 1001;
+
+    private final boolean[] _booleans = new boolean[LENGTH];
+    private final byte[] _bytes = new byte[LENGTH];
+    private final short[] _shorts = new short[LENGTH];
+    private final int[] _ints = new int[LENGTH];
+    private final long[] _longs = new long[LENGTH];
+    private final float[] _floats = new float[LENGTH];
+    private final double[] _doubles = new double[LENGTH];
+    private final long[] _uuids = new long[LENGTH - 1];
+
+    private byte[] _document;
+
+    @Override
+    protected void setUp() throws Exception {
+        for (int i = 0; i < LENGTH; i++) {
+            _booleans[i] = (i % 3 == 0) || (i % 7 == 0);
+            _bytes[i] = (byte) (i * 31);
+            _shorts[i] = (short) (i * 1009);
+            _ints[i] = i * 1000003;
+            _longs[i] = i * 10000000019L;
+            _floats[i] = i / 3.0f;
+            _doubles[i] = i / 7.0;
+        }
+        for (int i = 0; i < _uuids.length; i++) {
+            _uuids[i] = i * 0x123456789L;
+        }
+        _document = createDocument();
+    }
+
+    public void testOneChunk() throws Exception {
+        ChunkHandler h = parse(0);
+        assertEquals(8, h.starts.size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals(1, h.chunks.get(i).size());
+        }
+        assertPrimitives(h);
+    }
+
+    public void testChunks() throws Exception {
+        for (int chunkLength : new int[] {1, 2, 7, 8, 64, LENGTH - 1, LENGTH}) {
+            ChunkHandler h = parse(chunkLength);
+            assertEquals(8, h.starts.size());
+            for (List<Integer> chunks : h.chunks) {
+                for (int length : chunks) {
+                    assertTrue(length <= Math.max(2, chunkLength));
+                }
+            }
+            assertEquals((LENGTH + chunkLength - 1) / chunkLength, h.chunks.get(0).size());
+            assertPrimitives(h);
+        }
+    }
+
+    public void testOctetsReadInChunks() throws Exception {
+        int[] ints = new int[100000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 1000003;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        s.setOutputStream(out);
+        s.startDocument();
+        s.startElement("", "e", "e", new AttributesImpl());
+        s.ints(ints, 0, ints.length);
+        s.endElement("", "e", "e");
+        s.endDocument();
+
+        OctetBufferParser p = new OctetBufferParser();
+        p.setPrimitiveTypeChunkLength(1000);
+        ChunkHandler h = new ChunkHandler();
+        h.ints = new int[ints.length];
+        p.setContentHandler(h);
+        p.setPrimitiveTypeContentHandler(h);
+        // Read the document a few octets at a time
+        p.parse(new FilterInputStream(new ByteArrayInputStream(out.toByteArray())) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        });
+
+        assertEquals(100, h.chunks.get(0).size());
+        assertTrue(Arrays.equals(ints, Arrays.copyOf(h.ints, h.intsLength)));
+        // The octets of the ints are not decoded into the octet buffer
+        assertTrue(p.getOctetBufferLength() < ints.length * 4);
+    }
+
+    public void testNegativeChunkLength() {
+        try {
+            new SAXDocumentParser().setPrimitiveTypeChunkLength(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private void assertPrimitives(ChunkHandler h) {
+        assertEquals(Arrays.asList(
+                EncodingAlgorithmIndexes.BOOLEAN, EncodingAlgorithmIndexes.BASE64,
+                EncodingAlgorithmIndexes.SHORT, EncodingAlgorithmIndexes.INT,
+                EncodingAlgorithmIndexes.LONG, EncodingAlgorithmIndexes.FLOAT,
+                EncodingAlgorithmIndexes.DOUBLE, EncodingAlgorithmIndexes.UUID), h.algorithms);
+        assertEquals(Arrays.asList(LENGTH, LENGTH, LENGTH, LENGTH, LENGTH, LENGTH, LENGTH, LENGTH - 1), h.starts);
+        assertTrue(Arrays.equals(_booleans, Arrays.copyOf(h.booleans, h.booleansLength)));
+        assertTrue(Arrays.equals(_bytes, h.bytes.toByteArray()));
+        assertTrue(Arrays.equals(_shorts, Arrays.copyOf(h.shorts, h.shortsLength)));
+        assertTrue(Arrays.equals(_ints, Arrays.copyOf(h.ints, h.intsLength)));
+        assertTrue(Arrays.equals(_longs, Arrays.copyOf(h.longs, h.longsLength)));
+        assertTrue(Arrays.equals(_floats, Arrays.copyOf(h.floats, h.floatsLength)));
+        assertTrue(Arrays.equals(_doubles, Arrays.copyOf(h.doubles, h.doublesLength)));
+        assertTrue(Arrays.equals(_uuids, Arrays.copyOf(h.uuids, h.uuidsLength)));
+    }
+
+    private ChunkHandler parse(int chunkLength) throws Exception {
+        SAXDocumentParser p = new SAXDocumentParser();
+        p.setPrimitiveTypeChunkLength(chunkLength);
+        assertEquals(chunkLength, p.getPrimitiveTypeChunkLength());
+        ChunkHandler h = new ChunkHandler();
+        p.setContentHandler(h);
+        p.setPrimitiveTypeContentHandler(h);
+        p.parse(new ByteArrayInputStream(_document));
+        assertFalse(h.started);
+        return h;
+    }
+
+    private byte[] createDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        s.setOutputStream(out);
+        AttributesImpl atts = new AttributesImpl();
+        s.startDocument();
+        s.startElement("", "e", "e", atts);
+        s.booleans(_booleans, 0, _booleans.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.bytes(_bytes, 0, _bytes.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.shorts(_shorts, 0, _shorts.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.ints(_ints, 0, _ints.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.longs(_longs, 0, _longs.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.floats(_floats, 0, _floats.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.doubles(_doubles, 0, _doubles.length);
+        s.endElement("", "e", "e");
+        s.startElement("", "e", "e", atts);
+        s.uuids(_uuids, 0, _uuids.length);
+        s.endElement("", "e", "e");
+        s.endDocument();
+        return out.toByteArray();
+    }
+
+    private static class OctetBufferParser extends SAXDocumentParser {
+        int getOctetBufferLength() {
+            return _octetBuffer.length;
+        }
+    }
+
+    /*
+     * Collects the chunks, copying them as the parser reuses the arrays
+     */
+    private static class ChunkHandler extends FastInfosetDefaultHandler {
+        final List<Integer> algorithms = new ArrayList<Integer>();
+        final List<Integer> starts = new ArrayList<Integer>();
+        final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        boolean started;
+
+        boolean[] booleans = new boolean[LENGTH];
+        int booleansLength;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        short[] shorts = new short[LENGTH];
+        int shortsLength;
+        int[] ints = new int[LENGTH];
+        int intsLength;
+        long[] longs = new long[LENGTH];
+        int longsLength;
+        float[] floats = new float[LENGTH];
+        int floatsLength;
+        double[] doubles = new double[LENGTH];
+        int doublesLength;
+        long[] uuids = new long[LENGTH];
+        int uuidsLength;
+
+        @Override
+        public void startPrimitives(int algorithm, int length) {
+            assertFalse(started);
+            started = true;
+            algorithms.add(algorithm);
+            starts.add(length);
+            chunks.add(new ArrayList<Integer>());
+        }
+
+        @Override
+        public void endPrimitives() {
+            assertTrue(started);
+            started = false;
+        }
+
+        private void chunk(int length) {
+            assertTrue(started);
+            assertTrue(length > 0);
+            chunks.get(chunks.size() - 1).add(length);
+        }
+
+        @Override
+        public void booleans(boolean[] b, int start, int length) {
+            chunk(length);
+            System.arraycopy(b, start, booleans, booleansLength, length);
+            booleansLength += length;
+        }
+
+        @Override
+        public void bytes(byte[] b, int start, int length) {
+            chunk(length);
+            bytes.write(b, start, length);
+        }
+
+        @Override
+        public void shorts(short[] s, int start, int length) {
+            chunk(length);
+            System.arraycopy(s, start, shorts, shortsLength, length);
+            shortsLength += length;
+        }
+
+        @Override
+        public void ints(int[] i, int start, int length) {
+            chunk(length);
+            System.arraycopy(i, start, ints, intsLength, length);
+            intsLength += length;
+        }
+
+        @Override
+        public void longs(long[] l, int start, int length) {
+            chunk(length);
+            System.arraycopy(l, start, longs, longsLength, length);
+            longsLength += length;
+        }
+
+        @Override
+        public void floats(float[] f, int start, int length) {
+            chunk(length);
+            System.arraycopy(f, start, floats, floatsLength, length);
+            floatsLength += length;
+        }
+
+        @Override
+        public void doubles(double[] d, int start, int length) {
+            chunk(length);
+            System.arraycopy(d, start, doubles, doublesLength, length);
+            doublesLength += length;
+        }
+
+        @Override
+        public void uuids(long[] msblsb, int start, int length) {
+            chunk(length);
+            assertEquals(0, length % 2);
+            System.arraycopy(msblsb, start, uuids, uuidsLength, length);
+            uuidsLength += length;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sax;
+
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
+import org.jvnet.fastinfoset.sax.EncodingAlgorithmAttributes;
+import org.jvnet.fastinfoset.sax.helpers.EncodingAlgorithmAttributesImpl;
+import org.jvnet.fastinfoset.sax.helpers.FastInfosetDefaultHandler;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class TypedAttributeValuesTest extends TestCase {
+    // More attributes than the default capacity of the attribute lists
+    private static final int ATTRIBUTES = 10;
+
+    public void testSerializer() throws Exception {
+        EncodingAlgorithmAttributesImpl typed = createTypedAttributes();
+        for (int i = 0; i < ATTRIBUTES * 3; i++) {
+            assertTrue(typed.hasPrimitiveValue(i));
+        }
+
+        // The same octets as for arrays of one value
+        EncodingAlgorithmAttributesImpl arrays = new EncodingAlgorithmAttributesImpl();
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            arrays.addAttributeWithBuiltInAlgorithmData("", "i" + i, "i" + i,
+                    EncodingAlgorithmIndexes.INT, new int[] {intValue(i)});
+            arrays.addAttributeWithBuiltInAlgorithmData("", "l" + i, "l" + i,
+                    EncodingAlgorithmIndexes.LONG, new long[] {longValue(i)});
+            arrays.addAttributeWithBuiltInAlgorithmData("", "d" + i, "d" + i,
+                    EncodingAlgorithmIndexes.DOUBLE, new double[] {doubleValue(i)});
+        }
+        arrays.addAttribute("", "s", "s", "CDATA", "text");
+        assertFalse(arrays.hasPrimitiveValue(0));
+        assertTrue(Arrays.equals(createDocument(arrays), createDocument(typed)));
+
+        // The values are also available as algorithm data and characters
+        assertTrue(Arrays.equals(new int[] {intValue(1)}, (int[]) typed.getAlgorithmData(3)));
+        assertTrue(Arrays.equals(new double[] {doubleValue(1)}, (double[]) typed.getAlgorithmData(5)));
+        assertEquals(Long.toString(longValue(1)), typed.getValue(4));
+        assertEquals(Double.toString(doubleValue(1)), typed.getValue(5));
+
+        // Typed values of attributes that are not primitive values
+        assertEquals(intValue(1), arrays.getIntValue(3));
+        assertEquals(intValue(1), arrays.getLongValue(3));
+        assertEquals(longValue(1), arrays.getLongValue(4));
+        assertEquals(doubleValue(1), arrays.getDoubleValue(5), 0);
+        try {
+            arrays.getIntValue(ATTRIBUTES * 3);
+            fail();
+        } catch (NumberFormatException e) {
+        }
+
+        typed.clear();
+        typed.addAttribute("", "s", "s", "CDATA", " 42 ");
+        assertFalse(typed.hasPrimitiveValue(0));
+        assertEquals(42, typed.getIntValue(0));
+        assertEquals(42, typed.getLongValue(0));
+        assertEquals(42.0, typed.getDoubleValue(0), 0);
+    }
+
+    public void testSAXParser() throws Exception {
+        byte[] b = createDocument(createTypedAttributes());
+
+        final EncodingAlgorithmAttributesImpl[] copy = new EncodingAlgorithmAttributesImpl[1];
+        SAXDocumentParser p = new SAXDocumentParser();
+        FastInfosetDefaultHandler h = new FastInfosetDefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                EncodingAlgorithmAttributes eAtts = (EncodingAlgorithmAttributes) atts;
+                assertEquals(ATTRIBUTES * 3 + 1, eAtts.getLength());
+                for (int i = 0; i < ATTRIBUTES; i++) {
+                    assertTrue(eAtts.hasPrimitiveValue(i * 3));
+                    assertEquals(intValue(i), eAtts.getIntValue(i * 3));
+                    assertEquals(longValue(i), eAtts.getLongValue(i * 3 + 1));
+                    assertEquals(Double.doubleToRawLongBits(doubleValue(i)),
+                            Double.doubleToRawLongBits(eAtts.getDoubleValue(i * 3 + 2)));
+                }
+                assertFalse(eAtts.hasPrimitiveValue(ATTRIBUTES * 3));
+                assertEquals("text", eAtts.getValue(ATTRIBUTES * 3));
+                copy[0] = new EncodingAlgorithmAttributesImpl(atts);
+            }
+        };
+        p.setContentHandler(h);
+        p.setPrimitiveTypeContentHandler(h);
+        p.parse(new ByteArrayInputStream(b));
+
+        // The copy holds the primitive values and is serialized the same
+        for (int i = 0; i < ATTRIBUTES * 3; i++) {
+            assertTrue(copy[0].hasPrimitiveValue(i));
+        }
+        assertEquals(Integer.toString(intValue(2)), copy[0].getValue(6));
+        assertTrue(Arrays.equals(b, createDocument(copy[0])));
+    }
+
+    public void testCharacters() throws Exception {
+        byte[] b = createDocument(createTypedAttributes());
+
+        // Without a primitive type content handler the values are characters
+        final String[] values = new String[ATTRIBUTES * 3];
+        SAXDocumentParser p = new SAXDocumentParser();
+        p.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                EncodingAlgorithmAttributes eAtts = (EncodingAlgorithmAttributes) atts;
+                assertFalse(eAtts.hasPrimitiveValue(0));
+                assertEquals(intValue(0), eAtts.getIntValue(0));
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = atts.getValue(i);
+                }
+            }
+        });
+        p.parse(new ByteArrayInputStream(b));
+
+        StAXDocumentParser r = new StAXDocumentParser();
+        r.setInputStream(new ByteArrayInputStream(b));
+        assertEquals(XMLStreamReader.START_ELEMENT, r.nextTag());
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            assertEquals(Integer.toString(intValue(i)), values[i * 3]);
+            assertEquals(Long.toString(longValue(i)), values[i * 3 + 1]);
+            assertEquals(Double.toString(doubleValue(i)), values[i * 3 + 2]);
+            for (int j = i * 3; j < i * 3 + 3; j++) {
+                assertEquals(values[j], r.getAttributeValue(j));
+            }
+        }
+    }
+
+    private static EncodingAlgorithmAttributesImpl createTypedAttributes() {
+        EncodingAlgorithmAttributesImpl atts = new EncodingAlgorithmAttributesImpl();
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            atts.addAttributeWithIntValue("", "i" + i, "i" + i, intValue(i));
+            atts.addAttributeWithLongValue("", "l" + i, "l" + i, longValue(i));
+            atts.addAttributeWithDoubleValue("", "d" + i, "d" + i, doubleValue(i));
+        }
+        atts.addAttribute("", "s", "s", "CDATA", "text");
+        return atts;
+    }
+
+    private static int intValue(int i) {
+        return (i % 2 == 0) ? i * 1000003 : -i;
+    }
+
+    private static long longValue(int i) {
+        return (i % 2 == 0) ? Long.MIN_VALUE + i : i * 10000000019L;
+    }
+
+    private static double doubleValue(int i) {
+        return (i == 0) ? Double.NEGATIVE_INFINITY : i / 3.0;
+    }
+
+    private static byte[] createDocument(Attributes atts) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        s.setOutputStream(out);
+        s.startDocument();
+        s.startElement("", "e", "e", atts);
+        s.endElement("", "e", "e");
+        s.endDocument();
+        return out.toByteArray();
+    }
+}
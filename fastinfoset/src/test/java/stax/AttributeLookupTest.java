@@ -0,0 +1,104 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package stax;
+
+import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.sax.AttributesHolder;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.stream.XMLStreamConstants;
+import junit.framework.TestCase;
+
+public class AttributeLookupTest extends TestCase implements XMLStreamConstants {
+    private static final int ATTRIBUTES = 40;
+    private static final int ELEMENTS = 5;
+
+    public void testWideElement() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        QualifiedName[] names = null;
+        int elements = 0;
+        while (parser.next() != END_DOCUMENT) {
+            if (parser.getEventType() != START_ELEMENT || !parser.getLocalName().equals("e")) {
+                continue;
+            }
+
+            AttributesHolder attributes = parser.getAttributesHolder();
+            assertEquals(ATTRIBUTES + 1, attributes.getLength());
+            if (names == null) {
+                names = new QualifiedName[ATTRIBUTES];
+                for (int i = 0; i < ATTRIBUTES; i++) {
+                    names[i] = attributes.getQualifiedName(attributes.getIndex("", "a" + i));
+                    assertTrue(names[i].index >= 0);
+                }
+            }
+
+            // Look up in reverse order of the attributes
+            for (int i = ATTRIBUTES - 1; i >= 0; i--) {
+                String value = value(elements, i);
+                assertEquals(value, parser.getAttributeValue("", "a" + i));
+                assertEquals(value, parser.getAttributeValue(null, "a" + i));
+                assertEquals(value, attributes.getValue("a" + i));
+                assertEquals(value, parser.getAttributeValue(names[i]));
+                assertEquals(value, attributes.getValue(new QualifiedName("", "", "a" + i)));
+                assertEquals(i, attributes.getIndex(names[i]));
+            }
+
+            // Names of the attribute name table that are not attributes
+            // of the element, and names equal to another entry of the table
+            assertEquals(-1, attributes.getIndex(new QualifiedName("", "", "missing", "missing", 1000)));
+            assertEquals(1, attributes.getIndex(new QualifiedName("", "", "a1", "a1", names[1].index + 1000)));
+
+            // A null namespace name matches the first attribute of that local name
+            assertEquals("unqualified", parser.getAttributeValue(null, "a0"));
+            assertEquals("qualified", parser.getAttributeValue("urn:p", "a0"));
+            assertEquals("qualified", attributes.getValue("p:a0"));
+            assertNull(parser.getAttributeValue(null, "missing"));
+            assertNull(parser.getAttributeValue("urn:other", "a1"));
+            assertEquals(-1, attributes.getIndex("q:a0"));
+            elements++;
+        }
+        assertEquals(ELEMENTS, elements);
+    }
+
+    private static String value(int element, int attribute) {
+        return (attribute == 0) ? "unqualified" : "v" + element + "." + attribute;
+    }
+
+    private byte[] createDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("root");
+        for (int i = 0; i < ELEMENTS; i++) {
+            writer.writeStartElement("e");
+            writer.writeNamespace("p", "urn:p");
+            for (int j = 0; j < ATTRIBUTES; j++) {
+                writer.writeAttribute("a" + j, value(i, j));
+            }
+            writer.writeAttribute("p", "urn:p", "a0", "qualified");
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+}
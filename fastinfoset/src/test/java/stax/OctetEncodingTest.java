@@ -23,11 +23,14 @@ import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
 import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Random;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
 
 /**
  * @author Alexey Stashok
@@ -131,6 +134,78 @@ public class OctetEncodingTest extends TestCase implements
         in.close();
     }
     
+    public void testStreamedOctets() throws Exception {
+        byte[] data = createRandomBytes(50000);
+        StAXDocumentParser reader = createStreamingReader(data);
+        
+        assertEquals(CHARACTERS, reader.next());
+        assertEquals(EncodingAlgorithmIndexes.BASE64, reader.getTextAlgorithmIndex());
+        InputStream s = reader.getTextAlgorithmStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        byte[] b = new byte[1000];
+        int n;
+        while ((n = s.read(b)) != -1) {
+            read.write(b, 0, n);
+        }
+        assertTrue(Arrays.equals(data, read.toByteArray()));
+        
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("trailer", reader.getLocalName());
+    }
+    
+    public void testStreamedOctetsBuffered() throws Exception {
+        byte[] data = createRandomBytes(50000);
+        StAXDocumentParser reader = createStreamingReader(data);
+        
+        assertEquals(CHARACTERS, reader.next());
+        assertEquals(data.length, reader.getTextAlgorithmLength());
+        assertTrue(Arrays.equals(data, reader.getTextAlgorithmBytesClone()));
+        
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("trailer", reader.getLocalName());
+    }
+    
+    public void testStreamedOctetsSkipped() throws Exception {
+        byte[] data = createRandomBytes(50000);
+        StAXDocumentParser reader = createStreamingReader(data);
+        
+        assertEquals(CHARACTERS, reader.next());
+        InputStream s = reader.getTextAlgorithmStream();
+        assertEquals(data[0] & 0xFF, s.read());
+        try {
+            reader.getTextAlgorithmBytesClone();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("trailer", reader.getLocalName());
+    }
+    
+    private StAXDocumentParser createStreamingReader(byte[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer(out);
+        serializer.writeStartDocument();
+        serializer.writeStartElement("Envelope");
+        serializer.writeOctets(new ByteArrayInputStream(data), data.length);
+        serializer.writeEmptyElement("trailer");
+        serializer.writeEndElement();
+        serializer.writeEndDocument();
+        serializer.close();
+        
+        StAXDocumentParser reader = new StAXDocumentParser(new ByteArrayInputStream(out.toByteArray()));
+        reader.setAlgorithmDataStreamingThreshold(1024);
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("Envelope", reader.getLocalName());
+        return reader;
+    }
+    
+    private byte[] createRandomBytes(int length) {
+        byte[] b = new byte[length];
+        new Random().nextBytes(b);
+        return b;
+    }
+    
     private String createRandomString(int length) {
         StringBuffer sb = new StringBuffer(length);
         Random random = new Random();
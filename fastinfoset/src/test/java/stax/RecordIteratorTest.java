@@ -0,0 +1,138 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package stax;
+
+import com.sun.xml.fastinfoset.stax.RecordIterator;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.xml.stream.XMLStreamConstants;
+import junit.framework.TestCase;
+
+public class RecordIteratorTest extends TestCase {
+    private static final int RECORDS = 2000;
+
+    public void testIterator() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        RecordIterator records = new RecordIterator(parser, "urn:records", "record");
+
+        int i = 0;
+        while (records.hasNext()) {
+            RecordIterator.Record record = records.next();
+            assertEquals("record", record.getLocalName());
+            assertEquals("urn:records", record.getNamespaceURI());
+            assertEquals(2, record.getAttributeCount());
+            assertEquals(Integer.toString(i), record.getAttributeValue(null, "id"));
+            assertEquals((i % 2 == 0) ? "even" : "odd", record.getAttributeValue(null, "parity"));
+            assertNull(record.getAttributeValue(null, "missing"));
+
+            assertEquals(3, record.getChildCount());
+            assertEquals("name", record.getChildLocalName(0));
+            assertEquals("name" + i, record.getChildText(0));
+            assertEquals("value" + (i % 5), record.getChildText(null, "value"));
+            // The text of a grandchild is not part of the text of a child
+            assertEquals("before after", record.getChildText(null, "nested"));
+
+            int index = record.getChildIndex(null, "name");
+            assertEquals("name" + i, new String(record.getTextCharacters(),
+                    record.getChildTextStart(index), record.getChildTextLength(index)));
+            i++;
+        }
+        assertEquals(RECORDS, i);
+        assertEquals(XMLStreamConstants.END_DOCUMENT, parser.getEventType());
+    }
+
+    public void testNamespace() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        assertFalse(new RecordIterator(parser, "urn:other", "record").hasNext());
+    }
+
+    public void testParallelStream() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        RecordIterator records = new RecordIterator(parser, null, "record");
+        records.setBatchSize(16);
+
+        List<String> ids = records.parallelStream().
+                map(record -> record.getAttributeValue(null, "id") + ":" + record.getChildText(0)).
+                collect(Collectors.toList());
+
+        assertEquals(RECORDS, ids.size());
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals(i + ":name" + i, ids.get(i));
+        }
+    }
+
+    public void testStreamCollect() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        RecordIterator records = new RecordIterator(parser, null, "record");
+
+        // The records of the stream are not overwritten by the next records
+        List<RecordIterator.Record> list = records.stream().collect(Collectors.toList());
+        assertEquals(RECORDS, list.size());
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals(Integer.toString(i), list.get(i).getAttributeValue(null, "id"));
+            assertEquals("name" + i, list.get(i).getChildText(0));
+        }
+    }
+
+    public void testCopy() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        RecordIterator records = new RecordIterator(parser, null, "record");
+
+        RecordIterator.Record first = records.next().copy();
+        records.next();
+        assertEquals("0", first.getAttributeValue(0));
+        assertEquals("name0", first.getChildText(0));
+    }
+
+    private byte[] createDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("records");
+        writer.writeDefaultNamespace("urn:records");
+        for (int i = 0; i < RECORDS; i++) {
+            writer.writeStartElement("", "record", "urn:records");
+            writer.writeAttribute("id", Integer.toString(i));
+            writer.writeAttribute("parity", (i % 2 == 0) ? "even" : "odd");
+            writer.writeStartElement("", "name", "urn:records");
+            writer.writeCharacters("name" + i);
+            writer.writeEndElement();
+            writer.writeComment("comment");
+            writer.writeStartElement("", "value", "urn:records");
+            writer.writeCharacters("value" + (i % 5));
+            writer.writeEndElement();
+            writer.writeStartElement("", "nested", "urn:records");
+            writer.writeCharacters("before ");
+            writer.writeStartElement("", "record", "urn:records");
+            writer.writeCharacters("inner");
+            writer.writeEndElement();
+            writer.writeCharacters("after");
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package stax;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import junit.framework.TestCase;
+
+public class SkipElementTest extends TestCase implements XMLStreamConstants {
+
+    public void testSkipBody() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals("Envelope", parser.getLocalName());
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals("Header", parser.getLocalName());
+        assertEquals("header", parser.getElementText());
+
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals("Body", parser.getLocalName());
+        parser.skipElement();
+        assertEquals(END_ELEMENT, parser.getEventType());
+        assertEquals("Body", parser.getLocalName());
+
+        // The trailer refers to names and values added in the body
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals("item", parser.getLocalName());
+        assertEquals("urn:p", parser.getNamespaceURI());
+        assertEquals("3", parser.getAttributeValue("", "id"));
+        assertEquals("trailer", parser.getElementText());
+
+        assertEquals(END_ELEMENT, parser.nextTag());
+        assertEquals("Envelope", parser.getLocalName());
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testSkipLastChild() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("a");
+        writer.writeStartElement("b");
+        writer.writeStartElement("c");
+        writer.writeEmptyElement("d");
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeStartElement("e");
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals("b", parser.getLocalName());
+        parser.skipElement();
+        assertEquals("b", parser.getLocalName());
+
+        // An element with no children
+        assertEquals(START_ELEMENT, parser.nextTag());
+        assertEquals("e", parser.getLocalName());
+        parser.skipElement();
+        assertEquals(END_ELEMENT, parser.getEventType());
+        assertEquals("e", parser.getLocalName());
+
+        assertEquals(END_ELEMENT, parser.nextTag());
+        assertEquals("a", parser.getLocalName());
+        assertEquals(END_DOCUMENT, parser.next());
+    }
+
+    public void testNotOnStartElement() throws Exception {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(createDocument()));
+        try {
+            parser.skipElement();
+            fail();
+        } catch (XMLStreamException e) {
+        }
+    }
+
+    private byte[] createDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("Envelope");
+
+        writer.writeStartElement("Header");
+        writer.writeCharacters("header");
+        writer.writeEndElement();
+
+        writer.writeStartElement("Body");
+        for (int i = 0; i < 100; i++) {
+            writer.writeStartElement("p", "item", "urn:p");
+            writer.writeNamespace("p", "urn:p");
+            writer.writeAttribute("id", Integer.toString(i % 5));
+            writer.writeComment("comment");
+            writer.writeStartElement("value");
+            writer.writeCharacters("v" + (i % 7));
+            writer.writeEndElement();
+            writer.writeOctets(new byte[] {1, 2, 3}, 0, 3);
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeStartElement("p", "item", "urn:p");
+        writer.writeNamespace("p", "urn:p");
+        writer.writeAttribute("id", "3");
+        writer.writeCharacters("trailer");
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toByteArray();
+    }
+}
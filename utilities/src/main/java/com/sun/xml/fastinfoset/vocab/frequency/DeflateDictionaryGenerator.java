@@ -0,0 +1,158 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Oracle licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.vocab.frequency;
+
+import com.sun.xml.analysis.frequency.FrequencySet;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generate a preset dictionary for the deflate compression of Fast Infoset
+ * documents from a corpus of documents.
+ * <p>
+ * The documents of the corpus are to be encoded with the same vocabulary
+ * as the documents to be compressed, but without compression. The segments
+ * of octets that occur in the most documents of the corpus are placed in
+ * the dictionary, the most frequent segments at the end of the dictionary
+ * where they are the least costly to refer to.
+ * <p>
+ * The dictionary is set on the serializer and the parser, see
+ * {@link com.sun.xml.fastinfoset.Encoder#setDeflateCompression(boolean, byte[])}
+ * and {@link com.sun.xml.fastinfoset.Decoder#setDeflateDictionary(byte[])}.
+ */
+public class DeflateDictionaryGenerator {
+    /**
+     * The maximum size of a deflate dictionary, the size of the window
+     * of the deflate compression method.
+     */
+    public static final int MAXIMUM_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * The default size of the segments of octets.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 8;
+
+    private final int _segmentSize;
+
+    private final FrequencySet<String> _segments = new FrequencySet<String>();
+
+    private int _documents;
+
+    public DeflateDictionaryGenerator() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize the size of the segments of octets that are counted.
+     */
+    public DeflateDictionaryGenerator(int segmentSize) {
+        if (segmentSize < 3) {
+            throw new IllegalArgumentException();
+        }
+        _segmentSize = segmentSize;
+    }
+
+    /**
+     * Add a document to the corpus.
+     *
+     * @param document the octets of the encoded document.
+     */
+    public void add(byte[] document) {
+        // The segments are counted once for each document they occur in.
+        // They are held as strings of the ISO-8859-1 characters of the
+        // octets, a character for each octet.
+        final String s = new String(document, StandardCharsets.ISO_8859_1);
+        final Set<String> segments = new HashSet<String>();
+        for (int i = 0; i + _segmentSize <= s.length(); i++) {
+            final String segment = s.substring(i, i + _segmentSize);
+            if (segments.add(segment)) {
+                _segments.add(segment);
+            }
+        }
+        _documents++;
+    }
+
+    /**
+     * Get the number of documents of the corpus.
+     *
+     * @return the number of documents.
+     */
+    public int getDocumentCount() {
+        return _documents;
+    }
+
+    /**
+     * Generate the dictionary.
+     *
+     * @param size the maximum size of the dictionary.
+     * @return the dictionary, of segments that occur in at least two
+     *         documents of the corpus.
+     */
+    public byte[] generate(int size) {
+        if (size < 0 || size > MAXIMUM_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException();
+        }
+
+        final List<String> segments = _segments.createFrequencyBasedList();
+        final StringBuilder dictionary = new StringBuilder();
+        for (String segment : segments) {
+            if (dictionary.length() + _segmentSize > size || _segments.get(segment) < 2) {
+                break;
+            }
+
+            // Segments already in the dictionary, or overlapping its
+            // beginning, are not added again
+            if (dictionary.indexOf(segment) >= 0) {
+                continue;
+            }
+            final int overlap = overlap(segment, dictionary);
+            dictionary.insert(0, segment.substring(0, _segmentSize - overlap));
+        }
+
+        return dictionary.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Generate the dictionary of the maximum size.
+     *
+     * @return the dictionary.
+     */
+    public byte[] generate() {
+        return generate(MAXIMUM_DICTIONARY_SIZE);
+    }
+
+    /*
+     * The length of the longest suffix of the segment that is a prefix
+     * of the dictionary.
+     */
+    private static int overlap(String segment, CharSequence dictionary) {
+        for (int n = Math.min(segment.length() - 1, dictionary.length()); n > 0; n--) {
+            boolean match = true;
+            for (int i = 0; i < n && match; i++) {
+                match = segment.charAt(segment.length() - n + i) == dictionary.charAt(i);
+            }
+            if (match) {
+                return n;
+            }
+        }
+        return 0;
+    }
+}